@@ -0,0 +1,133 @@
+package com.roche.service.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.roche.service.order.Order;
+import com.roche.service.representation.ProtobufHttpMessageConverter;
+
+/**
+ * Compare the serialization time of a collection of orders, as returned by GET
+ * /orders, in each format the service supports. The bytes on the wire for each
+ * format are printed when the benchmark is set up.
+ *
+ * Run with - java -jar target/benchmarks.jar FormatBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+	private static final String BASE_URL = SyntheticDataset.BASE_URL;
+
+	private static final int PRODUCT_COUNT = 20;
+
+	private static final int PRODUCTS_PER_ORDER = 3;
+
+	/**
+	 * Number of orders in the collection.
+	 */
+	@Param({ "1", "100" })
+	private int orders;
+
+	private CollectionModel<EntityModel<Order>> collection;
+
+	private ObjectMapper json;
+	private ObjectMapper cbor;
+	private ObjectMapper smile;
+	private ProtobufHttpMessageConverter protobuf;
+
+	@Setup
+	public void setUp() throws IOException {
+		json = ObjectMappers.service(new JsonFactory());
+		cbor = ObjectMappers.service(new CBORFactory());
+		smile = ObjectMappers.service(new SmileFactory());
+		protobuf = new ProtobufHttpMessageConverter();
+
+		List<EntityModel<Order>> models = new ArrayList<EntityModel<Order>>();
+		for (Order order : SyntheticDataset
+				.generate(SyntheticDataset.DEFAULT_SEED, PRODUCT_COUNT, orders, PRODUCTS_PER_ORDER).withProductLinks()
+				.getOrders()) {
+			models.add(EntityModel.of(order, Link.of(BASE_URL + "orders/" + order.getOrderID()),
+					Link.of(BASE_URL + "orders").withRel("orders")));
+		}
+
+		collection = CollectionModel.of(models, Link.of(BASE_URL + "orders"));
+
+		System.out.printf("%n%d orders - json: %d bytes, cbor: %d bytes, smile: %d bytes, protobuf: %d bytes%n", orders,
+				json().length, cbor().length, smile().length, protobuf().length);
+	}
+
+	@Benchmark
+	public byte[] json() throws IOException {
+		return json.writeValueAsBytes(collection);
+	}
+
+	@Benchmark
+	public byte[] cbor() throws IOException {
+		return cbor.writeValueAsBytes(collection);
+	}
+
+	@Benchmark
+	public byte[] smile() throws IOException {
+		return smile.writeValueAsBytes(collection);
+	}
+
+	@Benchmark
+	public byte[] protobuf() throws IOException {
+		ByteArrayHttpOutputMessage outputMessage = new ByteArrayHttpOutputMessage();
+		protobuf.write(collection, ProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+		return outputMessage.body.toByteArray();
+	}
+
+	/**
+	 * Output message collecting the body written by a message converter.
+	 */
+	private static class ByteArrayHttpOutputMessage implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		@Override
+		public OutputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+	}
+
+}
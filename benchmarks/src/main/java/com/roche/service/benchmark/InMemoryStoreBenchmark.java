@@ -0,0 +1,166 @@
+package com.roche.service.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderController;
+import com.roche.service.order.OrderServiceApplication;
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductController;
+import com.roche.service.representation.RepresentationOptions;
+
+/**
+ * Measure the distribution of the time to retrieve an order and to place an
+ * order, through the order controller with the response written as HAL, with
+ * the orders and products in the H2 database through Hibernate (jpa) and in
+ * the in-memory store (inmemory). Compare the p0.99 percentiles reported.
+ *
+ * With the database, each request runs in a transaction, standing in for the
+ * session kept open for the request by the web layer.
+ *
+ * Run with - java -jar target/benchmarks.jar InMemoryStoreBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryStoreBenchmark {
+
+	private static final int PRODUCTS = 100;
+
+	private static final int ORDERS = 10_000;
+
+	private static final String PRODUCT = "{\"name\":\"Product %d\",\"price\":\"%d.25\"}";
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[{\"stockKeepingUnitID\":%d},{\"stockKeepingUnitID\":%d}]}";
+
+	/**
+	 * Store of the orders and products.
+	 */
+	@Param({ "jpa", "inmemory" })
+	private String backend;
+
+	private Path directory;
+
+	private ConfigurableApplicationContext context;
+
+	private OrderController orderController;
+
+	private ObjectMapper objectMapper;
+
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> stockKeepingUnitIDs = new ArrayList<Long>();
+
+	private final List<Long> orderIDs = new ArrayList<Long>();
+
+	@Setup
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("in-memory-store");
+
+		List<String> args = new ArrayList<String>(List.of("--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:orders;DB_CLOSE_DELAY=-1", "--spring.main.banner-mode=off",
+				"--logging.level.root=WARN", "--order-service.journal.enabled=false",
+				"--order-service.catalog.snapshot-enabled=false", "--order-service.query-budget.enabled=false"));
+
+		if (backend.equals("inmemory")) {
+			args.add("--spring.profiles.active=inmemory");
+			args.add("--order-service.in-memory.directory=" + directory);
+			args.add("--order-service.in-memory.snapshot-interval=0");
+		}
+
+		context = SpringApplication.run(
+				new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class },
+				args.toArray(new String[0]));
+
+		orderController = context.getBean(OrderController.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+		transactionTemplate = backend.equals("jpa")
+				? new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+				: null;
+
+		ProductController productController = context.getBean(ProductController.class);
+		for (int product = 0; product < PRODUCTS; product++) {
+			Product newProduct = objectMapper.readValue(String.format(PRODUCT, product, product), Product.class);
+			EntityModel<?> created = (EntityModel<?>) productController.newProduct(newProduct).getBody();
+			stockKeepingUnitIDs.add(((Product) created.getContent()).getStockKeepingUnitID());
+		}
+
+		for (int order = 0; order < ORDERS; order++) {
+			Order newOrder = newOrder();
+			EntityModel<?> placed = (EntityModel<?>) request(() -> orderController.newOrder(newOrder));
+			orderIDs.add(((Order) placed.getContent()).getOrderID());
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		context.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public byte[] retrieveOrder() throws IOException {
+		Long orderID = orderIDs.get(ThreadLocalRandom.current().nextInt(orderIDs.size()));
+		return objectMapper.writeValueAsBytes(request(() -> orderController.one(orderID, new RepresentationOptions())));
+	}
+
+	@Benchmark
+	public byte[] placeOrder() throws IOException {
+		Order order = newOrder();
+		return objectMapper.writeValueAsBytes(request(() -> orderController.newOrder(order)));
+	}
+
+	private Order newOrder() throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return objectMapper.readValue(String.format(ORDER, random.nextInt(1000),
+				stockKeepingUnitIDs.get(random.nextInt(PRODUCTS)), stockKeepingUnitIDs.get(random.nextInt(PRODUCTS))),
+				Order.class);
+	}
+
+	/**
+	 * Handle a request, in a transaction with the database, and get the body of
+	 * its response.
+	 */
+	private Object request(Supplier<ResponseEntity<?>> handler) {
+		return transactionTemplate == null ? handler.get().getBody()
+				: transactionTemplate.execute(status -> handler.get().getBody());
+	}
+
+}
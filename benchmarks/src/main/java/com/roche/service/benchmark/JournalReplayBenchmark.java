@@ -0,0 +1,85 @@
+package com.roche.service.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.journal.Journal;
+import com.roche.service.journal.RecordType;
+import com.roche.service.order.Order;
+
+/**
+ * Measure replaying the journal, in records per second, for orders placed as
+ * journaled by the service.
+ *
+ * Run with - java -jar target/benchmarks.jar JournalReplayBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalReplayBenchmark {
+
+	private static final int RECORDS = 100_000;
+
+	private static final int PRODUCT_COUNT = 100;
+
+	private static final int PRODUCTS_PER_ORDER = 3;
+
+	private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private Path directory;
+
+	private Journal journal;
+
+	@Setup
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("journal");
+		journal = Journal.open(directory, SEGMENT_SIZE, false);
+
+		ObjectMapper objectMapper = ObjectMappers.service(new JsonFactory());
+		for (Order order : SyntheticDataset
+				.generate(SyntheticDataset.DEFAULT_SEED, PRODUCT_COUNT, RECORDS, PRODUCTS_PER_ORDER).getOrders()) {
+			journal.append(RecordType.ORDER_PLACED, objectMapper.writeValueAsBytes(order));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		journal.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public long replay(Blackhole blackhole) throws IOException {
+		return journal.replay(1L, record -> blackhole.consume(record.getPayload()));
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.roche.service.benchmark;
+
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.roche.service.order.Amount;
+import com.roche.service.order.AmountSerializer;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderSerializer;
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductSerializer;
+
+/**
+ * Object mappers rendering representation models as HAL, configured outside of
+ * an application context for the benchmarks.
+ *
+ * @author amit modhvadia
+ *
+ */
+final class ObjectMappers {
+
+	private ObjectMappers() {
+	}
+
+	/**
+	 * Create an object mapper that renders representation models as HAL using
+	 * the serializers written by hand for orders, products and amounts, in the
+	 * same way as the service.
+	 *
+	 * @param factory JsonFactory - Factory for the format.
+	 * @return ObjectMapper - Object mapper for the format.
+	 */
+	static ObjectMapper service(JsonFactory factory) {
+		SimpleModule serializers = new SimpleModule("OrderServiceSerializers");
+		serializers.addSerializer(Order.class, new OrderSerializer());
+		serializers.addSerializer(Product.class, new ProductSerializer());
+		serializers.addSerializer(Amount.class, new AmountSerializer());
+
+		return reflective(factory).registerModule(serializers);
+	}
+
+	/**
+	 * Create an object mapper that renders representation models as HAL by
+	 * introspecting their properties.
+	 *
+	 * @param factory JsonFactory - Factory for the format.
+	 * @return ObjectMapper - Object mapper for the format.
+	 */
+	static ObjectMapper reflective(JsonFactory factory) {
+		ObjectMapper objectMapper = new ObjectMapper(factory);
+		objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		objectMapper.registerModule(new Jackson2HalModule());
+		objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+		return objectMapper;
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.roche.service.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.roche.service.analytics.OrderAnalytics;
+import com.roche.service.analytics.OrderLineFilter;
+import com.roche.service.analytics.OrderLineStore;
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Measure the revenue by product and the number of orders by hour over a year
+ * of orders, aggregated from the order lines held in memory against the
+ * equivalent SQL queries on an in-memory H2 database, which is kept from
+ * reusing the results of a query run before.
+ *
+ * Run with - java -jar target/benchmarks.jar OrderAnalyticsBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderAnalyticsBenchmark {
+
+	private static final int ORDERS = 100_000;
+
+	private static final int PRODUCTS = 100;
+
+	private static final int PRODUCTS_PER_ORDER = 3;
+
+	private static final Instant START = Instant.parse("2021-01-01T00:00:00Z");
+
+	private static final String REVENUE_BY_PRODUCT = "select po.stock_keeping_unit_id, "
+			+ "sum(cast(round(p.price * 100) as bigint)) from product_order po "
+			+ "join product p on p.stock_keeping_unit_id = po.stock_keeping_unit_id group by po.stock_keeping_unit_id";
+
+	private static final String ORDERS_BY_HOUR = "select hour, count(*) from (select "
+			+ "formatdatetime(order_placed_time, 'yyyy-MM-dd HH', 'en', 'UTC') as hour from roche_order o "
+			+ "where exists (select 1 from product_order po where po.order_id = o.order_id)) group by hour";
+
+	private ConfigurableApplicationContext context;
+
+	private JdbcTemplate database;
+
+	private OrderLineStore orderLines;
+
+	@Setup
+	public void setUp() {
+		String[] args = { "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+				"--spring.main.banner-mode=off", "--logging.level.root=WARN", "--order-service.journal.enabled=false",
+				"--order-service.catalog.snapshot-enabled=false", "--order-service.query-budget.enabled=false" };
+
+		context = SpringApplication
+				.run(new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class }, args);
+
+		database = context.getBean(JdbcTemplate.class);
+
+		List<Object[]> products = new ArrayList<Object[]>();
+		for (long sku = 1; sku <= PRODUCTS; sku++) {
+			products.add(new Object[] { sku, sku, Timestamp.from(START), false, "Product " + sku, 1.25 * sku });
+		}
+		database.batchUpdate("insert into product (stock_keeping_unit_id, change_version, creation_date, "
+				+ "deletion_flag, product_name, price) values (?, ?, ?, ?, ?, ?)", products);
+
+		// Orders spread evenly over the year.
+		long spacing = ChronoUnit.MILLIS.between(START, START.plus(365, ChronoUnit.DAYS)) / ORDERS;
+		List<Object[]> orders = new ArrayList<Object[]>();
+		List<Object[]> productOrders = new ArrayList<Object[]>();
+		for (long orderID = 1; orderID <= ORDERS; orderID++) {
+			orders.add(new Object[] { orderID, "buyer" + orderID % 1000 + "@testgmail.com",
+					Timestamp.from(START.plusMillis(orderID * spacing)) });
+			for (int product = 0; product < PRODUCTS_PER_ORDER; product++) {
+				productOrders.add(new Object[] { (orderID + product) % PRODUCTS + 1, orderID });
+			}
+		}
+		database.batchUpdate("insert into roche_order (order_id, buyer_email, order_placed_time) values (?, ?, ?)",
+				orders);
+		database.batchUpdate("insert into product_order (stock_keeping_unit_id, order_id) values (?, ?)",
+				productOrders);
+
+		OrderAnalytics orderAnalytics = context.getBean(OrderAnalytics.class);
+		orderAnalytics.load();
+		orderLines = orderAnalytics.getOrderLines();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Map<Long, Long> revenueByProductInMemory() {
+		return orderLines.sumPriceCentsByProduct(OrderLineFilter.all());
+	}
+
+	@Benchmark
+	public Map<Long, Long> revenueByProductSql() {
+		Map<Long, Long> revenue = new HashMap<Long, Long>();
+		database.query(REVENUE_BY_PRODUCT, resultSet -> {
+			revenue.put(resultSet.getLong(1), resultSet.getLong(2));
+		});
+		return revenue;
+	}
+
+	@Benchmark
+	public Map<Instant, Long> ordersByHourInMemory() {
+		return orderLines.countOrdersByHour(OrderLineFilter.all());
+	}
+
+	@Benchmark
+	public Map<String, Long> ordersByHourSql() {
+		Map<String, Long> orders = new HashMap<String, Long>();
+		database.query(ORDERS_BY_HOUR, resultSet -> {
+			orders.put(resultSet.getString(1), resultSet.getLong(2));
+		});
+		return orders;
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.roche.service.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderController;
+import com.roche.service.order.OrderServiceApplication;
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductController;
+import com.roche.service.representation.RepresentationOptions;
+
+/**
+ * Measure the distribution of the time to retrieve an order, its products and
+ * its total amount in turn, as clients do, through the order controller with
+ * the responses written as HAL, with and without the order cache. The orders
+ * are picked at random among 1000, all of which fit in the cache once read.
+ *
+ * Each request runs in a transaction, standing in for the session kept open
+ * for the request by the web layer.
+ *
+ * Run with - java -jar target/benchmarks.jar OrderCacheBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCacheBenchmark {
+
+	private static final int PRODUCTS = 100;
+
+	private static final int ORDERS = 1000;
+
+	private static final String PRODUCT = "{\"name\":\"Product %d\",\"price\":\"%d.25\"}";
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[{\"stockKeepingUnitID\":%d},{\"stockKeepingUnitID\":%d}]}";
+
+	/**
+	 * Whether the orders read are held in the order cache.
+	 */
+	@Param({ "false", "true" })
+	private boolean orderCache;
+
+	private ConfigurableApplicationContext context;
+
+	private OrderController orderController;
+
+	private ObjectMapper objectMapper;
+
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> orderIDs = new ArrayList<Long>();
+
+	@Setup
+	public void setUp() throws IOException {
+		context = SpringApplication.run(
+				new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class },
+				new String[] { "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:orders;DB_CLOSE_DELAY=-1",
+						"--spring.main.banner-mode=off", "--logging.level.root=WARN",
+						"--order-service.journal.enabled=false", "--order-service.catalog.snapshot-enabled=false",
+						"--order-service.query-budget.enabled=false",
+						"--order-service.order-cache.enabled=" + orderCache });
+
+		orderController = context.getBean(OrderController.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+		List<Long> stockKeepingUnitIDs = new ArrayList<Long>();
+		ProductController productController = context.getBean(ProductController.class);
+		for (int product = 0; product < PRODUCTS; product++) {
+			Product newProduct = objectMapper.readValue(String.format(PRODUCT, product, product), Product.class);
+			EntityModel<?> created = (EntityModel<?>) productController.newProduct(newProduct).getBody();
+			stockKeepingUnitIDs.add(((Product) created.getContent()).getStockKeepingUnitID());
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int order = 0; order < ORDERS; order++) {
+			Order newOrder = objectMapper.readValue(String.format(ORDER, order,
+					stockKeepingUnitIDs.get(random.nextInt(PRODUCTS)), stockKeepingUnitIDs.get(random.nextInt(PRODUCTS))),
+					Order.class);
+			EntityModel<?> placed = (EntityModel<?>) request(() -> orderController.newOrder(newOrder));
+			orderIDs.add(((Order) placed.getContent()).getOrderID());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int retrieveOrderProductsAndTotalAmount() throws IOException {
+		Long orderID = orderIDs.get(ThreadLocalRandom.current().nextInt(orderIDs.size()));
+
+		return objectMapper.writeValueAsBytes(request(() -> orderController.one(orderID, new RepresentationOptions())))
+				.length
+				+ objectMapper.writeValueAsBytes(request(() -> orderController.allOrderProducts(orderID))).length
+				+ objectMapper.writeValueAsBytes(request(() -> orderController.totalAmount(orderID))).length;
+	}
+
+	/**
+	 * Handle a request in a transaction and get the body of its response.
+	 */
+	private Object request(Supplier<ResponseEntity<?>> handler) {
+		return transactionTemplate.execute(status -> handler.get().getBody());
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.roche.service.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.Order;
+
+/**
+ * Compare the serializers written by hand for orders and products against
+ * Jackson introspecting their properties, for a single order as returned by GET
+ * /orders/{orderID}.
+ *
+ * Run with the GC profiler to see the allocation per serialized order -
+ * java -jar target/benchmarks.jar OrderSerializerBenchmark -prof gc
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializerBenchmark {
+
+	private static final String BASE_URL = SyntheticDataset.BASE_URL;
+
+	/**
+	 * Number of products in the order.
+	 */
+	@Param({ "1", "10", "100" })
+	private int products;
+
+	private EntityModel<Order> order;
+
+	private ObjectMapper handWritten;
+	private ObjectMapper reflective;
+
+	@Setup
+	public void setUp() {
+		handWritten = ObjectMappers.service(new JsonFactory());
+		reflective = ObjectMappers.reflective(new JsonFactory());
+
+		Order content = SyntheticDataset.generate(SyntheticDataset.DEFAULT_SEED, products, 1, products)
+				.withProductLinks().getOrders().get(0);
+
+		order = EntityModel.of(content, Link.of(BASE_URL + "orders/" + content.getOrderID()),
+				Link.of(BASE_URL + "orders").withRel("orders"));
+	}
+
+	@Benchmark
+	public byte[] handWritten() throws IOException {
+		return handWritten.writeValueAsBytes(order);
+	}
+
+	@Benchmark
+	public byte[] reflective() throws IOException {
+		return reflective.writeValueAsBytes(order);
+	}
+
+}
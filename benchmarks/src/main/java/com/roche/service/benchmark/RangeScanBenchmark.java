@@ -0,0 +1,123 @@
+package com.roche.service.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Measure GET /orders/{startDate}/{endDate} for a year of orders, read as a
+ * single query (parallelism 1) and split into monthly parts read in parallel,
+ * against an in-memory H2 database.
+ *
+ * The speed up depends on the cores available, so compare the results on the
+ * hardware the service runs on. Run with - java -jar target/benchmarks.jar
+ * RangeScanBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeScanBenchmark {
+
+	private static final int ORDERS = 20_000;
+
+	private static final int PRODUCTS = 100;
+
+	private static final int PRODUCTS_PER_ORDER = 3;
+
+	private static final Instant START = Instant.parse("2021-01-01T00:00:00Z");
+
+	/**
+	 * Parts of the year read at the same time.
+	 */
+	@Param({ "1", "2", "4", "8" })
+	private int parallelism;
+
+	private ServletWebServerApplicationContext context;
+
+	private HttpClient client;
+
+	private HttpRequest request;
+
+	@Setup
+	public void setUp() {
+		String[] args = { "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:range-scan;DB_CLOSE_DELAY=-1",
+				"--spring.main.banner-mode=off", "--logging.level.root=WARN", "--order-service.journal.enabled=false",
+				"--order-service.catalog.snapshot-enabled=false", "--order-service.query-budget.enabled=false",
+				"--order-service.range-scan.parallelism=" + parallelism, "--order-service.range-scan.split-size=P30D" };
+
+		context = (ServletWebServerApplicationContext) SpringApplication
+				.run(new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class }, args);
+
+		JdbcTemplate database = context.getBean(JdbcTemplate.class);
+
+		List<Object[]> products = new ArrayList<Object[]>();
+		for (long sku = 1; sku <= PRODUCTS; sku++) {
+			products.add(new Object[] { sku, sku, Timestamp.from(START), false, "Product " + sku, 1.25 * sku });
+		}
+		database.batchUpdate("insert into product (stock_keeping_unit_id, change_version, creation_date, "
+				+ "deletion_flag, product_name, price) values (?, ?, ?, ?, ?, ?)", products);
+
+		// Orders spread evenly over the year.
+		long spacing = ChronoUnit.MILLIS.between(START, START.plus(365, ChronoUnit.DAYS)) / ORDERS;
+		List<Object[]> orders = new ArrayList<Object[]>();
+		List<Object[]> productOrders = new ArrayList<Object[]>();
+		for (long orderID = 1; orderID <= ORDERS; orderID++) {
+			orders.add(new Object[] { orderID, "buyer" + orderID % 1000 + "@testgmail.com",
+					Timestamp.from(START.plusMillis(orderID * spacing)) });
+			for (int product = 0; product < PRODUCTS_PER_ORDER; product++) {
+				productOrders.add(new Object[] { (orderID + product) % PRODUCTS + 1, orderID });
+			}
+		}
+		database.batchUpdate("insert into roche_order (order_id, buyer_email, order_placed_time) values (?, ?, ?)",
+				orders);
+		database.batchUpdate("insert into product_order (stock_keeping_unit_id, order_id) values (?, ?)",
+				productOrders);
+
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		request = HttpRequest.newBuilder(URI.create("http://localhost:" + context.getWebServer().getPort()
+				+ "/orders/2021-01-01T00A00/2021-12-31T23A59")).header("Accept", "application/hal+json").build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public byte[] yearOfOrders() throws IOException, InterruptedException {
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+	}
+
+}
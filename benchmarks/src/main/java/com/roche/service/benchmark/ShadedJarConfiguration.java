@@ -0,0 +1,41 @@
+package com.roche.service.benchmark;
+
+import java.net.URL;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Configuration added to the service when it is started from the shaded
+ * benchmarks jar.
+ *
+ * The persistence unit root otherwise defaults to the root of the class path,
+ * which cannot be resolved when the class path is a single jar without a root
+ * directory entry, so it is set to the jar the service classes are loaded from.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration(proxyBeanMethods = false)
+public class ShadedJarConfiguration {
+
+	@Bean
+	static BeanPostProcessor persistenceUnitRootLocation() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+					URL location = OrderServiceApplication.class.getProtectionDomain().getCodeSource().getLocation();
+					((LocalContainerEntityManagerFactoryBean) bean).setPersistenceUnitRootLocation(location.toString());
+				}
+				return bean;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.roche.service.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Measure placing orders from several threads, in orders per second, against
+ * H2 database files, with the orders in the database of the service (0 shards)
+ * and spread across a rising number of shards.
+ *
+ * Run with - java -jar target/benchmarks.jar ShardedWriteBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ShardedWriteBenchmark {
+
+	private static final int BUYERS = 10_000;
+
+	/**
+	 * Number of shards the orders are stored in, none for the database of the
+	 * service.
+	 */
+	@Param({ "0", "1", "2", "4", "8" })
+	private int shards;
+
+	private Path directory;
+
+	private ConfigurableApplicationContext context;
+
+	private OrderRepository orderRepository;
+
+	@Setup
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("sharding");
+
+		List<String> args = new ArrayList<String>(List.of("--server.port=0",
+				"--spring.datasource.url=jdbc:h2:" + directory.resolve("order"), "--spring.main.banner-mode=off",
+				"--logging.level.root=WARN", "--order-service.journal.enabled=false",
+				"--order-service.catalog.snapshot-enabled=false"));
+
+		if (shards > 0) {
+			args.add("--order-service.sharding.enabled=true");
+			args.add("--order-service.sharding.shards=" + shards);
+			args.add("--order-service.sharding.url=jdbc:h2:" + directory.resolve("order-shard-{shard}"));
+		}
+
+		context = SpringApplication.run(
+				new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class },
+				args.toArray(new String[0]));
+		orderRepository = context.getBean(OrderRepository.class);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		context.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public Order placeOrder() {
+		return orderRepository
+				.save(new Order("buyer" + ThreadLocalRandom.current().nextInt(BUYERS) + "@testgmail.com"));
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.roche.service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Measure the time the service takes to start in a fresh JVM, against an
+ * in-memory H2 database, with the default profile and with the fast-startup
+ * profile (schema migrated by Flyway and lazy initialization).
+ *
+ * Each fork starts the service once, so that the JVM is cold, as when scaling
+ * out. Run with the default forks and iterations - java -jar
+ * target/benchmarks.jar StartupBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+	/**
+	 * Spring profile the service is started with.
+	 */
+	@Param({ "default", "fast-startup" })
+	private String profile;
+
+	private ConfigurableApplicationContext context;
+
+	@Benchmark
+	public ConfigurableApplicationContext start() {
+		List<String> args = new ArrayList<String>(List.of("--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1", "--spring.main.banner-mode=off",
+				"--logging.level.root=WARN", "--order-service.journal.enabled=false",
+				"--order-service.catalog.snapshot-enabled=false"));
+
+		if (!"default".equals(profile)) {
+			args.add("--spring.profiles.active=" + profile);
+		}
+
+		context = SpringApplication.run(
+				new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class },
+				args.toArray(new String[0]));
+		return context;
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		context.close();
+	}
+
+}
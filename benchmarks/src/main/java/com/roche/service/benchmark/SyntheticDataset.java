@@ -0,0 +1,133 @@
+package com.roche.service.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.hateoas.Link;
+import org.springframework.util.ReflectionUtils;
+
+import com.roche.service.order.Order;
+import com.roche.service.product.Product;
+
+/**
+ * Products and orders generated from a seed, so that every run of a benchmark
+ * works on the same data. The entities are not persisted; their IDs and dates
+ * are assigned directly.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class SyntheticDataset {
+
+	/**
+	 * Seed used by the benchmarks unless one is provided.
+	 */
+	public static final long DEFAULT_SEED = 20200817L;
+
+	/**
+	 * Base URL of the referential links.
+	 */
+	public static final String BASE_URL = "http://localhost:8080/";
+
+	/**
+	 * Time the first order is placed - 2020-08-01 00:00 UTC.
+	 */
+	private static final long FIRST_ORDER_PLACED_TIME = 1596240000000L;
+
+	private static final long MILLISECONDS_PER_MINUTE = 60_000L;
+
+	private static final Field ORDER_ID = field(Order.class, "orderID");
+	private static final Field ORDER_PLACED_TIME = field(Order.class, "orderPlacedTime");
+	private static final Field CREATION_DATE = field(Product.class, "creationDate");
+
+	private final List<Product> products;
+	private final List<Order> orders;
+
+	private SyntheticDataset(List<Product> products, List<Order> orders) {
+		this.products = products;
+		this.orders = orders;
+	}
+
+	/**
+	 * Generate products, and orders made up of products picked at random.
+	 *
+	 * @param seed             long - Seed for the random choices.
+	 * @param productCount     int - Number of products.
+	 * @param orderCount       int - Number of orders.
+	 * @param productsPerOrder int - Number of products in each order.
+	 * @return SyntheticDataset - Products and orders generated.
+	 */
+	public static SyntheticDataset generate(long seed, int productCount, int orderCount, int productsPerOrder) {
+		Random random = new Random(seed);
+
+		List<Product> products = new ArrayList<Product>(productCount);
+		for (long stockKeepingUnitID = 1; stockKeepingUnitID <= productCount; stockKeepingUnitID++) {
+			Product product = new Product(stockKeepingUnitID);
+			product.setName("Product " + stockKeepingUnitID);
+			product.setPrice(Float.valueOf((100 + random.nextInt(9900)) / 100.0f));
+			ReflectionUtils.setField(CREATION_DATE, product, new Date(FIRST_ORDER_PLACED_TIME
+					- random.nextInt(60 * 24 * 30) * MILLISECONDS_PER_MINUTE));
+			products.add(product);
+		}
+
+		List<Order> orders = new ArrayList<Order>(orderCount);
+		long orderPlacedTime = FIRST_ORDER_PLACED_TIME;
+		for (long orderID = 1; orderID <= orderCount; orderID++) {
+			Order order = new Order("buyer" + random.nextInt(orderCount) + "@testgmail.com");
+			ReflectionUtils.setField(ORDER_ID, order, Long.valueOf(orderID));
+
+			orderPlacedTime += random.nextInt(10) * MILLISECONDS_PER_MINUTE;
+			ReflectionUtils.setField(ORDER_PLACED_TIME, order, new Date(orderPlacedTime));
+
+			for (int index = 0; index < productsPerOrder; index++) {
+				order.getProducts().add(products.get(random.nextInt(productCount)));
+			}
+			orders.add(order);
+		}
+
+		return new SyntheticDataset(products, orders);
+	}
+
+	/**
+	 * Add the referential links the service adds to each product, pointing back
+	 * to the product itself and to the collection of products.
+	 *
+	 * @return SyntheticDataset - This dataset.
+	 */
+	public SyntheticDataset withProductLinks() {
+		for (Product product : products) {
+			product.add(Link.of(BASE_URL + "products/" + product.getStockKeepingUnitID()),
+					Link.of(BASE_URL + "products").withRel("products"));
+		}
+		return this;
+	}
+
+	/**
+	 * Get the products generated.
+	 *
+	 * @return List<Product> - Products.
+	 */
+	public List<Product> getProducts() {
+		return Collections.unmodifiableList(products);
+	}
+
+	/**
+	 * Get the orders generated, in the order they were placed.
+	 *
+	 * @return List<Order> - Orders.
+	 */
+	public List<Order> getOrders() {
+		return Collections.unmodifiableList(orders);
+	}
+
+	private static Field field(Class<?> type, String name) {
+		Field field = ReflectionUtils.findField(type, name);
+		ReflectionUtils.makeAccessible(field);
+		return field;
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.roche.service.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Random;
+
+/**
+ * Endpoints of the service driven by a load test, each building a request for
+ * an order or product chosen at random from those created before the test.
+ *
+ * @author amit modhvadia
+ *
+ */
+enum Endpoint {
+
+	/**
+	 * POST /orders
+	 */
+	PLACE_ORDER("placeOrder") {
+		@Override
+		HttpRequest request(LoadTestData data, Random random) {
+			return post(data.getBaseUrl() + "orders", data.orderBody(random));
+		}
+	},
+
+	/**
+	 * GET /orders/{orderID}
+	 */
+	GET_ORDER("getOrder") {
+		@Override
+		HttpRequest request(LoadTestData data, Random random) {
+			return get(data.getBaseUrl() + "orders/" + data.orderID(random));
+		}
+	},
+
+	/**
+	 * GET /orders/{startDate}/{endDate}
+	 */
+	ORDERS_IN_TIME_PERIOD("ordersInTimePeriod") {
+		@Override
+		HttpRequest request(LoadTestData data, Random random) {
+			return get(data.getBaseUrl() + "orders/" + data.getStartDate() + "/" + data.getEndDate());
+		}
+	},
+
+	/**
+	 * GET /orders/{orderID}/calculatetotalamount
+	 */
+	TOTAL_AMOUNT("totalAmount") {
+		@Override
+		HttpRequest request(LoadTestData data, Random random) {
+			return get(data.getBaseUrl() + "orders/" + data.orderID(random) + "/calculatetotalamount");
+		}
+	};
+
+	private static final String JSON = "application/json";
+
+	/**
+	 * Name of the endpoint in the options and the report.
+	 */
+	private final String displayName;
+
+	Endpoint(String displayName) {
+		this.displayName = displayName;
+	}
+
+	/**
+	 * Build a request for this endpoint.
+	 *
+	 * @param data   LoadTestData - Orders and products created before the test.
+	 * @param random Random - Chooses the order or products requested.
+	 * @return HttpRequest - Request for this endpoint.
+	 */
+	abstract HttpRequest request(LoadTestData data, Random random);
+
+	/**
+	 * Get the name of the endpoint in the options and the report.
+	 *
+	 * @return String - Name of the endpoint.
+	 */
+	String getDisplayName() {
+		return displayName;
+	}
+
+	/**
+	 * Find the endpoint with the name provided.
+	 *
+	 * @param displayName String - Name of the endpoint.
+	 * @return Endpoint - Endpoint with the name.
+	 * @throws IllegalArgumentException - If there is no endpoint with the name.
+	 */
+	static Endpoint of(String displayName) {
+		for (Endpoint endpoint : values()) {
+			if (endpoint.displayName.equals(displayName)) {
+				return endpoint;
+			}
+		}
+		throw new IllegalArgumentException("Unknown endpoint " + displayName);
+	}
+
+	static HttpRequest get(String url) {
+		return HttpRequest.newBuilder(URI.create(url)).header("Accept", JSON).GET().build();
+	}
+
+	static HttpRequest post(String url, String body) {
+		return HttpRequest.newBuilder(URI.create(url)).header("Accept", JSON).header("Content-Type", JSON)
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.roche.service.loadtest;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency and errors of the requests sent to an endpoint. The latency of a
+ * request is measured from the time it was meant to be sent, so that requests
+ * delayed by a slow service are not left out (coordinated omission).
+ *
+ * @author amit modhvadia
+ *
+ */
+class EndpointStatistics {
+
+	private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+	private final Endpoint endpoint;
+
+	/**
+	 * Latency of the requests in nanoseconds, with 3 significant digits.
+	 */
+	private final Recorder latency = new Recorder(3);
+
+	private final AtomicLong errors = new AtomicLong();
+
+	/**
+	 * Latency recorded since the last reset.
+	 */
+	private Histogram histogram;
+
+	/**
+	 * Constructor for Endpoint Statistics.
+	 *
+	 * @param endpoint Endpoint - Endpoint the requests are sent to.
+	 */
+	EndpointStatistics(Endpoint endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * Record the outcome of a request.
+	 *
+	 * @param latencyNanos long - Time from when the request was meant to be sent
+	 *                     until its response was received.
+	 * @param succeeded    boolean - True if the response had a success status.
+	 */
+	void record(long latencyNanos, boolean succeeded) {
+		latency.recordValue(latencyNanos);
+		if (!succeeded) {
+			errors.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Discard everything recorded so far, such as during warm up.
+	 */
+	void reset() {
+		latency.reset();
+		errors.set(0);
+		histogram = null;
+	}
+
+	/**
+	 * Take the latency recorded since the last reset.
+	 */
+	void complete() {
+		histogram = latency.getIntervalHistogram();
+	}
+
+	/**
+	 * Print a line of the report for this endpoint.
+	 *
+	 * @param out            PrintStream - Stream to print the line to.
+	 * @param elapsedSeconds double - Time the requests were sent for.
+	 */
+	void report(PrintStream out, double elapsedSeconds) {
+		out.printf("%-20s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f%n", endpoint.getDisplayName(),
+				histogram.getTotalCount(), errors.get(), histogram.getTotalCount() / elapsedSeconds,
+				milliseconds(histogram.getValueAtPercentile(50.0)), milliseconds(histogram.getValueAtPercentile(99.0)),
+				milliseconds(histogram.getValueAtPercentile(99.9)), milliseconds(histogram.getMaxValue()));
+	}
+
+	/**
+	 * Write the latency distribution for this endpoint in milliseconds, in the
+	 * HdrHistogram percentile format (.hgrm) that can be plotted.
+	 *
+	 * @param directory Path - Directory to write the distribution to.
+	 * @throws FileNotFoundException - If the file could not be created.
+	 */
+	void writeDistribution(Path directory) throws FileNotFoundException {
+		try (PrintStream out = new PrintStream(directory.resolve(endpoint.getDisplayName() + ".hgrm").toFile())) {
+			histogram.outputPercentileDistribution(out, NANOSECONDS_PER_MILLISECOND);
+		}
+	}
+
+	private static double milliseconds(long nanoseconds) {
+		return nanoseconds / NANOSECONDS_PER_MILLISECOND;
+	}
+
+}
@@ -0,0 +1,240 @@
+package com.roche.service.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.benchmark.ShadedJarConfiguration;
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Load test for the Order Service. Starts the service against an in-memory H2
+ * database (or uses a running service), creates products and places orders,
+ * then sends a mix of requests at a fixed rate and reports the throughput and
+ * latency percentiles of each endpoint.
+ *
+ * Requests are sent at the times set by the rate whether or not earlier
+ * responses have been received, and latency is measured from those times, so a
+ * slow service shows up as higher latency rather than as fewer requests.
+ *
+ * Run with - java -cp target/benchmarks.jar com.roche.service.loadtest.LoadTest
+ * --rate=200 --duration=60
+ *
+ * @author amit modhvadia
+ *
+ */
+public class LoadTest {
+
+	private static final long NANOSECONDS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final HttpClient client;
+	private final LoadTestData data;
+	private final LoadTestOptions options;
+	private final Random random;
+	private final Semaphore inFlight;
+
+	/**
+	 * Endpoints to choose from, each repeated according to its weight.
+	 */
+	private final Endpoint[] endpoints;
+
+	private final Map<Endpoint, EndpointStatistics> statistics = new EnumMap<Endpoint, EndpointStatistics>(
+			Endpoint.class);
+
+	/**
+	 * Constructor for Load Test.
+	 *
+	 * @param client  HttpClient - Client sending the requests.
+	 * @param data    LoadTestData - Orders and products created before the test.
+	 * @param options LoadTestOptions - Rate, duration and mix of the requests.
+	 */
+	LoadTest(HttpClient client, LoadTestData data, LoadTestOptions options) {
+		this.client = client;
+		this.data = data;
+		this.options = options;
+		this.random = new Random(options.getSeed());
+		this.inFlight = new Semaphore(options.getMaxInFlight());
+
+		List<Endpoint> weighted = new ArrayList<Endpoint>();
+		for (Map.Entry<Endpoint, Integer> entry : options.getMix().entrySet()) {
+			statistics.put(entry.getKey(), new EndpointStatistics(entry.getKey()));
+			for (int weight = 0; weight < entry.getValue(); weight++) {
+				weighted.add(entry.getKey());
+			}
+		}
+		this.endpoints = weighted.toArray(new Endpoint[0]);
+	}
+
+	/**
+	 * Main method for the load test.
+	 *
+	 * @param args String [] - Options in the form --name=value, see
+	 *             LoadTestOptions.
+	 * @throws Exception - If the service could not be started or seeded.
+	 */
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+
+		ConfigurableApplicationContext context = null;
+		String baseUrl = options.getUrl();
+
+		if (baseUrl == null) {
+			context = SpringApplication.run(
+					new Class<?>[] { OrderServiceApplication.class, ShadedJarConfiguration.class },
+					new String[] { "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+							"--spring.jpa.hibernate.ddl-auto=create-drop", "--spring.main.banner-mode=off",
+							"--logging.level.root=WARN" });
+			baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/";
+		} else if (!baseUrl.endsWith("/")) {
+			baseUrl = baseUrl + "/";
+		}
+
+		try {
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+			LoadTest loadTest = new LoadTest(client, seed(client, baseUrl, options), options);
+
+			System.out.printf("Warming up for %d seconds%n", options.getWarmup());
+			loadTest.run(options.getWarmup());
+			loadTest.statistics.values().forEach(EndpointStatistics::reset);
+
+			System.out.printf("Sending %d requests per second for %d seconds%n", options.getRate(),
+					options.getDuration());
+			long elapsedNanos = loadTest.run(options.getDuration());
+
+			loadTest.report(elapsedNanos / (double) NANOSECONDS_PER_SECOND);
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+	}
+
+	/**
+	 * Create the products and place the orders the requests of the test refer to.
+	 *
+	 * @param client  HttpClient - Client sending the requests.
+	 * @param baseUrl String - URL of the service, ending with a slash.
+	 * @param options LoadTestOptions - Number of products and orders.
+	 * @return LoadTestData - Orders and products created.
+	 * @throws IOException          - If a request could not be sent.
+	 * @throws InterruptedException - If interrupted while waiting for a response.
+	 */
+	private static LoadTestData seed(HttpClient client, String baseUrl, LoadTestOptions options)
+			throws IOException, InterruptedException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		Random random = new Random(options.getSeed());
+
+		System.out.printf("Creating %d products and placing %d orders at %s%n", options.getProducts(),
+				options.getOrders(), baseUrl);
+
+		List<Long> stockKeepingUnitIDs = new ArrayList<Long>(options.getProducts());
+		for (int index = 0; index < options.getProducts(); index++) {
+			String product = "{\"name\":\"Product " + index + "\",\"price\":" + (100 + random.nextInt(9900)) / 100.0f
+					+ "}";
+			stockKeepingUnitIDs.add(objectMapper
+					.readTree(send(client, Endpoint.post(baseUrl + "products", product))).path("stockKeepingUnitID")
+					.asLong());
+		}
+
+		Date firstOrderPlaced = new Date();
+		List<Long> orderIDs = new ArrayList<Long>(options.getOrders());
+		for (int index = 0; index < options.getOrders(); index++) {
+			String order = LoadTestData.orderBody(random, stockKeepingUnitIDs, options.getProductsPerOrder());
+			orderIDs.add(objectMapper.readTree(send(client, Endpoint.post(baseUrl + "orders", order)))
+					.path("orderID").asLong());
+		}
+
+		return new LoadTestData(baseUrl, stockKeepingUnitIDs, orderIDs, options.getProductsPerOrder(),
+				firstOrderPlaced);
+	}
+
+	private static String send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() >= 400) {
+			throw new IOException(request.uri() + " returned " + response.statusCode());
+		}
+		return response.body();
+	}
+
+	/**
+	 * Send requests at the rate set for the number of seconds provided, and wait
+	 * for all their responses.
+	 *
+	 * @param seconds int - Seconds to send requests for.
+	 * @return long - Nanoseconds from the first request until the last response.
+	 * @throws InterruptedException - If interrupted while waiting.
+	 */
+	private long run(int seconds) throws InterruptedException {
+		long interval = NANOSECONDS_PER_SECOND / options.getRate();
+		long requests = (long) seconds * options.getRate();
+		long start = System.nanoTime();
+
+		for (long index = 0; index < requests; index++) {
+			long intendedStart = start + index * interval;
+
+			for (long wait = intendedStart - System.nanoTime(); wait > 0; wait = intendedStart - System.nanoTime()) {
+				LockSupport.parkNanos(wait);
+			}
+
+			Endpoint endpoint = endpoints[random.nextInt(endpoints.length)];
+			HttpRequest request = endpoint.request(data, random);
+			EndpointStatistics endpointStatistics = statistics.get(endpoint);
+
+			inFlight.acquire();
+			client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+				inFlight.release();
+				endpointStatistics.record(System.nanoTime() - intendedStart,
+						failure == null && response.statusCode() < 400);
+			});
+		}
+
+		// Wait for the responses still outstanding.
+		inFlight.acquire(options.getMaxInFlight());
+		inFlight.release(options.getMaxInFlight());
+
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Print the throughput and latency percentiles of each endpoint, and write
+	 * their latency distributions if an output directory was provided.
+	 *
+	 * @param elapsedSeconds double - Time the requests were sent for.
+	 * @throws IOException - If a latency distribution could not be written.
+	 */
+	private void report(double elapsedSeconds) throws IOException {
+		System.out.printf("%n%-20s %10s %8s %12s %10s %10s %10s %10s%n", "endpoint", "requests", "errors",
+				"requests/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+		Path output = options.getOutput() == null ? null : Files.createDirectories(Paths.get(options.getOutput()));
+
+		for (EndpointStatistics endpointStatistics : statistics.values()) {
+			endpointStatistics.complete();
+			endpointStatistics.report(System.out, elapsedSeconds);
+
+			if (output != null) {
+				endpointStatistics.writeDistribution(output);
+			}
+		}
+	}
+
+}
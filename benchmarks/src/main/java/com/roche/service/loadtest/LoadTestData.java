@@ -0,0 +1,107 @@
+package com.roche.service.loadtest;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+/**
+ * Orders and products created before a load test, which the requests of the
+ * test refer to.
+ *
+ * @author amit modhvadia
+ *
+ */
+class LoadTestData {
+
+	/**
+	 * Format of the dates in the path of GET /orders/{startDate}/{endDate}.
+	 */
+	private static final String REQUEST_DATE_FORMAT = "yyyy-MM-dd'T'HH'A'mm";
+
+	private static final long MILLISECONDS_PER_MINUTE = 60_000L;
+
+	private final String baseUrl;
+	private final List<Long> stockKeepingUnitIDs;
+	private final List<Long> orderIDs;
+	private final int productsPerOrder;
+	private final String startDate;
+	private final String endDate;
+
+	/**
+	 * Constructor for Load Test Data.
+	 *
+	 * @param baseUrl             String - URL of the service, ending with a slash.
+	 * @param stockKeepingUnitIDs List<Long> - Products created.
+	 * @param orderIDs            List<Long> - Orders placed.
+	 * @param productsPerOrder    int - Number of products in each order placed.
+	 * @param firstOrderPlaced    Date - Time the first order was placed. Orders
+	 *                            in time period are requested for the minute the
+	 *                            first order was placed in, and the next minute.
+	 */
+	LoadTestData(String baseUrl, List<Long> stockKeepingUnitIDs, List<Long> orderIDs, int productsPerOrder,
+			Date firstOrderPlaced) {
+		this.baseUrl = baseUrl;
+		this.stockKeepingUnitIDs = List.copyOf(stockKeepingUnitIDs);
+		this.orderIDs = List.copyOf(orderIDs);
+		this.productsPerOrder = productsPerOrder;
+
+		SimpleDateFormat dateFormat = new SimpleDateFormat(REQUEST_DATE_FORMAT);
+		dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		long startMinute = firstOrderPlaced.getTime() / MILLISECONDS_PER_MINUTE * MILLISECONDS_PER_MINUTE;
+		this.startDate = dateFormat.format(new Date(startMinute));
+		this.endDate = dateFormat.format(new Date(startMinute + 2 * MILLISECONDS_PER_MINUTE));
+	}
+
+	/**
+	 * Build the JSON body of an order for products chosen at random.
+	 *
+	 * @param random Random - Chooses the buyer and products.
+	 * @return String - JSON body of the order.
+	 */
+	String orderBody(Random random) {
+		return orderBody(random, stockKeepingUnitIDs, productsPerOrder);
+	}
+
+	/**
+	 * Build the JSON body of an order for products chosen at random.
+	 *
+	 * @param random              Random - Chooses the buyer and products.
+	 * @param stockKeepingUnitIDs List<Long> - Products to choose from.
+	 * @param productsPerOrder    int - Number of products in the order.
+	 * @return String - JSON body of the order.
+	 */
+	static String orderBody(Random random, List<Long> stockKeepingUnitIDs, int productsPerOrder) {
+		String products = random.ints(productsPerOrder, 0, stockKeepingUnitIDs.size())
+				.mapToObj(index -> "{\"stockKeepingUnitID\":" + stockKeepingUnitIDs.get(index) + "}")
+				.collect(Collectors.joining(","));
+
+		return "{\"buyerEmail\":\"buyer" + random.nextInt(10_000) + "@testgmail.com\",\"products\":[" + products
+				+ "]}";
+	}
+
+	/**
+	 * Choose one of the orders placed at random.
+	 *
+	 * @param random Random - Chooses the order.
+	 * @return Long - Order ID.
+	 */
+	Long orderID(Random random) {
+		return orderIDs.get(random.nextInt(orderIDs.size()));
+	}
+
+	String getBaseUrl() {
+		return baseUrl;
+	}
+
+	String getStartDate() {
+		return startDate;
+	}
+
+	String getEndDate() {
+		return endDate;
+	}
+
+}
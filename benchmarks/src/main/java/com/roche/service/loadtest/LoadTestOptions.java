@@ -0,0 +1,200 @@
+package com.roche.service.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Options for a load test, provided as --name=value arguments.
+ *
+ * Example - --rate=200 --duration=60 --mix=placeOrder:10,getOrder:60,ordersInTimePeriod:10,totalAmount:20
+ *
+ * @author amit modhvadia
+ *
+ */
+class LoadTestOptions {
+
+	private static final String PREFIX = "--";
+	private static final String VALUE_SEPARATOR = "=";
+	private static final String MIX_SEPARATOR = ",";
+	private static final String WEIGHT_SEPARATOR = ":";
+
+	/**
+	 * URL of a running service. The service is started against an in-memory H2
+	 * database when not provided.
+	 */
+	private String url;
+
+	/**
+	 * Requests sent per second, across all endpoints.
+	 */
+	private int rate = 100;
+
+	/**
+	 * Seconds the requests are sent and measured for.
+	 */
+	private int duration = 60;
+
+	/**
+	 * Seconds the requests are sent for before measuring, so that the service is
+	 * compiled and its caches are populated.
+	 */
+	private int warmup = 15;
+
+	/**
+	 * Number of products created before the test.
+	 */
+	private int products = 100;
+
+	/**
+	 * Number of orders placed before the test.
+	 */
+	private int orders = 500;
+
+	/**
+	 * Number of products in each order placed.
+	 */
+	private int productsPerOrder = 3;
+
+	/**
+	 * Maximum number of requests waiting for a response. Requests are delayed
+	 * beyond this, and the delay counts towards their latency.
+	 */
+	private int maxInFlight = 256;
+
+	/**
+	 * Seed for choosing the endpoints, orders and products.
+	 */
+	private long seed = 20200817L;
+
+	/**
+	 * Directory the latency distribution of each endpoint is written to, not
+	 * written when not provided.
+	 */
+	private String output;
+
+	/**
+	 * Relative weight of each endpoint in the requests sent.
+	 */
+	private final Map<Endpoint, Integer> mix = new EnumMap<Endpoint, Integer>(Endpoint.class);
+
+	/**
+	 * Parse the options from the arguments provided.
+	 *
+	 * @param args String[] - Arguments in the form --name=value.
+	 * @return LoadTestOptions - Options parsed.
+	 * @throws IllegalArgumentException - If an argument is not recognised.
+	 */
+	static LoadTestOptions parse(String[] args) {
+		LoadTestOptions options = new LoadTestOptions();
+		options.setMix("placeOrder:10,getOrder:60,ordersInTimePeriod:10,totalAmount:20");
+
+		for (String arg : args) {
+			if (!arg.startsWith(PREFIX) || !arg.contains(VALUE_SEPARATOR)) {
+				throw new IllegalArgumentException("Expected --name=value but was " + arg);
+			}
+
+			String name = arg.substring(PREFIX.length(), arg.indexOf(VALUE_SEPARATOR));
+			String value = arg.substring(arg.indexOf(VALUE_SEPARATOR) + 1);
+
+			switch (name) {
+			case "url":
+				options.url = value;
+				break;
+			case "rate":
+				options.rate = Integer.parseInt(value);
+				break;
+			case "duration":
+				options.duration = Integer.parseInt(value);
+				break;
+			case "warmup":
+				options.warmup = Integer.parseInt(value);
+				break;
+			case "products":
+				options.products = Integer.parseInt(value);
+				break;
+			case "orders":
+				options.orders = Integer.parseInt(value);
+				break;
+			case "productsPerOrder":
+				options.productsPerOrder = Integer.parseInt(value);
+				break;
+			case "maxInFlight":
+				options.maxInFlight = Integer.parseInt(value);
+				break;
+			case "seed":
+				options.seed = Long.parseLong(value);
+				break;
+			case "output":
+				options.output = value;
+				break;
+			case "mix":
+				options.setMix(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + name);
+			}
+		}
+
+		return options;
+	}
+
+	/**
+	 * Set the relative weight of each endpoint. Endpoints not listed are not
+	 * requested.
+	 *
+	 * @param mix String - Comma separated endpoint:weight pairs.
+	 */
+	private void setMix(String mix) {
+		this.mix.clear();
+
+		for (String entry : mix.split(MIX_SEPARATOR)) {
+			String[] endpointAndWeight = entry.trim().split(WEIGHT_SEPARATOR);
+			this.mix.put(Endpoint.of(endpointAndWeight[0]), Integer.valueOf(endpointAndWeight[1]));
+		}
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	int getRate() {
+		return rate;
+	}
+
+	int getDuration() {
+		return duration;
+	}
+
+	int getWarmup() {
+		return warmup;
+	}
+
+	int getProducts() {
+		return products;
+	}
+
+	int getOrders() {
+		return orders;
+	}
+
+	int getProductsPerOrder() {
+		return productsPerOrder;
+	}
+
+	int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	long getSeed() {
+		return seed;
+	}
+
+	String getOutput() {
+		return output;
+	}
+
+	Map<Endpoint, Integer> getMix() {
+		return mix;
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.roche.service.order;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+
+import com.roche.service.benchmark.SyntheticDataset;
+import com.roche.service.product.Product;
+
+/**
+ * Benchmarks for the work the order controller does for each request, apart
+ * from the database and serialization, on orders with a small and a large
+ * number of products.
+ *
+ * Lives in the same package as OrderController to reach its package-private
+ * helpers.
+ *
+ * Run with - java -jar target/benchmarks.jar OrderHotPathBenchmark
+ *
+ * @author amit modhvadia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderHotPathBenchmark {
+
+	private static final String START_DATE = "2020-08-01T00A00";
+
+	/**
+	 * Number of products in the order.
+	 */
+	@Param({ "10", "1000" })
+	private int products;
+
+	private Order order;
+
+	/**
+	 * Equal to the order, but made up of different instances.
+	 */
+	private Order equalOrder;
+
+	private OrderController orderController;
+
+	private OrderModelAssembler orderModelAssembler;
+
+	@Setup
+	public void setUp() {
+		order = SyntheticDataset.generate(SyntheticDataset.DEFAULT_SEED, products, 1, products).getOrders().get(0);
+		equalOrder = SyntheticDataset.generate(SyntheticDataset.DEFAULT_SEED, products, 1, products).getOrders()
+				.get(0);
+
+		orderController = new OrderController(null, null, null, null, null, null, null, null);
+		orderModelAssembler = new OrderModelAssembler();
+	}
+
+	/**
+	 * Remove the links added to the products, so that each invocation adds them
+	 * again.
+	 */
+	@Setup(Level.Invocation)
+	public void removeProductLinks() {
+		for (Product product : order.getProducts()) {
+			product.removeLinks();
+		}
+	}
+
+	@Benchmark
+	public Float calculateTotalOrderAmount() {
+		return OrderController.calculateTotalOrderAmount(order);
+	}
+
+	@Benchmark
+	public Date parseRequestDate() throws ParseException {
+		return OrderController.parseRequestDate(START_DATE);
+	}
+
+	@Benchmark
+	public EntityModel<Order> toModel() {
+		return orderModelAssembler.toModel(order);
+	}
+
+	@Benchmark
+	public Order addProductLinks() {
+		orderController.addLinksToProductsForAnOrder(order);
+		return order;
+	}
+
+	@Benchmark
+	public int orderHashCode() {
+		return order.hashCode();
+	}
+
+	@Benchmark
+	public boolean orderEquals() {
+		return order.equals(equalOrder);
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.roche.service.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Whether the order lines are held in memory for analytics, and how, set as
+ * order-service.analytics.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.analytics")
+public class AnalyticsProperties {
+
+	/**
+	 * Whether the order lines are held in memory, loaded once the service has
+	 * started and appended as orders are placed.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Number of order lines of each chunk of arrays.
+	 */
+	private int chunkSize = 16384;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+}
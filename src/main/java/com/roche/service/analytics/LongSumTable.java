@@ -0,0 +1,104 @@
+package com.roche.service.analytics;
+
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Sums by long key, in open addressed primitive arrays, so that grouping order
+ * lines neither boxes the keys nor the sums.
+ *
+ * @author amit modhvadia
+ *
+ */
+final class LongSumTable {
+
+	private long[] keys;
+
+	private long[] sums;
+
+	private boolean[] used;
+
+	private int size;
+
+	/**
+	 * Constructor for Long Sum Table.
+	 *
+	 * @param expectedKeys int - Number of keys expected.
+	 */
+	LongSumTable(int expectedKeys) {
+		int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+		keys = new long[capacity];
+		sums = new long[capacity];
+		used = new boolean[capacity];
+	}
+
+	/**
+	 * Add a value to the sum of a key.
+	 *
+	 * @param key   long - Key of the sum.
+	 * @param value long - Value added.
+	 */
+	void add(long key, long value) {
+		int mask = keys.length - 1;
+		int slot = slotOf(key, mask);
+		while (used[slot]) {
+			if (keys[slot] == key) {
+				sums[slot] += value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		used[slot] = true;
+		keys[slot] = key;
+		sums[slot] = value;
+
+		if (++size * 2 > keys.length) {
+			grow();
+		}
+	}
+
+	/**
+	 * Copy the sums to a map.
+	 *
+	 * @param map      Map<K, Long> - Map the sums are put in.
+	 * @param keyOfMap LongFunction<K> - Key of the map for each key.
+	 * @return Map<K, Long> - Map with the sums.
+	 */
+	<K, M extends Map<K, Long>> M putInto(M map, LongFunction<K> keyOfMap) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (used[slot]) {
+				map.put(keyOfMap.apply(keys[slot]), Long.valueOf(sums[slot]));
+			}
+		}
+		return map;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		long[] oldSums = sums;
+		boolean[] oldUsed = used;
+
+		keys = new long[oldKeys.length * 2];
+		sums = new long[oldKeys.length * 2];
+		used = new boolean[oldKeys.length * 2];
+
+		int mask = keys.length - 1;
+		for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+			if (oldUsed[oldSlot]) {
+				int slot = slotOf(oldKeys[oldSlot], mask);
+				while (used[slot]) {
+					slot = (slot + 1) & mask;
+				}
+				used[slot] = true;
+				keys[slot] = oldKeys[oldSlot];
+				sums[slot] = oldSums[oldSlot];
+			}
+		}
+	}
+
+	private static int slotOf(long key, int mask) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+	}
+
+}
@@ -0,0 +1,291 @@
+package com.roche.service.analytics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.roche.service.inmemory.InMemoryStore;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderEvent;
+import com.roche.service.product.Product;
+import com.roche.service.sharding.OrderShardRoutingDataSource;
+
+/**
+ * Keeps the lines of the orders placed in memory for analytics, in an
+ * OrderLineStore.
+ *
+ * The order lines are loaded from the database, or from the in-memory store
+ * when the orders are kept there, once the service has started,
+ * at the price their product has then, and the lines of each order placed are
+ * appended once committed, at the price of the product when placed. The orders
+ * placed while the lines are loaded are appended afterwards, unless loaded.
+ * The lines of the orders removed from the database, when a month of orders is
+ * detached, are removed in the same way, by replacing the lines held with a
+ * copy without them.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class OrderAnalytics {
+
+	private static final String SELECT_ORDER_LINES = "select o.order_id, o.order_placed_time, "
+			+ "po.stock_keeping_unit_id, p.price from roche_order o "
+			+ "join product_order po on po.order_id = o.order_id "
+			+ "join product p on p.stock_keeping_unit_id = po.stock_keeping_unit_id "
+			+ "order by o.order_placed_time, o.order_id";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderAnalytics.class);
+
+	/**
+	 * Databases holding the orders, each shard when the orders are stored in
+	 * shards.
+	 */
+	private final List<JdbcTemplate> databases = new ArrayList<JdbcTemplate>();
+
+	/**
+	 * Store holding the orders instead of the database, if any.
+	 */
+	private final InMemoryStore inMemoryStore;
+
+	/**
+	 * Whether the order lines are held in memory, and the size of their chunks.
+	 */
+	private final AnalyticsProperties properties;
+
+	/**
+	 * Order lines held.
+	 */
+	private volatile OrderLineStore orderLines;
+
+	/**
+	 * Orders placed while the order lines are loaded or replaced, null once
+	 * replaced.
+	 */
+	private List<Order> pendingOrders = new ArrayList<Order>();
+
+	/**
+	 * Held while the order lines are replaced, one replacement at a time.
+	 */
+	private final Object replacing = new Object();
+
+	/**
+	 * Constructor for Order Analytics.
+	 *
+	 * @param dataSource    DataSource - Database of the service.
+	 * @param inMemoryStore ObjectProvider<InMemoryStore> - Store holding the
+	 *                      orders instead of the database, if any.
+	 * @param properties    AnalyticsProperties - Whether the order lines are held
+	 *                      in memory, and the size of their chunks.
+	 */
+	public OrderAnalytics(DataSource dataSource, ObjectProvider<InMemoryStore> inMemoryStore,
+			AnalyticsProperties properties) {
+
+		List<? extends DataSource> orderDataSources = dataSource instanceof OrderShardRoutingDataSource
+				? ((OrderShardRoutingDataSource) dataSource).getShardDataSources()
+				: List.of(dataSource);
+
+		for (DataSource orderDataSource : orderDataSources) {
+			databases.add(new JdbcTemplate(orderDataSource));
+		}
+		this.inMemoryStore = inMemoryStore.getIfAvailable();
+		this.properties = properties;
+		this.orderLines = new OrderLineStore(properties.getChunkSize());
+	}
+
+	/**
+	 * Get the order lines held in memory.
+	 *
+	 * @return OrderLineStore - Order lines, empty if they are not held in memory.
+	 */
+	public OrderLineStore getOrderLines() {
+		return orderLines;
+	}
+
+	/**
+	 * Load the order lines from the database once the service has started.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+
+		if (!properties.isEnabled()) {
+			return;
+		}
+
+		long startTime = System.nanoTime();
+
+		OrderLineStore loaded = replaceOrderLines(current -> {
+			OrderLineStore read = new OrderLineStore(properties.getChunkSize());
+			if (inMemoryStore != null) {
+				loadFrom(inMemoryStore, read);
+			} else {
+				for (JdbcTemplate database : databases) {
+					loadFrom(database, read);
+				}
+			}
+			return read;
+		});
+
+		LOGGER.info("Loaded {} order lines in {} ms", loaded.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+	}
+
+	/**
+	 * Remove the lines of the orders placed within a time period, once they are
+	 * removed from the database.
+	 *
+	 * @param start Instant - Start of the time period.
+	 * @param end   Instant - End of the time period, excluded.
+	 */
+	public void removeOrdersPlacedBetween(Instant start, Instant end) {
+
+		if (!properties.isEnabled()) {
+			return;
+		}
+
+		OrderLineStore kept = replaceOrderLines(current -> current.without(
+				OrderLineStore.epochMinuteOf(start.toEpochMilli()), OrderLineStore.epochMinuteOf(end.toEpochMilli())));
+
+		LOGGER.info("Removed the order lines placed from {} to {}, {} order lines kept", start, end, kept.size());
+	}
+
+	/**
+	 * Replace the order lines held, appending the orders placed while the
+	 * replacement is built to it, unless already in it.
+	 */
+	private OrderLineStore replaceOrderLines(UnaryOperator<OrderLineStore> replacement) {
+
+		synchronized (replacing) {
+			OrderLineStore current;
+			synchronized (this) {
+				if (pendingOrders == null) {
+					pendingOrders = new ArrayList<Order>();
+				}
+				current = orderLines;
+			}
+
+			OrderLineStore replaced = replacement.apply(current);
+
+			synchronized (this) {
+				Set<Long> pendingOrderIDs = new HashSet<Long>();
+				pendingOrders.forEach(order -> pendingOrderIDs.add(order.getOrderID()));
+
+				Set<Long> replacedOrderIDs = replaced.findOrderIDs(pendingOrderIDs);
+				for (Order order : pendingOrders) {
+					if (!replacedOrderIDs.contains(order.getOrderID())) {
+						append(replaced, order);
+					}
+				}
+
+				orderLines = replaced;
+				pendingOrders = null;
+			}
+			return replaced;
+		}
+	}
+
+	/**
+	 * Append the lines of an order placed, once committed.
+	 *
+	 * @param event OrderEvent - Order placed or changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void orderPlaced(OrderEvent event) {
+		if (!properties.isEnabled() || event.getType() != OrderEvent.Type.PLACED) {
+			return;
+		}
+
+		synchronized (this) {
+			if (pendingOrders != null) {
+				pendingOrders.add(event.getOrder());
+			} else {
+				append(orderLines, event.getOrder());
+			}
+		}
+	}
+
+	private static void loadFrom(JdbcTemplate database, OrderLineStore orderLines) {
+		List<Long> stockKeepingUnitIDs = new ArrayList<Long>();
+		List<Long> priceCents = new ArrayList<Long>();
+		long[] order = { 0L, 0L };
+
+		database.query(SELECT_ORDER_LINES, resultSet -> {
+			long orderID = resultSet.getLong(1);
+
+			if (!stockKeepingUnitIDs.isEmpty() && order[0] != orderID) {
+				append(orderLines, order[0], order[1], stockKeepingUnitIDs, priceCents);
+			}
+
+			order[0] = orderID;
+			order[1] = resultSet.getTimestamp(2).getTime();
+			stockKeepingUnitIDs.add(Long.valueOf(resultSet.getLong(3)));
+			priceCents.add(Long.valueOf(Math.round(resultSet.getDouble(4) * 100.0)));
+		});
+
+		if (!stockKeepingUnitIDs.isEmpty()) {
+			append(orderLines, order[0], order[1], stockKeepingUnitIDs, priceCents);
+		}
+	}
+
+	private static void loadFrom(InMemoryStore store, OrderLineStore orderLines) {
+		List<Long> stockKeepingUnitIDs = new ArrayList<Long>();
+		List<Long> priceCents = new ArrayList<Long>();
+
+		store.forEachOrder((orderID, orderPlacedTime, orderStockKeepingUnitIDs) -> {
+			// As with the database, the lines of products that no longer exist are left
+			// out.
+			for (long stockKeepingUnitID : orderStockKeepingUnitIDs) {
+				Float price = store.getPrice(stockKeepingUnitID);
+				if (price != null || store.containsProduct(stockKeepingUnitID)) {
+					stockKeepingUnitIDs.add(Long.valueOf(stockKeepingUnitID));
+					priceCents.add(Long.valueOf(price == null ? 0L : Math.round(price.doubleValue() * 100.0)));
+				}
+			}
+
+			if (!stockKeepingUnitIDs.isEmpty()) {
+				append(orderLines, orderID, orderPlacedTime, stockKeepingUnitIDs, priceCents);
+			}
+		});
+	}
+
+	private static void append(OrderLineStore orderLines, long orderID, long orderPlacedTime,
+			List<Long> stockKeepingUnitIDs, List<Long> priceCents) {
+		orderLines.append(orderID, orderPlacedTime, stockKeepingUnitIDs.stream().mapToLong(Long::longValue).toArray(),
+				priceCents.stream().mapToLong(Long::longValue).toArray());
+		stockKeepingUnitIDs.clear();
+		priceCents.clear();
+	}
+
+	private static void append(OrderLineStore orderLines, Order order) {
+		List<Product> products = order.getProducts();
+		long[] stockKeepingUnitIDs = new long[products.size()];
+		long[] priceCents = new long[products.size()];
+
+		for (int product = 0; product < products.size(); product++) {
+			Float price = products.get(product).getPrice();
+			stockKeepingUnitIDs[product] = products.get(product).getStockKeepingUnitID().longValue();
+			priceCents[product] = price == null ? 0L : Math.round(price.doubleValue() * 100.0);
+		}
+
+		orderLines.append(order.getOrderID().longValue(), order.getOrderPlacedTime().getTime(), stockKeepingUnitIDs,
+				priceCents);
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.roche.service.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates the order lines held in memory, exposed as /actuator/orderanalytics.
+ *
+ * The order lines can be restricted to the orders placed from an instant and
+ * before another, as ISO-8601 instants in UTC such as 2021-01-01T00:00:00Z, and
+ * to one product.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@Endpoint(id = "orderanalytics")
+public class OrderAnalyticsEndpoint {
+
+	/**
+	 * Order lines held in memory.
+	 */
+	private final OrderAnalytics orderAnalytics;
+
+	/**
+	 * Constructor for Order Analytics Endpoint.
+	 *
+	 * @param orderAnalytics OrderAnalytics - Order lines held in memory.
+	 */
+	public OrderAnalyticsEndpoint(OrderAnalytics orderAnalytics) {
+		this.orderAnalytics = orderAnalytics;
+	}
+
+	/**
+	 * Get the number of order lines, the revenue, the revenue by product and the
+	 * number of orders by hour.
+	 *
+	 * @param from               String - Start of the time period, included, null
+	 *                           for no start.
+	 * @param to                 String - End of the time period, excluded, null
+	 *                           for no end.
+	 * @param stockKeepingUnitID Long - Stock Keeping Unit ID of the product, null
+	 *                           for every product.
+	 * @return Map<String, Object> - Aggregates of the order lines.
+	 */
+	@ReadOperation
+	public Map<String, Object> analytics(@Nullable String from, @Nullable String to,
+			@Nullable Long stockKeepingUnitID) {
+
+		OrderLineFilter filter;
+		try {
+			filter = OrderLineFilter.placedBetween(from == null ? null : Instant.parse(from),
+					to == null ? null : Instant.parse(to));
+		} catch (DateTimeParseException dtpe) {
+			throw new InvalidEndpointRequestException("Invalid instant " + dtpe.getParsedString(),
+					"Instants are formatted as 2021-01-01T00:00:00Z");
+		}
+		if (stockKeepingUnitID != null) {
+			filter = filter.withProduct(stockKeepingUnitID.longValue());
+		}
+
+		OrderLineStore orderLines = orderAnalytics.getOrderLines();
+
+		Map<Long, BigDecimal> revenueByProduct = new TreeMap<Long, BigDecimal>();
+		orderLines.sumPriceCentsByProduct(filter)
+				.forEach((product, cents) -> revenueByProduct.put(product, BigDecimal.valueOf(cents.longValue(), 2)));
+
+		Map<String, Long> ordersByHour = new LinkedHashMap<String, Long>();
+		orderLines.countOrdersByHour(filter).forEach((hour, orders) -> ordersByHour.put(hour.toString(), orders));
+
+		Map<String, Object> analytics = new LinkedHashMap<String, Object>();
+		analytics.put("orderLines", Long.valueOf(orderLines.count(filter)));
+		analytics.put("revenue", BigDecimal.valueOf(orderLines.sumPriceCents(filter), 2));
+		analytics.put("revenueByProduct", revenueByProduct);
+		analytics.put("ordersByHour", ordersByHour);
+		return analytics;
+	}
+
+}
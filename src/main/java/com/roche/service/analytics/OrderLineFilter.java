@@ -0,0 +1,87 @@
+package com.roche.service.analytics;
+
+import java.time.Instant;
+
+/**
+ * Order lines to aggregate: those of the orders placed within a time period, to
+ * the minute, optionally only for one product.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class OrderLineFilter {
+
+	/**
+	 * Stands for any product.
+	 */
+	static final long ANY_PRODUCT = Long.MIN_VALUE;
+
+	private static final OrderLineFilter ALL = new OrderLineFilter(Long.MIN_VALUE, Long.MAX_VALUE, ANY_PRODUCT);
+
+	/**
+	 * Minutes since the epoch of the start of the time period, included.
+	 */
+	private final long fromEpochMinute;
+
+	/**
+	 * Minutes since the epoch of the end of the time period, excluded.
+	 */
+	private final long toEpochMinute;
+
+	/**
+	 * Stock Keeping Unit ID of the product, ANY_PRODUCT for every product.
+	 */
+	private final long stockKeepingUnitID;
+
+	private OrderLineFilter(long fromEpochMinute, long toEpochMinute, long stockKeepingUnitID) {
+		this.fromEpochMinute = fromEpochMinute;
+		this.toEpochMinute = toEpochMinute;
+		this.stockKeepingUnitID = stockKeepingUnitID;
+	}
+
+	/**
+	 * Get a filter for every order line.
+	 *
+	 * @return OrderLineFilter - Filter for every order line.
+	 */
+	public static OrderLineFilter all() {
+		return ALL;
+	}
+
+	/**
+	 * Get a filter for the lines of the orders placed within a time period.
+	 *
+	 * @param from Instant - Start of the time period, included, null for no
+	 *             start.
+	 * @param to   Instant - End of the time period, excluded, null for no end.
+	 * @return OrderLineFilter - Filter for the lines of the orders placed within
+	 *         the time period.
+	 */
+	public static OrderLineFilter placedBetween(Instant from, Instant to) {
+		return new OrderLineFilter(from == null ? Long.MIN_VALUE : OrderLineStore.epochMinuteOf(from.toEpochMilli()),
+				to == null ? Long.MAX_VALUE : OrderLineStore.epochMinuteOf(to.toEpochMilli()), ANY_PRODUCT);
+	}
+
+	/**
+	 * Get a filter for the lines of this filter for one product only.
+	 *
+	 * @param stockKeepingUnitID long - Stock Keeping Unit ID of the product.
+	 * @return OrderLineFilter - Filter for the lines of the product.
+	 */
+	public OrderLineFilter withProduct(long stockKeepingUnitID) {
+		return new OrderLineFilter(fromEpochMinute, toEpochMinute, stockKeepingUnitID);
+	}
+
+	long getFromEpochMinute() {
+		return fromEpochMinute;
+	}
+
+	long getToEpochMinute() {
+		return toEpochMinute;
+	}
+
+	long getStockKeepingUnitID() {
+		return stockKeepingUnitID;
+	}
+
+}
@@ -0,0 +1,367 @@
+package com.roche.service.analytics;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Order lines held in memory for analytics, one line for each product of an
+ * order, as primitive columns: order ID, Stock Keeping Unit ID, minute the order
+ * was placed at and price of the product in cents.
+ *
+ * The lines are appended to fixed size chunks of arrays, the lines of an order
+ * next to each other, and are never changed. Each chunk keeps the bounds of the
+ * minutes of its lines, so that a time period skips the chunks outside of it.
+ * The number of lines is published after they are written, so the lines are
+ * read without locking while others are appended.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class OrderLineStore {
+
+	private static final long MILLIS_PER_MINUTE = 60_000L;
+
+	private static final long MINUTES_PER_HOUR = 60L;
+
+	/**
+	 * Number of lines of each chunk.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Chunks of lines, only the last of which may not be full.
+	 */
+	private volatile Chunk[] chunks = new Chunk[0];
+
+	/**
+	 * Number of lines appended, written after the lines themselves.
+	 */
+	private volatile long size;
+
+	/**
+	 * Constructor for Order Line Store.
+	 *
+	 * @param chunkSize int - Number of lines of each chunk.
+	 */
+	public OrderLineStore(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The chunk size must be positive, not " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Append the lines of an order.
+	 *
+	 * @param orderID             long - Order ID of the order.
+	 * @param orderPlacedTime     long - Milliseconds since the epoch the order was
+	 *                            placed at.
+	 * @param stockKeepingUnitIDs long[] - Stock Keeping Unit IDs of the products of
+	 *                            the order.
+	 * @param priceCents          long[] - Prices of the products in cents.
+	 */
+	synchronized void append(long orderID, long orderPlacedTime, long[] stockKeepingUnitIDs, long[] priceCents) {
+		long epochMinute = epochMinuteOf(orderPlacedTime);
+		long line = size;
+
+		for (int product = 0; product < stockKeepingUnitIDs.length; product++, line++) {
+			set(line, orderID, stockKeepingUnitIDs[product], epochMinute, priceCents[product]);
+		}
+
+		size = line;
+	}
+
+	/**
+	 * Copy the order lines, leaving out those of the orders placed within a time
+	 * period. The lines appended to this store while copying are not copied.
+	 *
+	 * @param fromEpochMinute long - Minute since the epoch the time period starts
+	 *                        at.
+	 * @param toEpochMinute   long - Minute since the epoch the time period ends
+	 *                        at, excluded.
+	 * @return OrderLineStore - Order lines placed outside of the time period.
+	 */
+	OrderLineStore without(long fromEpochMinute, long toEpochMinute) {
+		OrderLineStore kept = new OrderLineStore(chunkSize);
+		long keptLines = 0;
+
+		long lines = size;
+		Chunk[] chunks = this.chunks;
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			Chunk chunk = chunks[chunkIndex];
+			int length = lengthOf(chunkIndex, lines);
+			for (int line = 0; line < length; line++) {
+				long epochMinute = chunk.epochMinutes[line];
+				if (epochMinute < fromEpochMinute || epochMinute >= toEpochMinute) {
+					kept.set(keptLines++, chunk.orderIDs[line], chunk.stockKeepingUnitIDs[line], epochMinute,
+							chunk.priceCents[line]);
+				}
+			}
+		}
+
+		kept.size = keptLines;
+		return kept;
+	}
+
+	/**
+	 * Get the number of order lines.
+	 *
+	 * @return long - Number of order lines.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Count the order lines matching a filter.
+	 *
+	 * @param filter OrderLineFilter - Order lines to count.
+	 * @return long - Number of order lines.
+	 */
+	public long count(OrderLineFilter filter) {
+		long count = 0;
+
+		long lines = size;
+		Chunk[] chunks = this.chunks;
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			Chunk chunk = chunks[chunkIndex];
+			int length = lengthOf(chunkIndex, lines);
+			if (!chunk.overlaps(filter)) {
+				continue;
+			}
+
+			long[] epochMinutes = chunk.epochMinutes;
+			long[] stockKeepingUnitIDs = chunk.stockKeepingUnitIDs;
+			long from = filter.getFromEpochMinute();
+			long to = filter.getToEpochMinute();
+			long product = filter.getStockKeepingUnitID();
+			boolean anyProduct = product == OrderLineFilter.ANY_PRODUCT;
+			for (int line = 0; line < length; line++) {
+				if (epochMinutes[line] >= from && epochMinutes[line] < to
+						&& (anyProduct || stockKeepingUnitIDs[line] == product)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Sum the prices of the order lines matching a filter.
+	 *
+	 * @param filter OrderLineFilter - Order lines to sum.
+	 * @return long - Sum of the prices in cents.
+	 */
+	public long sumPriceCents(OrderLineFilter filter) {
+		long sum = 0;
+
+		long lines = size;
+		Chunk[] chunks = this.chunks;
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			Chunk chunk = chunks[chunkIndex];
+			int length = lengthOf(chunkIndex, lines);
+			if (!chunk.overlaps(filter)) {
+				continue;
+			}
+
+			long[] epochMinutes = chunk.epochMinutes;
+			long[] stockKeepingUnitIDs = chunk.stockKeepingUnitIDs;
+			long[] priceCents = chunk.priceCents;
+			long from = filter.getFromEpochMinute();
+			long to = filter.getToEpochMinute();
+			long product = filter.getStockKeepingUnitID();
+			boolean anyProduct = product == OrderLineFilter.ANY_PRODUCT;
+			for (int line = 0; line < length; line++) {
+				if (epochMinutes[line] >= from && epochMinutes[line] < to
+						&& (anyProduct || stockKeepingUnitIDs[line] == product)) {
+					sum += priceCents[line];
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Sum the prices of the order lines matching a filter by product.
+	 *
+	 * @param filter OrderLineFilter - Order lines to sum.
+	 * @return Map<Long, Long> - Sum of the prices in cents by Stock Keeping Unit
+	 *         ID.
+	 */
+	public Map<Long, Long> sumPriceCentsByProduct(OrderLineFilter filter) {
+		LongSumTable sums = new LongSumTable(1024);
+
+		long lines = size;
+		Chunk[] chunks = this.chunks;
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			Chunk chunk = chunks[chunkIndex];
+			int length = lengthOf(chunkIndex, lines);
+			if (!chunk.overlaps(filter)) {
+				continue;
+			}
+
+			long[] epochMinutes = chunk.epochMinutes;
+			long[] stockKeepingUnitIDs = chunk.stockKeepingUnitIDs;
+			long[] priceCents = chunk.priceCents;
+			long from = filter.getFromEpochMinute();
+			long to = filter.getToEpochMinute();
+			long product = filter.getStockKeepingUnitID();
+			boolean anyProduct = product == OrderLineFilter.ANY_PRODUCT;
+			for (int line = 0; line < length; line++) {
+				if (epochMinutes[line] >= from && epochMinutes[line] < to
+						&& (anyProduct || stockKeepingUnitIDs[line] == product)) {
+					sums.add(stockKeepingUnitIDs[line], priceCents[line]);
+				}
+			}
+		}
+		return sums.putInto(new HashMap<Long, Long>(), Long::valueOf);
+	}
+
+	/**
+	 * Count the orders with order lines matching a filter by the hour they were
+	 * placed in.
+	 *
+	 * @param filter OrderLineFilter - Order lines of the orders to count.
+	 * @return SortedMap<Instant, Long> - Number of orders by start of the hour.
+	 */
+	public SortedMap<Instant, Long> countOrdersByHour(OrderLineFilter filter) {
+		LongSumTable counts = new LongSumTable(256);
+
+		// The lines of an order are next to each other, so an order is counted at its
+		// first line matching.
+		long previousOrderID = 0;
+		boolean previousMatched = false;
+
+		long lines = size;
+		Chunk[] chunks = this.chunks;
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			Chunk chunk = chunks[chunkIndex];
+			int length = lengthOf(chunkIndex, lines);
+			if (!chunk.overlaps(filter)) {
+				continue;
+			}
+
+			long[] orderIDs = chunk.orderIDs;
+			long[] epochMinutes = chunk.epochMinutes;
+			long[] stockKeepingUnitIDs = chunk.stockKeepingUnitIDs;
+			long from = filter.getFromEpochMinute();
+			long to = filter.getToEpochMinute();
+			long product = filter.getStockKeepingUnitID();
+			boolean anyProduct = product == OrderLineFilter.ANY_PRODUCT;
+			for (int line = 0; line < length; line++) {
+				if (epochMinutes[line] >= from && epochMinutes[line] < to
+						&& (anyProduct || stockKeepingUnitIDs[line] == product)) {
+					if (!previousMatched || orderIDs[line] != previousOrderID) {
+						counts.add(Math.floorDiv(epochMinutes[line], MINUTES_PER_HOUR), 1L);
+					}
+					previousOrderID = orderIDs[line];
+					previousMatched = true;
+				}
+			}
+		}
+		return counts.putInto(new TreeMap<Instant, Long>(),
+				epochHour -> Instant.ofEpochMilli(epochHour * MINUTES_PER_HOUR * MILLIS_PER_MINUTE));
+	}
+
+	/**
+	 * Get the order IDs, among those provided, of the orders with lines.
+	 *
+	 * @param orderIDs Set<Long> - Order IDs looked for.
+	 * @return Set<Long> - Order IDs found.
+	 */
+	Set<Long> findOrderIDs(Set<Long> orderIDs) {
+		Set<Long> found = new HashSet<Long>();
+
+		long lines = size;
+		Chunk[] chunks = this.chunks;
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			long[] chunkOrderIDs = chunks[chunkIndex].orderIDs;
+			int length = lengthOf(chunkIndex, lines);
+			for (int line = 0; line < length; line++) {
+				Long orderID = Long.valueOf(chunkOrderIDs[line]);
+				if (orderIDs.contains(orderID)) {
+					found.add(orderID);
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Get the minute since the epoch of a time.
+	 *
+	 * @param epochMilli long - Milliseconds since the epoch.
+	 * @return long - Minutes since the epoch.
+	 */
+	static long epochMinuteOf(long epochMilli) {
+		return Math.floorDiv(epochMilli, MILLIS_PER_MINUTE);
+	}
+
+	/**
+	 * Write an order line, adding a chunk when the line is past the last one. The
+	 * line is only read once the size is written.
+	 */
+	private void set(long line, long orderID, long stockKeepingUnitID, long epochMinute, long priceCents) {
+		int chunkIndex = (int) (line / chunkSize);
+		if (chunkIndex == chunks.length) {
+			Chunk[] grown = new Chunk[chunkIndex + 1];
+			System.arraycopy(chunks, 0, grown, 0, chunkIndex);
+			grown[chunkIndex] = new Chunk(chunkSize);
+			chunks = grown;
+		}
+		chunks[chunkIndex].set((int) (line % chunkSize), orderID, stockKeepingUnitID, epochMinute, priceCents);
+	}
+
+	/**
+	 * Get the number of lines published in a chunk, zero past the chunks
+	 * published.
+	 */
+	private int lengthOf(int chunkIndex, long lines) {
+		return (int) Math.max(0L, Math.min(chunkSize, lines - (long) chunkIndex * chunkSize));
+	}
+
+	/**
+	 * Fixed size arrays of order lines, and the bounds of their minutes.
+	 */
+	private static final class Chunk {
+
+		private final long[] orderIDs;
+
+		private final long[] stockKeepingUnitIDs;
+
+		private final long[] epochMinutes;
+
+		private final long[] priceCents;
+
+		private volatile long minEpochMinute = Long.MAX_VALUE;
+
+		private volatile long maxEpochMinute = Long.MIN_VALUE;
+
+		private Chunk(int chunkSize) {
+			orderIDs = new long[chunkSize];
+			stockKeepingUnitIDs = new long[chunkSize];
+			epochMinutes = new long[chunkSize];
+			priceCents = new long[chunkSize];
+		}
+
+		private void set(int line, long orderID, long stockKeepingUnitID, long epochMinute, long priceCents) {
+			orderIDs[line] = orderID;
+			stockKeepingUnitIDs[line] = stockKeepingUnitID;
+			epochMinutes[line] = epochMinute;
+			this.priceCents[line] = priceCents;
+			minEpochMinute = Math.min(minEpochMinute, epochMinute);
+			maxEpochMinute = Math.max(maxEpochMinute, epochMinute);
+		}
+
+		private boolean overlaps(OrderLineFilter filter) {
+			return minEpochMinute < filter.getToEpochMinute() && maxEpochMinute >= filter.getFromEpochMinute();
+		}
+
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.roche.service.archive;
+
+import java.io.IOException;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.roche.service.product.ProductRepository;
+
+/**
+ * Moves old orders to the archive, and reads them from it, when
+ * order-service.archive.enabled is true.
+ *
+ * The archiver moves the orders of the database of the service, so the orders
+ * cannot also be stored in shards.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+@ConditionalOnProperty(prefix = "order-service.archive", name = "enabled")
+public class ArchiveConfiguration {
+
+	/**
+	 * Open the archive, indexing its segment files.
+	 *
+	 * @param properties  ArchiveProperties - Location of the archive.
+	 * @param environment Environment - Environment of the service.
+	 * @return OrderArchive - Archive of the old orders.
+	 * @throws IOException - If the archive could not be opened.
+	 */
+	@Bean
+	public OrderArchive orderArchive(ArchiveProperties properties, Environment environment) throws IOException {
+		if (environment.getProperty("order-service.sharding.enabled", Boolean.class, Boolean.FALSE).booleanValue()) {
+			throw new IllegalStateException(
+					"order-service.archive.enabled cannot be set when the orders are stored in shards");
+		}
+		return new OrderArchive(properties.getDirectory());
+	}
+
+	/**
+	 * Create the archiver moving the old orders to the archive.
+	 *
+	 * @param orderArchive       OrderArchive - Archive of the old orders.
+	 * @param dataSource         DataSource - Database of the service.
+	 * @param transactionManager PlatformTransactionManager - Manager of the
+	 *                           transactions moving the orders.
+	 * @param properties         ArchiveProperties - Age and schedule of the
+	 *                           archiving.
+	 * @return OrderArchiver - Archiver of the old orders.
+	 */
+	@Bean
+	public OrderArchiver orderArchiver(OrderArchive orderArchive, DataSource dataSource,
+			PlatformTransactionManager transactionManager, ArchiveProperties properties) {
+		return new OrderArchiver(orderArchive, dataSource, transactionManager, properties);
+	}
+
+	/**
+	 * Create the aspect reading the archived orders together with the orders in
+	 * the database.
+	 *
+	 * @param orderArchive      OrderArchive - Archive of the old orders.
+	 * @param productRepository ProductRepository - Repository for loading the
+	 *                          products of the archived orders.
+	 * @return OrderArchiveReading - Aspect reading the archived orders.
+	 */
+	@Bean
+	public OrderArchiveReading orderArchiveReading(OrderArchive orderArchive, ProductRepository productRepository) {
+		return new OrderArchiveReading(orderArchive, productRepository);
+	}
+
+}
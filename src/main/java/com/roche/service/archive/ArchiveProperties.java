@@ -0,0 +1,82 @@
+package com.roche.service.archive;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Location, age and schedule of the archiving of old orders, set as
+ * order-service.archive.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.archive")
+public class ArchiveProperties {
+
+	/**
+	 * Whether old orders are moved to the archive.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Directory of the segment files.
+	 */
+	private String directory = System.getProperty("user.home") + "/data/order-archive";
+
+	/**
+	 * Age of the orders moved to the archive.
+	 */
+	private Duration age = Duration.ofDays(90);
+
+	/**
+	 * Time between archiving runs.
+	 */
+	private Duration interval = Duration.ofHours(1);
+
+	/**
+	 * Orders written at most to each segment file.
+	 */
+	private int segmentSize = 10_000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public Duration getAge() {
+		return age;
+	}
+
+	public void setAge(Duration age) {
+		this.age = age;
+	}
+
+	public Duration getInterval() {
+		return interval;
+	}
+
+	public void setInterval(Duration interval) {
+		this.interval = interval;
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public void setSegmentSize(int segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.roche.service.archive;
+
+/**
+ * Order as stored in an archive segment, referencing its products by their
+ * Stock Keeping Unit IDs.
+ *
+ * @author amit modhvadia
+ *
+ */
+final class ArchivedOrder {
+
+	private final long orderID;
+
+	private final String buyerEmail;
+
+	private final long orderPlacedTime;
+
+	private final long[] stockKeepingUnitIDs;
+
+	/**
+	 * Constructor for Archived Order.
+	 *
+	 * @param orderID             long - Order ID of the order.
+	 * @param buyerEmail          String - Email address of the buyer, may be null.
+	 * @param orderPlacedTime     long - Milliseconds since the epoch the order was
+	 *                            placed at.
+	 * @param stockKeepingUnitIDs long[] - Stock Keeping Unit IDs of the products of
+	 *                            the order.
+	 */
+	ArchivedOrder(long orderID, String buyerEmail, long orderPlacedTime, long[] stockKeepingUnitIDs) {
+		this.orderID = orderID;
+		this.buyerEmail = buyerEmail;
+		this.orderPlacedTime = orderPlacedTime;
+		this.stockKeepingUnitIDs = stockKeepingUnitIDs;
+	}
+
+	long getOrderID() {
+		return orderID;
+	}
+
+	String getBuyerEmail() {
+		return buyerEmail;
+	}
+
+	long getOrderPlacedTime() {
+		return orderPlacedTime;
+	}
+
+	long[] getStockKeepingUnitIDs() {
+		return stockKeepingUnitIDs;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.roche.service.archive;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.roche.service.archive.exception.ArchivedOrderException;
+
+/**
+ * Handler to deal with scenarios when an archived order is changed.
+ * 
+ * @author amit modhvadia
+ *
+ */
+@ControllerAdvice
+public class ArchivedOrderAdvice {
+
+	/**
+	 * Return a HTTP Status of Conflict (code - 409) when an archived order is
+	 * changed, as the archive cannot be changed.
+	 * 
+	 * @param archivedOrderException ArchivedOrderException - Exception for an
+	 *                               archived order changed.
+	 * @return String - Message for archived order exception.
+	 */
+	@ResponseBody
+	@ExceptionHandler(ArchivedOrderException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	String archivedOrderHandler(ArchivedOrderException archivedOrderException) {
+		return archivedOrderException.getMessage();
+	}
+
+}
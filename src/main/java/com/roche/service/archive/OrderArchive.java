@@ -0,0 +1,189 @@
+package com.roche.service.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Segment files of the archived orders, indexed by the bounds of the order
+ * placed times and order IDs of each segment, so that a query only reads the
+ * segments it overlaps.
+ *
+ * The orders of the segments read most recently are kept decoded.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderArchive {
+
+	private static final int DECODED_SEGMENTS = 8;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderArchive.class);
+
+	/**
+	 * Directory of the segment files.
+	 */
+	private final Path directory;
+
+	/**
+	 * Segments, in the order their first order was placed.
+	 */
+	private final List<OrderSegment> segments = new CopyOnWriteArrayList<OrderSegment>();
+
+	/**
+	 * Orders of the segments read most recently, by segment file.
+	 */
+	private final Map<Path, List<ArchivedOrder>> decodedSegments = new LinkedHashMap<Path, List<ArchivedOrder>>(16,
+			0.75f, true) {
+
+		private static final long serialVersionUID = 2204585914355291870L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, List<ArchivedOrder>> eldest) {
+			return size() > DECODED_SEGMENTS;
+		}
+
+	};
+
+	/**
+	 * Constructor for Order Archive, indexing the segment files of the directory.
+	 *
+	 * @param directory String - Directory of the segment files, created if it
+	 *                  does not exist.
+	 * @throws IOException - If the directory could not be read.
+	 */
+	public OrderArchive(String directory) throws IOException {
+		this.directory = Paths.get(directory);
+		Files.createDirectories(this.directory);
+
+		List<OrderSegment> opened = new ArrayList<OrderSegment>();
+		try (Stream<Path> files = Files.list(this.directory)) {
+			for (Path file : files.filter(file -> file.toString().endsWith(OrderSegment.EXTENSION))
+					.collect(Collectors.toList())) {
+				opened.add(OrderSegment.open(file));
+			}
+		}
+		opened.sort(Comparator.comparingLong(OrderSegment::getMinOrderPlacedTime));
+		segments.addAll(opened);
+
+		LOGGER.info("Opened {} order archive segments holding {} orders", Integer.valueOf(segments.size()),
+				Integer.valueOf(segments.stream().mapToInt(OrderSegment::getOrderCount).sum()));
+	}
+
+	/**
+	 * Write orders to a new segment.
+	 *
+	 * @param orders List<ArchivedOrder> - Orders to archive, in the order they
+	 *               were placed.
+	 * @return Path - Segment file written.
+	 * @throws IOException - If the segment could not be written.
+	 */
+	Path append(List<ArchivedOrder> orders) throws IOException {
+		OrderSegment segment = OrderSegment.write(directory, orders);
+
+		synchronized (segments) {
+			List<OrderSegment> sorted = new ArrayList<OrderSegment>(segments);
+			sorted.add(segment);
+			sorted.sort(Comparator.comparingLong(OrderSegment::getMinOrderPlacedTime));
+			segments.clear();
+			segments.addAll(sorted);
+		}
+		return segment.getFile();
+	}
+
+	/**
+	 * Remove a segment just written, when its orders could not be removed from
+	 * the database.
+	 *
+	 * @param file Path - Segment file.
+	 * @throws IOException - If the segment could not be deleted.
+	 */
+	void remove(Path file) throws IOException {
+		segments.removeIf(segment -> segment.getFile().equals(file));
+		synchronized (decodedSegments) {
+			decodedSegments.remove(file);
+		}
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Get an archived order.
+	 *
+	 * @param orderID long - Order ID of the order.
+	 * @return Optional<ArchivedOrder> - Order, if archived.
+	 */
+	Optional<ArchivedOrder> find(long orderID) {
+		for (OrderSegment segment : segments) {
+			if (segment.mayContain(orderID)) {
+				Optional<ArchivedOrder> order = read(segment).stream()
+						.filter(archived -> archived.getOrderID() == orderID).findFirst();
+				if (order.isPresent()) {
+					return order;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the archived orders placed within a time period.
+	 *
+	 * @param from long - Start of the time period, included.
+	 * @param to   long - End of the time period, excluded.
+	 * @return List<ArchivedOrder> - Orders, in the order they were placed.
+	 */
+	List<ArchivedOrder> find(long from, long to) {
+		List<ArchivedOrder> orders = new ArrayList<ArchivedOrder>();
+		for (OrderSegment segment : segments) {
+			if (segment.overlaps(from, to)) {
+				read(segment).stream()
+						.filter(order -> order.getOrderPlacedTime() >= from && order.getOrderPlacedTime() < to)
+						.forEach(orders::add);
+			}
+		}
+		return orders;
+	}
+
+	/**
+	 * Get the number of segments.
+	 *
+	 * @return int - Number of segments.
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	private List<ArchivedOrder> read(OrderSegment segment) {
+		synchronized (decodedSegments) {
+			List<ArchivedOrder> orders = decodedSegments.get(segment.getFile());
+			if (orders != null) {
+				return orders;
+			}
+		}
+
+		try {
+			List<ArchivedOrder> orders = segment.read();
+			synchronized (decodedSegments) {
+				decodedSegments.put(segment.getFile(), orders);
+			}
+			return orders;
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+package com.roche.service.archive;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import com.roche.service.archive.exception.ArchivedOrderException;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderAccess;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderSummary;
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductRepository;
+
+/**
+ * Reads the archived orders together with the orders in the database, so that
+ * getting an order by its order ID, the orders for several order IDs, or the
+ * orders placed within a time period, also finds the orders that were archived.
+ *
+ * The orders each repository method reads or changes are declared by its
+ * OrderAccess annotation, and every method declared by OrderRepository must
+ * have one. An order is looked up in the archive only when it is not in the
+ * database.
+ * The archived orders placed within a time period are added to the orders from
+ * the database, skipping any order that is in both while it is being archived.
+ * The products of the archived orders are loaded from the database. Archived
+ * orders cannot be changed.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Aspect
+public class OrderArchiveReading {
+
+	/**
+	 * Archive of the old orders.
+	 */
+	private final OrderArchive orderArchive;
+
+	/**
+	 * Repository for loading the products of the archived orders.
+	 */
+	private final ProductRepository productRepository;
+
+	/**
+	 * Constructor for Order Archive Reading.
+	 *
+	 * @param orderArchive      OrderArchive - Archive of the old orders.
+	 * @param productRepository ProductRepository - Repository for loading the
+	 *                          products of the archived orders.
+	 */
+	public OrderArchiveReading(OrderArchive orderArchive, ProductRepository productRepository) {
+		this.orderArchive = orderArchive;
+		this.productRepository = productRepository;
+
+		for (Method method : OrderRepository.class.getDeclaredMethods()) {
+			if (!method.isSynthetic() && method.getAnnotation(OrderAccess.class) == null) {
+				throw new IllegalStateException("OrderRepository." + method.getName()
+						+ " does not declare the orders it accesses with OrderAccess");
+			}
+		}
+	}
+
+	/**
+	 * Add the archived orders to the result of a query for orders by order ID,
+	 * order IDs or time period, and refuse to change an archived order. Methods
+	 * without an OrderAccess annotation, such as those inherited and not declared
+	 * again by OrderRepository, only read the database.
+	 *
+	 * @param joinPoint ProceedingJoinPoint - Invocation of the repository method.
+	 * @return Object - Result of the repository method, including the archived
+	 *         orders.
+	 * @throws Throwable - Exception thrown by the repository method, or
+	 *                   ArchivedOrderException when changing an archived order.
+	 */
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+			+ "&& this(com.roche.service.order.OrderRepository)")
+	public Object readArchive(ProceedingJoinPoint joinPoint) throws Throwable {
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		OrderAccess access = method.getAnnotation(OrderAccess.class);
+		Object[] args = joinPoint.getArgs();
+
+		if (access == null) {
+			return joinPoint.proceed();
+		}
+
+		if (access.value() == OrderAccess.Scope.ORDER && args[0] instanceof Order) {
+			Long orderID = ((Order) args[0]).getOrderID();
+			if (orderID != null && orderArchive.find(orderID.longValue()).isPresent()) {
+				throw new ArchivedOrderException(orderID);
+			}
+		}
+
+		Object result = joinPoint.proceed();
+		boolean summaries = elementTypeOf(method) == OrderSummary.class;
+
+		switch (access.value()) {
+		case ORDER_ID:
+			if (((Optional<?>) result).isPresent() || !(args[0] instanceof Long)) {
+				return result;
+			}
+			return orderArchive.find(((Long) args[0]).longValue())
+					.map(order -> convert(List.of(order), summaries, access).get(0));
+		case ORDER_IDS:
+			return merge(convert(findMissing((Iterable<?>) args[0], (List<?>) result, summaries), summaries, access),
+					(List<?>) result, summaries);
+		case TIME_PERIOD:
+			List<ArchivedOrder> archived = orderArchive.find(((Date) args[0]).getTime(),
+					((Date) args[1]).getTime() + (access.endExcluded() ? 0L : 1L));
+			return merge(convert(archived, summaries, access), (List<?>) result, summaries);
+		default:
+			return result;
+		}
+	}
+
+	/**
+	 * Get the archived orders for the order IDs not found in the database.
+	 */
+	private List<ArchivedOrder> findMissing(Iterable<?> orderIDs, List<?> fromDatabase, boolean summaries) {
+		Set<Long> found = fromDatabase.stream().map(order -> orderIDOf(order, summaries)).collect(Collectors.toSet());
+
+		List<ArchivedOrder> archived = new ArrayList<ArchivedOrder>();
+		for (Object orderID : orderIDs) {
+			if (orderID instanceof Long && found.add((Long) orderID)) {
+				orderArchive.find(((Long) orderID).longValue()).ifPresent(archived::add);
+			}
+		}
+		return archived;
+	}
+
+	private List<?> convert(List<ArchivedOrder> archived, boolean summaries, OrderAccess access) {
+		return summaries ? toSummaries(archived, access.totalAmount()) : toOrders(archived);
+	}
+
+	/**
+	 * Add the archived orders, placed before those of the database, to the orders
+	 * from the database, with the summaries in order ID order as queried.
+	 */
+	private static List<?> merge(List<?> archived, List<?> fromDatabase, boolean summaries) {
+		if (archived.isEmpty()) {
+			return fromDatabase;
+		}
+
+		Set<Long> orderIDs = fromDatabase.stream().map(order -> orderIDOf(order, summaries))
+				.collect(Collectors.toSet());
+
+		List<Object> merged = new ArrayList<Object>(archived.size() + fromDatabase.size());
+		archived.stream().filter(order -> !orderIDs.contains(orderIDOf(order, summaries))).forEach(merged::add);
+		merged.addAll(fromDatabase);
+
+		if (summaries) {
+			merged.sort(Comparator.comparing(summary -> ((OrderSummary) summary).getOrderID()));
+		}
+		return merged;
+	}
+
+	private static Long orderIDOf(Object order, boolean summaries) {
+		return summaries ? ((OrderSummary) order).getOrderID() : ((Order) order).getOrderID();
+	}
+
+	/**
+	 * Get the type of the orders a repository method returns, in an Optional or a
+	 * List.
+	 */
+	private static Type elementTypeOf(Method method) {
+		Type returnType = method.getGenericReturnType();
+		return returnType instanceof ParameterizedType ? ((ParameterizedType) returnType).getActualTypeArguments()[0]
+				: returnType;
+	}
+
+	private List<Order> toOrders(List<ArchivedOrder> archived) {
+		Map<Long, Product> products = productsOf(archived);
+
+		return archived.stream().map(archivedOrder -> {
+			Order order = new Order(Long.valueOf(archivedOrder.getOrderID()), archivedOrder.getBuyerEmail(),
+					new Date(archivedOrder.getOrderPlacedTime()));
+			for (long stockKeepingUnitID : archivedOrder.getStockKeepingUnitIDs()) {
+				Product product = products.get(Long.valueOf(stockKeepingUnitID));
+				if (product != null) {
+					order.getProducts().add(product);
+				}
+			}
+			return order;
+		}).collect(Collectors.toList());
+	}
+
+	private List<OrderSummary> toSummaries(List<ArchivedOrder> archived, boolean totalAmount) {
+		Map<Long, Product> products = totalAmount ? productsOf(archived) : Map.of();
+
+		return archived.stream().map(order -> {
+			Long orderID = Long.valueOf(order.getOrderID());
+			Date orderPlacedTime = new Date(order.getOrderPlacedTime());
+			if (!totalAmount) {
+				return new OrderSummary(orderID, order.getBuyerEmail(), orderPlacedTime);
+			}
+
+			Double amount = null;
+			for (long stockKeepingUnitID : order.getStockKeepingUnitIDs()) {
+				Product product = products.get(Long.valueOf(stockKeepingUnitID));
+				if (product != null && product.getPrice() != null) {
+					amount = Double.valueOf((amount == null ? 0.0 : amount.doubleValue()) + product.getPrice());
+				}
+			}
+			return new OrderSummary(orderID, order.getBuyerEmail(), orderPlacedTime, amount);
+		}).collect(Collectors.toList());
+	}
+
+	private Map<Long, Product> productsOf(Collection<ArchivedOrder> archived) {
+		Set<Long> stockKeepingUnitIDs = archived.stream()
+				.flatMap(order -> Arrays.stream(order.getStockKeepingUnitIDs()).boxed())
+				.collect(Collectors.toSet());
+		if (stockKeepingUnitIDs.isEmpty()) {
+			return Map.of();
+		}
+
+		return productRepository.findByStockKeepingUnitIDIn(stockKeepingUnitIDs).stream()
+				.collect(Collectors.toMap(Product::getStockKeepingUnitID, Function.identity()));
+	}
+
+}
@@ -0,0 +1,205 @@
+package com.roche.service.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the orders older than the archive age, with their products, from the
+ * database to the segment files of the archive, in the background once the
+ * service is ready and then at each interval.
+ *
+ * Each segment is written before its orders are deleted from the database,
+ * within the same transaction, and is removed again if the transaction does
+ * not commit, so that an order is never lost nor archived twice.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderArchiver implements DisposableBean {
+
+	private static final String SELECT_ORDERS = "select o.order_id, o.buyer_email, o.order_placed_time, "
+			+ "po.stock_keeping_unit_id from (select order_id, buyer_email, order_placed_time from roche_order "
+			+ "where order_placed_time < ? order by order_placed_time, order_id limit ?) o "
+			+ "left join product_order po on po.order_id = o.order_id order by o.order_placed_time, o.order_id";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderArchiver.class);
+
+	/**
+	 * Archive the orders are moved to.
+	 */
+	private final OrderArchive orderArchive;
+
+	/**
+	 * Database the orders are moved from.
+	 */
+	private final JdbcTemplate database;
+
+	/**
+	 * Runs the moving of each segment in a transaction.
+	 */
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * Age and schedule of the archiving.
+	 */
+	private final ArchiveProperties properties;
+
+	/**
+	 * Runs the archiving at each interval.
+	 */
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructor for Order Archiver.
+	 *
+	 * @param orderArchive       OrderArchive - Archive the orders are moved to.
+	 * @param dataSource         DataSource - Database the orders are moved from.
+	 * @param transactionManager PlatformTransactionManager - Manager of the
+	 *                           transaction moving each segment.
+	 * @param properties         ArchiveProperties - Age and schedule of the
+	 *                           archiving.
+	 */
+	public OrderArchiver(OrderArchive orderArchive, DataSource dataSource,
+			PlatformTransactionManager transactionManager, ArchiveProperties properties) {
+		this.orderArchive = orderArchive;
+		this.database = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.properties = properties;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "order-archiver");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Start archiving at each interval once the service is ready.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		long interval = properties.getInterval().toMillis();
+
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				archive();
+			} catch (RuntimeException re) {
+				LOGGER.error("Could not archive the old orders", re);
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Move the orders older than the archive age to the archive, a segment at a
+	 * time.
+	 *
+	 * @return int - Number of orders archived.
+	 */
+	public int archive() {
+		Timestamp cutoff = new Timestamp(System.currentTimeMillis() - properties.getAge().toMillis());
+
+		int archived = 0;
+		int segmentOrders;
+		do {
+			segmentOrders = transactionTemplate.execute(status -> Integer.valueOf(archiveSegment(cutoff))).intValue();
+			archived += segmentOrders;
+		} while (segmentOrders == properties.getSegmentSize());
+
+		if (archived > 0) {
+			LOGGER.info("Archived {} orders placed before {}", Integer.valueOf(archived), cutoff.toInstant());
+		}
+		return archived;
+	}
+
+	/**
+	 * Stop archiving.
+	 */
+	@Override
+	public void destroy() {
+		scheduler.shutdownNow();
+	}
+
+	private int archiveSegment(Timestamp cutoff) {
+		List<ArchivedOrder> orders = new ArrayList<ArchivedOrder>();
+		List<Long> stockKeepingUnitIDs = new ArrayList<Long>();
+
+		database.query(SELECT_ORDERS, resultSet -> {
+			long orderID = resultSet.getLong(1);
+			ArchivedOrder last = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+
+			if (last == null || last.getOrderID() != orderID) {
+				if (last != null) {
+					orders.set(orders.size() - 1, withProducts(last, stockKeepingUnitIDs));
+				}
+				stockKeepingUnitIDs.clear();
+				orders.add(new ArchivedOrder(orderID, resultSet.getString(2), resultSet.getTimestamp(3).getTime(),
+						null));
+			}
+
+			long stockKeepingUnitID = resultSet.getLong(4);
+			if (!resultSet.wasNull()) {
+				stockKeepingUnitIDs.add(Long.valueOf(stockKeepingUnitID));
+			}
+		}, cutoff, Integer.valueOf(properties.getSegmentSize()));
+
+		if (orders.isEmpty()) {
+			return 0;
+		}
+		orders.set(orders.size() - 1, withProducts(orders.get(orders.size() - 1), stockKeepingUnitIDs));
+
+		Path segment;
+		try {
+			segment = orderArchive.append(orders);
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					try {
+						orderArchive.remove(segment);
+					} catch (IOException ioe) {
+						LOGGER.error("Could not remove the segment {} of orders not archived", segment, ioe);
+					}
+				}
+			}
+
+		});
+
+		List<Object[]> orderIDs = orders.stream().map(order -> new Object[] { Long.valueOf(order.getOrderID()) })
+				.collect(Collectors.toList());
+		database.batchUpdate("delete from product_order where order_id = ?", orderIDs);
+		database.batchUpdate("delete from roche_order where order_id = ?", orderIDs);
+
+		return orders.size();
+	}
+
+	private static ArchivedOrder withProducts(ArchivedOrder order, List<Long> stockKeepingUnitIDs) {
+		return new ArchivedOrder(order.getOrderID(), order.getBuyerEmail(), order.getOrderPlacedTime(),
+				stockKeepingUnitIDs.stream().mapToLong(Long::longValue).toArray());
+	}
+
+}
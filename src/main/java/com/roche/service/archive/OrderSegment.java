@@ -0,0 +1,298 @@
+package com.roche.service.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable file of archived orders, stored column by column and compressed.
+ *
+ * The header holds the number of orders and the bounds of their order placed
+ * times and order IDs, uncompressed, so that the segments are indexed without
+ * reading their orders. The columns that follow are deflated: the order IDs and
+ * order placed times as deltas, the buyer emails as indexes into a dictionary
+ * of the distinct emails, the number of products of each order and their Stock
+ * Keeping Unit IDs, each number written as a variable length integer.
+ *
+ * A segment is written to a temporary file, forced to the disk and moved into
+ * place, so that it is either complete or absent.
+ *
+ * @author amit modhvadia
+ *
+ */
+final class OrderSegment {
+
+	/**
+	 * Extension of the segment files.
+	 */
+	static final String EXTENSION = ".segment";
+
+	private static final int MAGIC = 0x4F524453;
+
+	private static final int VERSION = 1;
+
+	private final Path file;
+
+	private final int orderCount;
+
+	private final long minOrderPlacedTime;
+
+	private final long maxOrderPlacedTime;
+
+	private final long minOrderID;
+
+	private final long maxOrderID;
+
+	private OrderSegment(Path file, int orderCount, long minOrderPlacedTime, long maxOrderPlacedTime,
+			long minOrderID, long maxOrderID) {
+		this.file = file;
+		this.orderCount = orderCount;
+		this.minOrderPlacedTime = minOrderPlacedTime;
+		this.maxOrderPlacedTime = maxOrderPlacedTime;
+		this.minOrderID = minOrderID;
+		this.maxOrderID = maxOrderID;
+	}
+
+	/**
+	 * Write orders to a new segment.
+	 *
+	 * @param directory Path - Directory of the segments.
+	 * @param orders    List<ArchivedOrder> - Orders to write, at least one, in
+	 *                  the order they were placed.
+	 * @return OrderSegment - Segment written.
+	 * @throws IOException - If the segment could not be written.
+	 */
+	static OrderSegment write(Path directory, List<ArchivedOrder> orders) throws IOException {
+		long minOrderPlacedTime = Long.MAX_VALUE;
+		long maxOrderPlacedTime = Long.MIN_VALUE;
+		long minOrderID = Long.MAX_VALUE;
+		long maxOrderID = Long.MIN_VALUE;
+		for (ArchivedOrder order : orders) {
+			minOrderPlacedTime = Math.min(minOrderPlacedTime, order.getOrderPlacedTime());
+			maxOrderPlacedTime = Math.max(maxOrderPlacedTime, order.getOrderPlacedTime());
+			minOrderID = Math.min(minOrderID, order.getOrderID());
+			maxOrderID = Math.max(maxOrderID, order.getOrderID());
+		}
+
+		ArchivedOrder first = orders.get(0);
+		Path file = directory.resolve("orders-" + first.getOrderPlacedTime() + "-" + first.getOrderID() + EXTENSION);
+		Path temporaryFile = directory.resolve(file.getFileName() + ".tmp");
+
+		try (OutputStream fileStream = Files.newOutputStream(temporaryFile);
+				DataOutputStream header = new DataOutputStream(fileStream)) {
+			header.writeInt(MAGIC);
+			header.writeInt(VERSION);
+			header.writeInt(orders.size());
+			header.writeLong(minOrderPlacedTime);
+			header.writeLong(maxOrderPlacedTime);
+			header.writeLong(minOrderID);
+			header.writeLong(maxOrderID);
+			header.flush();
+
+			DeflaterOutputStream deflater = new DeflaterOutputStream(fileStream);
+			DataOutputStream columns = new DataOutputStream(new BufferedOutputStream(deflater));
+			writeColumns(columns, orders);
+			columns.flush();
+			deflater.finish();
+		}
+
+		try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+
+		return new OrderSegment(file, orders.size(), minOrderPlacedTime, maxOrderPlacedTime, minOrderID, maxOrderID);
+	}
+
+	/**
+	 * Open a segment, reading only its header.
+	 *
+	 * @param file Path - Segment file.
+	 * @return OrderSegment - Segment opened.
+	 * @throws IOException - If the file is not a segment or could not be read.
+	 */
+	static OrderSegment open(Path file) throws IOException {
+		try (DataInputStream header = new DataInputStream(Files.newInputStream(file))) {
+			if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+				throw new IOException(file + " is not an order archive segment");
+			}
+			return new OrderSegment(file, header.readInt(), header.readLong(), header.readLong(), header.readLong(),
+					header.readLong());
+		}
+	}
+
+	/**
+	 * Read the orders of the segment.
+	 *
+	 * @return List<ArchivedOrder> - Orders, in the order they were written.
+	 * @throws IOException - If the segment could not be read.
+	 */
+	List<ArchivedOrder> read() throws IOException {
+		try (InputStream fileStream = Files.newInputStream(file)) {
+			// Skip the header: magic, version, count and four bounds.
+			fileStream.readNBytes(3 * Integer.BYTES + 4 * Long.BYTES);
+
+			DataInputStream columns = new DataInputStream(
+					new BufferedInputStream(new InflaterInputStream(fileStream)));
+			return readColumns(columns, orderCount);
+		}
+	}
+
+	/**
+	 * Check whether orders placed within a time period may be in the segment.
+	 *
+	 * @param from long - Start of the time period, included.
+	 * @param to   long - End of the time period, excluded.
+	 * @return boolean - True if the time period overlaps the segment.
+	 */
+	boolean overlaps(long from, long to) {
+		return minOrderPlacedTime < to && maxOrderPlacedTime >= from;
+	}
+
+	/**
+	 * Check whether an order may be in the segment.
+	 *
+	 * @param orderID long - Order ID of the order.
+	 * @return boolean - True if the order ID is within the bounds of the segment.
+	 */
+	boolean mayContain(long orderID) {
+		return orderID >= minOrderID && orderID <= maxOrderID;
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	int getOrderCount() {
+		return orderCount;
+	}
+
+	long getMinOrderPlacedTime() {
+		return minOrderPlacedTime;
+	}
+
+	private static void writeColumns(DataOutputStream columns, List<ArchivedOrder> orders) throws IOException {
+		long previous = 0;
+		for (ArchivedOrder order : orders) {
+			writeVarLong(columns, zigZag(order.getOrderID() - previous));
+			previous = order.getOrderID();
+		}
+
+		previous = 0;
+		for (ArchivedOrder order : orders) {
+			writeVarLong(columns, zigZag(order.getOrderPlacedTime() - previous));
+			previous = order.getOrderPlacedTime();
+		}
+
+		// Index 0 stands for no buyer email.
+		Map<String, Integer> dictionary = new HashMap<String, Integer>();
+		List<String> emails = new ArrayList<String>();
+		for (ArchivedOrder order : orders) {
+			if (order.getBuyerEmail() != null && !dictionary.containsKey(order.getBuyerEmail())) {
+				dictionary.put(order.getBuyerEmail(), Integer.valueOf(emails.size() + 1));
+				emails.add(order.getBuyerEmail());
+			}
+		}
+		writeVarLong(columns, emails.size());
+		for (String email : emails) {
+			columns.writeUTF(email);
+		}
+		for (ArchivedOrder order : orders) {
+			writeVarLong(columns, order.getBuyerEmail() == null ? 0 : dictionary.get(order.getBuyerEmail()).intValue());
+		}
+
+		for (ArchivedOrder order : orders) {
+			writeVarLong(columns, order.getStockKeepingUnitIDs().length);
+		}
+		for (ArchivedOrder order : orders) {
+			for (long stockKeepingUnitID : order.getStockKeepingUnitIDs()) {
+				writeVarLong(columns, stockKeepingUnitID);
+			}
+		}
+	}
+
+	private static List<ArchivedOrder> readColumns(DataInputStream columns, int orderCount) throws IOException {
+		long[] orderIDs = new long[orderCount];
+		long previous = 0;
+		for (int order = 0; order < orderCount; order++) {
+			previous += unZigZag(readVarLong(columns));
+			orderIDs[order] = previous;
+		}
+
+		long[] orderPlacedTimes = new long[orderCount];
+		previous = 0;
+		for (int order = 0; order < orderCount; order++) {
+			previous += unZigZag(readVarLong(columns));
+			orderPlacedTimes[order] = previous;
+		}
+
+		String[] emails = new String[(int) readVarLong(columns) + 1];
+		for (int email = 1; email < emails.length; email++) {
+			emails[email] = columns.readUTF();
+		}
+		String[] buyerEmails = new String[orderCount];
+		for (int order = 0; order < orderCount; order++) {
+			buyerEmails[order] = emails[(int) readVarLong(columns)];
+		}
+
+		int[] productCounts = new int[orderCount];
+		for (int order = 0; order < orderCount; order++) {
+			productCounts[order] = (int) readVarLong(columns);
+		}
+
+		List<ArchivedOrder> orders = new ArrayList<ArchivedOrder>(orderCount);
+		for (int order = 0; order < orderCount; order++) {
+			long[] stockKeepingUnitIDs = new long[productCounts[order]];
+			for (int product = 0; product < stockKeepingUnitIDs.length; product++) {
+				stockKeepingUnitIDs[product] = readVarLong(columns);
+			}
+			orders.add(new ArchivedOrder(orderIDs[order], buyerEmails[order], orderPlacedTimes[order],
+					stockKeepingUnitIDs));
+		}
+		return orders;
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.roche.service.archive.exception;
+
+/**
+ * Archived Order Exception, thrown when an archived order is changed.
+ * 
+ * @author amit modhvadia
+ *
+ */
+public class ArchivedOrderException extends RuntimeException {
+
+	private static final long serialVersionUID = 4478196385015385432L;
+
+	/**
+	 * Archived order message.
+	 */
+	private static final String ARCHIVED_ORDER_MESSAGE = "Cannot change archived order ";
+
+	/**
+	 * Constructor for Archived Order Exception.
+	 * 
+	 * @param orderID Long - Order ID of the archived order.
+	 */
+	public ArchivedOrderException(Long orderID) {
+		super(ARCHIVED_ORDER_MESSAGE + orderID);
+	}
+}
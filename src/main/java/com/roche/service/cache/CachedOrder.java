@@ -0,0 +1,162 @@
+package com.roche.service.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import com.roche.service.order.Order;
+import com.roche.service.product.Product;
+
+/**
+ * Order as held by the order cache, with its products and their total amount,
+ * detached from any persistence context and never changed once created.
+ *
+ * Each request is given its own copy of the order and its products, so that
+ * the referential links added to them are not shared.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class CachedOrder {
+
+	/**
+	 * Approximate size of an order held without its buyer email and products,
+	 * including its entry in the cache, with compressed references.
+	 */
+	private static final int ORDER_SIZE = 192;
+
+	/**
+	 * Approximate size of a product held without its name.
+	 */
+	private static final int PRODUCT_SIZE = 112;
+
+	/**
+	 * Approximate size of a string without its characters.
+	 */
+	private static final int STRING_SIZE = 40;
+
+	private final Long orderID;
+
+	private final String buyerEmail;
+
+	private final long orderPlacedTime;
+
+	private final List<Product> products;
+
+	private final Float totalAmount;
+
+	/**
+	 * Constructor for Cached Order.
+	 *
+	 * @param orderID         Long - Order ID of the order.
+	 * @param buyerEmail      String - Email address of the buyer.
+	 * @param orderPlacedTime long - Milliseconds since the epoch the order was
+	 *                        placed at.
+	 * @param products        List<Product> - Copies of the products of the order,
+	 *                        which are not changed.
+	 * @param totalAmount     Float - Total amount of the products of the order.
+	 */
+	private CachedOrder(Long orderID, String buyerEmail, long orderPlacedTime, List<Product> products,
+			Float totalAmount) {
+		this.orderID = orderID;
+		this.buyerEmail = buyerEmail;
+		this.orderPlacedTime = orderPlacedTime;
+		this.products = products;
+		this.totalAmount = totalAmount;
+	}
+
+	/**
+	 * Copy an order read, with its products, and total the prices of the
+	 * products.
+	 *
+	 * @param order Order - Order read, its products loaded when copied.
+	 * @return CachedOrder - Copy of the order.
+	 */
+	public static CachedOrder of(Order order) {
+		Product[] products = new Product[order.getProducts().size()];
+		float totalAmount = 0.0f;
+
+		for (int index = 0; index < products.length; index++) {
+			Product product = order.getProducts().get(index);
+			products[index] = copyOf(product);
+
+			if (product != null) {
+				totalAmount = totalAmount + product.getPrice();
+			}
+		}
+
+		return new CachedOrder(order.getOrderID(), order.getBuyerEmail(), order.getOrderPlacedTime().getTime(),
+				Collections.unmodifiableList(Arrays.asList(products)), Float.valueOf(totalAmount));
+	}
+
+	/**
+	 * Copy the order for a request, with copies of its products.
+	 *
+	 * @return Order - Copy of the order, not attached to a persistence context.
+	 */
+	public Order toOrder() {
+		Order order = new Order(orderID, buyerEmail, new Date(orderPlacedTime));
+
+		for (Product product : products) {
+			order.getProducts().add(copyOf(product));
+		}
+
+		return order;
+	}
+
+	/**
+	 * Get the order ID of the order.
+	 *
+	 * @return Long - Order ID.
+	 */
+	public Long getOrderID() {
+		return orderID;
+	}
+
+	/**
+	 * Get the total amount of the products of the order.
+	 *
+	 * @return Float - Total amount.
+	 */
+	public Float getTotalAmount() {
+		return totalAmount;
+	}
+
+	/**
+	 * Estimate the memory the order takes while held by the cache.
+	 *
+	 * @return int - Approximate size in bytes.
+	 */
+	int estimateSize() {
+		int size = ORDER_SIZE + sizeOf(buyerEmail);
+
+		for (Product product : products) {
+			size += product == null ? 0 : PRODUCT_SIZE + sizeOf(product.getName());
+		}
+
+		return size;
+	}
+
+	private static int sizeOf(String value) {
+		return value == null ? 0 : STRING_SIZE + value.length();
+	}
+
+	/**
+	 * Copy the fields of a product, without its orders or links.
+	 */
+	private static Product copyOf(Product product) {
+		if (product == null) {
+			return null;
+		}
+
+		Product copy = new Product(product.getStockKeepingUnitID());
+		copy.setName(product.getName());
+		copy.setPrice(product.getPrice());
+		copy.setCreationDate(product.getCreationDate());
+		copy.setDeletionFlag(product.getDeletionFlag());
+		copy.setChangeVersion(product.getChangeVersion());
+		return copy;
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.roche.service.cache;
+
+import java.util.Optional;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roche.service.order.OrderEvent;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.product.ProductEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Orders read by order ID held in memory with their products and total amount,
+ * so that retrieving an order, its products and its total amount in turn only
+ * queries the database once.
+ *
+ * The orders held are bounded by the approximate memory they take, those not
+ * read recently evicted first, and each is held for a time to live after it
+ * was read. An order is evicted once a change to its buyer email commits, and
+ * all the orders once a product is replaced or marked for deletion, as the
+ * orders of a product are not known. Orders detached with their month are
+ * evicted by the partition endpoint.
+ *
+ * Hits, misses, puts and evictions are recorded as the cache.gets, cache.puts
+ * and cache.evictions metrics tagged with cache=orders, and the approximate
+ * memory taken as the cache.memory gauge.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@EnableConfigurationProperties(OrderCacheProperties.class)
+public class OrderCache {
+
+	/**
+	 * Name of the cache in its metrics.
+	 */
+	public static final String CACHE_NAME = "orders";
+
+	/**
+	 * Repository for retrieving the orders not held.
+	 */
+	private final OrderRepository orderRepository;
+
+	/**
+	 * Orders by order ID, null if the cache is turned off.
+	 */
+	private final Cache<Long, CachedOrder> orders;
+
+	/**
+	 * Constructor for Order Cache.
+	 *
+	 * @param orderRepository OrderRepository - Repository for retrieving the
+	 *                        orders not held.
+	 * @param properties      OrderCacheProperties - Whether the orders are held,
+	 *                        for how long and within how much memory.
+	 * @param meterRegistry   MeterRegistry - Registry the metrics of the cache
+	 *                        are registered with.
+	 */
+	public OrderCache(OrderRepository orderRepository, OrderCacheProperties properties,
+			MeterRegistry meterRegistry) {
+
+		this.orderRepository = orderRepository;
+
+		if (!properties.isEnabled()) {
+			orders = null;
+			return;
+		}
+
+		orders = Caffeine.newBuilder().maximumWeight(properties.getMaximumSize().toBytes())
+				.weigher((Long orderID, CachedOrder order) -> order.estimateSize())
+				.expireAfterWrite(properties.getTimeToLive()).recordStats().build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, orders, CACHE_NAME);
+
+		Gauge.builder("cache.memory", orders, cache -> cache.policy().eviction().get().weightedSize().getAsLong())
+				.tag("cache", CACHE_NAME).description("Approximate memory taken by the entries held").baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Get an order for the order ID provided, reading it with its products when
+	 * it is not held.
+	 *
+	 * An order read while its buyer email is changed is evicted once the change
+	 * commits, as the eviction waits for the order to be held. Within a
+	 * transaction the order is read from the database and not held, as the
+	 * transaction may see changes that are rolled back, such as the orders placed
+	 * by the warm-up.
+	 *
+	 * @param orderID Long - Order ID of the order.
+	 * @return Optional<CachedOrder> - Order, empty if it does not exist.
+	 */
+	public Optional<CachedOrder> find(Long orderID) {
+
+		if (orders == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+			return orderRepository.findById(orderID).map(CachedOrder::of);
+		}
+
+		return Optional.ofNullable(
+				orders.get(orderID, id -> orderRepository.findById(id).map(CachedOrder::of).orElse(null)));
+	}
+
+	/**
+	 * Evict all the orders, such as when orders are removed from the database.
+	 */
+	public void evictAll() {
+		if (orders != null) {
+			orders.invalidateAll();
+		}
+	}
+
+	/**
+	 * Evict an order once a change to it commits.
+	 *
+	 * @param event OrderEvent - Order placed or changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void orderChanged(OrderEvent event) {
+
+		if (orders != null && event.getType() != OrderEvent.Type.PLACED) {
+			orders.invalidate(event.getOrder().getOrderID());
+		}
+	}
+
+	/**
+	 * Evict all the orders once a product is replaced or marked for deletion, as
+	 * their products and total amounts may have changed.
+	 *
+	 * @param event ProductEvent - Product changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void productChanged(ProductEvent event) {
+
+		if (event.getType() != ProductEvent.Type.CREATED) {
+			evictAll();
+		}
+	}
+
+	/**
+	 * Get the approximate number of orders held.
+	 *
+	 * @return long - Number of orders, zero if the cache is turned off.
+	 */
+	public long size() {
+		return orders == null ? 0L : orders.estimatedSize();
+	}
+
+}
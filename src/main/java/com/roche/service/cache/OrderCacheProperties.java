@@ -0,0 +1,58 @@
+package com.roche.service.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Whether the orders read are held in the order cache, for how long and within
+ * how much memory, set as order-service.order-cache.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.order-cache")
+public class OrderCacheProperties {
+
+	/**
+	 * Whether the orders read are held in the cache.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Approximate memory the orders held may take, those not read recently
+	 * evicted first once it is reached.
+	 */
+	private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+	/**
+	 * Time an order is held after it was read from the database.
+	 */
+	private Duration timeToLive = Duration.ofMinutes(5);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public DataSize getMaximumSize() {
+		return maximumSize;
+	}
+
+	public void setMaximumSize(DataSize maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	public void setTimeToLive(Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+}
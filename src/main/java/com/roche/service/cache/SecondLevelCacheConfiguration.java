@@ -0,0 +1,112 @@
+package com.roche.service.cache;
+
+import java.net.URI;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.impl.copy.IdentityCopier;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.spi.copy.Copier;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.roche.service.order.Order;
+import com.roche.service.product.Product;
+
+/**
+ * Holds the products, and the products of each order, in the Hibernate
+ * second-level cache, unless order-service.second-level-cache.enabled is false.
+ *
+ * The cache is a JCache backed by Ehcache, with a region for each bounded by
+ * its number of entries. Both are read-write, so a product replaced or marked
+ * for deletion is updated in the cache as the transaction changing it
+ * commits. Hits, misses and puts across the regions are recorded as the
+ * hibernate.second.level.cache.requests and puts metrics.
+ *
+ * Rows deleted with SQL, such as those of the orders archived or detached,
+ * leave the products of those orders in the cache until evicted, which is
+ * harmless as the orders are no longer found.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfiguration {
+
+	/**
+	 * Region of the products.
+	 */
+	public static final String PRODUCT_REGION = Product.class.getName();
+
+	/**
+	 * Region of the products of each order.
+	 */
+	public static final String ORDER_PRODUCTS_REGION = Order.class.getName() + ".products";
+
+	/**
+	 * Pass the second-level cache settings to Hibernate, with a new cache manager
+	 * for the regions, closed by Hibernate with its session factory.
+	 *
+	 * @param properties SecondLevelCacheProperties - Whether the cache is used,
+	 *                   and the size of its regions.
+	 * @return HibernatePropertiesCustomizer - Customizer adding the cache to the
+	 *         Hibernate settings.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties) {
+		return hibernateProperties -> {
+
+			// Hibernate would otherwise find the JCache region factory on the class path.
+			hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE,
+					Boolean.valueOf(properties.isEnabled()));
+
+			if (properties.isEnabled()) {
+				hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+				hibernateProperties.put(ConfigSettings.CACHE_MANAGER, createCacheManager(properties));
+				hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+
+				// The products of an order are mapped by the orders of each product, so evict
+				// them when those change.
+				hibernateProperties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, Boolean.TRUE);
+			}
+		};
+	}
+
+	/**
+	 * Create a cache manager of its own for each session factory, as several may
+	 * be open at once, such as in the tests.
+	 */
+	private static CacheManager createCacheManager(SecondLevelCacheProperties properties) {
+		EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+				.getCachingProvider(EhcacheCachingProvider.class.getName());
+
+		return provider.getCacheManager(URI.create("urn:order-service:second-level-cache:" + UUID.randomUUID()),
+				ConfigurationBuilder.newConfigurationBuilder()
+						.withCache(PRODUCT_REGION, region(properties.getProductEntries()))
+						.withCache(ORDER_PRODUCTS_REGION, region(properties.getOrderProductsEntries())).build());
+	}
+
+	/**
+	 * Configure a region holding up to a number of entries on the heap, by
+	 * reference rather than copied, as Hibernate only caches immutable entries.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static CacheConfigurationBuilder<Object, Object> region(long entries) {
+		Class<? extends Copier<Object>> identityCopier = (Class) IdentityCopier.class;
+
+		return CacheConfigurationBuilder
+				.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(entries))
+				.withKeyCopier(identityCopier).withValueCopier(identityCopier);
+	}
+
+}
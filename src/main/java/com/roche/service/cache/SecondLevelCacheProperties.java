@@ -0,0 +1,56 @@
+package com.roche.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Whether the products and the products of each order are held in the
+ * Hibernate second-level cache, and how many of each, set as
+ * order-service.second-level-cache.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.second-level-cache")
+public class SecondLevelCacheProperties {
+
+	/**
+	 * Whether the second-level cache is used.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of products held, those not read recently evicted first.
+	 */
+	private long productEntries = 10_000;
+
+	/**
+	 * Maximum number of orders whose products are held, those not read recently
+	 * evicted first.
+	 */
+	private long orderProductsEntries = 10_000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getProductEntries() {
+		return productEntries;
+	}
+
+	public void setProductEntries(long productEntries) {
+		this.productEntries = productEntries;
+	}
+
+	public long getOrderProductsEntries() {
+		return orderProductsEntries;
+	}
+
+	public void setOrderProductsEntries(long orderProductsEntries) {
+		this.orderProductsEntries = orderProductsEntries;
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.roche.service.catalog;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Whether the product catalog is held in memory, how often it is refreshed, and
+ * where and how often its snapshot is written, set as order-service.catalog.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.catalog")
+public class CatalogProperties {
+
+	/**
+	 * Whether the products are looked up in memory rather than in the database.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Whether the catalog is loaded from, and written to, a snapshot file.
+	 */
+	private boolean snapshotEnabled = true;
+
+	/**
+	 * File the snapshot is written to.
+	 */
+	private String snapshotFile = System.getProperty("user.home") + "/data/product-catalog.snapshot";
+
+	/**
+	 * Interval between snapshots written while the service runs, as well as when
+	 * it stops. Zero for only when it stops.
+	 */
+	private Duration snapshotInterval = Duration.ofMinutes(5);
+
+	/**
+	 * Interval between reads of the products changed in the database, such as by
+	 * other instances of the service, bounding how long a product held can be
+	 * out of date. Zero for only the changes made by this instance.
+	 */
+	private Duration refreshInterval = Duration.ofSeconds(10);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isSnapshotEnabled() {
+		return snapshotEnabled;
+	}
+
+	public void setSnapshotEnabled(boolean snapshotEnabled) {
+		this.snapshotEnabled = snapshotEnabled;
+	}
+
+	public String getSnapshotFile() {
+		return snapshotFile;
+	}
+
+	public void setSnapshotFile(String snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	public Duration getSnapshotInterval() {
+		return snapshotInterval;
+	}
+
+	public void setSnapshotInterval(Duration snapshotInterval) {
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	public Duration getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	public void setRefreshInterval(Duration refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+}
@@ -0,0 +1,246 @@
+package com.roche.service.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import com.roche.service.product.Product;
+
+/**
+ * Products of the catalog as of a change version, written to a file in a
+ * compact binary layout so that the catalog can be loaded without retrieving
+ * every product when the service starts.
+ *
+ * Layout - [int magic][int format][long version][long writtenAt][int count],
+ * then for each product [long stockKeepingUnitID][byte flags][int nameLength]
+ * [name UTF-8][float price][long creationDate][long changeVersion], where only
+ * the fields present according to the flags are written, then a [long crc32]
+ * of everything before it.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class CatalogSnapshot {
+
+	static final int MAGIC = 0x50434153;
+
+	static final int FORMAT = 1;
+
+	private static final int HEADER_LENGTH = 28;
+
+	private static final int CHECKSUM_LENGTH = 8;
+
+	private static final int DELETED = 1;
+	private static final int HAS_NAME = 1 << 1;
+	private static final int HAS_PRICE = 1 << 2;
+	private static final int HAS_CREATION_DATE = 1 << 3;
+	private static final int HAS_CHANGE_VERSION = 1 << 4;
+
+	/**
+	 * Change version of the catalog the snapshot was written at.
+	 */
+	private final long version;
+
+	/**
+	 * Time the snapshot was written at, in milliseconds since the epoch.
+	 */
+	private final long writtenAt;
+
+	/**
+	 * Products of the catalog, including those marked for deletion.
+	 */
+	private final List<Product> products;
+
+	private CatalogSnapshot(long version, long writtenAt, List<Product> products) {
+		this.version = version;
+		this.writtenAt = writtenAt;
+		this.products = products;
+	}
+
+	/**
+	 * Write the products of the catalog to the file provided, replacing the
+	 * previous snapshot only once the new snapshot is complete.
+	 *
+	 * @param file     Path - File the snapshot is written to.
+	 * @param version  long - Change version of the catalog.
+	 * @param products Collection<Product> - Products of the catalog.
+	 * @throws IOException - If the snapshot could not be written.
+	 */
+	public static void write(Path file, long version, Collection<Product> products) throws IOException {
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+
+		Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+		try {
+			CRC32 crc = new CRC32();
+
+			try (OutputStream fileOut = Files.newOutputStream(temporaryFile);
+					DataOutputStream out = new DataOutputStream(
+							new CheckedOutputStream(new BufferedOutputStream(fileOut), crc))) {
+
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT);
+				out.writeLong(version);
+				out.writeLong(System.currentTimeMillis());
+				out.writeInt(products.size());
+
+				for (Product product : products) {
+					writeProduct(product, out);
+				}
+
+				// The checksum covers everything written before it.
+				out.flush();
+				new DataOutputStream(fileOut).writeLong(crc.getValue());
+			}
+
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Read the snapshot from the file provided, memory-mapping it, once its
+	 * checksum is verified.
+	 *
+	 * @param file Path - File the snapshot was written to.
+	 * @return CatalogSnapshot - Snapshot read.
+	 * @throws IOException - If the snapshot could not be read, or is not a
+	 *                     complete snapshot in the current format.
+	 */
+	public static CatalogSnapshot read(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			if (size < HEADER_LENGTH + CHECKSUM_LENGTH || size > Integer.MAX_VALUE) {
+				throw new IOException("Not a catalog snapshot - " + file);
+			}
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			ByteBuffer body = buffer.duplicate();
+			body.limit((int) size - CHECKSUM_LENGTH);
+			CRC32 crc = new CRC32();
+			crc.update(body);
+
+			if (crc.getValue() != buffer.getLong((int) size - CHECKSUM_LENGTH)) {
+				throw new IOException("Checksum mismatch for catalog snapshot " + file);
+			}
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+				throw new IOException("Unsupported catalog snapshot format - " + file);
+			}
+
+			long version = buffer.getLong();
+			long writtenAt = buffer.getLong();
+			int count = buffer.getInt();
+
+			buffer.limit((int) size - CHECKSUM_LENGTH);
+
+			List<Product> products = new ArrayList<Product>(count);
+			for (int index = 0; index < count; index++) {
+				products.add(readProduct(buffer));
+			}
+
+			return new CatalogSnapshot(version, writtenAt, Collections.unmodifiableList(products));
+		} catch (RuntimeException re) {
+
+			// A truncated or malformed product within a snapshot whose checksum matched.
+			throw new IOException("Malformed catalog snapshot " + file, re);
+		}
+	}
+
+	private static void writeProduct(Product product, DataOutputStream out) throws IOException {
+		int flags = (Boolean.TRUE.equals(product.getDeletionFlag()) ? DELETED : 0)
+				| (product.getName() != null ? HAS_NAME : 0) | (product.getPrice() != null ? HAS_PRICE : 0)
+				| (product.getCreationDate() != null ? HAS_CREATION_DATE : 0)
+				| (product.getChangeVersion() != null ? HAS_CHANGE_VERSION : 0);
+
+		out.writeLong(product.getStockKeepingUnitID().longValue());
+		out.writeByte(flags);
+
+		if (product.getName() != null) {
+			byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+			out.writeInt(name.length);
+			out.write(name);
+		}
+		if (product.getPrice() != null) {
+			out.writeFloat(product.getPrice().floatValue());
+		}
+		if (product.getCreationDate() != null) {
+			out.writeLong(product.getCreationDate().getTime());
+		}
+		if (product.getChangeVersion() != null) {
+			out.writeLong(product.getChangeVersion().longValue());
+		}
+	}
+
+	private static Product readProduct(ByteBuffer buffer) {
+		Product product = new Product(Long.valueOf(buffer.getLong()));
+		int flags = buffer.get();
+
+		product.setDeletionFlag(Boolean.valueOf((flags & DELETED) != 0));
+
+		if ((flags & HAS_NAME) != 0) {
+			int length = buffer.getInt();
+			ByteBuffer name = buffer.slice();
+			name.limit(length);
+			buffer.position(buffer.position() + length);
+			product.setName(StandardCharsets.UTF_8.decode(name).toString());
+		}
+		if ((flags & HAS_PRICE) != 0) {
+			product.setPrice(Float.valueOf(buffer.getFloat()));
+		}
+		product.setCreationDate((flags & HAS_CREATION_DATE) != 0 ? new Date(buffer.getLong()) : null);
+		if ((flags & HAS_CHANGE_VERSION) != 0) {
+			product.setChangeVersion(Long.valueOf(buffer.getLong()));
+		}
+
+		return product;
+	}
+
+	/**
+	 * Get the change version of the catalog the snapshot was written at.
+	 *
+	 * @return long - Change version.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get the time the snapshot was written at.
+	 *
+	 * @return long - Milliseconds since the epoch.
+	 */
+	public long getWrittenAt() {
+		return writtenAt;
+	}
+
+	/**
+	 * Get the products of the catalog, including those marked for deletion.
+	 *
+	 * @return List<Product> - Products.
+	 */
+	public List<Product> getProducts() {
+		return products;
+	}
+
+}
@@ -0,0 +1,415 @@
+package com.roche.service.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductEvent;
+import com.roche.service.product.ProductRepository;
+
+/**
+ * Products of the catalog held in memory, so that looking up a product does not
+ * need to query the database.
+ *
+ * The catalog is loaded once the service has started, before it reports being
+ * ready, from the snapshot written when it last stopped together with the
+ * products changed since, or from the database when there is no usable
+ * snapshot. It is kept up to date with the products created, replaced and
+ * deleted by this instance of the service as they commit, and with those
+ * changed in the database, such as by other instances sharing it, by reading
+ * the changes at intervals, so a product held is out of date for at most the
+ * refresh interval. It is written to the snapshot at intervals and when the
+ * service stops.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@EnableConfigurationProperties(CatalogProperties.class)
+public class ProductCatalog implements DisposableBean {
+
+	/**
+	 * Number of change versions before the snapshot, or the latest version held,
+	 * that are read again when the snapshot is loaded or the catalog refreshed, as
+	 * products changed concurrently can be saved out of version order.
+	 */
+	static final long CHANGE_VERSION_OVERLAP = 1000L;
+
+	/**
+	 * Maximum number of changed products retrieved at once.
+	 */
+	private static final int CHANGES_PAGE_SIZE = 1000;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductCatalog.class);
+
+	/**
+	 * Repository for retrieving the products when there is no usable snapshot.
+	 */
+	private final ProductRepository productRepository;
+
+	/**
+	 * Whether the catalog is held in memory, and its snapshot.
+	 */
+	private final CatalogProperties properties;
+
+	/**
+	 * Products by Stock Keeping Unit ID, including those marked for deletion.
+	 */
+	private final ConcurrentMap<Long, Product> products = new ConcurrentHashMap<Long, Product>();
+
+	/**
+	 * Highest change version of the products held.
+	 */
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Whether the products have changed since the last snapshot was written.
+	 */
+	private final AtomicBoolean changed = new AtomicBoolean();
+
+	/**
+	 * Whether the catalog has been loaded, before which the products are looked up
+	 * in the database.
+	 */
+	private volatile boolean loaded;
+
+	/**
+	 * Refreshes the catalog and writes the snapshots at intervals, null if neither
+	 * is done at intervals.
+	 */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructor for Product Catalog.
+	 *
+	 * @param productRepository ProductRepository - Repository for retrieving the
+	 *                          products.
+	 * @param properties        CatalogProperties - Whether the catalog is held in
+	 *                          memory, and its snapshot.
+	 */
+	public ProductCatalog(ProductRepository productRepository, CatalogProperties properties) {
+
+		this.productRepository = productRepository;
+		this.properties = properties;
+	}
+
+	/**
+	 * Get a product for the Stock Keeping Unit ID provided, including a product
+	 * marked for deletion.
+	 *
+	 * A product changed by another instance of the service is returned as it was
+	 * held until the catalog is next refreshed.
+	 *
+	 * @param stockKeepingUnitID Long - Stock Keeping Unit ID of the product.
+	 * @return Optional<Product> - Product, empty if it does not exist.
+	 */
+	public Optional<Product> find(Long stockKeepingUnitID) {
+
+		if (!loaded) {
+			return productRepository.findById(stockKeepingUnitID);
+		}
+
+		Product product = products.get(stockKeepingUnitID);
+
+		if (product == null) {
+
+			// Created by another instance of the service since the catalog was loaded,
+			// unless it was created in the current transaction, which may not be
+			// committed.
+			Optional<Product> retrievedProduct = productRepository.findById(stockKeepingUnitID);
+
+			return TransactionSynchronizationManager.isActualTransactionActive() ? retrievedProduct
+					: retrievedProduct.map(ProductCatalog::copyOf).map(this::put);
+		}
+
+		return Optional.of(product);
+	}
+
+	/**
+	 * Load the catalog once the service has started, ahead of the other listeners
+	 * such as the warm-up, so that it is loaded before the service reports being
+	 * ready.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void load() {
+
+		if (!properties.isEnabled()) {
+			return;
+		}
+
+		long startTime = System.nanoTime();
+
+		CatalogSnapshot snapshot = readSnapshot(productRepository.findLatestChangeVersion().longValue());
+
+		if (snapshot != null) {
+			snapshot.getProducts().forEach(this::put);
+
+			// Bring the snapshot up to date with the products changed since it was written.
+			int changedProducts = loadChangesAfter(Math.max(0L, snapshot.getVersion() - CHANGE_VERSION_OVERLAP));
+
+			if (products.size() == productRepository.count()) {
+				LOGGER.info(
+						"Loaded {} products from the catalog snapshot at version {}, then {} changed around or since it, in {} ms",
+						snapshot.getProducts().size(), snapshot.getVersion(), changedProducts,
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+			} else {
+				LOGGER.warn("Catalog snapshot at version {} does not match the products in the database, ignoring it",
+						snapshot.getVersion());
+				products.clear();
+				snapshot = null;
+			}
+		}
+
+		if (snapshot == null) {
+			productRepository.findAll().forEach(product -> put(copyOf(product)));
+			changed.set(true);
+
+			LOGGER.info("Loaded {} products from the database in {} ms", products.size(),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+		}
+
+		loaded = true;
+
+		boolean refreshed = !properties.getRefreshInterval().isZero();
+		boolean snapshotWritten = properties.isSnapshotEnabled() && !properties.getSnapshotInterval().isZero();
+
+		if (refreshed || snapshotWritten) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "product-catalog");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		if (refreshed) {
+			long interval = properties.getRefreshInterval().toMillis();
+			scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+		}
+
+		if (snapshotWritten) {
+			long interval = properties.getSnapshotInterval().toMillis();
+			scheduler.scheduleWithFixedDelay(this::writeSnapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Hold the products changed in the database since the latest change version
+	 * held, including those changed by other instances of the service. The
+	 * changes just before it are read again, so that a change that committed
+	 * after a later version is not missed.
+	 *
+	 * @return int - Number of products changed since they were held.
+	 */
+	public int refresh() {
+
+		if (!loaded) {
+			return 0;
+		}
+
+		int changedProducts = loadChangesAfter(Math.max(0L, version.get() - CHANGE_VERSION_OVERLAP));
+
+		if (changedProducts > 0) {
+			changed.set(true);
+			LOGGER.debug("Refreshed {} products of the catalog changed in the database", changedProducts);
+		}
+
+		return changedProducts;
+	}
+
+	/**
+	 * Hold the product created, replaced or marked for deletion, once committed.
+	 *
+	 * @param event ProductEvent - Product changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void productChanged(ProductEvent event) {
+
+		if (properties.isEnabled()) {
+			put(copyOf(event.getProduct()));
+			changed.set(true);
+		}
+	}
+
+	/**
+	 * Write the snapshot, unless the products have not changed since the last one.
+	 *
+	 * @throws IOException - If the snapshot could not be written.
+	 */
+	public synchronized void writeSnapshot() throws IOException {
+
+		if (!loaded || !properties.isSnapshotEnabled() || !changed.getAndSet(false)) {
+			return;
+		}
+
+		long snapshotVersion = version.get();
+		List<Product> snapshotProducts = new ArrayList<Product>(products.values());
+
+		try {
+			CatalogSnapshot.write(Paths.get(properties.getSnapshotFile()), snapshotVersion, snapshotProducts);
+		} catch (IOException ioe) {
+			changed.set(true);
+			throw ioe;
+		}
+
+		LOGGER.debug("Wrote {} products to the catalog snapshot at version {}", snapshotProducts.size(),
+				snapshotVersion);
+	}
+
+	/**
+	 * Stop refreshing the catalog and writing the snapshot at intervals, and write
+	 * the final snapshot.
+	 */
+	@Override
+	public void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		writeSnapshotQuietly();
+	}
+
+	/**
+	 * Get the number of products held, including those marked for deletion.
+	 *
+	 * @return int - Number of products.
+	 */
+	public int size() {
+		return products.size();
+	}
+
+	/**
+	 * Get the highest change version of the products held.
+	 *
+	 * @return long - Change version.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	private CatalogSnapshot readSnapshot(long databaseVersion) {
+
+		if (!properties.isSnapshotEnabled()) {
+			return null;
+		}
+
+		Path file = Paths.get(properties.getSnapshotFile());
+
+		if (!Files.exists(file)) {
+			return null;
+		}
+
+		try {
+			CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+
+			if (snapshot.getVersion() > databaseVersion) {
+				LOGGER.warn("Catalog snapshot at version {} is ahead of the database at version {}, ignoring it",
+						snapshot.getVersion(), databaseVersion);
+				return null;
+			}
+
+			return snapshot;
+		} catch (IOException ioe) {
+			LOGGER.warn("Could not read the catalog snapshot, ignoring it", ioe);
+			return null;
+		}
+	}
+
+	/**
+	 * Hold the products changed after the change version provided, counting those
+	 * not already held at their change version.
+	 */
+	private int loadChangesAfter(long changeVersion) {
+		int changedProducts = 0;
+
+		List<Product> page;
+		do {
+			page = productRepository.findByChangeVersionGreaterThanOrderByChangeVersion(Long.valueOf(changeVersion),
+					PageRequest.of(0, CHANGES_PAGE_SIZE));
+
+			for (Product product : page) {
+				Product held = products.get(product.getStockKeepingUnitID());
+
+				if (held == null || changeVersionOf(held) < changeVersionOf(product)) {
+					put(copyOf(product));
+					changedProducts++;
+				}
+				changeVersion = product.getChangeVersion().longValue();
+			}
+		} while (page.size() == CHANGES_PAGE_SIZE);
+
+		return changedProducts;
+	}
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (RuntimeException re) {
+			LOGGER.warn("Could not refresh the catalog", re);
+		}
+	}
+
+	private void writeSnapshotQuietly() {
+		try {
+			writeSnapshot();
+		} catch (IOException ioe) {
+			LOGGER.warn("Could not write the catalog snapshot", ioe);
+		}
+	}
+
+	/**
+	 * Hold the product provided unless a later change to it is already held.
+	 */
+	private Product put(Product product) {
+		long changeVersion = changeVersionOf(product);
+
+		version.accumulateAndGet(changeVersion, Math::max);
+
+		return products.merge(product.getStockKeepingUnitID(), product,
+				(held, changedProduct) -> changeVersion >= changeVersionOf(held) ? changedProduct : held);
+	}
+
+	private static long changeVersionOf(Product product) {
+		return product.getChangeVersion() == null ? 0L : product.getChangeVersion().longValue();
+	}
+
+	/**
+	 * Copy the fields of a product, without its orders, so that the copy held is
+	 * not attached to a persistence context.
+	 */
+	private static Product copyOf(Product product) {
+		Product copy = new Product(product.getStockKeepingUnitID());
+		copy.setName(product.getName());
+		copy.setPrice(product.getPrice());
+		copy.setCreationDate(product.getCreationDate() == null ? null : new Date(product.getCreationDate().getTime()));
+		copy.setDeletionFlag(product.getDeletionFlag());
+		copy.setChangeVersion(product.getChangeVersion());
+		return copy;
+	}
+
+}
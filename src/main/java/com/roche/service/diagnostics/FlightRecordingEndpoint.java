@@ -0,0 +1,140 @@
+package com.roche.service.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts and stops a Java Flight Recorder recording of the running service,
+ * exposed as /actuator/flightrecording.
+ *
+ * POST starts a recording with the JDK settings provided (default or profile),
+ * GET returns the state of the recording and DELETE stops it and writes it to
+ * a file, whose path is returned. The events of the service, such as
+ * {@link OrderPlacementStageEvent}, are always included.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+	private static final String DEFAULT_SETTINGS = "profile";
+
+	/**
+	 * Directory the recordings are written to.
+	 */
+	private final Path directory;
+
+	/**
+	 * Recording running, null when none is running.
+	 */
+	private Recording recording;
+
+	/**
+	 * Constructor for Flight Recording Endpoint.
+	 *
+	 * @param directory String - Directory the recordings are written to.
+	 */
+	public FlightRecordingEndpoint(
+			@Value("${order-service.flight-recording.directory:${java.io.tmpdir}}") String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	/**
+	 * Get the state of the recording.
+	 *
+	 * @return Map<String, Object> - Name, state and start time of the recording.
+	 */
+	@ReadOperation
+	public synchronized Map<String, Object> recording() {
+		return describe(recording);
+	}
+
+	/**
+	 * Start a recording, unless one is already running.
+	 *
+	 * @param settings      String - Name of the JDK settings, default or profile.
+	 *                      Defaults to profile.
+	 * @param maxAgeSeconds Long - Seconds of events kept, all events are kept
+	 *                      when not provided.
+	 * @return Map<String, Object> - Name, state and start time of the recording.
+	 * @throws IOException    - If the settings could not be read.
+	 * @throws ParseException - If the settings could not be parsed.
+	 */
+	@WriteOperation
+	public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long maxAgeSeconds)
+			throws IOException, ParseException {
+		if (recording == null) {
+			Recording started = new Recording(
+					Configuration.getConfiguration(settings == null ? DEFAULT_SETTINGS : settings));
+			started.setName("order-service");
+			started.enable(OrderPlacementEvent.class);
+			started.enable(OrderPlacementStageEvent.class);
+			started.enable(RepositoryQueryEvent.class);
+			if (maxAgeSeconds != null) {
+				started.setMaxAge(Duration.ofSeconds(maxAgeSeconds.longValue()));
+			}
+			started.start();
+			recording = started;
+		}
+		return describe(recording);
+	}
+
+	/**
+	 * Stop the recording and write it to a file.
+	 *
+	 * @return Map<String, Object> - Name and state of the recording, and the path
+	 *         of the file it was written to. Empty when no recording was running.
+	 * @throws IOException - If the recording could not be written.
+	 */
+	@DeleteOperation
+	public synchronized Map<String, Object> stop() throws IOException {
+		if (recording == null) {
+			return describe(null);
+		}
+
+		try {
+			recording.stop();
+			Files.createDirectories(directory);
+			Path file = directory.resolve("order-service-" + recording.getId() + ".jfr");
+			recording.dump(file);
+
+			Map<String, Object> description = describe(recording);
+			description.put("file", file.toAbsolutePath().toString());
+			return description;
+		} finally {
+			recording.close();
+			recording = null;
+		}
+	}
+
+	private static Map<String, Object> describe(Recording recording) {
+		Map<String, Object> description = new LinkedHashMap<String, Object>();
+		if (recording != null) {
+			description.put("id", recording.getId());
+			description.put("name", recording.getName());
+			description.put("state", recording.getState().name());
+			description.put("startTime", recording.getStartTime() == null ? null : recording.getStartTime().toString());
+		}
+		return description;
+	}
+
+}
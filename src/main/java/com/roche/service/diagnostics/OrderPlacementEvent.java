@@ -0,0 +1,46 @@
+package com.roche.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event covering the placement of an order with POST
+ * /orders, from looking up its products until its links are assembled.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Name(OrderPlacementEvent.NAME)
+@Label("Order Placement")
+@Category({ "Order Service", "Orders" })
+@Description("Placement of an order with POST /orders")
+@StackTrace(false)
+public class OrderPlacementEvent extends Event {
+
+	/**
+	 * Name of the event.
+	 */
+	public static final String NAME = "com.roche.service.OrderPlacement";
+
+	@Label("Order ID")
+	private long orderID;
+
+	@Label("Products")
+	private int productCount;
+
+	/**
+	 * Set the order placed.
+	 *
+	 * @param orderID      Long - Order ID of the order placed.
+	 * @param productCount int - Number of products in the order.
+	 */
+	public void setOrder(Long orderID, int productCount) {
+		this.orderID = orderID == null ? 0L : orderID.longValue();
+		this.productCount = productCount;
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.roche.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event covering a stage of placing an order with POST
+ * /orders, so that the time taken by each stage can be told apart.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Name(OrderPlacementStageEvent.NAME)
+@Label("Order Placement Stage")
+@Category({ "Order Service", "Orders" })
+@Description("Stage of placing an order with POST /orders")
+@StackTrace(false)
+public class OrderPlacementStageEvent extends Event {
+
+	/**
+	 * Name of the event.
+	 */
+	public static final String NAME = "com.roche.service.OrderPlacementStage";
+
+	/**
+	 * Retrieving a product of the order by its Stock Keeping Unit ID.
+	 */
+	public static final String PRODUCT_LOOKUP = "productLookup";
+
+	/**
+	 * Associating a product with the order, which loads the orders of the
+	 * product.
+	 */
+	public static final String PRODUCT_ORDERS_INITIALIZATION = "productOrdersInitialization";
+
+	/**
+	 * Saving the order, including the flush and commit.
+	 */
+	public static final String SAVE = "save";
+
+	/**
+	 * Adding the referential links of the order and its products.
+	 */
+	public static final String LINK_ASSEMBLY = "linkAssembly";
+
+	@Label("Stage")
+	private String stage;
+
+	@Label("Stock Keeping Unit ID")
+	@Description("Product the stage is for, 0 if the stage is for the whole order")
+	private long stockKeepingUnitID;
+
+	/**
+	 * Start timing a stage.
+	 *
+	 * @param stage String - Name of the stage.
+	 * @return OrderPlacementStageEvent - Event for the stage, to be completed once the
+	 *         stage completes.
+	 */
+	public static OrderPlacementStageEvent begin(String stage) {
+		OrderPlacementStageEvent event = new OrderPlacementStageEvent();
+		event.stage = stage;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End timing a stage for the whole order, and record it.
+	 */
+	public void complete() {
+		commit();
+	}
+
+	/**
+	 * End timing a stage for a product, and record it.
+	 *
+	 * @param stockKeepingUnitID Long - Product the stage is for.
+	 */
+	public void complete(Long stockKeepingUnitID) {
+		this.stockKeepingUnitID = stockKeepingUnitID == null ? 0L : stockKeepingUnitID.longValue();
+		commit();
+	}
+
+}
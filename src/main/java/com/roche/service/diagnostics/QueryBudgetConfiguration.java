@@ -0,0 +1,52 @@
+package com.roche.service.diagnostics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the SQL statements prepared and entities loaded while handling each
+ * request, unless order-service.query-budget.enabled is false.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+@ConditionalOnProperty(prefix = "order-service.query-budget", name = "enabled", matchIfMissing = true)
+public class QueryBudgetConfiguration {
+
+	/**
+	 * Register the counting interceptor with Hibernate.
+	 *
+	 * @return HibernatePropertiesCustomizer - Customizer adding the interceptor
+	 *         and statement inspector.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer queryCountingCustomizer() {
+		QueryCountingInterceptor interceptor = new QueryCountingInterceptor();
+		return hibernateProperties -> {
+			hibernateProperties.put(AvailableSettings.INTERCEPTOR, interceptor);
+			hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, interceptor);
+		};
+	}
+
+	/**
+	 * Create the filter counting each request.
+	 *
+	 * @param properties    QueryBudgetProperties - Budget of each controller
+	 *                      method and what is done when exceeded.
+	 * @param meterRegistry MeterRegistry - Registry the counts are recorded with.
+	 * @return QueryBudgetFilter - Filter counting each request.
+	 */
+	@Bean
+	public QueryBudgetFilter queryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+		return new QueryBudgetFilter(properties, meterRegistry);
+	}
+
+}
@@ -0,0 +1,202 @@
+package com.roche.service.diagnostics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.roche.service.diagnostics.QueryBudgetProperties.Budget;
+import com.roche.service.diagnostics.QueryBudgetProperties.Mode;
+import com.roche.service.diagnostics.exception.QueryBudgetExceededException;
+import com.roche.service.metrics.HandlerTagsContributor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the SQL statements prepared and entities loaded while handling each
+ * request, and checks them against the budget of the controller method that
+ * handled it.
+ *
+ * The counts are returned in the X-Query-Count and X-Entity-Load-Count headers,
+ * as counted when the response starts being written, and recorded in full as
+ * the http.server.requests.queries and http.server.requests.entities.loaded
+ * distributions, tagged with the controller method.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+	/**
+	 * Header with the SQL statements prepared.
+	 */
+	public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+	/**
+	 * Header with the entities loaded.
+	 */
+	public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
+	/**
+	 * Name of the distribution of SQL statements prepared per request.
+	 */
+	public static final String QUERIES_METRIC_NAME = "http.server.requests.queries";
+
+	/**
+	 * Name of the distribution of entities loaded per request.
+	 */
+	public static final String ENTITIES_LOADED_METRIC_NAME = "http.server.requests.entities.loaded";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+	/**
+	 * Budget of each controller method and what is done when exceeded.
+	 */
+	private final QueryBudgetProperties properties;
+
+	/**
+	 * Registry the distributions are registered with.
+	 */
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Constructor for Query Budget Filter.
+	 *
+	 * @param properties    QueryBudgetProperties - Budget of each controller
+	 *                      method and what is done when exceeded.
+	 * @param meterRegistry MeterRegistry - Registry the distributions are
+	 *                      registered with.
+	 */
+	public QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		QueryCount count = QueryCount.begin();
+		QueryCountResponse countedResponse = new QueryCountResponse(request, response, count);
+
+		try {
+			filterChain.doFilter(request, countedResponse);
+			countedResponse.writeHeaders();
+		} finally {
+			QueryCount.end();
+
+			String handler = HandlerTagsContributor
+					.handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+			record(handler, count);
+
+			// Exceeded once the response was written, so it can only be logged.
+			if (!countedResponse.exceeded && !withinBudget(handler, count)) {
+				String message = describe(request, handler, count);
+				if (properties.getMode() == Mode.FAIL) {
+					LOGGER.error(message);
+				} else {
+					LOGGER.warn(message);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Record the counts of a request in the distributions of its controller
+	 * method.
+	 *
+	 * @param handler String - Controller method that handled the request.
+	 * @param count   QueryCount - Statements and entities loaded by the request.
+	 */
+	private void record(String handler, QueryCount count) {
+		DistributionSummary.builder(QUERIES_METRIC_NAME).description("SQL statements prepared per request")
+				.tag(HandlerTagsContributor.HANDLER_TAG, handler).register(meterRegistry)
+				.record(count.getStatements());
+		DistributionSummary.builder(ENTITIES_LOADED_METRIC_NAME).description("Entities loaded per request")
+				.tag(HandlerTagsContributor.HANDLER_TAG, handler).register(meterRegistry)
+				.record(count.getEntitiesLoaded());
+	}
+
+	private boolean withinBudget(String handler, QueryCount count) {
+		Budget budget = properties.getHandlers().get(handler);
+		return budget == null || budget.allows(count);
+	}
+
+	private String describe(HttpServletRequest request, String handler, QueryCount count) {
+		Budget budget = properties.getHandlers().get(handler);
+		return String.format("%s %s (%s) exceeded its query budget - %d statements (budget %s), %d entities (budget %s)",
+				request.getMethod(), request.getRequestURI(), handler, count.getStatements(), budget.getStatements(),
+				count.getEntitiesLoaded(), budget.getEntities());
+	}
+
+	/**
+	 * Response adding the counts as headers before its body starts being written.
+	 */
+	private class QueryCountResponse extends HttpServletResponseWrapper {
+
+		private final HttpServletRequest request;
+		private final QueryCount count;
+
+		private boolean headersWritten;
+		private boolean exceeded;
+
+		QueryCountResponse(HttpServletRequest request, HttpServletResponse response, QueryCount count) {
+			super(response);
+			this.request = request;
+			this.count = count;
+		}
+
+		/**
+		 * Add the counts as headers, and check them against the budget, once.
+		 */
+		void writeHeaders() {
+			if (headersWritten || isCommitted()) {
+				return;
+			}
+			headersWritten = true;
+
+			setHeader(QUERY_COUNT_HEADER, Long.toString(count.getStatements()));
+			setHeader(ENTITY_LOAD_COUNT_HEADER, Long.toString(count.getEntitiesLoaded()));
+
+			String handler = HandlerTagsContributor
+					.handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+			if (!withinBudget(handler, count)) {
+				exceeded = true;
+				String message = describe(request, handler, count);
+				if (properties.getMode() == Mode.FAIL) {
+					throw new QueryBudgetExceededException(message);
+				}
+				LOGGER.warn(message);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			writeHeaders();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			writeHeaders();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			writeHeaders();
+			super.flushBuffer();
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.roche.service.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Maximum SQL statements and entities loaded allowed for a request handled by
+ * each controller method, set as
+ * order-service.query-budget.handlers[OrderController.newOrder].statements.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.query-budget")
+public class QueryBudgetProperties {
+
+	/**
+	 * What is done when a request exceeds its budget.
+	 */
+	public enum Mode {
+
+		/**
+		 * Log a warning.
+		 */
+		WARN,
+
+		/**
+		 * Fail the request, when its response has not been written yet, otherwise
+		 * log an error.
+		 */
+		FAIL
+	}
+
+	/**
+	 * Whether the statements and entities loaded are counted for each request.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * What is done when a request exceeds its budget.
+	 */
+	private Mode mode = Mode.WARN;
+
+	/**
+	 * Budget of each controller method, such as OrderController.newOrder.
+	 * Requests handled by other methods are counted but not checked.
+	 */
+	private Map<String, Budget> handlers = new LinkedHashMap<String, Budget>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public Map<String, Budget> getHandlers() {
+		return handlers;
+	}
+
+	public void setHandlers(Map<String, Budget> handlers) {
+		this.handlers = handlers;
+	}
+
+	/**
+	 * Maximum SQL statements and entities loaded for a request. A maximum not set
+	 * is not checked.
+	 */
+	public static class Budget {
+
+		private Long statements;
+
+		private Long entities;
+
+		public Long getStatements() {
+			return statements;
+		}
+
+		public void setStatements(Long statements) {
+			this.statements = statements;
+		}
+
+		public Long getEntities() {
+			return entities;
+		}
+
+		public void setEntities(Long entities) {
+			this.entities = entities;
+		}
+
+		/**
+		 * Verify whether a count is within this budget.
+		 *
+		 * @param count QueryCount - Statements and entities loaded by a request.
+		 * @return boolean - True if within this budget.
+		 */
+		public boolean allows(QueryCount count) {
+			return (statements == null || count.getStatements() <= statements.longValue())
+					&& (entities == null || count.getEntitiesLoaded() <= entities.longValue());
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.roche.service.diagnostics;
+
+/**
+ * SQL statements prepared and entities loaded while handling the current
+ * request, counted per thread.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class QueryCount {
+
+	private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<QueryCount>();
+
+	private long statements;
+
+	private long entitiesLoaded;
+
+	private QueryCount() {
+	}
+
+	/**
+	 * Start counting for the current thread.
+	 *
+	 * @return QueryCount - Count for the current thread.
+	 */
+	static QueryCount begin() {
+		QueryCount count = new QueryCount();
+		CURRENT.set(count);
+		return count;
+	}
+
+	/**
+	 * Stop counting for the current thread.
+	 */
+	static void end() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Count a SQL statement prepared by the current thread, if counting.
+	 */
+	static void statementPrepared() {
+		QueryCount count = CURRENT.get();
+		if (count != null) {
+			count.statements++;
+		}
+	}
+
+	/**
+	 * Count an entity loaded by the current thread, if counting.
+	 */
+	static void entityLoaded() {
+		QueryCount count = CURRENT.get();
+		if (count != null) {
+			count.entitiesLoaded++;
+		}
+	}
+
+	/**
+	 * Get the SQL statements prepared.
+	 *
+	 * @return long - Number of SQL statements prepared.
+	 */
+	public long getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Get the entities loaded.
+	 *
+	 * @return long - Number of entities loaded.
+	 */
+	public long getEntitiesLoaded() {
+		return entitiesLoaded;
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.roche.service.diagnostics;
+
+import java.io.Serializable;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the SQL statements prepared and entities loaded by Hibernate towards
+ * the {@link QueryCount} of the current thread.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class QueryCountingInterceptor extends EmptyInterceptor implements StatementInspector {
+
+	private static final long serialVersionUID = -3604466526542309117L;
+
+	/**
+	 * Count a SQL statement about to be prepared, leaving it unchanged.
+	 */
+	@Override
+	public String inspect(String sql) {
+		QueryCount.statementPrepared();
+		return sql;
+	}
+
+	/**
+	 * Count an entity loaded, leaving its state unchanged.
+	 */
+	@Override
+	public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		QueryCount.entityLoaded();
+		return false;
+	}
+
+}
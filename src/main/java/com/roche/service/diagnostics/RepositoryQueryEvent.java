@@ -0,0 +1,37 @@
+package com.roche.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event covering the invocation of a repository method,
+ * with the number of rows it returned.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Category({ "Order Service", "Repositories" })
+@Description("Invocation of a repository method")
+public class RepositoryQueryEvent extends Event {
+
+	/**
+	 * Name of the event.
+	 */
+	public static final String NAME = "com.roche.service.RepositoryQuery";
+
+	@Label("Repository")
+	String repository;
+
+	@Label("Method")
+	String method;
+
+	@Label("Rows")
+	@Description("Entities or rows returned, -1 if the method failed")
+	int rowCount;
+
+}
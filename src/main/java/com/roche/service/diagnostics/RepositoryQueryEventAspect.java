@@ -0,0 +1,83 @@
+package com.roche.service.diagnostics;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.roche.service.metrics.RepositoryNames;
+
+/**
+ * Records a Java Flight Recorder event for each invocation of a repository
+ * method, when a recording including the event is running.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Aspect
+@Component
+public class RepositoryQueryEventAspect {
+
+	/**
+	 * Record the invocation of a repository method.
+	 *
+	 * @param joinPoint ProceedingJoinPoint - Invocation of the repository method.
+	 * @return Object - Result of the repository method.
+	 * @throws Throwable - Exception thrown by the repository method.
+	 */
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+		RepositoryQueryEvent event = new RepositoryQueryEvent();
+
+		if (!event.isEnabled()) {
+			return joinPoint.proceed();
+		}
+
+		event.begin();
+		int rowCount = -1;
+
+		try {
+			Object result = joinPoint.proceed();
+			rowCount = rowCount(result);
+			return result;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.repository = RepositoryNames.of(joinPoint.getThis().getClass());
+				event.method = joinPoint.getSignature().getName();
+				event.rowCount = rowCount;
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Count the entities or rows returned by a repository method.
+	 *
+	 * @param result Object - Result of the repository method.
+	 * @return int - Number of entities or rows returned.
+	 */
+	private static int rowCount(Object result) {
+		if (result == null) {
+			return 0;
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Slice) {
+			return ((Slice<?>) result).getNumberOfElements();
+		}
+		if (result instanceof Optional) {
+			return ((Optional<?>) result).isPresent() ? 1 : 0;
+		}
+		if (result instanceof Number || result instanceof Boolean) {
+			return 0;
+		}
+		return 1;
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.roche.service.diagnostics.exception;
+
+/**
+ * Query Budget Exceeded Exception.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 4671980455239418035L;
+
+	/**
+	 * Constructor for Query Budget Exceeded Exception.
+	 *
+	 * @param message String - Handler, counts and budget exceeded.
+	 */
+	public QueryBudgetExceededException(String message) {
+		super(message);
+	}
+}
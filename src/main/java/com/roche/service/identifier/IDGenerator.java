@@ -0,0 +1,19 @@
+package com.roche.service.identifier;
+
+/**
+ * Generator of unique IDs, assigned by the service rather than by the database.
+ *
+ * @author amit modhvadia
+ *
+ */
+@FunctionalInterface
+public interface IDGenerator {
+
+	/**
+	 * Generate the next ID.
+	 *
+	 * @return long - ID, unique across the instances of the service.
+	 */
+	long nextID();
+
+}
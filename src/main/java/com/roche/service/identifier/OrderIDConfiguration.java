@@ -0,0 +1,54 @@
+package com.roche.service.identifier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Generates the order IDs with the IDGenerator bean when there is one, which is
+ * a time ordered ID generator when order-service.order-id.generator is
+ * time-ordered, and with the database sequence otherwise.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(OrderIDProperties.class)
+public class OrderIDConfiguration {
+
+	/**
+	 * Create the time ordered order ID generator.
+	 *
+	 * @param properties OrderIDProperties - Node ID of the instance of the service.
+	 * @return IDGenerator - Generator of the order IDs.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "order-service.order-id", name = "generator", havingValue = "time-ordered")
+	public IDGenerator orderIDGenerator(OrderIDProperties properties) {
+
+		if (properties.getNodeId() == null) {
+			throw new IllegalStateException(
+					"order-service.order-id.node-id must be set for time-ordered order IDs");
+		}
+
+		return new TimeOrderedIDGenerator(properties.getNodeId().intValue());
+	}
+
+	/**
+	 * Pass the order ID generator, if any, to Hibernate.
+	 *
+	 * @param orderIDGenerator ObjectProvider<IDGenerator> - Generator of the order
+	 *                         IDs, if any.
+	 * @return HibernatePropertiesCustomizer - Customizer adding the generator to
+	 *         the Hibernate settings.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer orderIDGeneratorCustomizer(ObjectProvider<IDGenerator> orderIDGenerator) {
+		return hibernateProperties -> orderIDGenerator.ifAvailable(
+				generator -> hibernateProperties.put(OrderIdentifierGenerator.ORDER_ID_GENERATOR, generator));
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.roche.service.identifier;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * How order IDs are generated, set as order-service.order-id.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.order-id")
+public class OrderIDProperties {
+
+	/**
+	 * Generator of the order IDs - sequence, from the database sequence, or
+	 * time-ordered, generated by each instance of the service.
+	 */
+	private String generator = "sequence";
+
+	/**
+	 * Node ID of the instance of the service, unique across the instances, for
+	 * time-ordered order IDs.
+	 */
+	private Integer nodeId;
+
+	public String getGenerator() {
+		return generator;
+	}
+
+	public void setGenerator(String generator) {
+		this.generator = generator;
+	}
+
+	public Integer getNodeId() {
+		return nodeId;
+	}
+
+	public void setNodeId(Integer nodeId) {
+		this.nodeId = nodeId;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.roche.service.identifier;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate generator of the order IDs, delegating to the IDGenerator in the
+ * Hibernate settings, when there is one, so that the IDs are assigned without
+ * contacting the database, or to the database sequence otherwise.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderIdentifierGenerator extends SequenceStyleGenerator {
+
+	/**
+	 * Hibernate setting holding the IDGenerator of the order IDs.
+	 */
+	public static final String ORDER_ID_GENERATOR = "com.roche.service.order_id_generator";
+
+	/**
+	 * Generator of the order IDs, null to use the database sequence.
+	 */
+	private IDGenerator idGenerator;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+
+		// The sequence is still configured, so that the schema is the same whichever
+		// generator is used.
+		super.configure(type, params, serviceRegistry);
+
+		Object generator = serviceRegistry.getService(ConfigurationService.class).getSettings()
+				.get(ORDER_ID_GENERATOR);
+
+		if (generator != null && !(generator instanceof IDGenerator)) {
+			throw new MappingException(ORDER_ID_GENERATOR + " must be an IDGenerator but was " + generator);
+		}
+
+		this.idGenerator = (IDGenerator) generator;
+	}
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object) {
+		return idGenerator == null ? super.generate(session, object) : Long.valueOf(idGenerator.nextID());
+	}
+
+}
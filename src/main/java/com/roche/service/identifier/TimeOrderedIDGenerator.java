@@ -0,0 +1,114 @@
+package com.roche.service.identifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generator of 64-bit IDs ordered by the time they were generated, made up of
+ * the milliseconds since 2020-01-01T00:00:00Z, the node ID of the instance of
+ * the service and a sequence within the millisecond, so that each instance
+ * generates unique IDs without coordinating with the others or the database.
+ *
+ * Layout - [1 bit zero][41 bits milliseconds][10 bits node ID][12 bits
+ * sequence].
+ *
+ * The IDs of an instance always increase. Once 4096 IDs have been generated in
+ * a millisecond, or if the clock goes back, the instance carries on from the
+ * last millisecond it used until the clock catches up, so its IDs may run
+ * slightly ahead of the time they were generated.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class TimeOrderedIDGenerator implements IDGenerator {
+
+	/**
+	 * Milliseconds since the Unix epoch of 2020-01-01T00:00:00Z, from which the
+	 * time of an ID is counted.
+	 */
+	public static final long EPOCH = 1577836800000L;
+
+	static final int TIME_BITS = 41;
+
+	static final int NODE_ID_BITS = 10;
+
+	static final int SEQUENCE_BITS = 12;
+
+	/**
+	 * Highest node ID.
+	 */
+	public static final int MAX_NODE_ID = (1 << NODE_ID_BITS) - 1;
+
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+	/**
+	 * Node ID of the instance of the service, shifted into place.
+	 */
+	private final long node;
+
+	/**
+	 * Clock, in milliseconds since the Unix epoch.
+	 */
+	private final LongSupplier clock;
+
+	/**
+	 * Milliseconds since the epoch and sequence of the last ID generated, as
+	 * [milliseconds][sequence].
+	 */
+	private final AtomicLong last = new AtomicLong();
+
+	/**
+	 * Constructor for Time Ordered ID Generator.
+	 *
+	 * @param nodeID int - Node ID of the instance of the service, from 0 to
+	 *               MAX_NODE_ID, unique across the instances.
+	 */
+	public TimeOrderedIDGenerator(int nodeID) {
+		this(nodeID, System::currentTimeMillis);
+	}
+
+	TimeOrderedIDGenerator(int nodeID, LongSupplier clock) {
+
+		if (nodeID < 0 || nodeID > MAX_NODE_ID) {
+			throw new IllegalArgumentException("Node ID must be from 0 to " + MAX_NODE_ID + " but was " + nodeID);
+		}
+
+		this.node = (long) nodeID << SEQUENCE_BITS;
+		this.clock = clock;
+	}
+
+	@Override
+	public long nextID() {
+		long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+		long next = last.updateAndGet(previous -> Math.max(previous + 1, now));
+
+		long time = next >>> SEQUENCE_BITS;
+
+		if (time >= 1L << TIME_BITS) {
+			throw new IllegalStateException("Time ordered IDs have run out of milliseconds");
+		}
+
+		return time << (NODE_ID_BITS + SEQUENCE_BITS) | node | (next & SEQUENCE_MASK);
+	}
+
+	/**
+	 * Get the time an ID was generated at.
+	 *
+	 * @param id long - ID generated.
+	 * @return long - Milliseconds since the Unix epoch.
+	 */
+	public static long timeOf(long id) {
+		return (id >>> (NODE_ID_BITS + SEQUENCE_BITS)) + EPOCH;
+	}
+
+	/**
+	 * Get the node ID of the instance of the service that generated an ID.
+	 *
+	 * @param id long - ID generated.
+	 * @return int - Node ID.
+	 */
+	public static int nodeIDOf(long id) {
+		return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+	}
+
+}
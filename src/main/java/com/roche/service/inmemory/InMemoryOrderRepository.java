@@ -0,0 +1,190 @@
+package com.roche.service.inmemory;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.ReflectionUtils;
+
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderSummary;
+import com.roche.service.product.Product;
+
+/**
+ * Repository for orders held by the in-memory store.
+ *
+ * As with the database, the products of an order are those it was placed
+ * with: saving an order that exists changes only its buyer email and order
+ * placed time. The orders returned are new entities on each query, with their
+ * products.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class InMemoryOrderRepository extends InMemoryRepository<Order> implements OrderRepository {
+
+	/**
+	 * Field of the order ID assigned to a new order.
+	 */
+	private static final Field ORDER_ID = accessibleField("orderID");
+
+	/**
+	 * Store holding the orders.
+	 */
+	private final InMemoryStore store;
+
+	/**
+	 * Constructor for In Memory Order Repository.
+	 *
+	 * @param store InMemoryStore - Store holding the orders and their products.
+	 */
+	public InMemoryOrderRepository(InMemoryStore store) {
+		this.store = store;
+	}
+
+	@Override
+	public <S extends Order> S save(S order) {
+		long[] stockKeepingUnitIDs;
+
+		if (order.getOrderID() == null) {
+			ReflectionUtils.setField(ORDER_ID, order, Long.valueOf(store.nextOrderID()));
+			stockKeepingUnitIDs = order.getProducts().stream().map(Product::getStockKeepingUnitID)
+					.mapToLong(Long::longValue).toArray();
+		} else {
+			stockKeepingUnitIDs = store.findOrder(order.getOrderID().longValue())
+					.map(StoredOrder::getStockKeepingUnitIDs).orElseGet(() -> order.getProducts().stream()
+							.map(Product::getStockKeepingUnitID).mapToLong(Long::longValue).toArray());
+		}
+
+		store.saveOrder(new StoredOrder(order.getOrderID().longValue(), order.getBuyerEmail(),
+				order.getOrderPlacedTime().getTime(), stockKeepingUnitIDs));
+		return order;
+	}
+
+	@Override
+	public Optional<Order> findById(Long orderID) {
+		return store.findOrder(orderID.longValue()).map(this::toOrder);
+	}
+
+	@Override
+	public List<Order> findAll() {
+		return toOrders(store.findOrders());
+	}
+
+	@Override
+	public long count() {
+		return store.findOrders().size();
+	}
+
+	@Override
+	public List<Order> findByOrderPlacedTimeBetween(Date startDate, Date endDate) {
+		return toOrders(store.findOrdersPlacedBetween(startDate.getTime(), endDate.getTime() + 1));
+	}
+
+	@Override
+	public List<Order> findWithProductsByOrderPlacedTimeFrom(Date startDate, Date endDate) {
+		return toOrders(store.findOrdersPlacedBetween(startDate.getTime(), endDate.getTime()));
+	}
+
+	@Override
+	public List<Order> findByOrderIDIn(Collection<Long> orderIDs) {
+		return orderIDs.stream().distinct().map(orderID -> store.findOrder(orderID.longValue()))
+				.flatMap(Optional::stream).map(this::toOrder).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<OrderSummary> findAllSummaries() {
+		return toSummaries(store.findOrders(), false);
+	}
+
+	@Override
+	public List<OrderSummary> findAllSummariesWithTotalAmount() {
+		return toSummaries(store.findOrders(), true);
+	}
+
+	@Override
+	public List<OrderSummary> findSummariesByOrderPlacedTimeBetween(Date startDate, Date endDate) {
+		return toSummaries(byOrderID(store.findOrdersPlacedBetween(startDate.getTime(), endDate.getTime() + 1)),
+				false);
+	}
+
+	@Override
+	public List<OrderSummary> findSummariesWithTotalAmountByOrderPlacedTimeBetween(Date startDate, Date endDate) {
+		return toSummaries(byOrderID(store.findOrdersPlacedBetween(startDate.getTime(), endDate.getTime() + 1)),
+				true);
+	}
+
+	@Override
+	public Optional<OrderSummary> findSummaryWithTotalAmountByOrderID(Long orderID) {
+		return store.findOrder(orderID.longValue()).map(order -> toSummary(order, true));
+	}
+
+	@Override
+	public List<Long> findOrderIDsAfter(Long orderID, Pageable pageable) {
+		return store.findOrderIDsAfter(orderID.longValue(), offsetOf(pageable), limitOf(pageable));
+	}
+
+	@Override
+	Long idOf(Order order) {
+		return order.getOrderID();
+	}
+
+	@Override
+	void remove(long orderID) {
+		store.removeOrder(orderID);
+	}
+
+	private List<Order> toOrders(Collection<StoredOrder> orders) {
+		return orders.stream().map(this::toOrder).collect(Collectors.toList());
+	}
+
+	private Order toOrder(StoredOrder storedOrder) {
+		Order order = new Order(Long.valueOf(storedOrder.getOrderID()), storedOrder.getBuyerEmail(),
+				new Date(storedOrder.getOrderPlacedTime()));
+
+		// Added without associating the order with each product, as the products are
+		// not shared.
+		for (long stockKeepingUnitID : storedOrder.getStockKeepingUnitIDs()) {
+			store.findProduct(stockKeepingUnitID).ifPresent(product -> order.getProducts().add(product.toProduct()));
+		}
+		return order;
+	}
+
+	private List<OrderSummary> toSummaries(Collection<StoredOrder> orders, boolean totalAmount) {
+		return orders.stream().map(order -> toSummary(order, totalAmount)).collect(Collectors.toList());
+	}
+
+	private OrderSummary toSummary(StoredOrder order, boolean totalAmount) {
+		Long orderID = Long.valueOf(order.getOrderID());
+		Date orderPlacedTime = new Date(order.getOrderPlacedTime());
+		if (!totalAmount) {
+			return new OrderSummary(orderID, order.getBuyerEmail(), orderPlacedTime);
+		}
+
+		Double amount = null;
+		for (long stockKeepingUnitID : order.getStockKeepingUnitIDs()) {
+			Float price = store.findProduct(stockKeepingUnitID).map(StoredProduct::getPrice).orElse(null);
+			if (price != null) {
+				amount = Double.valueOf((amount == null ? 0.0 : amount.doubleValue()) + price.doubleValue());
+			}
+		}
+		return new OrderSummary(orderID, order.getBuyerEmail(), orderPlacedTime, amount);
+	}
+
+	private static List<StoredOrder> byOrderID(List<StoredOrder> orders) {
+		orders.sort((first, second) -> Long.compare(first.getOrderID(), second.getOrderID()));
+		return orders;
+	}
+
+	private static Field accessibleField(String name) {
+		Field field = ReflectionUtils.findField(Order.class, name);
+		ReflectionUtils.makeAccessible(field);
+		return field;
+	}
+
+}
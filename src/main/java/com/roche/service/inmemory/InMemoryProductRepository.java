@@ -0,0 +1,114 @@
+package com.roche.service.inmemory;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.ReflectionUtils;
+
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductRepository;
+
+/**
+ * Repository for products held by the in-memory store.
+ *
+ * The products returned are new entities on each query, without their orders.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class InMemoryProductRepository extends InMemoryRepository<Product> implements ProductRepository {
+
+	/**
+	 * Field of the Stock Keeping Unit ID assigned to a new product.
+	 */
+	private static final Field STOCK_KEEPING_UNIT_ID = accessibleField("stockKeepingUnitID");
+
+	/**
+	 * Store holding the products.
+	 */
+	private final InMemoryStore store;
+
+	/**
+	 * Constructor for In Memory Product Repository.
+	 *
+	 * @param store InMemoryStore - Store holding the products.
+	 */
+	public InMemoryProductRepository(InMemoryStore store) {
+		this.store = store;
+	}
+
+	@Override
+	public <S extends Product> S save(S product) {
+		if (product.getStockKeepingUnitID() == null) {
+			ReflectionUtils.setField(STOCK_KEEPING_UNIT_ID, product, Long.valueOf(store.nextStockKeepingUnitID()));
+		}
+
+		store.saveProduct(StoredProduct.of(product.getStockKeepingUnitID().longValue(), product));
+		return product;
+	}
+
+	@Override
+	public Optional<Product> findById(Long stockKeepingUnitID) {
+		return store.findProduct(stockKeepingUnitID.longValue()).map(StoredProduct::toProduct);
+	}
+
+	@Override
+	public List<Product> findAll() {
+		return store.findProducts().stream().map(StoredProduct::toProduct).collect(Collectors.toList());
+	}
+
+	@Override
+	public long count() {
+		return store.findProducts().size();
+	}
+
+	@Override
+	public List<Product> findByDeletionFlagFalse() {
+		return store.findProducts().stream().filter(product -> !product.isDeletionFlag())
+				.map(StoredProduct::toProduct).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Product> findByStockKeepingUnitIDIn(Collection<Long> stockKeepingUnitIDs) {
+		return stockKeepingUnitIDs.stream().distinct()
+				.map(stockKeepingUnitID -> store.findProduct(stockKeepingUnitID.longValue()))
+				.flatMap(Optional::stream).map(StoredProduct::toProduct).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Product> findByChangeVersionGreaterThanOrderByChangeVersion(Long changeVersion, Pageable pageable) {
+		return store.findProductsChangedAfter(changeVersion.longValue(), offsetOf(pageable), limitOf(pageable))
+				.stream().map(StoredProduct::toProduct).collect(Collectors.toList());
+	}
+
+	@Override
+	public Long findLatestChangeVersion() {
+		return Long.valueOf(store.findLatestChangeVersion());
+	}
+
+	@Override
+	public Long nextChangeVersion() {
+		return Long.valueOf(store.nextChangeVersion());
+	}
+
+	@Override
+	Long idOf(Product product) {
+		return product.getStockKeepingUnitID();
+	}
+
+	@Override
+	void remove(long stockKeepingUnitID) {
+		store.removeProduct(stockKeepingUnitID);
+	}
+
+	private static Field accessibleField(String name) {
+		Field field = ReflectionUtils.findField(Product.class, name);
+		ReflectionUtils.makeAccessible(field);
+		return field;
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.roche.service.inmemory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Methods of a JPA repository common to the repositories of the in-memory
+ * store, implemented with the few methods each of them provides.
+ *
+ * Queries by example and sorted queries are not supported.
+ *
+ * @author amit modhvadia
+ *
+ * @param <T> - Type of the entities of the repository.
+ */
+abstract class InMemoryRepository<T> implements JpaRepository<T, Long> {
+
+	/**
+	 * Get the ID of an entity.
+	 *
+	 * @param entity T - Entity.
+	 * @return Long - ID of the entity, null if not saved yet.
+	 */
+	abstract Long idOf(T entity);
+
+	/**
+	 * Remove an entity from the store.
+	 *
+	 * @param id long - ID of the entity.
+	 */
+	abstract void remove(long id);
+
+	@Override
+	public <S extends T> List<S> saveAll(Iterable<S> entities) {
+		List<S> saved = new ArrayList<S>();
+		entities.forEach(entity -> saved.add(save(entity)));
+		return saved;
+	}
+
+	@Override
+	public <S extends T> S saveAndFlush(S entity) {
+		return save(entity);
+	}
+
+	@Override
+	public void flush() {
+		// Changes are applied when saved, or when their transaction commits.
+	}
+
+	@Override
+	public boolean existsById(Long id) {
+		return findById(id).isPresent();
+	}
+
+	@Override
+	public List<T> findAllById(Iterable<Long> ids) {
+		List<T> found = new ArrayList<T>();
+		ids.forEach(id -> findById(id).ifPresent(found::add));
+		return found;
+	}
+
+	@Override
+	public List<T> findAll(Sort sort) {
+		if (sort.isSorted()) {
+			throw new UnsupportedOperationException("Sorted queries are not supported by the in-memory store");
+		}
+		return findAll();
+	}
+
+	@Override
+	public Page<T> findAll(Pageable pageable) {
+		if (pageable.getSort().isSorted()) {
+			throw new UnsupportedOperationException("Sorted queries are not supported by the in-memory store");
+		}
+
+		List<T> all = findAll();
+		if (pageable.isUnpaged()) {
+			return new PageImpl<T>(all);
+		}
+
+		int from = (int) Math.min(pageable.getOffset(), all.size());
+		int to = Math.min(from + pageable.getPageSize(), all.size());
+		return new PageImpl<T>(new ArrayList<T>(all.subList(from, to)), pageable, all.size());
+	}
+
+	@Override
+	public T getOne(Long id) {
+		return findById(id).orElseThrow(() -> new EntityNotFoundException("No entity with ID " + id));
+	}
+
+	@Override
+	public void deleteById(Long id) {
+		if (!existsById(id)) {
+			throw new EmptyResultDataAccessException("No entity with ID " + id + " exists", 1);
+		}
+		remove(id.longValue());
+	}
+
+	@Override
+	public void delete(T entity) {
+		Long id = idOf(entity);
+		if (id != null) {
+			remove(id.longValue());
+		}
+	}
+
+	@Override
+	public void deleteAll(Iterable<? extends T> entities) {
+		entities.forEach(this::delete);
+	}
+
+	@Override
+	public void deleteInBatch(Iterable<T> entities) {
+		deleteAll(entities);
+	}
+
+	@Override
+	public void deleteAll() {
+		findAll().forEach(this::delete);
+	}
+
+	@Override
+	public void deleteAllInBatch() {
+		deleteAll();
+	}
+
+	@Override
+	public <S extends T> Optional<S> findOne(Example<S> example) {
+		throw new UnsupportedOperationException("Queries by example are not supported by the in-memory store");
+	}
+
+	@Override
+	public <S extends T> List<S> findAll(Example<S> example) {
+		throw new UnsupportedOperationException("Queries by example are not supported by the in-memory store");
+	}
+
+	@Override
+	public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+		throw new UnsupportedOperationException("Queries by example are not supported by the in-memory store");
+	}
+
+	@Override
+	public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+		throw new UnsupportedOperationException("Queries by example are not supported by the in-memory store");
+	}
+
+	@Override
+	public <S extends T> long count(Example<S> example) {
+		throw new UnsupportedOperationException("Queries by example are not supported by the in-memory store");
+	}
+
+	@Override
+	public <S extends T> boolean exists(Example<S> example) {
+		throw new UnsupportedOperationException("Queries by example are not supported by the in-memory store");
+	}
+
+	/**
+	 * Get the offset of the first result of a page.
+	 */
+	static long offsetOf(Pageable pageable) {
+		return pageable.isPaged() ? pageable.getOffset() : 0L;
+	}
+
+	/**
+	 * Get the maximum number of results of a page.
+	 */
+	static int limitOf(Pageable pageable) {
+		return pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+	}
+
+}
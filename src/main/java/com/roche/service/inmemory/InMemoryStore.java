@@ -0,0 +1,783 @@
+package com.roche.service.inmemory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.roche.service.identifier.IDGenerator;
+import com.roche.service.journal.Journal;
+import com.roche.service.journal.JournalRecord;
+import com.roche.service.journal.RecordType;
+
+/**
+ * Products and orders held in memory, in concurrent maps by Stock Keeping Unit
+ * ID and order ID, with indexes of the products by change version and of the
+ * orders by the time they were placed.
+ *
+ * Each change is appended to a write-ahead log, a journal of its own, before it
+ * is applied to the maps, and the maps are written to a snapshot at intervals
+ * and when the store is closed, after which the segments of the log it
+ * includes are deleted. On opening, the snapshot is read and the changes
+ * appended after it are replayed. Changes are written one at a time and read
+ * without locking.
+ *
+ * The changes made within a transaction are only visible to that transaction
+ * until it commits, when they are applied, and are discarded when it rolls
+ * back.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class InMemoryStore implements Closeable {
+
+	/**
+	 * Directory of the write-ahead log, within the directory of the store.
+	 */
+	static final String LOG_DIRECTORY = "log";
+
+	/**
+	 * Snapshot file, within the directory of the store.
+	 */
+	static final String SNAPSHOT_FILE = "store.snapshot";
+
+	private static final int MAGIC = 0x4F525353;
+
+	private static final int VERSION = 1;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryStore.class);
+
+	/**
+	 * Write-ahead log of the changes.
+	 */
+	private final Journal log;
+
+	/**
+	 * Snapshot file of the products and orders.
+	 */
+	private final Path snapshotFile;
+
+	/**
+	 * Generator of the order IDs, null for the sequence shared with the products.
+	 */
+	private final IDGenerator orderIDGenerator;
+
+	/**
+	 * Last ID handed out to a product, or to an order without an order ID
+	 * generator.
+	 */
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * Last change version handed out to a product.
+	 */
+	private final AtomicLong changeVersion = new AtomicLong();
+
+	/**
+	 * Products by Stock Keeping Unit ID.
+	 */
+	private final ConcurrentSkipListMap<Long, StoredProduct> products = new ConcurrentSkipListMap<Long, StoredProduct>();
+
+	/**
+	 * Stock Keeping Unit IDs of the products by change version.
+	 */
+	private final ConcurrentSkipListMap<Long, Long> productsByChangeVersion = new ConcurrentSkipListMap<Long, Long>();
+
+	/**
+	 * Orders by order ID.
+	 */
+	private final ConcurrentSkipListMap<Long, StoredOrder> orders = new ConcurrentSkipListMap<Long, StoredOrder>();
+
+	/**
+	 * Order placed times and order IDs of the orders, in the order they were
+	 * placed.
+	 */
+	private final ConcurrentSkipListSet<PlacedOrder> ordersByPlacedTime = new ConcurrentSkipListSet<PlacedOrder>();
+
+	/**
+	 * Held while a change is appended to the log and applied.
+	 */
+	private final Object writeLock = new Object();
+
+	/**
+	 * Writer of the snapshots at intervals, null if only written when closed.
+	 */
+	private ScheduledExecutorService snapshotWriter;
+
+	private InMemoryStore(Journal log, Path snapshotFile, IDGenerator orderIDGenerator) {
+		this.log = log;
+		this.snapshotFile = snapshotFile;
+		this.orderIDGenerator = orderIDGenerator;
+	}
+
+	/**
+	 * Open the store in a directory, reading its snapshot and replaying the
+	 * changes appended to its log after it.
+	 *
+	 * @param directory        Path - Directory of the log and the snapshot,
+	 *                         created if it does not exist.
+	 * @param segmentSize      int - Size of each segment file of the log in bytes.
+	 * @param force            boolean - Whether each change is forced to the disk
+	 *                         once appended.
+	 * @param orderIDGenerator IDGenerator - Generator of the order IDs, null for
+	 *                         the sequence shared with the products.
+	 * @return InMemoryStore - Store opened.
+	 * @throws IOException - If the snapshot or the log could not be read.
+	 */
+	public static InMemoryStore open(Path directory, int segmentSize, boolean force, IDGenerator orderIDGenerator)
+			throws IOException {
+		long startTime = System.nanoTime();
+
+		Files.createDirectories(directory);
+		Journal log = Journal.open(directory.resolve(LOG_DIRECTORY), segmentSize, force);
+		InMemoryStore store = new InMemoryStore(log, directory.resolve(SNAPSHOT_FILE), orderIDGenerator);
+
+		try {
+			long snapshotSequence = store.readSnapshot();
+			if (log.getLastSequence() < snapshotSequence) {
+				throw new IOException("Write-ahead log ends at " + log.getLastSequence() + ", before the snapshot at "
+						+ snapshotSequence);
+			}
+
+			long replayed = log.replay(snapshotSequence + 1, record -> {
+				try {
+					store.apply(decode(record));
+				} catch (IOException ioe) {
+					throw new UncheckedIOException(ioe);
+				}
+			});
+
+			LOGGER.info("Opened the in-memory store with {} products and {} orders, replaying {} changes, in {} ms",
+					store.products.size(), store.orders.size(), replayed,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+		} catch (IOException | RuntimeException e) {
+			log.close();
+			throw e;
+		}
+
+		return store;
+	}
+
+	/**
+	 * Write the snapshot at each interval.
+	 *
+	 * @param interval Duration - Interval between snapshots.
+	 */
+	public synchronized void startSnapshots(Duration interval) {
+		if (snapshotWriter != null || interval.isZero()) {
+			return;
+		}
+
+		snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "in-memory-store-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+		snapshotWriter.scheduleWithFixedDelay(() -> {
+			try {
+				writeSnapshot();
+			} catch (IOException | RuntimeException e) {
+				LOGGER.error("Could not write the in-memory store snapshot", e);
+			}
+		}, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Write the products and orders to the snapshot, then delete the segments of
+	 * the log holding only changes included in it.
+	 *
+	 * @throws IOException - If the snapshot could not be written.
+	 */
+	public synchronized void writeSnapshot() throws IOException {
+		long snapshotSequence;
+		synchronized (writeLock) {
+			snapshotSequence = log.getLastSequence();
+		}
+
+		// Changes applied while the maps are written are replayed again from the log,
+		// which leaves the products and orders as they are.
+		Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(snapshotSequence);
+
+			List<StoredProduct> snapshotProducts = new ArrayList<StoredProduct>(products.values());
+			out.writeInt(snapshotProducts.size());
+			for (StoredProduct product : snapshotProducts) {
+				product.write(out);
+			}
+
+			List<StoredOrder> snapshotOrders = new ArrayList<StoredOrder>(orders.values());
+			out.writeInt(snapshotOrders.size());
+			for (StoredOrder order : snapshotOrders) {
+				order.write(out);
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		Files.move(temporaryFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+		log.deleteSegmentsBefore(snapshotSequence + 1);
+	}
+
+	/**
+	 * Stop writing snapshots, write a last one and close the log.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (snapshotWriter != null) {
+			snapshotWriter.shutdownNow();
+		}
+
+		try {
+			writeSnapshot();
+		} finally {
+			log.close();
+		}
+	}
+
+	/**
+	 * Visit the orders in the order they were placed.
+	 *
+	 * @param visitor OrderVisitor - Visitor of each order.
+	 */
+	public void forEachOrder(OrderVisitor visitor) {
+		for (PlacedOrder placedOrder : ordersByPlacedTime) {
+			StoredOrder order = orders.get(placedOrder.orderID);
+			if (order != null && order.getOrderPlacedTime() == placedOrder.orderPlacedTime) {
+				visitor.visit(order.getOrderID(), order.getOrderPlacedTime(), order.getStockKeepingUnitIDs());
+			}
+		}
+	}
+
+	/**
+	 * Get the price of a product.
+	 *
+	 * @param stockKeepingUnitID long - Stock Keeping Unit ID of the product.
+	 * @return Float - Price of the product, null if it has none or does not exist.
+	 */
+	public Float getPrice(long stockKeepingUnitID) {
+		StoredProduct product = products.get(Long.valueOf(stockKeepingUnitID));
+		return product == null ? null : product.getPrice();
+	}
+
+	/**
+	 * Check whether a product exists.
+	 *
+	 * @param stockKeepingUnitID long - Stock Keeping Unit ID of the product.
+	 * @return boolean - True if the product exists.
+	 */
+	public boolean containsProduct(long stockKeepingUnitID) {
+		return products.containsKey(Long.valueOf(stockKeepingUnitID));
+	}
+
+	/**
+	 * Get a Stock Keeping Unit ID for a new product.
+	 *
+	 * @return long - Stock Keeping Unit ID.
+	 */
+	long nextStockKeepingUnitID() {
+		return sequence.incrementAndGet();
+	}
+
+	/**
+	 * Get a change version for a product being changed.
+	 *
+	 * @return long - Change version.
+	 */
+	long nextChangeVersion() {
+		return changeVersion.incrementAndGet();
+	}
+
+	/**
+	 * Get an order ID for a new order.
+	 *
+	 * @return long - Order ID.
+	 */
+	long nextOrderID() {
+		return orderIDGenerator == null ? sequence.incrementAndGet() : orderIDGenerator.nextID();
+	}
+
+	Optional<StoredProduct> findProduct(long stockKeepingUnitID) {
+		Long key = Long.valueOf(stockKeepingUnitID);
+		TransactionChanges changes = transactionChanges(false);
+		if (changes != null && changes.products.containsKey(key)) {
+			return Optional.ofNullable(changes.products.get(key));
+		}
+		return Optional.ofNullable(products.get(key));
+	}
+
+	/**
+	 * Get the products, in the order of their Stock Keeping Unit IDs.
+	 */
+	Collection<StoredProduct> findProducts() {
+		TransactionChanges changes = transactionChanges(false);
+		if (changes == null || changes.products.isEmpty()) {
+			return products.values();
+		}
+
+		TreeMap<Long, StoredProduct> visible = new TreeMap<Long, StoredProduct>(products);
+		changes.products.forEach((stockKeepingUnitID, product) -> {
+			if (product == null) {
+				visible.remove(stockKeepingUnitID);
+			} else {
+				visible.put(stockKeepingUnitID, product);
+			}
+		});
+		return visible.values();
+	}
+
+	/**
+	 * Get the products changed after a change version, in the order they were
+	 * changed.
+	 */
+	List<StoredProduct> findProductsChangedAfter(long changeVersion, long offset, int limit) {
+		TransactionChanges changes = transactionChanges(false);
+		if (changes != null && !changes.products.isEmpty()) {
+			return findProducts().stream()
+					.filter(product -> product.getChangeVersion() != null
+							&& product.getChangeVersion().longValue() > changeVersion)
+					.sorted(Comparator.comparing(StoredProduct::getChangeVersion)).skip(offset).limit(limit)
+					.collect(Collectors.toList());
+		}
+
+		List<StoredProduct> changed = new ArrayList<StoredProduct>();
+		long skipped = 0;
+		for (Map.Entry<Long, Long> entry : productsByChangeVersion.tailMap(Long.valueOf(changeVersion), false)
+				.entrySet()) {
+			if (changed.size() == limit) {
+				break;
+			}
+
+			// Skip a version replaced since it was read.
+			StoredProduct product = products.get(entry.getValue());
+			if (product != null && entry.getKey().equals(product.getChangeVersion()) && skipped++ >= offset) {
+				changed.add(product);
+			}
+		}
+		return changed;
+	}
+
+	long findLatestChangeVersion() {
+		TransactionChanges changes = transactionChanges(false);
+		if (changes != null && !changes.products.isEmpty()) {
+			return findProducts().stream().filter(product -> product.getChangeVersion() != null)
+					.mapToLong(product -> product.getChangeVersion().longValue()).max().orElse(0L);
+		}
+
+		Map.Entry<Long, Long> latest = productsByChangeVersion.lastEntry();
+		return latest == null ? 0L : latest.getKey().longValue();
+	}
+
+	Optional<StoredOrder> findOrder(long orderID) {
+		Long key = Long.valueOf(orderID);
+		TransactionChanges changes = transactionChanges(false);
+		if (changes != null && changes.orders.containsKey(key)) {
+			return Optional.ofNullable(changes.orders.get(key));
+		}
+		return Optional.ofNullable(orders.get(key));
+	}
+
+	/**
+	 * Get the orders, in the order of their order IDs.
+	 */
+	Collection<StoredOrder> findOrders() {
+		TransactionChanges changes = transactionChanges(false);
+		if (changes == null || changes.orders.isEmpty()) {
+			return orders.values();
+		}
+
+		TreeMap<Long, StoredOrder> visible = new TreeMap<Long, StoredOrder>(orders);
+		changes.orders.forEach((orderID, order) -> {
+			if (order == null) {
+				visible.remove(orderID);
+			} else {
+				visible.put(orderID, order);
+			}
+		});
+		return visible.values();
+	}
+
+	/**
+	 * Get the orders placed within a time period, in the order they were placed.
+	 */
+	List<StoredOrder> findOrdersPlacedBetween(long from, long to) {
+		List<StoredOrder> placed = new ArrayList<StoredOrder>();
+		TransactionChanges changes = transactionChanges(false);
+		boolean changed = changes != null && !changes.orders.isEmpty();
+
+		for (PlacedOrder placedOrder : ordersByPlacedTime.subSet(new PlacedOrder(from, Long.MIN_VALUE),
+				new PlacedOrder(to, Long.MIN_VALUE))) {
+			if (changed && changes.orders.containsKey(Long.valueOf(placedOrder.orderID))) {
+				continue;
+			}
+
+			// Skip an order placed time replaced since it was read.
+			StoredOrder order = orders.get(Long.valueOf(placedOrder.orderID));
+			if (order != null && order.getOrderPlacedTime() == placedOrder.orderPlacedTime) {
+				placed.add(order);
+			}
+		}
+
+		if (changed) {
+			changes.orders.values().stream().filter(
+					order -> order != null && order.getOrderPlacedTime() >= from && order.getOrderPlacedTime() < to)
+					.forEach(placed::add);
+			placed.sort(Comparator.comparingLong(StoredOrder::getOrderPlacedTime)
+					.thenComparingLong(StoredOrder::getOrderID));
+		}
+		return placed;
+	}
+
+	/**
+	 * Get the order IDs after an order ID, ascending.
+	 */
+	List<Long> findOrderIDsAfter(long orderID, long offset, int limit) {
+		TransactionChanges changes = transactionChanges(false);
+		Collection<Long> orderIDs = changes == null || changes.orders.isEmpty()
+				? orders.tailMap(Long.valueOf(orderID), false).keySet()
+				: findOrders().stream().map(order -> Long.valueOf(order.getOrderID()))
+						.filter(id -> id.longValue() > orderID).collect(Collectors.toList());
+		return orderIDs.stream().skip(offset).limit(limit).collect(Collectors.toList());
+	}
+
+	/**
+	 * Save a product, created or changed.
+	 */
+	void saveProduct(StoredProduct product) {
+		Optional<StoredProduct> saved = findProduct(product.getStockKeepingUnitID());
+
+		RecordType type;
+		if (!saved.isPresent()) {
+			type = RecordType.PRODUCT_CREATED;
+		} else if (product.isDeletionFlag() && !saved.get().isDeletionFlag()) {
+			type = RecordType.PRODUCT_DELETED;
+		} else {
+			type = RecordType.PRODUCT_REPLACED;
+		}
+		write(new Change(type, product));
+	}
+
+	void removeProduct(long stockKeepingUnitID) {
+		write(new Change(RecordType.PRODUCT_REMOVED, Long.valueOf(stockKeepingUnitID)));
+	}
+
+	/**
+	 * Save an order, placed or changed.
+	 */
+	void saveOrder(StoredOrder order) {
+		write(new Change(findOrder(order.getOrderID()).isPresent() ? RecordType.ORDER_BUYER_EMAIL_CHANGED
+				: RecordType.ORDER_PLACED, order));
+	}
+
+	void removeOrder(long orderID) {
+		write(new Change(RecordType.ORDER_REMOVED, Long.valueOf(orderID)));
+	}
+
+	private void write(Change change) {
+		TransactionChanges changes = transactionChanges(true);
+		if (changes != null) {
+			changes.add(change);
+			return;
+		}
+
+		append(change);
+	}
+
+	/**
+	 * Append a change to the log and apply it.
+	 */
+	private void append(Change change) {
+		try {
+			byte[] payload = encode(change);
+			synchronized (writeLock) {
+				log.append(change.type, payload);
+				apply(change);
+			}
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+	private void apply(Change change) {
+		switch (change.type) {
+		case PRODUCT_CREATED:
+		case PRODUCT_REPLACED:
+		case PRODUCT_DELETED:
+			putProduct((StoredProduct) change.subject);
+			break;
+		case PRODUCT_REMOVED:
+			StoredProduct removedProduct = products.remove(change.subject);
+			if (removedProduct != null && removedProduct.getChangeVersion() != null) {
+				productsByChangeVersion.remove(removedProduct.getChangeVersion(), change.subject);
+			}
+			break;
+		case ORDER_PLACED:
+		case ORDER_BUYER_EMAIL_CHANGED:
+			putOrder((StoredOrder) change.subject);
+			break;
+		case ORDER_REMOVED:
+			StoredOrder removedOrder = orders.remove(change.subject);
+			if (removedOrder != null) {
+				ordersByPlacedTime.remove(new PlacedOrder(removedOrder.getOrderPlacedTime(), removedOrder.getOrderID()));
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown change " + change.type);
+		}
+	}
+
+	private void putProduct(StoredProduct product) {
+		Long stockKeepingUnitID = Long.valueOf(product.getStockKeepingUnitID());
+		if (product.getChangeVersion() != null) {
+			productsByChangeVersion.put(product.getChangeVersion(), stockKeepingUnitID);
+			changeVersion.accumulateAndGet(product.getChangeVersion().longValue(), Math::max);
+		}
+
+		StoredProduct previous = products.put(stockKeepingUnitID, product);
+		if (previous != null && previous.getChangeVersion() != null
+				&& !previous.getChangeVersion().equals(product.getChangeVersion())) {
+			productsByChangeVersion.remove(previous.getChangeVersion(), stockKeepingUnitID);
+		}
+
+		sequence.accumulateAndGet(product.getStockKeepingUnitID(), Math::max);
+	}
+
+	private void putOrder(StoredOrder order) {
+		ordersByPlacedTime.add(new PlacedOrder(order.getOrderPlacedTime(), order.getOrderID()));
+
+		StoredOrder previous = orders.put(Long.valueOf(order.getOrderID()), order);
+		if (previous != null && previous.getOrderPlacedTime() != order.getOrderPlacedTime()) {
+			ordersByPlacedTime.remove(new PlacedOrder(previous.getOrderPlacedTime(), previous.getOrderID()));
+		}
+
+		if (orderIDGenerator == null) {
+			sequence.accumulateAndGet(order.getOrderID(), Math::max);
+		}
+	}
+
+	/**
+	 * Get the changes of the current transaction, registering them with the
+	 * transaction when first written.
+	 *
+	 * @param create boolean - Whether to register the changes with the
+	 *               transaction when there are none yet.
+	 * @return TransactionChanges - Changes of the current transaction, null
+	 *         outside of a transaction, or if there are none and not created.
+	 */
+	private TransactionChanges transactionChanges(boolean create) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+
+		TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+		if (changes == null && create) {
+			TransactionChanges created = new TransactionChanges();
+			TransactionSynchronizationManager.bindResource(this, created);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					created.changes.forEach(InMemoryStore.this::append);
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryStore.this);
+				}
+
+			});
+			changes = created;
+		}
+		return changes;
+	}
+
+	/**
+	 * Read the snapshot, if any.
+	 *
+	 * @return long - Sequence of the last change included in the snapshot, 0 if
+	 *         there is none.
+	 */
+	private long readSnapshot() throws IOException {
+		if (!Files.exists(snapshotFile)) {
+			return 0L;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException(snapshotFile + " is not an in-memory store snapshot");
+			}
+			long snapshotSequence = in.readLong();
+
+			for (int product = in.readInt(); product > 0; product--) {
+				putProduct(StoredProduct.read(in));
+			}
+			for (int order = in.readInt(); order > 0; order--) {
+				putOrder(StoredOrder.read(in));
+			}
+			return snapshotSequence;
+		}
+	}
+
+	private static byte[] encode(Change change) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		if (change.subject instanceof StoredProduct) {
+			((StoredProduct) change.subject).write(out);
+		} else if (change.subject instanceof StoredOrder) {
+			((StoredOrder) change.subject).write(out);
+		} else {
+			out.writeLong(((Long) change.subject).longValue());
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Change decode(JournalRecord record) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.getPayloadBytes()));
+		switch (record.getType()) {
+		case PRODUCT_CREATED:
+		case PRODUCT_REPLACED:
+		case PRODUCT_DELETED:
+			return new Change(record.getType(), StoredProduct.read(in));
+		case ORDER_PLACED:
+		case ORDER_BUYER_EMAIL_CHANGED:
+			return new Change(record.getType(), StoredOrder.read(in));
+		default:
+			return new Change(record.getType(), Long.valueOf(in.readLong()));
+		}
+	}
+
+	/**
+	 * Visitor of the orders of the store.
+	 */
+	@FunctionalInterface
+	public interface OrderVisitor {
+
+		/**
+		 * Visit an order.
+		 *
+		 * @param orderID             long - Order ID of the order.
+		 * @param orderPlacedTime     long - Milliseconds since the epoch the order
+		 *                            was placed at.
+		 * @param stockKeepingUnitIDs long[] - Stock Keeping Unit IDs of the
+		 *                            products of the order, not to be changed.
+		 */
+		void visit(long orderID, long orderPlacedTime, long[] stockKeepingUnitIDs);
+
+	}
+
+	/**
+	 * Change of a product or an order: the product or order saved, or the ID of
+	 * the product or order removed.
+	 */
+	private static final class Change {
+
+		private final RecordType type;
+
+		private final Object subject;
+
+		private Change(RecordType type, Object subject) {
+			this.type = type;
+			this.subject = subject;
+		}
+
+	}
+
+	/**
+	 * Changes made within a transaction, in the order they were made, and the
+	 * products and orders as changed by them, null for those removed.
+	 */
+	private static final class TransactionChanges {
+
+		private final List<Change> changes = new ArrayList<Change>();
+
+		private final Map<Long, StoredProduct> products = new HashMap<Long, StoredProduct>();
+
+		private final Map<Long, StoredOrder> orders = new HashMap<Long, StoredOrder>();
+
+		private void add(Change change) {
+			changes.add(change);
+
+			if (change.subject instanceof StoredProduct) {
+				StoredProduct product = (StoredProduct) change.subject;
+				products.put(Long.valueOf(product.getStockKeepingUnitID()), product);
+			} else if (change.subject instanceof StoredOrder) {
+				StoredOrder order = (StoredOrder) change.subject;
+				orders.put(Long.valueOf(order.getOrderID()), order);
+			} else if (change.type == RecordType.PRODUCT_REMOVED) {
+				products.put((Long) change.subject, null);
+			} else {
+				orders.put((Long) change.subject, null);
+			}
+		}
+
+	}
+
+	/**
+	 * Key of an order in the index by order placed time.
+	 */
+	private static final class PlacedOrder implements Comparable<PlacedOrder> {
+
+		private final long orderPlacedTime;
+
+		private final long orderID;
+
+		private PlacedOrder(long orderPlacedTime, long orderID) {
+			this.orderPlacedTime = orderPlacedTime;
+			this.orderID = orderID;
+		}
+
+		@Override
+		public int compareTo(PlacedOrder other) {
+			int byTime = Long.compare(orderPlacedTime, other.orderPlacedTime);
+			return byTime != 0 ? byTime : Long.compare(orderID, other.orderID);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof PlacedOrder && compareTo((PlacedOrder) obj) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(orderPlacedTime) * 31 + Long.hashCode(orderID);
+		}
+
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.roche.service.inmemory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import com.roche.service.identifier.IDGenerator;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.product.ProductRepository;
+
+/**
+ * Keeps the orders and products in the in-memory store instead of the
+ * database, with the inmemory profile, which also turns off the JPA
+ * repositories.
+ *
+ * The archive and the shards move and route the orders of the database, so
+ * neither can be enabled with the in-memory store.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@Profile("inmemory")
+@EnableConfigurationProperties(InMemoryStoreProperties.class)
+public class InMemoryStoreConfiguration {
+
+	/**
+	 * Open the in-memory store and write its snapshots at each interval.
+	 *
+	 * @param properties       InMemoryStoreProperties - Location of the store and
+	 *                         interval between snapshots.
+	 * @param orderIDGenerator ObjectProvider<IDGenerator> - Generator of the order
+	 *                         IDs, if any.
+	 * @param environment      Environment - Environment of the service.
+	 * @return InMemoryStore - Store opened, closed with the application context.
+	 * @throws IOException - If the store could not be opened.
+	 */
+	@Bean(destroyMethod = "close")
+	public InMemoryStore inMemoryStore(InMemoryStoreProperties properties,
+			ObjectProvider<IDGenerator> orderIDGenerator, Environment environment) throws IOException {
+		for (String feature : new String[] { "order-service.sharding.enabled", "order-service.archive.enabled" }) {
+			if (environment.getProperty(feature, Boolean.class, Boolean.FALSE).booleanValue()) {
+				throw new IllegalStateException(feature + " cannot be set with the in-memory store");
+			}
+		}
+
+		InMemoryStore store = InMemoryStore.open(Paths.get(properties.getDirectory()),
+				(int) properties.getSegmentSize().toBytes(), properties.isForce(), orderIDGenerator.getIfAvailable());
+		store.startSnapshots(properties.getSnapshotInterval());
+		return store;
+	}
+
+	/**
+	 * Create the repository for the orders of the store.
+	 *
+	 * @param store InMemoryStore - Store holding the orders.
+	 * @return OrderRepository - Repository for the orders.
+	 */
+	@Bean
+	public OrderRepository orderRepository(InMemoryStore store) {
+		return new InMemoryOrderRepository(store);
+	}
+
+	/**
+	 * Create the repository for the products of the store.
+	 *
+	 * @param store InMemoryStore - Store holding the products.
+	 * @return ProductRepository - Repository for the products.
+	 */
+	@Bean
+	public ProductRepository productRepository(InMemoryStore store) {
+		return new InMemoryProductRepository(store);
+	}
+
+}
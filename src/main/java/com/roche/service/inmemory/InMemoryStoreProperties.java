@@ -0,0 +1,72 @@
+package com.roche.service.inmemory;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Location of the write-ahead log and snapshots of the in-memory store, and how
+ * often the snapshots are written, set as order-service.in-memory.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.in-memory")
+public class InMemoryStoreProperties {
+
+	/**
+	 * Directory of the write-ahead log and of the snapshot.
+	 */
+	private String directory = System.getProperty("user.home") + "/data/order-store";
+
+	/**
+	 * Size of each segment file of the write-ahead log.
+	 */
+	private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * Whether each change is forced to the disk once appended to the write-ahead
+	 * log.
+	 */
+	private boolean force;
+
+	/**
+	 * Interval between snapshots written while the service runs, as well as when
+	 * it stops. Zero for only when it stops.
+	 */
+	private Duration snapshotInterval = Duration.ofMinutes(5);
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public DataSize getSegmentSize() {
+		return segmentSize;
+	}
+
+	public void setSegmentSize(DataSize segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+	public boolean isForce() {
+		return force;
+	}
+
+	public void setForce(boolean force) {
+		this.force = force;
+	}
+
+	public Duration getSnapshotInterval() {
+		return snapshotInterval;
+	}
+
+	public void setSnapshotInterval(Duration snapshotInterval) {
+		this.snapshotInterval = snapshotInterval;
+	}
+
+}
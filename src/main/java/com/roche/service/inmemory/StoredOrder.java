@@ -0,0 +1,94 @@
+package com.roche.service.inmemory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Order as held by the in-memory store, immutable and referencing its products
+ * by their Stock Keeping Unit IDs.
+ *
+ * @author amit modhvadia
+ *
+ */
+final class StoredOrder {
+
+	private final long orderID;
+
+	private final String buyerEmail;
+
+	private final long orderPlacedTime;
+
+	private final long[] stockKeepingUnitIDs;
+
+	/**
+	 * Constructor for Stored Order.
+	 *
+	 * @param orderID             long - Order ID of the order.
+	 * @param buyerEmail          String - Email address of the buyer, may be null.
+	 * @param orderPlacedTime     long - Milliseconds since the epoch the order was
+	 *                            placed at.
+	 * @param stockKeepingUnitIDs long[] - Stock Keeping Unit IDs of the products of
+	 *                            the order.
+	 */
+	StoredOrder(long orderID, String buyerEmail, long orderPlacedTime, long[] stockKeepingUnitIDs) {
+		this.orderID = orderID;
+		this.buyerEmail = buyerEmail;
+		this.orderPlacedTime = orderPlacedTime;
+		this.stockKeepingUnitIDs = stockKeepingUnitIDs;
+	}
+
+	/**
+	 * Write the order.
+	 *
+	 * @param out DataOutput - Output the order is written to.
+	 * @throws IOException - If the order could not be written.
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeLong(orderID);
+		out.writeBoolean(buyerEmail != null);
+		if (buyerEmail != null) {
+			out.writeUTF(buyerEmail);
+		}
+		out.writeLong(orderPlacedTime);
+		out.writeInt(stockKeepingUnitIDs.length);
+		for (long stockKeepingUnitID : stockKeepingUnitIDs) {
+			out.writeLong(stockKeepingUnitID);
+		}
+	}
+
+	/**
+	 * Read an order written by write.
+	 *
+	 * @param in DataInput - Input the order is read from.
+	 * @return StoredOrder - Order read.
+	 * @throws IOException - If the order could not be read.
+	 */
+	static StoredOrder read(DataInput in) throws IOException {
+		long orderID = in.readLong();
+		String buyerEmail = in.readBoolean() ? in.readUTF() : null;
+		long orderPlacedTime = in.readLong();
+		long[] stockKeepingUnitIDs = new long[in.readInt()];
+		for (int product = 0; product < stockKeepingUnitIDs.length; product++) {
+			stockKeepingUnitIDs[product] = in.readLong();
+		}
+		return new StoredOrder(orderID, buyerEmail, orderPlacedTime, stockKeepingUnitIDs);
+	}
+
+	long getOrderID() {
+		return orderID;
+	}
+
+	String getBuyerEmail() {
+		return buyerEmail;
+	}
+
+	long getOrderPlacedTime() {
+		return orderPlacedTime;
+	}
+
+	long[] getStockKeepingUnitIDs() {
+		return stockKeepingUnitIDs;
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.roche.service.inmemory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+
+import com.roche.service.product.Product;
+
+/**
+ * Product as held by the in-memory store, immutable and without its orders.
+ *
+ * @author amit modhvadia
+ *
+ */
+final class StoredProduct {
+
+	private final long stockKeepingUnitID;
+
+	private final String name;
+
+	private final Float price;
+
+	private final long creationDate;
+
+	private final boolean deletionFlag;
+
+	private final Long changeVersion;
+
+	/**
+	 * Constructor for Stored Product.
+	 *
+	 * @param stockKeepingUnitID long - Stock Keeping Unit ID of the product.
+	 * @param name               String - Name of the product, may be null.
+	 * @param price              Float - Price of the product, may be null.
+	 * @param creationDate       long - Milliseconds since the epoch the product
+	 *                           was created at.
+	 * @param deletionFlag       boolean - Whether the product is marked for
+	 *                           deletion.
+	 * @param changeVersion      Long - Change version of the product, may be null.
+	 */
+	StoredProduct(long stockKeepingUnitID, String name, Float price, long creationDate, boolean deletionFlag,
+			Long changeVersion) {
+		this.stockKeepingUnitID = stockKeepingUnitID;
+		this.name = name;
+		this.price = price;
+		this.creationDate = creationDate;
+		this.deletionFlag = deletionFlag;
+		this.changeVersion = changeVersion;
+	}
+
+	/**
+	 * Get the stored product for a product.
+	 *
+	 * @param stockKeepingUnitID long - Stock Keeping Unit ID of the product.
+	 * @param product            Product - Product to store.
+	 * @return StoredProduct - Stored product.
+	 */
+	static StoredProduct of(long stockKeepingUnitID, Product product) {
+		return new StoredProduct(stockKeepingUnitID, product.getName(), product.getPrice(),
+				product.getCreationDate() == null ? System.currentTimeMillis() : product.getCreationDate().getTime(),
+				Boolean.TRUE.equals(product.getDeletionFlag()), product.getChangeVersion());
+	}
+
+	/**
+	 * Get a new product entity for the stored product.
+	 *
+	 * @return Product - Product, detached from the store.
+	 */
+	Product toProduct() {
+		Product product = new Product(Long.valueOf(stockKeepingUnitID));
+		product.setName(name);
+		product.setPrice(price);
+		product.setCreationDate(new Date(creationDate));
+		product.setDeletionFlag(Boolean.valueOf(deletionFlag));
+		product.setChangeVersion(changeVersion);
+		return product;
+	}
+
+	/**
+	 * Write the product.
+	 *
+	 * @param out DataOutput - Output the product is written to.
+	 * @throws IOException - If the product could not be written.
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeLong(stockKeepingUnitID);
+		out.writeBoolean(name != null);
+		if (name != null) {
+			out.writeUTF(name);
+		}
+		out.writeBoolean(price != null);
+		if (price != null) {
+			out.writeFloat(price.floatValue());
+		}
+		out.writeLong(creationDate);
+		out.writeBoolean(deletionFlag);
+		out.writeBoolean(changeVersion != null);
+		if (changeVersion != null) {
+			out.writeLong(changeVersion.longValue());
+		}
+	}
+
+	/**
+	 * Read a product written by write.
+	 *
+	 * @param in DataInput - Input the product is read from.
+	 * @return StoredProduct - Product read.
+	 * @throws IOException - If the product could not be read.
+	 */
+	static StoredProduct read(DataInput in) throws IOException {
+		long stockKeepingUnitID = in.readLong();
+		String name = in.readBoolean() ? in.readUTF() : null;
+		Float price = in.readBoolean() ? Float.valueOf(in.readFloat()) : null;
+		long creationDate = in.readLong();
+		boolean deletionFlag = in.readBoolean();
+		Long changeVersion = in.readBoolean() ? Long.valueOf(in.readLong()) : null;
+		return new StoredProduct(stockKeepingUnitID, name, price, creationDate, deletionFlag, changeVersion);
+	}
+
+	long getStockKeepingUnitID() {
+		return stockKeepingUnitID;
+	}
+
+	Float getPrice() {
+		return price;
+	}
+
+	boolean isDeletionFlag() {
+		return deletionFlag;
+	}
+
+	Long getChangeVersion() {
+		return changeVersion;
+	}
+
+}
@@ -0,0 +1,401 @@
+package com.roche.service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of changes, written to a directory of memory-mapped
+ * segment files of a fixed size. Each segment is named after the sequence of
+ * its first record.
+ *
+ * Each record is written as its length, the CRC32 checksum of its body, and its
+ * body - sequence, timestamp, type and payload. A segment ends at the first
+ * record with a length of zero, or which does not fit the segment. On opening,
+ * a record left incomplete at the end of the last segment, such as by a crash
+ * while it was written, is discarded.
+ *
+ * Appended records are written to the page cache, which survives the service
+ * stopping or crashing. They are only forced to the disk on each append when
+ * force is set, to also survive the machine stopping.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class Journal implements Closeable {
+
+	/**
+	 * Length and checksum written before the body of each record.
+	 */
+	static final int RECORD_HEADER_LENGTH = Integer.BYTES + Integer.BYTES;
+
+	/**
+	 * Sequence, timestamp and type written before the payload of each record.
+	 */
+	static final int BODY_HEADER_LENGTH = Long.BYTES + Long.BYTES + Byte.BYTES;
+
+	private static final String SEGMENT_SUFFIX = ".journal";
+	private static final String SEGMENT_NAME_FORMAT = "%020d" + SEGMENT_SUFFIX;
+
+	/**
+	 * Sequence of the first record appended to a new journal.
+	 */
+	private static final long FIRST_SEQUENCE = 1L;
+
+	/**
+	 * Directory of the segment files.
+	 */
+	private final Path directory;
+
+	/**
+	 * Size of each segment file in bytes.
+	 */
+	private final int segmentSize;
+
+	/**
+	 * Whether each record is forced to the disk once appended.
+	 */
+	private final boolean force;
+
+	/**
+	 * Segments in the order of their sequences, the last being appended to.
+	 */
+	private final List<Segment> segments = new ArrayList<Segment>();
+
+	/**
+	 * Checksum of the records appended.
+	 */
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * Segment being appended to.
+	 */
+	private Segment active;
+
+	/**
+	 * Sequence of the next record appended.
+	 */
+	private long nextSequence;
+
+	private boolean closed;
+
+	private Journal(Path directory, int segmentSize, boolean force) {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.force = force;
+	}
+
+	/**
+	 * Open the journal in a directory, creating the directory when it does not
+	 * exist.
+	 *
+	 * @param directory   Path - Directory of the segment files.
+	 * @param segmentSize int - Size of each new segment file in bytes.
+	 * @param force       boolean - Whether each record is forced to the disk once
+	 *                    appended.
+	 * @return Journal - Journal opened, appending after its last record.
+	 * @throws IOException - If the segment files could not be read or created.
+	 */
+	public static Journal open(Path directory, int segmentSize, boolean force) throws IOException {
+		if (segmentSize <= RECORD_HEADER_LENGTH + BODY_HEADER_LENGTH) {
+			throw new IllegalArgumentException("Segment size " + segmentSize + " is too small");
+		}
+
+		Files.createDirectories(directory);
+
+		Journal journal = new Journal(directory, segmentSize, force);
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				journal.segments.add(new Segment(file,
+						Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+			}
+		}
+		journal.segments.sort(Comparator.comparingLong(segment -> segment.firstSequence));
+
+		if (journal.segments.isEmpty()) {
+			journal.startSegment(FIRST_SEQUENCE);
+		} else {
+			journal.recover(journal.segments.get(journal.segments.size() - 1));
+		}
+
+		return journal;
+	}
+
+	/**
+	 * Append a record.
+	 *
+	 * @param type    RecordType - Type of change recorded.
+	 * @param payload byte[] - Content of the change.
+	 * @return long - Sequence of the record appended.
+	 * @throws IOException - If a new segment file could not be created.
+	 */
+	public synchronized long append(RecordType type, byte[] payload) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("Journal is closed");
+		}
+
+		int bodyLength = BODY_HEADER_LENGTH + payload.length;
+		int recordLength = RECORD_HEADER_LENGTH + bodyLength;
+
+		if (recordLength > segmentSize) {
+			throw new IllegalArgumentException(
+					"Record of " + recordLength + " bytes does not fit a segment of " + segmentSize + " bytes");
+		}
+
+		if (active.buffer.remaining() < recordLength) {
+			active.close(force);
+			startSegment(nextSequence);
+		}
+
+		MappedByteBuffer buffer = active.buffer;
+		int position = buffer.position();
+		long sequence = nextSequence;
+
+		buffer.position(position + RECORD_HEADER_LENGTH);
+		buffer.putLong(sequence).putLong(System.currentTimeMillis()).put(type.getCode()).put(payload);
+
+		ByteBuffer body = buffer.duplicate();
+		body.position(position + RECORD_HEADER_LENGTH).limit(position + recordLength);
+		checksum.reset();
+		checksum.update(body);
+
+		// The length is written last, as it marks the record as present.
+		buffer.putInt(position + Integer.BYTES, (int) checksum.getValue());
+		buffer.putInt(position, bodyLength);
+
+		if (force) {
+			buffer.force();
+		}
+
+		nextSequence++;
+		return sequence;
+	}
+
+	/**
+	 * Replay the records appended so far, in the order of their sequences.
+	 * Records appended while replaying are not replayed.
+	 *
+	 * @param fromSequence long - Sequence of the first record replayed.
+	 * @param consumer     Consumer<JournalRecord> - Consumer of each record.
+	 * @return long - Number of records replayed.
+	 * @throws IOException - If a segment file could not be read.
+	 */
+	public long replay(long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+		List<Segment> replayed;
+		Segment last;
+		ByteBuffer lastRecords;
+
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("Journal is closed");
+			}
+			replayed = new ArrayList<Segment>(segments);
+			last = active;
+			lastRecords = active.buffer.duplicate().flip();
+		}
+
+		long count = 0;
+		CRC32 replayChecksum = new CRC32();
+
+		for (int index = 0; index < replayed.size(); index++) {
+			Segment segment = replayed.get(index);
+
+			// Skip the segments that end before the first sequence.
+			if (index + 1 < replayed.size() && replayed.get(index + 1).firstSequence <= fromSequence) {
+				continue;
+			}
+
+			ByteBuffer records = segment == last ? lastRecords : segment.mapReadOnly();
+			int position = 0;
+
+			int bodyLength;
+			while ((bodyLength = validBodyLength(records, position, replayChecksum)) > 0) {
+				int bodyPosition = position + RECORD_HEADER_LENGTH;
+				long sequence = records.getLong(bodyPosition);
+
+				if (sequence >= fromSequence) {
+					ByteBuffer payload = records.duplicate();
+					payload.position(bodyPosition + BODY_HEADER_LENGTH).limit(bodyPosition + bodyLength);
+					consumer.accept(new JournalRecord(sequence, records.getLong(bodyPosition + Long.BYTES),
+							RecordType.of(records.get(bodyPosition + Long.BYTES + Long.BYTES)),
+							payload.slice().asReadOnlyBuffer()));
+					count++;
+				}
+
+				position = bodyPosition + bodyLength;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Delete the segments holding only records before a sequence, such as the
+	 * records already included in a snapshot. The segment appended to is kept.
+	 *
+	 * @param sequence long - Sequence of the first record kept.
+	 * @return int - Number of segments deleted.
+	 * @throws IOException - If a segment file could not be deleted.
+	 */
+	public synchronized int deleteSegmentsBefore(long sequence) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("Journal is closed");
+		}
+
+		int deleted = 0;
+		while (segments.size() > 1 && segments.get(1).firstSequence <= sequence) {
+			Files.deleteIfExists(segments.remove(0).file);
+			deleted++;
+		}
+		return deleted;
+	}
+
+	/**
+	 * Get the sequence of the last record appended.
+	 *
+	 * @return long - Sequence of the last record, 0 if none were appended.
+	 */
+	public synchronized long getLastSequence() {
+		return nextSequence - 1;
+	}
+
+	/**
+	 * Close the journal, forcing the records appended to the disk.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			active.close(true);
+		}
+	}
+
+	/**
+	 * Create a new segment file and append to it.
+	 *
+	 * @param firstSequence long - Sequence of the first record of the segment.
+	 * @throws IOException - If the segment file could not be created.
+	 */
+	private void startSegment(long firstSequence) throws IOException {
+		Segment segment = new Segment(directory.resolve(String.format(SEGMENT_NAME_FORMAT, firstSequence)),
+				firstSequence);
+		segment.openForAppend(segmentSize);
+		segments.add(segment);
+		active = segment;
+		nextSequence = firstSequence;
+	}
+
+	/**
+	 * Append to the last segment after its last complete record, clearing any
+	 * incomplete record after it.
+	 *
+	 * @param segment Segment - Last segment of the journal.
+	 * @throws IOException - If the segment file could not be read.
+	 */
+	private void recover(Segment segment) throws IOException {
+		segment.openForAppend(segmentSize);
+
+		MappedByteBuffer buffer = segment.buffer;
+		long sequence = segment.firstSequence;
+		int position = 0;
+
+		int bodyLength;
+		while ((bodyLength = validBodyLength(buffer, position, checksum)) > 0) {
+			position += RECORD_HEADER_LENGTH + bodyLength;
+			sequence++;
+		}
+
+		for (int index = position; index < buffer.capacity() && index < position + RECORD_HEADER_LENGTH; index++) {
+			buffer.put(index, (byte) 0);
+		}
+
+		buffer.position(position);
+		active = segment;
+		nextSequence = sequence;
+	}
+
+	/**
+	 * Get the length of the body of the record at a position, if the record is
+	 * complete and its checksum matches.
+	 *
+	 * @param records  ByteBuffer - Records of a segment, up to its limit.
+	 * @param position int - Position of the record.
+	 * @param checksum CRC32 - Checksum to be computed.
+	 * @return int - Length of the body, 0 if there is no valid record at the
+	 *         position.
+	 */
+	private static int validBodyLength(ByteBuffer records, int position, CRC32 checksum) {
+		if (records.limit() - position < RECORD_HEADER_LENGTH) {
+			return 0;
+		}
+
+		int bodyLength = records.getInt(position);
+		int bodyPosition = position + RECORD_HEADER_LENGTH;
+
+		if (bodyLength < BODY_HEADER_LENGTH || bodyLength > records.limit() - bodyPosition) {
+			return 0;
+		}
+
+		ByteBuffer body = records.duplicate();
+		body.position(bodyPosition).limit(bodyPosition + bodyLength);
+		checksum.reset();
+		checksum.update(body);
+
+		return (int) checksum.getValue() == records.getInt(position + Integer.BYTES) ? bodyLength : 0;
+	}
+
+	/**
+	 * Segment file of the journal.
+	 */
+	private static class Segment {
+
+		private final Path file;
+		private final long firstSequence;
+
+		/**
+		 * Channel and mapping of the segment, while it is appended to.
+		 */
+		private FileChannel channel;
+		private MappedByteBuffer buffer;
+
+		Segment(Path file, long firstSequence) {
+			this.file = file;
+			this.firstSequence = firstSequence;
+		}
+
+		void openForAppend(int segmentSize) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			long size = channel.size() > 0 ? channel.size() : segmentSize;
+			buffer = channel.map(MapMode.READ_WRITE, 0, size);
+		}
+
+		ByteBuffer mapReadOnly() throws IOException {
+			try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+				return readChannel.map(MapMode.READ_ONLY, 0, readChannel.size());
+			}
+		}
+
+		void close(boolean force) throws IOException {
+			if (force) {
+				buffer.force();
+			}
+			channel.close();
+		}
+	}
+
+}
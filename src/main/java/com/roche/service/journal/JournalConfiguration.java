@@ -0,0 +1,57 @@
+package com.roche.service.journal;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Appends the orders placed and changed, and the products changed, to the
+ * journal, unless order-service.journal.enabled is false.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+@ConditionalOnProperty(prefix = "order-service.journal", name = "enabled", matchIfMissing = true)
+public class JournalConfiguration {
+
+	/**
+	 * Open the journal.
+	 *
+	 * @param properties JournalProperties - Location and segment size of the
+	 *                   journal.
+	 * @return Journal - Journal opened, closed with the application context.
+	 * @throws IOException - If the journal could not be opened.
+	 */
+	@Bean(destroyMethod = "close")
+	public Journal journal(JournalProperties properties) throws IOException {
+		return Journal.open(Paths.get(properties.getDirectory()), (int) properties.getSegmentSize().toBytes(),
+				properties.isForce());
+	}
+
+	/**
+	 * Create the listener appending the changes to the journal.
+	 *
+	 * @param journal       Journal - Journal the changes are appended to.
+	 * @param objectMapper  ObjectMapper - Mapper writing the payload of each
+	 *                      change.
+	 * @param meterRegistry MeterRegistry - Registry the failures to append are
+	 *                      counted in.
+	 * @return JournalEventListener - Listener appending the changes.
+	 */
+	@Bean
+	public JournalEventListener journalEventListener(Journal journal, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		return new JournalEventListener(journal, objectMapper, meterRegistry);
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.roche.service.journal;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderEvent;
+import com.roche.service.product.ProductEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Appends the orders placed and changed, and the products changed, to the
+ * journal once they are committed, with the JSON representation of the change
+ * as payload.
+ *
+ * The payload of an order placed is the order with its products, of a buyer
+ * email changed the order ID and buyer email, and of a product change the
+ * product.
+ *
+ * The change is already committed when it is appended, so a change that could
+ * not be appended is logged and counted as the journal.append.failures metric,
+ * tagged with the type of the record, rather than failing the request that
+ * made it. Such a change is missing from the journal.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class JournalEventListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JournalEventListener.class);
+
+	/**
+	 * Journal the changes are appended to.
+	 */
+	private final Journal journal;
+
+	/**
+	 * Mapper writing the payload of each change.
+	 */
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Registry the failures to append are counted in.
+	 */
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Constructor for Journal Event Listener.
+	 *
+	 * @param journal       Journal - Journal the changes are appended to.
+	 * @param objectMapper  ObjectMapper - Mapper writing the payload of each
+	 *                      change.
+	 * @param meterRegistry MeterRegistry - Registry the failures to append are
+	 *                      counted in.
+	 */
+	public JournalEventListener(Journal journal, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.journal = journal;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Append an order placed or changed.
+	 *
+	 * @param event OrderEvent - Order placed or changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void orderChanged(OrderEvent event) {
+		Order order = event.getOrder();
+
+		switch (event.getType()) {
+		case PLACED:
+			append(RecordType.ORDER_PLACED, order);
+			break;
+		case BUYER_EMAIL_CHANGED:
+			Map<String, Object> change = new LinkedHashMap<String, Object>();
+			change.put("orderID", order.getOrderID());
+			change.put("buyerEmail", order.getBuyerEmail());
+			append(RecordType.ORDER_BUYER_EMAIL_CHANGED, change);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown order event " + event.getType());
+		}
+	}
+
+	/**
+	 * Append a product created, replaced or deleted.
+	 *
+	 * @param event ProductEvent - Product created, replaced or deleted.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void productChanged(ProductEvent event) {
+		switch (event.getType()) {
+		case CREATED:
+			append(RecordType.PRODUCT_CREATED, event.getProduct());
+			break;
+		case REPLACED:
+			append(RecordType.PRODUCT_REPLACED, event.getProduct());
+			break;
+		case DELETED:
+			append(RecordType.PRODUCT_DELETED, event.getProduct());
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown product event " + event.getType());
+		}
+	}
+
+	private void append(RecordType type, Object payload) {
+		try {
+			journal.append(type, objectMapper.writeValueAsBytes(payload));
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Could not append the committed change {} to the journal", type, e);
+			Counter.builder("journal.append.failures").tag("type", type.name())
+					.description("Committed changes that could not be appended to the journal")
+					.register(meterRegistry).increment();
+		}
+	}
+
+}
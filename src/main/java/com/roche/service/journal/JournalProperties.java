@@ -0,0 +1,67 @@
+package com.roche.service.journal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Location and segment size of the journal, set as order-service.journal.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.journal")
+public class JournalProperties {
+
+	/**
+	 * Whether the changes are appended to the journal.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Directory of the segment files.
+	 */
+	private String directory = System.getProperty("user.home") + "/data/order-journal";
+
+	/**
+	 * Size of each segment file.
+	 */
+	private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * Whether each record is forced to the disk once appended.
+	 */
+	private boolean force;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public DataSize getSegmentSize() {
+		return segmentSize;
+	}
+
+	public void setSegmentSize(DataSize segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+	public boolean isForce() {
+		return force;
+	}
+
+	public void setForce(boolean force) {
+		this.force = force;
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.roche.service.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Change recorded in the journal.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class JournalRecord {
+
+	/**
+	 * Sequence of the record, increasing by one for each record appended.
+	 */
+	private final long sequence;
+
+	/**
+	 * Time the record was appended, in milliseconds since the epoch.
+	 */
+	private final long timestamp;
+
+	/**
+	 * Type of change recorded.
+	 */
+	private final RecordType type;
+
+	/**
+	 * Content of the change, as written by the journal's user.
+	 */
+	private final ByteBuffer payload;
+
+	/**
+	 * Constructor for Journal Record.
+	 *
+	 * @param sequence  long - Sequence of the record.
+	 * @param timestamp long - Time the record was appended.
+	 * @param type      RecordType - Type of change recorded.
+	 * @param payload   ByteBuffer - Content of the change, read only.
+	 */
+	JournalRecord(long sequence, long timestamp, RecordType type, ByteBuffer payload) {
+		this.sequence = sequence;
+		this.timestamp = timestamp;
+		this.type = type;
+		this.payload = payload;
+	}
+
+	/**
+	 * Get the sequence of the record.
+	 *
+	 * @return long - Sequence of the record.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Get the time the record was appended.
+	 *
+	 * @return long - Milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Get the type of change recorded.
+	 *
+	 * @return RecordType - Type of change.
+	 */
+	public RecordType getType() {
+		return type;
+	}
+
+	/**
+	 * Get the content of the change. The buffer is a read only view of the
+	 * journal, only valid while the record is being replayed.
+	 *
+	 * @return ByteBuffer - Content of the change.
+	 */
+	public ByteBuffer getPayload() {
+		return payload;
+	}
+
+	/**
+	 * Copy the content of the change.
+	 *
+	 * @return byte[] - Content of the change.
+	 */
+	public byte[] getPayloadBytes() {
+		byte[] bytes = new byte[payload.remaining()];
+		payload.duplicate().get(bytes);
+		return bytes;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.roche.service.journal;
+
+/**
+ * Type of change recorded in the journal.
+ *
+ * @author amit modhvadia
+ *
+ */
+public enum RecordType {
+
+	/**
+	 * An order was placed - POST /orders.
+	 */
+	ORDER_PLACED(1),
+
+	/**
+	 * The buyer email of an order was changed - PUT /orders/{orderID}.
+	 */
+	ORDER_BUYER_EMAIL_CHANGED(2),
+
+	/**
+	 * A product was created - POST /products.
+	 */
+	PRODUCT_CREATED(3),
+
+	/**
+	 * The name and price of a product were replaced - PUT
+	 * /products/{stockKeepingUnitID}.
+	 */
+	PRODUCT_REPLACED(4),
+
+	/**
+	 * A product was marked for deletion - DELETE /products/{stockKeepingUnitID}.
+	 */
+	PRODUCT_DELETED(5),
+
+	/**
+	 * An order was deleted from the in-memory store.
+	 */
+	ORDER_REMOVED(6),
+
+	/**
+	 * A product was deleted from the in-memory store.
+	 */
+	PRODUCT_REMOVED(7);
+
+	private static final RecordType[] BY_CODE = new RecordType[8];
+
+	static {
+		for (RecordType type : values()) {
+			BY_CODE[type.code] = type;
+		}
+	}
+
+	/**
+	 * Code written to the journal for the type.
+	 */
+	private final byte code;
+
+	RecordType(int code) {
+		this.code = (byte) code;
+	}
+
+	/**
+	 * Get the code written to the journal for the type.
+	 *
+	 * @return byte - Code of the type.
+	 */
+	public byte getCode() {
+		return code;
+	}
+
+	/**
+	 * Get the type for a code written to the journal.
+	 *
+	 * @param code byte - Code of the type.
+	 * @return RecordType - Type for the code.
+	 * @throws IllegalArgumentException - If the code is not of any type.
+	 */
+	public static RecordType of(byte code) {
+		if (code <= 0 || code >= BY_CODE.length) {
+			throw new IllegalArgumentException("Unknown record type " + code);
+		}
+		return BY_CODE[code];
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.roche.service.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Tags the http.server.requests timer with the controller method that handled
+ * the request, such as OrderController.newOrder, so that each controller method
+ * has its own latency.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+public class HandlerTagsContributor implements WebMvcTagsContributor {
+
+	/**
+	 * Name of the tag.
+	 */
+	public static final String HANDLER_TAG = "handler";
+
+	private static final String NO_HANDLER = "none";
+
+	@Override
+	public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Throwable exception) {
+		return Tags.of(handlerTag(handler));
+	}
+
+	@Override
+	public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+		return Tags.of(handlerTag(handler));
+	}
+
+	/**
+	 * Create the tag for the controller method handling a request.
+	 *
+	 * @param handler Object - Handler of the request.
+	 * @return Tag - Controller class and method, or none if the request was not
+	 *         handled by a controller method.
+	 */
+	private static Tag handlerTag(Object handler) {
+		return Tag.of(HANDLER_TAG, handlerName(handler));
+	}
+
+	/**
+	 * Get the name of the controller method handling a request, such as
+	 * OrderController.newOrder.
+	 *
+	 * @param handler Object - Handler of the request.
+	 * @return String - Controller class and method, or none if the request was
+	 *         not handled by a controller method.
+	 */
+	public static String handlerName(Object handler) {
+		if (!(handler instanceof HandlerMethod)) {
+			return NO_HANDLER;
+		}
+
+		HandlerMethod handlerMethod = (HandlerMethod) handler;
+		return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+	}
+
+}
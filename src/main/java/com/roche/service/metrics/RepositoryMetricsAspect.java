@@ -0,0 +1,76 @@
+package com.roche.service.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times each invocation of a repository method, such as each query of the
+ * order and product repositories.
+ *
+ * Recorded as the spring.data.repository.invocations timer, tagged with the
+ * repository, the method, the state (SUCCESS or ERROR) and the exception.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+	/**
+	 * Name of the timer for repository invocations.
+	 */
+	public static final String METRIC_NAME = "spring.data.repository.invocations";
+
+	private static final String STATE_SUCCESS = "SUCCESS";
+	private static final String STATE_ERROR = "ERROR";
+	private static final String NO_EXCEPTION = "None";
+
+	/**
+	 * Registry the timers are registered with.
+	 */
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Constructor for Repository Metrics Aspect.
+	 *
+	 * @param meterRegistry MeterRegistry - Registry the timers are registered
+	 *                      with.
+	 */
+	public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Time the invocation of a repository method.
+	 *
+	 * @param joinPoint ProceedingJoinPoint - Invocation of the repository method.
+	 * @return Object - Result of the repository method.
+	 * @throws Throwable - Exception thrown by the repository method.
+	 */
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String state = STATE_SUCCESS;
+		String exception = NO_EXCEPTION;
+
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable throwable) {
+			state = STATE_ERROR;
+			exception = throwable.getClass().getSimpleName();
+			throw throwable;
+		} finally {
+			sample.stop(Timer.builder(METRIC_NAME).description("Duration of repository invocations")
+					.tag("repository", RepositoryNames.of(joinPoint.getThis().getClass()))
+					.tag("method", joinPoint.getSignature().getName()).tag("state", state)
+					.tag("exception", exception).register(meterRegistry));
+		}
+	}
+
+}
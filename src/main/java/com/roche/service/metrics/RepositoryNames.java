@@ -0,0 +1,40 @@
+package com.roche.service.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Resolves the name of the repository interface, such as OrderRepository,
+ * implemented by a repository proxy.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class RepositoryNames {
+
+	/**
+	 * Name of the repository interface implemented by each repository proxy.
+	 */
+	private static final Map<Class<?>, String> NAMES = new ConcurrentHashMap<Class<?>, String>();
+
+	private RepositoryNames() {
+	}
+
+	/**
+	 * Get the name of the repository interface implemented by a repository proxy.
+	 *
+	 * @param proxyClass Class<?> - Class of the repository proxy.
+	 * @return String - Simple name of the repository interface.
+	 */
+	public static String of(Class<?> proxyClass) {
+		return NAMES.computeIfAbsent(proxyClass,
+				type -> ClassUtils.getAllInterfacesForClassAsSet(type).stream()
+						.filter(Repository.class::isAssignableFrom)
+						.filter(repository -> !repository.getName().startsWith("org.springframework."))
+						.map(Class::getSimpleName).findFirst().orElse(type.getSimpleName()));
+	}
+
+}
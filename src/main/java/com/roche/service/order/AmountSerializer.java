@@ -0,0 +1,48 @@
+package com.roche.service.order;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializer written by hand for the total amount of an order, registered with
+ * the object mappers of the service.
+ *
+ * @author amit modhvadia
+ *
+ */
+@JsonComponent
+public class AmountSerializer extends StdSerializer<Amount> {
+
+	private static final long serialVersionUID = 6012784405932860316L;
+
+	private static final SerializedString TOTAL_AMOUNT = new SerializedString(OrderView.TOTAL_AMOUNT);
+
+	/**
+	 * Constructor for Amount Serializer.
+	 */
+	public AmountSerializer() {
+		super(Amount.class);
+	}
+
+	/**
+	 * Write the total amount.
+	 */
+	@Override
+	public void serialize(Amount amount, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject(amount);
+		gen.writeFieldName(TOTAL_AMOUNT);
+		if (amount.getTotalAmount() == null) {
+			gen.writeNull();
+		} else {
+			gen.writeNumber(amount.getTotalAmount().floatValue());
+		}
+		gen.writeEndObject();
+	}
+
+}
@@ -13,9 +13,15 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.hateoas.RepresentationModel;
 
 import com.roche.service.product.Product;
@@ -27,22 +33,27 @@ import com.roche.service.product.Product;
  *
  */
 @Entity
-@Table(name = "ROCHE_ORDER")
+@Table(name = "ROCHE_ORDER", indexes = @Index(name = "ORDER_PLACED_TIME_INDEX", columnList = "ORDER_PLACED_TIME"))
 public class Order extends RepresentationModel<Order> implements Serializable {
 
 	private static final long serialVersionUID = 9196730150595301723L;
 
 	/**
-	 * Order ID (unique).
+	 * Order ID (unique), from the database sequence unless an IDGenerator is
+	 * configured.
 	 */
 	@Id
-	@GeneratedValue
+	@GeneratedValue(generator = "order-id")
+	@GenericGenerator(name = "order-id", strategy = "com.roche.service.identifier.OrderIdentifierGenerator",
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "hibernate_sequence"))
 	@Column(name = "ORDER_ID")
 	private Long orderID;
 
 	/**
-	 * Products for this order.
+	 * Products for this order, their Stock Keeping Unit IDs held in the
+	 * second-level cache.
 	 */
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@ManyToMany(mappedBy = "orders", cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
 	private List<Product> products = new ArrayList<Product>();
 
@@ -75,6 +86,20 @@ public class Order extends RepresentationModel<Order> implements Serializable {
 		this.buyerEmail = buyerEmail;
 	}
 
+	/**
+	 * Constructor for Order, for an order already placed.
+	 * 
+	 * @param orderID         Long - Order ID of the order.
+	 * @param buyerEmail      String - Email of the buyer.
+	 * @param orderPlacedTime Date - Time the order was placed.
+	 */
+	public Order(Long orderID, String buyerEmail, Date orderPlacedTime) {
+		super();
+		this.orderID = orderID;
+		this.buyerEmail = buyerEmail;
+		this.orderPlacedTime = orderPlacedTime;
+	}
+
 	/**
 	 * Get the Order ID for this order.
 	 * 
@@ -0,0 +1,74 @@
+package com.roche.service.order;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Orders a repository method for orders reads or changes, so that the orders
+ * kept outside of the database, such as in the archive, can be read with them.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OrderAccess {
+
+	/**
+	 * Orders the method reads or changes, given by its first argument.
+	 *
+	 * @return Scope - Orders read or changed.
+	 */
+	Scope value();
+
+	/**
+	 * Whether the end date of a time period, given by the second argument, is
+	 * excluded.
+	 *
+	 * @return boolean - True if the end date is excluded.
+	 */
+	boolean endExcluded() default false;
+
+	/**
+	 * Whether the orders are summarized including their total amount.
+	 *
+	 * @return boolean - True if the summaries include the total amount.
+	 */
+	boolean totalAmount() default false;
+
+	/**
+	 * Orders a repository method reads or changes.
+	 */
+	enum Scope {
+
+		/**
+		 * The order given.
+		 */
+		ORDER,
+
+		/**
+		 * The order for the order ID given.
+		 */
+		ORDER_ID,
+
+		/**
+		 * The orders for the order IDs given.
+		 */
+		ORDER_IDS,
+
+		/**
+		 * The orders placed within the time period given by the start and end dates.
+		 */
+		TIME_PERIOD,
+
+		/**
+		 * All the orders in the database, which do not include those archived.
+		 */
+		ALL
+	}
+
+}
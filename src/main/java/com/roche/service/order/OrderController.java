@@ -6,27 +6,45 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.TimeZone;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.roche.service.cache.CachedOrder;
+import com.roche.service.cache.OrderCache;
+import com.roche.service.diagnostics.OrderPlacementEvent;
+import com.roche.service.diagnostics.OrderPlacementStageEvent;
 import com.roche.service.order.exception.OrderNotFoundException;
 import com.roche.service.product.Product;
 import com.roche.service.product.ProductController;
 import com.roche.service.product.ProductModelAssembler;
 import com.roche.service.product.ProductRepository;
+import com.roche.service.representation.IncludedCollectionModel;
+import com.roche.service.representation.LookupProperties;
+import com.roche.service.representation.RepresentationOptions;
 
 /**
  * Maps allowed URIs for Orders to methods that support the corresponding URIs.
@@ -35,6 +53,7 @@ import com.roche.service.product.ProductRepository;
  *
  */
 @RestController
+@EnableConfigurationProperties(LookupProperties.class)
 public class OrderController {
 
 	/**
@@ -87,6 +106,26 @@ public class OrderController {
 	 */
 	private final ProductModelAssembler productModelAssembler;
 
+	/**
+	 * Publisher of the orders placed and changed.
+	 */
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Reads the orders within wide time periods in parallel parts.
+	 */
+	private final OrderRangeScan orderRangeScan;
+
+	/**
+	 * Orders read by order ID, with their products and total amount.
+	 */
+	private final OrderCache orderCache;
+
+	/**
+	 * Maximum number of order IDs looked up in a single request.
+	 */
+	private final LookupProperties lookupProperties;
+
 	/**
 	 * Constructor for Order Controller.
 	 * 
@@ -99,23 +138,57 @@ public class OrderController {
 	 * @param productModelAssembler ProductModelAssembler - Assembler for annotating
 	 *                              products associated for orders with referential
 	 *                              links.
+	 * @param eventPublisher        ApplicationEventPublisher - Publisher of the
+	 *                              orders placed and changed.
+	 * @param orderRangeScan        OrderRangeScan - Reads the orders within wide
+	 *                              time periods in parallel parts.
+	 * @param orderCache            OrderCache - Orders read by order ID, with
+	 *                              their products and total amount.
+	 * @param lookupProperties      LookupProperties - Maximum number of order IDs
+	 *                              looked up in a single request.
 	 */
 	public OrderController(OrderRepository orderRepository, OrderModelAssembler orderModelAssembler,
-			ProductRepository productRepository, ProductModelAssembler productModelAssembler) {
+			ProductRepository productRepository, ProductModelAssembler productModelAssembler,
+			ApplicationEventPublisher eventPublisher, OrderRangeScan orderRangeScan, OrderCache orderCache,
+			LookupProperties lookupProperties) {
 
 		this.orderRepository = orderRepository;
 		this.productRepository = productRepository;
 		this.orderModelAssembler = orderModelAssembler;
 		this.productModelAssembler = productModelAssembler;
+		this.eventPublisher = eventPublisher;
+		this.orderRangeScan = orderRangeScan;
+		this.orderCache = orderCache;
+		this.lookupProperties = lookupProperties;
 	}
 
 	/**
 	 * Get all the orders.
 	 * 
+	 * Example path - /orders?fields=orderID,orderPlacedTime,totalAmount&links=none
+	 * 
+	 * Example path - /orders?view=compact
+	 * 
+	 * @param options RepresentationOptions - Fields, view and referential links
+	 *                requested. The full representation is returned when none
+	 *                are requested.
 	 * @return Order - All orders
 	 */
 	@GetMapping("/orders")
-	public CollectionModel<Order> all() {
+	public ResponseEntity<?> all(RepresentationOptions options) {
+
+		if (!options.isSupported(OrderView.FIELDS)) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
+
+		if (!options.isDefault()) {
+
+			// Return only the fields and referential links requested.
+			return ResponseEntity.ok().body(toOrderCollectionModel(options, orderRepository::findAll,
+					orderRepository::findAllSummaries, orderRepository::findAllSummariesWithTotalAmount));
+		}
 
 		// Retrieve all the orders.
 		List<Order> orders = orderRepository.findAll();
@@ -133,7 +206,56 @@ public class OrderController {
 		}
 
 		// Return the collection of orders annotated with referential links.
-		return CollectionModel.of(orders, linkTo(methodOn(OrderController.class).all()).withSelfRel());
+		return ResponseEntity.ok()
+				.body(CollectionModel.of(orders, linkTo(methodOn(OrderController.class).all(null)).withSelfRel()));
+	}
+
+	/**
+	 * Get the orders for the order IDs provided using a single query.
+	 * 
+	 * Example path - /orders?ids=1,2,3
+	 * 
+	 * The lookups are returned in the order they were requested. Order IDs that
+	 * do not exist are returned with a status marking them as not found, instead
+	 * of the order. More order IDs than order-service.lookup.max-ids are
+	 * rejected as a bad request.
+	 * 
+	 * @param ids List<Long> - Order IDs of the orders to be returned.
+	 * @return OrderLookup - Lookups for the order IDs provided.
+	 */
+	@GetMapping(value = "/orders", params = "ids")
+	public ResponseEntity<CollectionModel<OrderLookup>> some(@RequestParam List<Long> ids) {
+
+		if (ids.size() > lookupProperties.getMaxIds()) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
+
+		// Retrieve all the requested orders together with their products.
+		Map<Long, Order> ordersByID = orderRepository.findByOrderIDIn(ids).stream()
+				.collect(Collectors.toMap(Order::getOrderID, Function.identity(), (first, second) -> first));
+
+		// Resolve the lookups in the order they were requested.
+		List<OrderLookup> lookups = ids.stream().map(id -> {
+			Order order = ordersByID.get(id);
+
+			if (order == null) {
+				return new OrderLookup(id, OrderLookup.Status.NOT_FOUND, null);
+			}
+
+			// Add referential links that point back to the order and its products. An order
+			// requested more than once is only annotated once.
+			if (!order.hasLinks()) {
+				addOrderLinks(order);
+				addLinksToProductsForAnOrder(order);
+			}
+			return new OrderLookup(id, OrderLookup.Status.FOUND, order);
+		}).collect(Collectors.toList());
+
+		// Return the lookups annotated with referential links.
+		return ResponseEntity.ok()
+				.body(CollectionModel.of(lookups, linkTo(methodOn(OrderController.class).some(ids)).withSelfRel()));
 	}
 
 	/**
@@ -155,37 +277,58 @@ public class OrderController {
 	 *                  path, 'T' separates the date and time components, and 'A'
 	 *                  separates the hour and minutes. Letters 'T' and 'A' were
 	 *                  chosen because they are URL friendly.
+	 * @param options   RepresentationOptions - Fields, view and referential links
+	 *                  requested. The full representation is returned when none
+	 *                  are requested.
 	 * @return Order - Orders within the specified time period.
 	 */
 	@GetMapping("/orders/{startDate}/{endDate}")
-	public ResponseEntity<?> filteredOrdersByTimePeriod(@PathVariable String startDate, @PathVariable String endDate) {
+	public ResponseEntity<?> filteredOrdersByTimePeriod(@PathVariable String startDate, @PathVariable String endDate,
+			RepresentationOptions options) {
 
-		SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
-		dateFormat.setTimeZone(TimeZone.getTimeZone(UTC_TIMEZONE_CODE));
+		if (!options.isSupported(OrderView.FIELDS)) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
 
 		// Convert String startDate and endDate into valid date objects.
 		Date startDateObject = null;
 		Date endDateObject = null;
 
 		try {
-			;
-			startDateObject = dateFormat
-					.parse(startDate.replaceFirst(REQUEST_TIME_COMPONENT_SEPARATOR, TIME_COMPONENT_SEPARATOR)
-							.replaceFirst(REQUEST_TIME_SEPARATOR, TIME_SEPARATOR));
+			startDateObject = parseRequestDate(startDate);
+			endDateObject = parseRequestDate(endDate);
 		} catch (ParseException pe) {
 
 			// Return a bad request response.
 			return ResponseEntity.badRequest().build();
 		}
 
-		try {
-			endDateObject = dateFormat
-					.parse(endDate.replaceFirst(REQUEST_TIME_COMPONENT_SEPARATOR, TIME_COMPONENT_SEPARATOR)
-							.replaceFirst(REQUEST_TIME_SEPARATOR, TIME_SEPARATOR));
-		} catch (ParseException pe) {
+		if (!options.isDefault()) {
+			Date start = startDateObject;
+			Date end = endDateObject;
+
+			// Return only the fields and referential links requested for the orders placed
+			// between the start date and the end date.
+			return ResponseEntity.ok()
+					.body(toOrderCollectionModel(options,
+							() -> orderRepository.findByOrderPlacedTimeBetween(start, end),
+							() -> orderRepository.findSummariesByOrderPlacedTimeBetween(start, end),
+							() -> orderRepository.findSummariesWithTotalAmountByOrderPlacedTimeBetween(start, end)));
+		}
 
-			// Return a bad request response.
-			return ResponseEntity.badRequest().build();
+		if (orderRangeScan.isSplit(startDateObject, endDateObject)) {
+
+			// Get the orders placed between the start date and the end date, reading and
+			// annotating parts of the time period in parallel.
+			List<Order> orders = orderRangeScan.scan(startDateObject, endDateObject, order -> {
+				addOrderLinks(order);
+				addLinksToProductsForAnOrder(order);
+			});
+
+			return ResponseEntity.ok()
+					.body(CollectionModel.of(orders, linkTo(methodOn(OrderController.class).all(null)).withSelfRel()));
 		}
 
 		// Get orders placed between the start date and the end date.
@@ -206,7 +349,7 @@ public class OrderController {
 		// Return the collection of orders found within the time period, annotated with
 		// referential links with an OK response.
 		return ResponseEntity.ok()
-				.body(CollectionModel.of(orders, linkTo(methodOn(OrderController.class).all()).withSelfRel()));
+				.body(CollectionModel.of(orders, linkTo(methodOn(OrderController.class).all(null)).withSelfRel()));
 
 	}
 
@@ -219,6 +362,11 @@ public class OrderController {
 	@PostMapping("/orders")
 	public ResponseEntity<?> newOrder(@RequestBody Order newOrder) {
 
+		// Each stage is recorded as a flight recorder event, when a recording is
+		// running.
+		OrderPlacementEvent placement = new OrderPlacementEvent();
+		placement.begin();
+
 		List<Product> newProducts = new ArrayList<Product>();
 		newProducts.addAll(newOrder.getProducts());
 
@@ -227,14 +375,26 @@ public class OrderController {
 		for (Product product : newProducts) {
 
 			// Retrieve a product
+			OrderPlacementStageEvent lookup = OrderPlacementStageEvent.begin(OrderPlacementStageEvent.PRODUCT_LOOKUP);
 			Product retrievedProduct = productRepository.findById(product.getStockKeepingUnitID()).orElseThrow();
+			lookup.complete(retrievedProduct.getStockKeepingUnitID());
 
-			// Add and associate this product with the new order.
+			// Add and associate this product with the new order. This loads the orders of
+			// the product.
+			OrderPlacementStageEvent association = OrderPlacementStageEvent
+					.begin(OrderPlacementStageEvent.PRODUCT_ORDERS_INITIALIZATION);
 			newOrder.addProduct(retrievedProduct);
+			association.complete(retrievedProduct.getStockKeepingUnitID());
 		}
 
 		// Save the order.
+		OrderPlacementStageEvent save = OrderPlacementStageEvent.begin(OrderPlacementStageEvent.SAVE);
 		Order savedOrder = orderRepository.save(newOrder);
+		save.complete();
+
+		eventPublisher.publishEvent(new OrderEvent(OrderEvent.Type.PLACED, savedOrder));
+
+		OrderPlacementStageEvent linkAssembly = OrderPlacementStageEvent.begin(OrderPlacementStageEvent.LINK_ASSEMBLY);
 
 		// Add referential links that point back to all the product themselves and also
 		// point back to the collection of products.
@@ -244,6 +404,11 @@ public class OrderController {
 		// collection of orders.
 		EntityModel<Order> entityModel = orderModelAssembler.toModel(savedOrder);
 
+		linkAssembly.complete();
+
+		placement.setOrder(savedOrder.getOrderID(), newProducts.size());
+		placement.commit();
+
 		// Return the order placed annotated with referential links with a created
 		// response.
 		return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(entityModel);
@@ -253,16 +418,38 @@ public class OrderController {
 	 * Get an order for the order ID provided.
 	 * 
 	 * @param orderID Long - Order ID of the order to returned.
+	 * @param options RepresentationOptions - Fields and referential links
+	 *                requested. The full representation is returned when none are
+	 *                requested.
 	 * @return Order - Order for the order ID provided.
 	 */
 	@GetMapping("/orders/{orderID}")
-	public ResponseEntity<?> one(@PathVariable Long orderID) {
+	public ResponseEntity<?> one(@PathVariable Long orderID, RepresentationOptions options) {
+
+		if (!options.isSupported(OrderView.FIELDS)) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
+
+		if (!options.isDefault()) {
+
+			// Retrieve only the fields requested for an order. The products are only loaded
+			// when they were requested.
+			Optional<OrderView> view = options.includes(OrderView.PRODUCTS)
+					? orderCache.find(orderID).map(order -> toOrderView(order.toOrder(), false, options))
+					: orderRepository.findSummaryWithTotalAmountByOrderID(orderID)
+							.map(summary -> toOrderView(summary, options));
+
+			// Return the order found with an OK response, otherwise a not found response.
+			return view.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+		}
 
 		Order order;
 
 		try {
-			// Retrieve an order.
-			order = orderRepository.findById(orderID).orElseThrow(() -> new OrderNotFoundException(orderID));
+			// Retrieve an order, from the order cache when held.
+			order = orderCache.find(orderID).orElseThrow(() -> new OrderNotFoundException(orderID)).toOrder();
 		} catch (OrderNotFoundException onfe) {
 
 			// Retrieve a not found response.
@@ -292,20 +479,20 @@ public class OrderController {
 	@GetMapping("/orders/{orderID}/calculatetotalamount")
 	public ResponseEntity<?> totalAmount(@PathVariable Long orderID) {
 
-		Order order;
+		CachedOrder order;
 
 		try {
-			// Retrieve an order.
-			order = orderRepository.findById(orderID).orElseThrow(() -> new OrderNotFoundException(orderID));
+			// Retrieve an order, from the order cache when held.
+			order = orderCache.find(orderID).orElseThrow(() -> new OrderNotFoundException(orderID));
 		} catch (OrderNotFoundException onfe) {
 
 			// Return a not found response.
 			return ResponseEntity.notFound().build();
 		}
 
-		// Calculate and return the total price amount for the order with an OK
-		// response.
-		return ResponseEntity.ok().body(new Amount(calculateTotalOrderAmount(order)));
+		// Return the total price amount for the order, calculated when it was read, with
+		// an OK response.
+		return ResponseEntity.ok().body(new Amount(order.getTotalAmount()));
 
 	}
 
@@ -320,9 +507,9 @@ public class OrderController {
 
 		Order order;
 
-		// Retrieve an order.
+		// Retrieve an order, from the order cache when held.
 		try {
-			order = orderRepository.findById(orderID).orElseThrow(() -> new OrderNotFoundException(orderID));
+			order = orderCache.find(orderID).orElseThrow(() -> new OrderNotFoundException(orderID)).toOrder();
 		} catch (OrderNotFoundException onfe) {
 			return ResponseEntity.notFound().build();
 		}
@@ -334,7 +521,7 @@ public class OrderController {
 
 		// Return the products found for an order annotated with referential links.
 		return ResponseEntity.ok()
-				.body(CollectionModel.of(products, linkTo(methodOn(OrderController.class).all()).withSelfRel()));
+				.body(CollectionModel.of(products, linkTo(methodOn(OrderController.class).all(null)).withSelfRel()));
 	}
 
 	/**
@@ -356,6 +543,8 @@ public class OrderController {
 						order.setBuyerEmail(newOrder.getBuyerEmail());
 						return orderRepository.save(order);
 					}).orElseThrow(() -> new OrderNotFoundException(orderID));
+
+			eventPublisher.publishEvent(new OrderEvent(OrderEvent.Type.BUYER_EMAIL_CHANGED, updatedOrder));
 		} catch (OrderNotFoundException onfe) {
 
 			// Return no content response as no order was found for replacement.
@@ -383,8 +572,20 @@ public class OrderController {
 	 * @param order Order - Order to be annotated with links
 	 */
 	private void addOrderLinks(Order order) {
-		order.add(linkTo(methodOn(OrderController.class).one(order.getOrderID())).withSelfRel(),
-				linkTo(methodOn(OrderController.class).all()).withRel("orders"));
+		addOrderLinks(order, order.getOrderID());
+	}
+
+	/**
+	 * Add referential links that point back to an order and also point back to the
+	 * collection of orders.
+	 * 
+	 * @param model   RepresentationModel<?> - Representation of the order to be
+	 *                annotated with links.
+	 * @param orderID Long - Order ID of the order.
+	 */
+	private void addOrderLinks(RepresentationModel<?> model, Long orderID) {
+		model.add(linkTo(methodOn(OrderController.class).one(orderID, null)).withSelfRel(),
+				linkTo(methodOn(OrderController.class).all(null)).withRel("orders"));
 	}
 
 	/**
@@ -393,7 +594,7 @@ public class OrderController {
 	 * 
 	 * @param order Order - Products of this order to be annotated with links.
 	 */
-	private void addLinksToProductsForAnOrder(Order order) {
+	void addLinksToProductsForAnOrder(Order order) {
 		for (Product product : order.getProducts()) {
 
 			addProductLinks(product);
@@ -410,8 +611,134 @@ public class OrderController {
 		if (product.hasLinks())
 			return;
 
-		product.add(linkTo(methodOn(ProductController.class).one(product.getStockKeepingUnitID())).withSelfRel(),
-				linkTo(methodOn(ProductController.class).all()).withRel("products"));
+		product.add(linkTo(methodOn(ProductController.class).one(product.getStockKeepingUnitID(), null)).withSelfRel(),
+				linkTo(methodOn(ProductController.class).all(null)).withRel("products"));
+	}
+
+	/**
+	 * Retrieve orders and represent them with only the fields requested. The
+	 * cheapest query that covers the fields requested is used: the products are
+	 * only loaded when they were requested, and otherwise the total amount is
+	 * summed by the database when it was requested.
+	 * 
+	 * For the compact view, each order only references the Stock Keeping Unit IDs
+	 * of its products, and each distinct product is included once alongside the
+	 * collection.
+	 * 
+	 * @param options                  RepresentationOptions - Fields, view and
+	 *                                 referential links requested.
+	 * @param orders                   Supplier<List<Order>> - Query for the
+	 *                                 orders with their products.
+	 * @param summaries                Supplier<List<OrderSummary>> - Query for
+	 *                                 summaries of the orders.
+	 * @param summariesWithTotalAmount Supplier<List<OrderSummary>> - Query for
+	 *                                 summaries of the orders including their
+	 *                                 total amount.
+	 * @return CollectionModel<OrderView> - Collection of the representations,
+	 *         annotated with a referential link that points back to the
+	 *         collection of orders unless links were suppressed.
+	 */
+	private CollectionModel<OrderView> toOrderCollectionModel(RepresentationOptions options,
+			Supplier<List<Order>> orders, Supplier<List<OrderSummary>> summaries,
+			Supplier<List<OrderSummary>> summariesWithTotalAmount) {
+
+		List<Link> links = options.isLinksSuppressed() ? Collections.emptyList()
+				: List.of(linkTo(methodOn(OrderController.class).all(null)).withSelfRel());
+
+		if (options.includes(OrderView.PRODUCTS)) {
+			List<Order> loadedOrders = orders.get();
+
+			List<OrderView> views = loadedOrders.stream()
+					.map(order -> toOrderView(order, options.isCompact(), options)).collect(Collectors.toList());
+
+			if (!options.isCompact()) {
+				return CollectionModel.of(views, links);
+			}
+
+			// Include each distinct product once, in the order it was first referenced.
+			Map<Long, Product> includedProducts = new LinkedHashMap<Long, Product>();
+
+			for (Order order : loadedOrders) {
+				for (Product product : order.getProducts()) {
+					includedProducts.putIfAbsent(product.getStockKeepingUnitID(), product);
+				}
+			}
+
+			if (!options.isLinksSuppressed()) {
+				includedProducts.values().forEach(this::addProductLinks);
+			}
+
+			return new IncludedCollectionModel<OrderView, Product>(views, includedProducts.values(), links);
+		}
+
+		Supplier<List<OrderSummary>> query = options.requests(OrderView.TOTAL_AMOUNT) ? summariesWithTotalAmount
+				: summaries;
+
+		return CollectionModel.of(
+				query.get().stream().map(summary -> toOrderView(summary, options)).collect(Collectors.toList()),
+				links);
+	}
+
+	/**
+	 * Represent an order with only the fields requested, annotated with
+	 * referential links unless they were suppressed.
+	 * 
+	 * @param order             Order - Order to be represented.
+	 * @param productReferences boolean - True if the products are only referenced
+	 *                          by their Stock Keeping Unit IDs.
+	 * @param options           RepresentationOptions - Fields and referential
+	 *                          links requested.
+	 * @return OrderView - Representation of the order.
+	 */
+	private OrderView toOrderView(Order order, boolean productReferences, RepresentationOptions options) {
+		Float totalAmount = options.requests(OrderView.TOTAL_AMOUNT) ? calculateTotalOrderAmount(order) : null;
+
+		OrderView view = OrderView.of(order, totalAmount, productReferences, options);
+
+		if (!options.isLinksSuppressed()) {
+			addOrderLinks(view, order.getOrderID());
+
+			if (options.includes(OrderView.PRODUCTS) && !productReferences) {
+				addLinksToProductsForAnOrder(order);
+			}
+		}
+
+		return view;
+	}
+
+	/**
+	 * Represent an order summary with only the fields requested, annotated with
+	 * referential links unless they were suppressed.
+	 * 
+	 * @param summary OrderSummary - Summary of the order to be represented.
+	 * @param options RepresentationOptions - Fields and referential links
+	 *                requested.
+	 * @return OrderView - Representation of the order.
+	 */
+	private OrderView toOrderView(OrderSummary summary, RepresentationOptions options) {
+		OrderView view = OrderView.of(summary, options);
+
+		if (!options.isLinksSuppressed()) {
+			addOrderLinks(view, summary.getOrderID());
+		}
+
+		return view;
+	}
+
+	/**
+	 * Convert a date provided in the path, such as 2020-08-16T00A10, into a date
+	 * object in UTC.
+	 * 
+	 * @param requestDate String - Date provided in the path.
+	 * @return Date - Date object for the date provided.
+	 * @throws ParseException - If the date provided is not valid.
+	 */
+	static Date parseRequestDate(String requestDate) throws ParseException {
+		SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+		dateFormat.setTimeZone(TimeZone.getTimeZone(UTC_TIMEZONE_CODE));
+
+		return dateFormat.parse(requestDate.replaceFirst(REQUEST_TIME_COMPONENT_SEPARATOR, TIME_COMPONENT_SEPARATOR)
+				.replaceFirst(REQUEST_TIME_SEPARATOR, TIME_SEPARATOR));
 	}
 
 	/**
@@ -422,7 +749,7 @@ public class OrderController {
 	 *              products needs to be calculated.
 	 * @return Float - Total price amount for the order provided.
 	 */
-	private Float calculateTotalOrderAmount(Order order) {
+	static Float calculateTotalOrderAmount(Order order) {
 		float totalOrderAmount = 0.0f;
 
 		for (Product product : order.getProducts()) {
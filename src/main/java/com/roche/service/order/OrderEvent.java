@@ -0,0 +1,66 @@
+package com.roche.service.order;
+
+/**
+ * Published once an order is placed or changed.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderEvent {
+
+	/**
+	 * Change made to the order.
+	 */
+	public enum Type {
+
+		/**
+		 * The order was placed.
+		 */
+		PLACED,
+
+		/**
+		 * The buyer email of the order was changed.
+		 */
+		BUYER_EMAIL_CHANGED
+	}
+
+	/**
+	 * Change made to the order.
+	 */
+	private final Type type;
+
+	/**
+	 * Order as saved.
+	 */
+	private final Order order;
+
+	/**
+	 * Constructor for Order Event.
+	 *
+	 * @param type  Type - Change made to the order.
+	 * @param order Order - Order as saved.
+	 */
+	public OrderEvent(Type type, Order order) {
+		this.type = type;
+		this.order = order;
+	}
+
+	/**
+	 * Get the change made to the order.
+	 *
+	 * @return Type - Change made to the order.
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Get the order as saved.
+	 *
+	 * @return Order - Order as saved.
+	 */
+	public Order getOrder() {
+		return order;
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.roche.service.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of looking up a single Order ID as part of a multi-get request for
+ * orders.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderLookup {
+
+	/**
+	 * Outcome of looking up an Order ID.
+	 */
+	public enum Status {
+
+		/**
+		 * The order was found.
+		 */
+		FOUND,
+
+		/**
+		 * No order exists for the Order ID.
+		 */
+		NOT_FOUND
+	}
+
+	/**
+	 * Order ID that was requested.
+	 */
+	private final Long orderID;
+
+	/**
+	 * Outcome of the lookup.
+	 */
+	private final Status status;
+
+	/**
+	 * Order annotated with referential links. Only present when the order was
+	 * found.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Order order;
+
+	/**
+	 * Constructor for Order Lookup.
+	 *
+	 * @param orderID Long - Order ID that was requested.
+	 * @param status  Status - Outcome of the lookup.
+	 * @param order   Order - Order found, or null.
+	 */
+	public OrderLookup(Long orderID, Status status, Order order) {
+		super();
+		this.orderID = orderID;
+		this.status = status;
+		this.order = order;
+	}
+
+	/**
+	 * Get the Order ID that was requested.
+	 *
+	 * @return Long - Order ID.
+	 */
+	public Long getOrderID() {
+		return orderID;
+	}
+
+	/**
+	 * Get the outcome of the lookup.
+	 *
+	 * @return Status - Outcome of the lookup.
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Get the order found.
+	 *
+	 * @return Order - Order found, or null when the order was not found.
+	 */
+	public Order getOrder() {
+		return order;
+	}
+
+}
@@ -24,8 +24,8 @@ public class OrderModelAssembler implements RepresentationModelAssembler<Order,
 	@Override
 	public EntityModel<Order> toModel(Order order) {
 
-		return EntityModel.of(order, linkTo(methodOn(OrderController.class).one(order.getOrderID())).withSelfRel(),
-				linkTo(methodOn(OrderController.class).all()).withRel("orders"));
+		return EntityModel.of(order, linkTo(methodOn(OrderController.class).one(order.getOrderID(), null)).withSelfRel(),
+				linkTo(methodOn(OrderController.class).all(null)).withRel("orders"));
 	}
 
 }
@@ -0,0 +1,145 @@
+package com.roche.service.order;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Reads the orders within a wide time period by splitting it into parts of the
+ * split size, each read together with its products and annotated with links in
+ * parallel on a bounded fork-join pool, then merged back in the order the
+ * orders were placed.
+ *
+ * Each part is read in a transaction of its own, so the orders are only split
+ * when no transaction is active, as otherwise the parts would not see what the
+ * transaction has written.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@EnableConfigurationProperties(OrderRangeScanProperties.class)
+public class OrderRangeScan implements DisposableBean {
+
+	/**
+	 * Repository for retrieving the orders of each part.
+	 */
+	private final OrderRepository orderRepository;
+
+	/**
+	 * Splitting and parallelism of the queries.
+	 */
+	private final OrderRangeScanProperties properties;
+
+	/**
+	 * Reads and annotates the parts of the time periods.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor for Order Range Scan.
+	 *
+	 * @param orderRepository OrderRepository - Repository for retrieving the
+	 *                        orders of each part.
+	 * @param properties      OrderRangeScanProperties - Splitting and parallelism
+	 *                        of the queries.
+	 */
+	public OrderRangeScan(OrderRepository orderRepository, OrderRangeScanProperties properties) {
+		this.orderRepository = orderRepository;
+		this.properties = properties;
+		this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()), forkJoinPool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+			thread.setName("order-range-scan-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * Check whether the orders within a time period are read in parallel parts.
+	 *
+	 * @param startDate Date - Start date of the time period.
+	 * @param endDate   Date - End date of the time period.
+	 * @return boolean - True if the time period is wider than the split size and
+	 *         no transaction is active.
+	 */
+	public boolean isSplit(Date startDate, Date endDate) {
+		return properties.isEnabled() && properties.getParallelism() > 1
+				&& endDate.getTime() - startDate.getTime() > properties.getSplitSize().toMillis()
+				&& !TransactionSynchronizationManager.isActualTransactionActive();
+	}
+
+	/**
+	 * Get all the orders placed within a time period, reading and annotating its
+	 * parts in parallel.
+	 *
+	 * @param startDate Date - Start date of the time period, included.
+	 * @param endDate   Date - End date of the time period, included.
+	 * @param assembler Consumer<Order> - Annotates each order with links, in the
+	 *                  thread reading it.
+	 * @return List<Order> - Orders placed within the time period, with their
+	 *         products, in the order they were placed.
+	 */
+	public List<Order> scan(Date startDate, Date endDate, Consumer<Order> assembler) {
+		List<Date[]> parts = split(startDate, endDate, properties.getSplitSize().toMillis());
+
+		// The links are built from the current request.
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+		try {
+			return pool.submit(() -> parts.parallelStream().map(part -> {
+				RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+				RequestContextHolder.setRequestAttributes(requestAttributes);
+				try {
+					List<Order> orders = orderRepository.findWithProductsByOrderPlacedTimeFrom(part[0], part[1]);
+					orders.forEach(assembler);
+					return orders;
+				} finally {
+					RequestContextHolder.setRequestAttributes(previousAttributes);
+				}
+			}).flatMap(List::stream).collect(Collectors.toList())).get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading the orders", ie);
+		} catch (ExecutionException ee) {
+			if (ee.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ee.getCause();
+			}
+			throw new IllegalStateException(ee.getCause());
+		}
+	}
+
+	/**
+	 * Stop reading the parts of the time periods.
+	 */
+	@Override
+	public void destroy() {
+		pool.shutdownNow();
+	}
+
+	/**
+	 * Split a time period, whose end date is included, into parts whose end date
+	 * is excluded.
+	 */
+	static List<Date[]> split(Date startDate, Date endDate, long splitSize) {
+		List<Date[]> parts = new ArrayList<Date[]>();
+		long end = endDate.getTime() + 1;
+
+		for (long start = startDate.getTime(); start < end; start += splitSize) {
+			parts.add(new Date[] { new Date(start), new Date(Math.min(start + splitSize, end)) });
+		}
+		return parts;
+	}
+
+}
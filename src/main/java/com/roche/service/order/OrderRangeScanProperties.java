@@ -0,0 +1,57 @@
+package com.roche.service.order;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Splitting and parallelism of the queries for the orders within a wide time
+ * period, set as order-service.range-scan.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.range-scan")
+public class OrderRangeScanProperties {
+
+	/**
+	 * Whether time periods wider than the split size are split and read in
+	 * parallel.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Time periods read at most at the same time, for all the requests.
+	 */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Width of each part a time period is split into.
+	 */
+	private Duration splitSize = Duration.ofDays(30);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public Duration getSplitSize() {
+		return splitSize;
+	}
+
+	public void setSplitSize(Duration splitSize) {
+		this.splitSize = splitSize;
+	}
+
+}
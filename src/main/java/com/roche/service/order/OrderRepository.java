@@ -1,17 +1,62 @@
 package com.roche.service.order;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository for orders so that they can be created, fetched and updated.
  * 
+ * Only the methods the service uses are exposed, each declaring the orders it
+ * reads or changes with OrderAccess, so that the orders kept outside of the
+ * database, or across shards, are read and changed where they are kept.
+ * 
  * @author amit modhvadia
  *
  */
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends Repository<Order, Long> {
+
+	/**
+	 * Save an order, placing it or changing it.
+	 * 
+	 * @param <S>   Type of the order.
+	 * @param order S - Order to be saved.
+	 * @return S - Order saved.
+	 */
+	@OrderAccess(OrderAccess.Scope.ORDER)
+	<S extends Order> S save(S order);
+
+	/**
+	 * Get an order by its order ID.
+	 * 
+	 * @param orderID Long - Order ID of the order.
+	 * @return Optional<Order> - Order, if found.
+	 */
+	@OrderAccess(OrderAccess.Scope.ORDER_ID)
+	Optional<Order> findById(Long orderID);
+
+	/**
+	 * Get all the orders in the database.
+	 * 
+	 * @return List<Order> - All orders.
+	 */
+	@OrderAccess(OrderAccess.Scope.ALL)
+	List<Order> findAll();
+
+	/**
+	 * Count the orders in the database.
+	 * 
+	 * @return long - Number of orders.
+	 */
+	@OrderAccess(OrderAccess.Scope.ALL)
+	long count();
 
 	/**
 	 * Get all the order place within the time period provided.
@@ -20,5 +65,112 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 	 * @param endDate   Date - End date of the time period.
 	 * @return List<Order> - All orders placed between the start date and end date.
 	 */
+	@OrderAccess(OrderAccess.Scope.TIME_PERIOD)
 	List<Order> findByOrderPlacedTimeBetween(Date startDate, Date endDate);
+
+	/**
+	 * Get all the orders placed from the start date up to the end date, together
+	 * with their products, using a single query.
+	 *
+	 * @param startDate Date - Start date of the time period, included.
+	 * @param endDate   Date - End date of the time period, excluded.
+	 * @return List<Order> - Orders placed within the time period, in the order
+	 *         they were placed.
+	 */
+	@OrderAccess(value = OrderAccess.Scope.TIME_PERIOD, endExcluded = true)
+	@Query("select distinct o from Order o left join fetch o.products "
+			+ "where o.orderPlacedTime >= :startDate and o.orderPlacedTime < :endDate "
+			+ "order by o.orderPlacedTime, o.orderID")
+	List<Order> findWithProductsByOrderPlacedTimeFrom(@Param("startDate") Date startDate,
+			@Param("endDate") Date endDate);
+
+	/**
+	 * Get all the orders for the order IDs provided, together with their
+	 * products, using a single query.
+	 * 
+	 * @param orderIDs Collection<Long> - Order IDs of the orders to be returned.
+	 * @return List<Order> - Orders found, in no particular order.
+	 */
+	@OrderAccess(OrderAccess.Scope.ORDER_IDS)
+	@EntityGraph(attributePaths = "products")
+	List<Order> findByOrderIDIn(Collection<Long> orderIDs);
+
+	/**
+	 * Get a summary of all the orders, without loading their products.
+	 * 
+	 * @return List<OrderSummary> - Summaries of all orders.
+	 */
+	@OrderAccess(OrderAccess.Scope.ALL)
+	@Query("select new com.roche.service.order.OrderSummary(o.orderID, o.buyerEmail, o.orderPlacedTime) "
+			+ "from Order o order by o.orderID")
+	List<OrderSummary> findAllSummaries();
+
+	/**
+	 * Get a summary of all the orders including their total amount, which is
+	 * summed by the database instead of loading their products.
+	 * 
+	 * @return List<OrderSummary> - Summaries of all orders.
+	 */
+	@OrderAccess(value = OrderAccess.Scope.ALL, totalAmount = true)
+	@Query("select new com.roche.service.order.OrderSummary(o.orderID, o.buyerEmail, o.orderPlacedTime, sum(p.price)) "
+			+ "from Order o left join o.products p group by o.orderID, o.buyerEmail, o.orderPlacedTime "
+			+ "order by o.orderID")
+	List<OrderSummary> findAllSummariesWithTotalAmount();
+
+	/**
+	 * Get a summary of all the orders placed within the time period provided,
+	 * without loading their products.
+	 * 
+	 * @param startDate Date - Start date of the time period.
+	 * @param endDate   Date - End date of the time period.
+	 * @return List<OrderSummary> - Summaries of the orders placed between the
+	 *         start date and end date.
+	 */
+	@OrderAccess(OrderAccess.Scope.TIME_PERIOD)
+	@Query("select new com.roche.service.order.OrderSummary(o.orderID, o.buyerEmail, o.orderPlacedTime) "
+			+ "from Order o where o.orderPlacedTime between :startDate and :endDate order by o.orderID")
+	List<OrderSummary> findSummariesByOrderPlacedTimeBetween(@Param("startDate") Date startDate,
+			@Param("endDate") Date endDate);
+
+	/**
+	 * Get a summary of all the orders placed within the time period provided
+	 * including their total amount, which is summed by the database instead of
+	 * loading their products.
+	 * 
+	 * @param startDate Date - Start date of the time period.
+	 * @param endDate   Date - End date of the time period.
+	 * @return List<OrderSummary> - Summaries of the orders placed between the
+	 *         start date and end date.
+	 */
+	@OrderAccess(value = OrderAccess.Scope.TIME_PERIOD, totalAmount = true)
+	@Query("select new com.roche.service.order.OrderSummary(o.orderID, o.buyerEmail, o.orderPlacedTime, sum(p.price)) "
+			+ "from Order o left join o.products p where o.orderPlacedTime between :startDate and :endDate "
+			+ "group by o.orderID, o.buyerEmail, o.orderPlacedTime order by o.orderID")
+	List<OrderSummary> findSummariesWithTotalAmountByOrderPlacedTimeBetween(@Param("startDate") Date startDate,
+			@Param("endDate") Date endDate);
+
+	/**
+	 * Get a summary of an order including its total amount, which is summed by
+	 * the database instead of loading its products.
+	 * 
+	 * @param orderID Long - Order ID of the order.
+	 * @return Optional<OrderSummary> - Summary of the order, if found.
+	 */
+	@OrderAccess(value = OrderAccess.Scope.ORDER_ID, totalAmount = true)
+	@Query("select new com.roche.service.order.OrderSummary(o.orderID, o.buyerEmail, o.orderPlacedTime, sum(p.price)) "
+			+ "from Order o left join o.products p where o.orderID = :orderID "
+			+ "group by o.orderID, o.buyerEmail, o.orderPlacedTime")
+	Optional<OrderSummary> findSummaryWithTotalAmountByOrderID(@Param("orderID") Long orderID);
+
+	/**
+	 * Get the order IDs of the orders placed after an order, in the order they
+	 * were placed.
+	 * 
+	 * @param orderID  Long - Order ID of the last order already known.
+	 * @param pageable Pageable - Maximum number of order IDs returned.
+	 * @return List<Long> - Order IDs after the order ID provided, ascending.
+	 */
+	@OrderAccess(OrderAccess.Scope.ALL)
+	@Query("select o.orderID from Order o where o.orderID > :orderID order by o.orderID")
+	List<Long> findOrderIDsAfter(@Param("orderID") Long orderID, Pageable pageable);
 }
@@ -0,0 +1,71 @@
+package com.roche.service.order;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import com.roche.service.product.Product;
+import com.roche.service.representation.RepresentationModelSerializer;
+
+/**
+ * Serializer written by hand for an order, registered with the object mappers
+ * of the service.
+ *
+ * @author amit modhvadia
+ *
+ */
+@JsonComponent
+public class OrderSerializer extends RepresentationModelSerializer<Order> {
+
+	private static final long serialVersionUID = -3925613787407185102L;
+
+	private static final SerializedString ORDER_ID = new SerializedString(OrderView.ORDER_ID);
+	private static final SerializedString PRODUCTS = new SerializedString(OrderView.PRODUCTS);
+	private static final SerializedString BUYER_EMAIL = new SerializedString(OrderView.BUYER_EMAIL);
+	private static final SerializedString ORDER_PLACED_TIME = new SerializedString(OrderView.ORDER_PLACED_TIME);
+
+	/**
+	 * Constructor for Order Serializer.
+	 */
+	public OrderSerializer() {
+		this(null);
+	}
+
+	private OrderSerializer(NameTransformer unwrapper) {
+		super(Order.class, unwrapper);
+	}
+
+	@Override
+	protected OrderSerializer withUnwrapper(NameTransformer unwrapper) {
+		return new OrderSerializer(unwrapper);
+	}
+
+	/**
+	 * Write the Order ID, products, buyer email and order placed time.
+	 */
+	@Override
+	protected void writeFields(Order order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		writeField(ORDER_ID, order.getOrderID(), gen);
+
+		writeFieldName(PRODUCTS, gen);
+		JsonSerializer<Object> productSerializer = provider.findValueSerializer(Product.class);
+		gen.writeStartArray();
+		for (Product product : order.getProducts()) {
+			if (product == null) {
+				gen.writeNull();
+			} else {
+				productSerializer.serialize(product, gen, provider);
+			}
+		}
+		gen.writeEndArray();
+
+		writeField(BUYER_EMAIL, order.getBuyerEmail(), gen);
+		writeField(ORDER_PLACED_TIME, order.getOrderPlacedTime(), gen, provider);
+	}
+
+}
@@ -0,0 +1,371 @@
+package com.roche.service.order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.OrderStreamProperties.Overflow;
+
+/**
+ * Pushes each order placed, once committed, to the subscribers of GET
+ * /orders/stream as a newOrder Server-Sent Event whose ID is the order ID.
+ *
+ * Each subscriber has a bounded buffer, sent from by its own task, so that a
+ * slow subscriber does not hold up the others. A subscriber whose buffer is
+ * full is disconnected, or has the orders that do not fit dropped, as
+ * configured.
+ *
+ * A subscriber resuming is sent the orders with an order ID after the last one
+ * it received that have committed, then each order placed once committed,
+ * whatever its order ID. The order IDs are only roughly in the order the
+ * orders commit, so an order with an order ID before the last one received
+ * that commits after it is not sent when resuming.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@EnableConfigurationProperties(OrderStreamProperties.class)
+public class OrderStream implements DisposableBean {
+
+	/**
+	 * Name of the events pushed.
+	 */
+	public static final String EVENT_NAME = "newOrder";
+
+	/**
+	 * Delay before a subscriber reconnects once disconnected.
+	 */
+	private static final long RECONNECT_TIME_MILLISECONDS = 1000L;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderStream.class);
+
+	/**
+	 * Repository for retrieving the orders a subscriber resumes from.
+	 */
+	private final OrderRepository orderRepository;
+
+	/**
+	 * Assembler for annotating the orders pushed with referential links.
+	 */
+	private final OrderModelAssembler orderModelAssembler;
+
+	/**
+	 * Mapper writing the orders pushed as HAL.
+	 */
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Buffering and timeout of the subscribers.
+	 */
+	private final OrderStreamProperties properties;
+
+	/**
+	 * Subscribers currently connected.
+	 */
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<Subscriber>();
+
+	/**
+	 * Sends the buffered orders to each subscriber.
+	 */
+	private final ExecutorService sender;
+
+	/**
+	 * Constructor for Order Stream.
+	 *
+	 * @param orderRepository           OrderRepository - Repository for
+	 *                                  retrieving the orders a subscriber resumes
+	 *                                  from.
+	 * @param orderModelAssembler       OrderModelAssembler - Assembler for
+	 *                                  annotating the orders pushed with
+	 *                                  referential links.
+	 * @param objectMapper              ObjectMapper - Mapper for JSON, copied to
+	 *                                  write the orders pushed.
+	 * @param halMediaTypeConfiguration HalMediaTypeConfiguration - Configuration
+	 *                                  for rendering representation models as
+	 *                                  HAL.
+	 * @param properties                OrderStreamProperties - Buffering and
+	 *                                  timeout of the subscribers.
+	 */
+	public OrderStream(OrderRepository orderRepository, OrderModelAssembler orderModelAssembler,
+			ObjectMapper objectMapper, HalMediaTypeConfiguration halMediaTypeConfiguration,
+			OrderStreamProperties properties) {
+		this.orderRepository = orderRepository;
+		this.orderModelAssembler = orderModelAssembler;
+		this.objectMapper = halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy());
+		this.properties = properties;
+
+		AtomicInteger threadCount = new AtomicInteger();
+		this.sender = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "order-stream-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Subscribe to the orders placed from now on, and to the orders placed after
+	 * the last one received when resuming.
+	 *
+	 * @param lastEventID Long - Order ID of the last order received, null when
+	 *                    not resuming.
+	 * @return SseEmitter - Emitter of the orders.
+	 */
+	public SseEmitter subscribe(Long lastEventID) {
+		SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+		Subscriber subscriber = new Subscriber(emitter);
+
+		emitter.onCompletion(subscriber::remove);
+		emitter.onTimeout(emitter::complete);
+		emitter.onError(error -> subscriber.remove());
+
+		// Orders placed from now on are buffered while resuming, and only sent if not
+		// among the orders resumed.
+		subscribers.add(subscriber);
+
+		// Open the stream straight away, as the response is only written once
+		// something is sent.
+		if (!subscriber.open()) {
+			return emitter;
+		}
+
+		if (lastEventID != null) {
+			// Retrieved by the sender, as an entity manager opened for this request would
+			// hold its connection for as long as the stream is open.
+			List<Order> orders = CompletableFuture.supplyAsync(() -> findOrdersAfter(lastEventID), sender).join();
+			for (Order order : orders) {
+				subscriber.resumedOrderIDs.add(order.getOrderID());
+				if (!subscriber.send(toStreamedOrder(order))) {
+					return emitter;
+				}
+			}
+		}
+
+		subscriber.startSending();
+		return emitter;
+	}
+
+	/**
+	 * Get the orders placed after an order, together with their products.
+	 *
+	 * @param orderID Long - Order ID of the last order received.
+	 * @return List<Order> - Orders placed after it, up to the maximum resumed.
+	 */
+	private List<Order> findOrdersAfter(Long orderID) {
+		List<Long> orderIDs = orderRepository.findOrderIDsAfter(orderID, PageRequest.of(0, properties.getMaxResume()));
+
+		if (orderIDs.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		return orderRepository.findByOrderIDIn(orderIDs).stream().sorted(Comparator.comparing(Order::getOrderID))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Push an order placed to each subscriber, once committed.
+	 *
+	 * @param event OrderEvent - Order placed or changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void orderPlaced(OrderEvent event) {
+		if (event.getType() != OrderEvent.Type.PLACED || subscribers.isEmpty()) {
+			return;
+		}
+
+		StreamedOrder order = toStreamedOrder(event.getOrder());
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(order);
+		}
+	}
+
+	/**
+	 * Get the number of subscribers currently connected.
+	 *
+	 * @return int - Number of subscribers.
+	 */
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	/**
+	 * Disconnect the subscribers.
+	 */
+	@Override
+	public void destroy() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.disconnect();
+		}
+		sender.shutdownNow();
+	}
+
+	/**
+	 * Write an order, with its referential links, once for all subscribers.
+	 *
+	 * @param order Order - Order to be pushed.
+	 * @return StreamedOrder - Order ID and JSON representation of the order.
+	 */
+	private StreamedOrder toStreamedOrder(Order order) {
+		try {
+			return new StreamedOrder(order.getOrderID(),
+					objectMapper.writeValueAsString(orderModelAssembler.toModel(order)));
+		} catch (JsonProcessingException jpe) {
+			throw new UncheckedIOException(jpe);
+		}
+	}
+
+	/**
+	 * Order ID and JSON representation of an order pushed.
+	 */
+	private static class StreamedOrder {
+
+		private final long orderID;
+		private final String json;
+
+		StreamedOrder(long orderID, String json) {
+			this.orderID = orderID;
+			this.json = json;
+		}
+	}
+
+	/**
+	 * Subscriber with its buffer of orders waiting to be sent.
+	 */
+	private class Subscriber {
+
+		private final SseEmitter emitter;
+		private final BlockingQueue<StreamedOrder> buffer;
+
+		/**
+		 * Whether a task is sending the buffered orders.
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		/**
+		 * Order IDs of the orders sent when resuming, so that an order committed
+		 * while resuming is not sent again once placed. Any other order placed is
+		 * sent, whatever its order ID.
+		 */
+		private final Set<Long> resumedOrderIDs = ConcurrentHashMap.newKeySet();
+
+		/**
+		 * Whether the buffered orders are sent, once resumed.
+		 */
+		private volatile boolean sending;
+
+		private volatile boolean removed;
+
+		Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+			this.buffer = new ArrayBlockingQueue<StreamedOrder>(properties.getBufferSize());
+		}
+
+		void offer(StreamedOrder order) {
+			if (buffer.offer(order)) {
+				schedule();
+			} else if (properties.getOverflow() == Overflow.DISCONNECT) {
+				LOGGER.warn("Disconnecting a slow subscriber of the order stream, {} orders buffered", buffer.size());
+				disconnect();
+			} else {
+				LOGGER.debug("Dropping order {} for a slow subscriber of the order stream", order.orderID);
+			}
+		}
+
+		void startSending() {
+			sending = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (sending && !removed && !buffer.isEmpty() && scheduled.compareAndSet(false, true)) {
+				sender.execute(this::sendBuffered);
+			}
+		}
+
+		private void sendBuffered() {
+			try {
+				StreamedOrder order;
+				while (!removed && (order = buffer.poll()) != null) {
+					if (!resumedOrderIDs.remove(order.orderID) && !send(order)) {
+						return;
+					}
+				}
+			} finally {
+				scheduled.set(false);
+			}
+
+			// Orders offered after the buffer was found empty.
+			schedule();
+		}
+
+		/**
+		 * Send an order, removing the subscriber if it could not be sent.
+		 *
+		 * @param order StreamedOrder - Order to be sent.
+		 * @return boolean - True if sent.
+		 */
+		boolean send(StreamedOrder order) {
+			try {
+				emitter.send(SseEmitter.event().id(Long.toString(order.orderID)).name(EVENT_NAME).data(order.json,
+						MediaType.APPLICATION_JSON));
+				return true;
+			} catch (IOException | IllegalStateException e) {
+				remove();
+				return false;
+			}
+		}
+
+		/**
+		 * Send the reconnection delay, opening the stream.
+		 *
+		 * @return boolean - True if sent.
+		 */
+		boolean open() {
+			try {
+				emitter.send(SseEmitter.event().reconnectTime(RECONNECT_TIME_MILLISECONDS));
+				return true;
+			} catch (IOException | IllegalStateException e) {
+				remove();
+				return false;
+			}
+		}
+
+		void disconnect() {
+			remove();
+			emitter.complete();
+		}
+
+		void remove() {
+			removed = true;
+			subscribers.remove(this);
+			buffer.clear();
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.roche.service.order;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Maps the stream of orders placed to the order stream.
+ *
+ * @author amit modhvadia
+ *
+ */
+@RestController
+public class OrderStreamController {
+
+	/**
+	 * Header with the ID of the last event received, sent when reconnecting.
+	 */
+	private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+	/**
+	 * Stream of the orders placed.
+	 */
+	private final OrderStream orderStream;
+
+	/**
+	 * Constructor for Order Stream Controller.
+	 *
+	 * @param orderStream OrderStream - Stream of the orders placed.
+	 */
+	public OrderStreamController(OrderStream orderStream) {
+
+		this.orderStream = orderStream;
+	}
+
+	/**
+	 * Stream each order placed from now on as a newOrder Server-Sent Event, whose
+	 * ID is the order ID.
+	 * 
+	 * Example path - /orders/stream
+	 * 
+	 * @param lastEventID Long - Order ID of the last order received, when
+	 *                    reconnecting. The orders placed after it are sent first.
+	 * @return SseEmitter - Stream of the orders placed.
+	 */
+	@GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventID) {
+
+		return orderStream.subscribe(lastEventID);
+	}
+
+}
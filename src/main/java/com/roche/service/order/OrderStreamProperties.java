@@ -0,0 +1,87 @@
+package com.roche.service.order;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Buffering and timeout of the subscribers of GET /orders/stream, set as
+ * order-service.order-stream.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.order-stream")
+public class OrderStreamProperties {
+
+	/**
+	 * What is done with a subscriber whose buffer is full.
+	 */
+	public enum Overflow {
+
+		/**
+		 * Disconnect the subscriber, which resumes from the last order it received
+		 * when it reconnects.
+		 */
+		DISCONNECT,
+
+		/**
+		 * Drop the orders that do not fit the buffer of the subscriber.
+		 */
+		DROP
+	}
+
+	/**
+	 * Orders buffered for each subscriber while waiting to be sent.
+	 */
+	private int bufferSize = 256;
+
+	/**
+	 * What is done with a subscriber whose buffer is full.
+	 */
+	private Overflow overflow = Overflow.DISCONNECT;
+
+	/**
+	 * Time after which a subscriber is disconnected, to reconnect with the
+	 * Last-Event-ID it received.
+	 */
+	private Duration timeout = Duration.ofMinutes(30);
+
+	/**
+	 * Orders sent at most when a subscriber resumes from a Last-Event-ID.
+	 */
+	private int maxResume = 1000;
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public Overflow getOverflow() {
+		return overflow;
+	}
+
+	public void setOverflow(Overflow overflow) {
+		this.overflow = overflow;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	public int getMaxResume() {
+		return maxResume;
+	}
+
+	public void setMaxResume(int maxResume) {
+		this.maxResume = maxResume;
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.roche.service.order;
+
+import java.util.Date;
+
+/**
+ * Summary of an order without its products, as projected directly by the
+ * repository.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderSummary {
+
+	/**
+	 * Order ID (unique).
+	 */
+	private final Long orderID;
+
+	/**
+	 * Email address of the buyer for this order.
+	 */
+	private final String buyerEmail;
+
+	/**
+	 * Time the order was placed.
+	 */
+	private final Date orderPlacedTime;
+
+	/**
+	 * Total price amount of the products for this order, if it was projected.
+	 */
+	private final Float totalAmount;
+
+	/**
+	 * Constructor for Order Summary without the total amount.
+	 *
+	 * @param orderID         Long - Order ID.
+	 * @param buyerEmail      String - Email address of the buyer.
+	 * @param orderPlacedTime Date - Time the order was placed.
+	 */
+	public OrderSummary(Long orderID, String buyerEmail, Date orderPlacedTime) {
+		super();
+		this.orderID = orderID;
+		this.buyerEmail = buyerEmail;
+		this.orderPlacedTime = orderPlacedTime;
+		this.totalAmount = null;
+	}
+
+	/**
+	 * Constructor for Order Summary with the total amount.
+	 *
+	 * @param orderID         Long - Order ID.
+	 * @param buyerEmail      String - Email address of the buyer.
+	 * @param orderPlacedTime Date - Time the order was placed.
+	 * @param totalAmount     Double - Sum of the prices of the products for the
+	 *                        order, null if the order has no products.
+	 */
+	public OrderSummary(Long orderID, String buyerEmail, Date orderPlacedTime, Double totalAmount) {
+		super();
+		this.orderID = orderID;
+		this.buyerEmail = buyerEmail;
+		this.orderPlacedTime = orderPlacedTime;
+		this.totalAmount = totalAmount == null ? Float.valueOf(0.0f) : Float.valueOf(totalAmount.floatValue());
+	}
+
+	/**
+	 * Get the Order ID.
+	 *
+	 * @return Long - Order ID.
+	 */
+	public Long getOrderID() {
+		return orderID;
+	}
+
+	/**
+	 * Get the email address of the buyer.
+	 *
+	 * @return String - Email address of the buyer.
+	 */
+	public String getBuyerEmail() {
+		return buyerEmail;
+	}
+
+	/**
+	 * Get the time the order was placed.
+	 *
+	 * @return Date - Time the order was placed.
+	 */
+	public Date getOrderPlacedTime() {
+		return orderPlacedTime;
+	}
+
+	/**
+	 * Get the total price amount of the products for the order.
+	 *
+	 * @return Float - Total price amount.
+	 */
+	public Float getTotalAmount() {
+		return totalAmount;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.roche.service.order;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.hateoas.server.core.Relation;
+
+import com.roche.service.product.Product;
+import com.roche.service.representation.RepresentationOptions;
+import com.roche.service.representation.SparseRepresentationModel;
+
+/**
+ * Representation of an order made up of only the fields a client requested.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Relation(collectionRelation = "orderList")
+public class OrderView extends SparseRepresentationModel<OrderView> {
+
+	/**
+	 * Name of the Order ID field.
+	 */
+	public static final String ORDER_ID = "orderID";
+
+	/**
+	 * Name of the products field.
+	 */
+	public static final String PRODUCTS = "products";
+
+	/**
+	 * Name of the buyer email field.
+	 */
+	public static final String BUYER_EMAIL = "buyerEmail";
+
+	/**
+	 * Name of the order placed time field.
+	 */
+	public static final String ORDER_PLACED_TIME = "orderPlacedTime";
+
+	/**
+	 * Name of the total amount field. Only returned when requested explicitly.
+	 */
+	public static final String TOTAL_AMOUNT = "totalAmount";
+
+	/**
+	 * Names of all the fields that can be requested for an order.
+	 */
+	public static final List<String> FIELDS = List.of(ORDER_ID, PRODUCTS, BUYER_EMAIL, ORDER_PLACED_TIME,
+			TOTAL_AMOUNT);
+
+	/**
+	 * Create a representation of an order with the fields requested.
+	 *
+	 * @param order             Order - Order to be represented.
+	 * @param totalAmount       Float - Total price amount of the order, only used
+	 *                          if it was requested.
+	 * @param productReferences boolean - True if the products are only
+	 *                          referenced by their Stock Keeping Unit IDs.
+	 * @param options           RepresentationOptions - Options requested.
+	 * @return OrderView - Representation of the order.
+	 */
+	static OrderView of(Order order, Float totalAmount, boolean productReferences, RepresentationOptions options) {
+		OrderView view = new OrderView();
+
+		view.putIfIncluded(ORDER_ID, order.getOrderID(), options);
+		view.putIfIncluded(PRODUCTS, productReferences ? order.getProducts().stream()
+				.map(Product::getStockKeepingUnitID).collect(Collectors.toList()) : order.getProducts(), options);
+		view.putIfIncluded(BUYER_EMAIL, order.getBuyerEmail(), options);
+		view.putIfIncluded(ORDER_PLACED_TIME, order.getOrderPlacedTime(), options);
+
+		if (options.requests(TOTAL_AMOUNT)) {
+			view.put(TOTAL_AMOUNT, totalAmount);
+		}
+
+		return view;
+	}
+
+	/**
+	 * Create a representation of an order summary with the fields requested. The
+	 * products are never part of a summary.
+	 *
+	 * @param summary OrderSummary - Summary of the order to be represented.
+	 * @param options RepresentationOptions - Options requested.
+	 * @return OrderView - Representation of the order.
+	 */
+	static OrderView of(OrderSummary summary, RepresentationOptions options) {
+		OrderView view = new OrderView();
+
+		view.putIfIncluded(ORDER_ID, summary.getOrderID(), options);
+		view.putIfIncluded(BUYER_EMAIL, summary.getBuyerEmail(), options);
+		view.putIfIncluded(ORDER_PLACED_TIME, summary.getOrderPlacedTime(), options);
+
+		if (options.requests(TOTAL_AMOUNT)) {
+			view.put(TOTAL_AMOUNT, summary.getTotalAmount());
+		}
+
+		return view;
+	}
+
+}
@@ -0,0 +1,204 @@
+package com.roche.service.partition;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.roche.service.analytics.OrderAnalytics;
+import com.roche.service.cache.OrderCache;
+import com.roche.service.sharding.OrderShardRoutingDataSource;
+
+/**
+ * Lists the orders by the month they were placed in and detaches old months,
+ * exposed as /actuator/orderpartitions.
+ *
+ * The orders all stay in the ROCHE_ORDER table, read through the index on the
+ * time they were placed, so a query for a time period only reads the orders
+ * within it however many months are kept. DELETE detaches a month before the
+ * current one, which archives and deletes its orders: they are copied with
+ * their product links to ROCHE_ORDER_yyyy_MM and PRODUCT_ORDER_yyyy_MM, created
+ * when first needed, and deleted from the tables the service reads. The service
+ * never reads the copies, so the orders of a detached month are no longer
+ * found by order ID or time period, and are removed from the order cache and
+ * the order analytics. Months are in UTC, as are the dates of the requests.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@Endpoint(id = "orderpartitions")
+public class OrderPartitionEndpoint {
+
+	private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+	private static final DateTimeFormatter TABLE_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+	private static final Pattern DETACHED_ORDER_TABLE = Pattern.compile("ROCHE_ORDER_(\\d{4})_(\\d{2})");
+
+	private static final String COUNT_ORDERS_BY_MONTH = "select month, count(*) from (select "
+			+ "formatdatetime(order_placed_time, 'yyyy-MM', 'en', 'UTC') as month from roche_order) group by month";
+
+	private static final String SELECT_TABLES = "select table_name from information_schema.tables "
+			+ "where table_schema = schema() and table_name like 'ROCHE_ORDER_%'";
+
+	private static final String WHERE_PLACED_IN_MONTH = " where order_placed_time >= ? and order_placed_time < ?";
+
+	private static final String WHERE_ORDER_PLACED_IN_MONTH = " where order_id in (select order_id from roche_order"
+			+ WHERE_PLACED_IN_MONTH + ")";
+
+	/**
+	 * Databases holding the orders, each shard when the orders are stored in
+	 * shards.
+	 */
+	private final List<JdbcTemplate> databases = new ArrayList<JdbcTemplate>();
+
+	/**
+	 * Runs the detaching of a month in a transaction for each database.
+	 */
+	private final List<TransactionTemplate> transactionTemplates = new ArrayList<TransactionTemplate>();
+
+	/**
+	 * Orders read by order ID, evicted once a month is detached.
+	 */
+	private final OrderCache orderCache;
+
+	/**
+	 * Order lines held for analytics, those of a month removed once it is
+	 * detached.
+	 */
+	private final OrderAnalytics orderAnalytics;
+
+	/**
+	 * Constructor for Order Partition Endpoint.
+	 *
+	 * @param dataSource DataSource - Database of the service.
+	 * @param orderCache     OrderCache - Orders read by order ID, evicted once a
+	 *                       month is detached.
+	 * @param orderAnalytics OrderAnalytics - Order lines held for analytics, those
+	 *                       of a month removed once it is detached.
+	 */
+	public OrderPartitionEndpoint(DataSource dataSource, OrderCache orderCache, OrderAnalytics orderAnalytics) {
+
+		this.orderCache = orderCache;
+		this.orderAnalytics = orderAnalytics;
+
+		List<? extends DataSource> orderDataSources = dataSource instanceof OrderShardRoutingDataSource
+				? ((OrderShardRoutingDataSource) dataSource).getShardDataSources()
+				: List.of(dataSource);
+
+		for (DataSource orderDataSource : orderDataSources) {
+			databases.add(new JdbcTemplate(orderDataSource));
+			transactionTemplates.add(new TransactionTemplate(new DataSourceTransactionManager(orderDataSource)));
+		}
+	}
+
+	/**
+	 * Get the months with orders, and the months detached.
+	 *
+	 * @return Map<String, Object> - Number of orders of each attached month, and
+	 *         the detached months.
+	 */
+	@ReadOperation
+	public Map<String, Object> partitions() {
+		Map<String, Long> attached = new TreeMap<String, Long>();
+		TreeSet<String> detached = new TreeSet<String>();
+
+		for (JdbcTemplate database : databases) {
+			database.query(COUNT_ORDERS_BY_MONTH, resultSet -> {
+				attached.merge(resultSet.getString(1), Long.valueOf(resultSet.getLong(2)), Long::sum);
+			});
+
+			for (String table : database.queryForList(SELECT_TABLES, String.class)) {
+				Matcher matcher = DETACHED_ORDER_TABLE.matcher(table);
+				if (matcher.matches()) {
+					detached.add(matcher.group(1) + "-" + matcher.group(2));
+				}
+			}
+		}
+
+		Map<String, Object> partitions = new LinkedHashMap<String, Object>();
+		partitions.put("attached", attached);
+		partitions.put("detached", detached);
+		return partitions;
+	}
+
+	/**
+	 * Detach the orders of a month, archiving them to tables of the month and
+	 * deleting them from those read by the service.
+	 *
+	 * @param month String - Month to detach, as yyyy-MM, before the current
+	 *              month.
+	 * @return Map<String, Object> - Month detached, table its orders were archived
+	 *         to and number of orders deleted.
+	 */
+	@DeleteOperation
+	public Map<String, Object> detach(String month) {
+		YearMonth yearMonth;
+		try {
+			yearMonth = YearMonth.parse(month, MONTH_FORMAT);
+		} catch (DateTimeParseException dtpe) {
+			throw new InvalidEndpointRequestException("Month " + month + " is not formatted as yyyy-MM",
+					"Month is not formatted as yyyy-MM");
+		}
+		if (!yearMonth.isBefore(YearMonth.now(ZoneOffset.UTC))) {
+			throw new InvalidEndpointRequestException("Month " + month + " is not before the current month",
+					"Only months before the current month can be detached");
+		}
+
+		String orderTable = "ROCHE_ORDER_" + yearMonth.format(TABLE_SUFFIX_FORMAT);
+		String productOrderTable = "PRODUCT_ORDER_" + yearMonth.format(TABLE_SUFFIX_FORMAT);
+		Timestamp start = Timestamp.from(yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+		Timestamp end = Timestamp.from(yearMonth.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+		long orders = 0;
+		for (int database = 0; database < databases.size(); database++) {
+			JdbcTemplate jdbcTemplate = databases.get(database);
+
+			orders += transactionTemplates.get(database).execute(status -> {
+				jdbcTemplate.execute("create table if not exists " + orderTable
+						+ " as select * from roche_order where 1 = 0");
+				jdbcTemplate.execute("create table if not exists " + productOrderTable
+						+ " as select * from product_order where 1 = 0");
+
+				jdbcTemplate.update("insert into " + productOrderTable + " select * from product_order"
+						+ WHERE_ORDER_PLACED_IN_MONTH, start, end);
+				jdbcTemplate.update("delete from product_order" + WHERE_ORDER_PLACED_IN_MONTH, start, end);
+				jdbcTemplate.update("insert into " + orderTable + " select * from roche_order" + WHERE_PLACED_IN_MONTH,
+						start, end);
+				return Long.valueOf(jdbcTemplate.update("delete from roche_order" + WHERE_PLACED_IN_MONTH, start, end));
+			}).longValue();
+		}
+
+		// The orders of the month are no longer found.
+		orderCache.evictAll();
+		orderAnalytics.removeOrdersPlacedBetween(start.toInstant(), end.toInstant());
+
+		Map<String, Object> detached = new LinkedHashMap<String, Object>();
+		detached.put("month", yearMonth.format(MONTH_FORMAT));
+		detached.put("table", orderTable);
+		detached.put("orders", Long.valueOf(orders));
+		return detached;
+	}
+
+}
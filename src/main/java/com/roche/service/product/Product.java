@@ -7,29 +7,40 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import com.roche.service.order.Order;
 
 /**
  * Entity implementation class for Entity: Product
  * 
+ * Held in the second-level cache, as products are read far more often than
+ * they are changed.
+ * 
  * @author amit modhvadia
  *
  */
 @Entity
-@Table(name = "PRODUCT")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "PRODUCT", indexes = @Index(name = "PRODUCT_CHANGE_VERSION_INDEX", columnList = "CHANGE_VERSION"))
 public class Product extends RepresentationModel<Product> implements Serializable {
 
 	private static final long serialVersionUID = 7837135508578081547L;
@@ -49,14 +60,17 @@ public class Product extends RepresentationModel<Product> implements Serializabl
 	private String name;
 
 	/**
-	 * Price for the product.
+	 * Price for the product. Declared as the double that H2 stores a float as, so
+	 * that the schema migrated by Flyway validates against this mapping.
 	 */
-	@Column(name = "PRICE")
+	@Column(name = "PRICE", columnDefinition = "double")
 	private Float price;
 
 	/**
-	 * Date when the product was created.
+	 * Date when the product was created. Set by the service, so it is not read
+	 * from the requests.
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	@Column(name = "CREATION_DATE")
 	private Date creationDate = new Date();
 
@@ -75,6 +89,13 @@ public class Product extends RepresentationModel<Product> implements Serializabl
 	@Column(name = "DELETION_FLAG")
 	private Boolean deletionFlag = Boolean.valueOf(false);
 
+	/**
+	 * Version of the catalog when this product was last created, replaced or
+	 * marked for deletion. Increases with each change to any product.
+	 */
+	@Column(name = "CHANGE_VERSION")
+	private Long changeVersion;
+
 	/**
 	 * Empty constructor for Product.
 	 */
@@ -94,6 +115,17 @@ public class Product extends RepresentationModel<Product> implements Serializabl
 		this.price = price;
 	}
 
+	/**
+	 * Constructor for Product, referencing an existing product by its Stock
+	 * Keeping Unit ID.
+	 *
+	 * @param stockKeepingUnitID Long - Stock Keeping Unit ID of the product.
+	 */
+	public Product(Long stockKeepingUnitID) {
+		super();
+		this.stockKeepingUnitID = stockKeepingUnitID;
+	}
+
 	/**
 	 * Get the stock keeping unit ID for this product.
 	 * 
@@ -148,6 +180,15 @@ public class Product extends RepresentationModel<Product> implements Serializabl
 		return this.creationDate;
 	}
 
+	/**
+	 * Set the date when the product was created.
+	 * 
+	 * @param creationDate Date - Product creation date.
+	 */
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
 	/**
 	 * Get the flag marking the product for deletion.
 	 * 
@@ -166,6 +207,25 @@ public class Product extends RepresentationModel<Product> implements Serializabl
 		this.deletionFlag = deletionFlag;
 	}
 
+	/**
+	 * Get the version of the catalog when this product was last changed.
+	 * 
+	 * @return Long - Change version, null if not changed since change versions
+	 *         were introduced.
+	 */
+	public Long getChangeVersion() {
+		return changeVersion;
+	}
+
+	/**
+	 * Set the version of the catalog when this product was last changed.
+	 * 
+	 * @param changeVersion Long - Change version.
+	 */
+	public void setChangeVersion(Long changeVersion) {
+		this.changeVersion = changeVersion;
+	}
+
 	/**
 	 * Associate an order with this product.
 	 * 
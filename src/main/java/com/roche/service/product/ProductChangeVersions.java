@@ -0,0 +1,151 @@
+package com.roche.service.product;
+
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out the change versions of the catalog, increasing for each product
+ * created, replaced or marked for deletion, from a database sequence so that
+ * the instances of the service sharing the database do not hand out the same
+ * version. The sequence is created once the schema has been created,
+ * continuing from the latest version saved.
+ *
+ * A version is handed out before its change commits, so the changes may commit
+ * out of version order. The versions still in flight on this instance are
+ * tracked, so that the changes are only read up to the watermark below them,
+ * and a change committed late is not skipped by a client that already read
+ * past it.
+ *
+ * The watermark is only safe with a single instance of the service. The
+ * versions in flight are held in memory, so a change still committing on
+ * another instance sharing the database is not held back, and a client that
+ * reads a later version through this instance skips it once it commits.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+public class ProductChangeVersions implements SmartInitializingSingleton {
+
+	/**
+	 * Database sequence of the change versions.
+	 */
+	public static final String SEQUENCE = "product_change_version";
+
+	/**
+	 * Repository for retrieving the versions.
+	 */
+	private final ProductRepository productRepository;
+
+	/**
+	 * Database of the service, holding the products and the sequence.
+	 */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Runs each change in a transaction with its version.
+	 */
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * Versions handed out whose transactions have not completed.
+	 */
+	private final TreeSet<Long> inFlight = new TreeSet<Long>();
+
+	/**
+	 * Constructor for Product Change Versions.
+	 *
+	 * @param productRepository  ProductRepository - Repository for retrieving
+	 *                           the versions.
+	 * @param dataSource         DataSource - Database of the service, holding the
+	 *                           products.
+	 * @param transactionManager PlatformTransactionManager - Transaction manager
+	 *                           of the products.
+	 */
+	public ProductChangeVersions(ProductRepository productRepository, DataSource dataSource,
+			PlatformTransactionManager transactionManager) {
+
+		this.productRepository = productRepository;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Create the sequence once the schema has been created, unless it already
+	 * exists, starting after the latest version saved.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with "
+				+ (productRepository.findLatestChangeVersion().longValue() + 1));
+	}
+
+	/**
+	 * Make a change to a product in a transaction, with the next change version,
+	 * which is in flight until the transaction completes.
+	 *
+	 * @param <T>    Type of the result of the change.
+	 * @param change Function<Long, T> - Change made with the change version.
+	 * @return T - Result of the change.
+	 */
+	public <T> T change(Function<Long, T> change) {
+		return transactionTemplate.execute(status -> change.apply(next()));
+	}
+
+	/**
+	 * Get the highest version up to which the changes can be read without
+	 * skipping a change that has yet to commit, that is the latest version saved
+	 * or the version before the lowest in flight.
+	 *
+	 * The latest version is retrieved first, so that a version handed out
+	 * afterwards is above it, and one handed out before is either in flight or
+	 * committed.
+	 *
+	 * @return long - Watermark of the changes.
+	 */
+	public long watermark() {
+		long latest = productRepository.findLatestChangeVersion().longValue();
+
+		synchronized (inFlight) {
+			return inFlight.isEmpty() ? latest : Math.min(latest, inFlight.first().longValue() - 1);
+		}
+	}
+
+	/**
+	 * Get the next change version, in flight until the current transaction
+	 * completes.
+	 */
+	private Long next() {
+		Long version;
+
+		// Handed out and tracked together, so that the watermark does not miss it.
+		synchronized (inFlight) {
+			version = productRepository.nextChangeVersion();
+			inFlight.add(version);
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				synchronized (inFlight) {
+					inFlight.remove(version);
+				}
+			}
+
+		});
+
+		return version;
+	}
+
+}
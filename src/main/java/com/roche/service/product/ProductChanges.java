@@ -0,0 +1,119 @@
+package com.roche.service.product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+/**
+ * Products created, replaced or marked for deletion after a version of the
+ * catalog, together with the version of the catalog they bring a client up to.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class ProductChanges extends CollectionModel<EntityModel<Product>> {
+
+	/**
+	 * Products changed, in the order they were changed, held here as the
+	 * constructors of CollectionModel taking its content are deprecated.
+	 */
+	private final List<EntityModel<Product>> products;
+
+	/**
+	 * Version of the catalog the changes were requested after.
+	 */
+	private final long since;
+
+	/**
+	 * Version of the catalog once the changes are applied.
+	 */
+	private final long version;
+
+	/**
+	 * Constructor for Product Changes.
+	 *
+	 * @param products Iterable<EntityModel<Product>> - Products changed, in the
+	 *                 order they were changed.
+	 * @param since    long - Version of the catalog the changes were requested
+	 *                 after.
+	 * @param version  long - Version of the catalog once the changes are applied.
+	 * @param links    Iterable<Link> - Referential links for the changes.
+	 */
+	public ProductChanges(Iterable<EntityModel<Product>> products, long since, long version, Iterable<Link> links) {
+		super();
+		this.products = new ArrayList<EntityModel<Product>>();
+		products.forEach(this.products::add);
+		add(links);
+		this.since = since;
+		this.version = version;
+	}
+
+	/**
+	 * Get the products changed, in the order they were changed.
+	 *
+	 * @return Collection<EntityModel<Product>> - Products changed.
+	 */
+	@Override
+	public Collection<EntityModel<Product>> getContent() {
+		return Collections.unmodifiableList(products);
+	}
+
+	/**
+	 * Iterate over the products changed.
+	 */
+	@Override
+	public Iterator<EntityModel<Product>> iterator() {
+		return getContent().iterator();
+	}
+
+	/**
+	 * Get the version of the catalog the changes were requested after.
+	 *
+	 * @return long - Version requested after.
+	 */
+	public long getSince() {
+		return since;
+	}
+
+	/**
+	 * Get the version of the catalog once the changes are applied, to be provided
+	 * as since when requesting the next changes.
+	 *
+	 * @return long - Version once the changes are applied.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Verify whether these changes are equal to the changes provided.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ProductChanges)) {
+			return false;
+		}
+		ProductChanges other = (ProductChanges) obj;
+		return products.equals(other.products) && getLinks().equals(other.getLinks()) && since == other.since
+				&& version == other.version;
+	}
+
+	/**
+	 * Hash code method for Product Changes.
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(products, getLinks(), since, version);
+	}
+
+}
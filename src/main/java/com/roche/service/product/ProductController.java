@@ -4,8 +4,13 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
@@ -16,9 +21,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.roche.service.catalog.ProductCatalog;
 import com.roche.service.product.exception.ProductNotFoundException;
+import com.roche.service.representation.LookupProperties;
+import com.roche.service.representation.RepresentationOptions;
 
 /**
  * Maps allowed URIs for Products to methods that support the corresponding
@@ -28,6 +37,7 @@ import com.roche.service.product.exception.ProductNotFoundException;
  *
  */
 @RestController
+@EnableConfigurationProperties(LookupProperties.class)
 public class ProductController {
 
 	/**
@@ -40,6 +50,31 @@ public class ProductController {
 	 */
 	private final ProductModelAssembler productModelAssembler;
 
+	/**
+	 * Maximum number of changed products returned at once.
+	 */
+	static final int MAX_CHANGES = 1000;
+
+	/**
+	 * Publisher of the products created, replaced and deleted.
+	 */
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Change versions for the products created, replaced and deleted.
+	 */
+	private final ProductChangeVersions changeVersions;
+
+	/**
+	 * Catalog for looking up products in memory.
+	 */
+	private final ProductCatalog productCatalog;
+
+	/**
+	 * Maximum number of Stock Keeping Unit IDs looked up in a single request.
+	 */
+	private final LookupProperties lookupProperties;
+
 	/**
 	 * Constructor for Product Controller.
 	 * 
@@ -48,11 +83,25 @@ public class ProductController {
 	 * @param productModelAssembler ProductModelAssembler - Assembler for annotating
 	 *                              products associated for orders with referential
 	 *                              links.
+	 * @param eventPublisher        ApplicationEventPublisher - Publisher of the
+	 *                              products created, replaced and deleted.
+	 * @param changeVersions        ProductChangeVersions - Change versions for the
+	 *                              products created, replaced and deleted.
+	 * @param productCatalog        ProductCatalog - Catalog for looking up products
+	 *                              in memory.
+	 * @param lookupProperties      LookupProperties - Maximum number of Stock
+	 *                              Keeping Unit IDs looked up in a single request.
 	 */
-	public ProductController(ProductRepository productRepository, ProductModelAssembler productModelAssembler) {
+	public ProductController(ProductRepository productRepository, ProductModelAssembler productModelAssembler,
+			ApplicationEventPublisher eventPublisher, ProductChangeVersions changeVersions,
+			ProductCatalog productCatalog, LookupProperties lookupProperties) {
 
 		this.productRepository = productRepository;
 		this.productModelAssembler = productModelAssembler;
+		this.eventPublisher = eventPublisher;
+		this.changeVersions = changeVersions;
+		this.productCatalog = productCatalog;
+		this.lookupProperties = lookupProperties;
 	}
 
 	/**
@@ -60,10 +109,36 @@ public class ProductController {
 	 * 
 	 * Excludes products which are marked for deletion.
 	 * 
+	 * Example path - /products?fields=stockKeepingUnitID,price&links=none
+	 * 
+	 * @param options RepresentationOptions - Fields and referential links
+	 *                requested. The full representation is returned when none are
+	 *                requested.
 	 * @return Product - All products
 	 */
 	@GetMapping("/products")
-	public CollectionModel<EntityModel<Product>> all() {
+	public ResponseEntity<?> all(RepresentationOptions options) {
+
+		if (!options.isSupported(ProductView.FIELDS)) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
+
+		if (!options.isDefault()) {
+
+			// Retrieve all the products that are not marked for deletion with only the
+			// fields and referential links requested.
+			List<ProductView> products = productRepository.findByDeletionFlagFalse().stream()
+					.map(product -> toProductView(product, options)).collect(Collectors.toList());
+
+			// Return a collection of the products, annotated with referential links unless
+			// they were suppressed.
+			return ResponseEntity.ok()
+					.body(options.isLinksSuppressed() ? CollectionModel.of(products)
+							: CollectionModel.of(products,
+									linkTo(methodOn(ProductController.class).all(null)).withSelfRel()));
+		}
 
 		// Retrieve all the products that are not marked for deletion, and
 		// add referential links that point back to all the product themselves and also
@@ -72,7 +147,105 @@ public class ProductController {
 				.map(productModelAssembler::toModel).collect(Collectors.toList());
 
 		// Return a collection of products annotated with referential links
-		return CollectionModel.of(products, linkTo(methodOn(ProductController.class).all()).withSelfRel());
+		return ResponseEntity.ok()
+				.body(CollectionModel.of(products, linkTo(methodOn(ProductController.class).all(null)).withSelfRel()));
+	}
+
+	/**
+	 * Get the products for the Stock Keeping Unit IDs provided using a single
+	 * query.
+	 * 
+	 * Example path - /products?ids=1,2,3
+	 * 
+	 * The lookups are returned in the order they were requested. Stock Keeping
+	 * Unit IDs that do not exist or whose products are marked for deletion are
+	 * returned with a status marking them as such, instead of the product. More
+	 * Stock Keeping Unit IDs than order-service.lookup.max-ids are rejected as a
+	 * bad request.
+	 * 
+	 * @param ids List<Long> - Stock Keeping Unit IDs of the products to be
+	 *            returned.
+	 * @return ProductLookup - Lookups for the Stock Keeping Unit IDs provided.
+	 */
+	@GetMapping(value = "/products", params = "ids")
+	public ResponseEntity<CollectionModel<ProductLookup>> some(@RequestParam List<Long> ids) {
+
+		if (ids.size() > lookupProperties.getMaxIds()) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
+
+		// Retrieve all the requested products, including those marked for deletion
+		// so that they can be reported as deleted rather than not found.
+		Map<Long, Product> productsBySKU = productRepository.findByStockKeepingUnitIDIn(ids).stream()
+				.collect(Collectors.toMap(Product::getStockKeepingUnitID, Function.identity()));
+
+		// Resolve the lookups in the order they were requested.
+		List<ProductLookup> lookups = ids.stream().map(id -> {
+			Product product = productsBySKU.get(id);
+
+			if (product == null) {
+				return new ProductLookup(id, ProductLookup.Status.NOT_FOUND, null);
+			}
+			if (product.getDeletionFlag().booleanValue()) {
+				return new ProductLookup(id, ProductLookup.Status.DELETED, null);
+			}
+			return new ProductLookup(id, ProductLookup.Status.FOUND, productModelAssembler.toModel(product));
+		}).collect(Collectors.toList());
+
+		// Return the lookups annotated with referential links.
+		return ResponseEntity.ok()
+				.body(CollectionModel.of(lookups, linkTo(methodOn(ProductController.class).some(ids)).withSelfRel()));
+	}
+
+	/**
+	 * Get the products created, replaced or marked for deletion after the version
+	 * of the catalog provided, so that a copy of the catalog can be kept in sync
+	 * without retrieving all the products.
+	 * 
+	 * Example path - /products/changes?since=42
+	 * 
+	 * At most 1000 products are returned at once, in the order they were changed,
+	 * up to the watermark below the changes yet to commit on this instance so that
+	 * a change committed late is not skipped, which only holds with a single
+	 * instance of the service. The version returned is provided as since
+	 * for the next changes, which are also linked as next.
+	 * 
+	 * @param since Long - Version of the catalog already known, 0 for all the
+	 *              products.
+	 * @return ProductChanges - Products changed after the version provided.
+	 */
+	@GetMapping("/products/changes")
+	public ResponseEntity<ProductChanges> changes(@RequestParam(defaultValue = "0") Long since) {
+
+		if (since.longValue() < 0) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
+
+		// Retrieve the products changed after the version provided, including those
+		// marked for deletion so that they can be removed from the copy, up to the
+		// watermark taken before them.
+		long watermark = changeVersions.watermark();
+		List<Product> changedProducts = productRepository
+				.findByChangeVersionGreaterThanOrderByChangeVersion(since, PageRequest.of(0, MAX_CHANGES)).stream()
+				.filter(product -> product.getChangeVersion().longValue() <= watermark).collect(Collectors.toList());
+
+		long version = changedProducts.isEmpty() ? since.longValue()
+				: changedProducts.get(changedProducts.size() - 1).getChangeVersion().longValue();
+
+		List<EntityModel<Product>> products = changedProducts.stream().map(productModelAssembler::toModel)
+				.collect(Collectors.toList());
+
+		// Return the changes annotated with referential links to themselves and to
+		// the changes that follow.
+		return ResponseEntity.ok()
+				.body(new ProductChanges(products, since.longValue(), version,
+						List.of(linkTo(methodOn(ProductController.class).changes(since)).withSelfRel(),
+								linkTo(methodOn(ProductController.class).changes(Long.valueOf(version)))
+										.withRel(IanaLinkRelations.NEXT))));
 	}
 
 	/**
@@ -84,10 +257,17 @@ public class ProductController {
 	@PostMapping("/products")
 	public ResponseEntity<?> newProduct(@RequestBody Product newProduct) {
 
-		// Save a new product. Then annotate this product (to be returned) with
-		// referential links that point back to the product and also point back to the
-		// collection products.
-		EntityModel<Product> entityModel = productModelAssembler.toModel(productRepository.save(newProduct));
+		// Save a new product with the next version of the catalog.
+		Product savedProduct = changeVersions.change(changeVersion -> {
+			newProduct.setChangeVersion(changeVersion);
+			return productRepository.save(newProduct);
+		});
+
+		eventPublisher.publishEvent(new ProductEvent(ProductEvent.Type.CREATED, savedProduct));
+
+		// Annotate this product (to be returned) with referential links that point
+		// back to the product and also point back to the collection products.
+		EntityModel<Product> entityModel = productModelAssembler.toModel(savedProduct);
 
 		// Return the saved product annotated with referential links with a created
 		// response.
@@ -101,16 +281,25 @@ public class ProductController {
 	 * 
 	 * @param stockKeepingUnitID Long - Stock Keeping Unit ID of the product to be
 	 *                           returned.
+	 * @param options            RepresentationOptions - Fields and referential
+	 *                           links requested. The full representation is
+	 *                           returned when none are requested.
 	 * @return Product - Product for the Stock Keeping Unit ID provided.
 	 */
 	@GetMapping("/products/{stockKeepingUnitID}")
-	public ResponseEntity<?> one(@PathVariable Long stockKeepingUnitID) {
+	public ResponseEntity<?> one(@PathVariable Long stockKeepingUnitID, RepresentationOptions options) {
+
+		if (!options.isSupported(ProductView.FIELDS)) {
+
+			// Return a bad request response.
+			return ResponseEntity.badRequest().build();
+		}
 
 		Product product;
 
 		try {
-			// Retrieve a product if it is not marked for deletion.
-			product = productRepository.findById(stockKeepingUnitID)
+			// Look up a product in the catalog if it is not marked for deletion.
+			product = productCatalog.find(stockKeepingUnitID)
 					.filter(currentProduct -> !currentProduct.getDeletionFlag().booleanValue())
 					.orElseThrow(() -> new ProductNotFoundException(stockKeepingUnitID));
 		} catch (ProductNotFoundException pnfe) {
@@ -119,6 +308,12 @@ public class ProductController {
 			return ResponseEntity.notFound().build();
 		}
 
+		if (!options.isDefault()) {
+
+			// Return only the fields and referential links requested with an OK response.
+			return ResponseEntity.ok().body(toProductView(product, options));
+		}
+
 		// Return the product annotated with referential links with an OK response.
 		return ResponseEntity.ok().body(productModelAssembler.toModel(product));
 	}
@@ -139,12 +334,15 @@ public class ProductController {
 
 		try {
 			// Retrieve and replace product.
-			updatedProduct = productRepository.findById(stockKeepingUnitID) //
+			updatedProduct = changeVersions.change(changeVersion -> productRepository.findById(stockKeepingUnitID) //
 					.map(product -> {
 						product.setName(newProduct.getName());
 						product.setPrice(newProduct.getPrice());
+						product.setChangeVersion(changeVersion);
 						return productRepository.save(product);
-					}).orElseThrow(() -> new ProductNotFoundException(stockKeepingUnitID));
+					})).orElseThrow(() -> new ProductNotFoundException(stockKeepingUnitID));
+
+			eventPublisher.publishEvent(new ProductEvent(ProductEvent.Type.REPLACED, updatedProduct));
 		} catch (ProductNotFoundException pnfe) {
 
 			// Return a no content response.
@@ -172,13 +370,35 @@ public class ProductController {
 	public ResponseEntity<?> deleteProduct(@PathVariable Long stockKeepingUnitID) {
 
 		// Retrieve a product and mark it for deletion.
-		productRepository.findById(stockKeepingUnitID).map(product -> {
+		changeVersions.change(changeVersion -> productRepository.findById(stockKeepingUnitID).map(product -> {
 			product.setDeletionFlag(true);
+			product.setChangeVersion(changeVersion);
 			return productRepository.save(product);
-		});
+		})).ifPresent(
+				deletedProduct -> eventPublisher.publishEvent(new ProductEvent(ProductEvent.Type.DELETED, deletedProduct)));
 
 		// Return a no content response.
 		return ResponseEntity.noContent().build();
 	}
 
+	/**
+	 * Represent a product with only the fields requested, annotated with
+	 * referential links unless they were suppressed.
+	 * 
+	 * @param product Product - Product to be represented.
+	 * @param options RepresentationOptions - Fields and referential links
+	 *                requested.
+	 * @return ProductView - Representation of the product.
+	 */
+	private ProductView toProductView(Product product, RepresentationOptions options) {
+		ProductView view = ProductView.of(product, options);
+
+		if (!options.isLinksSuppressed()) {
+			view.add(linkTo(methodOn(ProductController.class).one(product.getStockKeepingUnitID(), null)).withSelfRel(),
+					linkTo(methodOn(ProductController.class).all(null)).withRel("products"));
+		}
+
+		return view;
+	}
+
 }
@@ -0,0 +1,71 @@
+package com.roche.service.product;
+
+/**
+ * Published once a product is created, replaced or marked for deletion.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class ProductEvent {
+
+	/**
+	 * Change made to the product.
+	 */
+	public enum Type {
+
+		/**
+		 * The product was created.
+		 */
+		CREATED,
+
+		/**
+		 * The name and price of the product were replaced.
+		 */
+		REPLACED,
+
+		/**
+		 * The product was marked for deletion.
+		 */
+		DELETED
+	}
+
+	/**
+	 * Change made to the product.
+	 */
+	private final Type type;
+
+	/**
+	 * Product as saved.
+	 */
+	private final Product product;
+
+	/**
+	 * Constructor for Product Event.
+	 *
+	 * @param type    Type - Change made to the product.
+	 * @param product Product - Product as saved.
+	 */
+	public ProductEvent(Type type, Product product) {
+		this.type = type;
+		this.product = product;
+	}
+
+	/**
+	 * Get the change made to the product.
+	 *
+	 * @return Type - Change made to the product.
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Get the product as saved.
+	 *
+	 * @return Product - Product as saved.
+	 */
+	public Product getProduct() {
+		return product;
+	}
+
+}
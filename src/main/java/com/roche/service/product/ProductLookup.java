@@ -0,0 +1,96 @@
+package com.roche.service.product;
+
+import org.springframework.hateoas.EntityModel;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of looking up a single Stock Keeping Unit ID as part of a multi-get
+ * request for products.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class ProductLookup {
+
+	/**
+	 * Outcome of looking up a Stock Keeping Unit ID.
+	 */
+	public enum Status {
+
+		/**
+		 * The product was found.
+		 */
+		FOUND,
+
+		/**
+		 * No product exists for the Stock Keeping Unit ID.
+		 */
+		NOT_FOUND,
+
+		/**
+		 * The product exists but is marked for deletion (soft deleted).
+		 */
+		DELETED
+	}
+
+	/**
+	 * Stock Keeping Unit ID that was requested.
+	 */
+	private final Long stockKeepingUnitID;
+
+	/**
+	 * Outcome of the lookup.
+	 */
+	private final Status status;
+
+	/**
+	 * Product annotated with referential links. Only present when the product
+	 * was found.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final EntityModel<Product> product;
+
+	/**
+	 * Constructor for Product Lookup.
+	 *
+	 * @param stockKeepingUnitID Long - Stock Keeping Unit ID that was requested.
+	 * @param status             Status - Outcome of the lookup.
+	 * @param product            EntityModel<Product> - Product found, or null.
+	 */
+	public ProductLookup(Long stockKeepingUnitID, Status status, EntityModel<Product> product) {
+		super();
+		this.stockKeepingUnitID = stockKeepingUnitID;
+		this.status = status;
+		this.product = product;
+	}
+
+	/**
+	 * Get the Stock Keeping Unit ID that was requested.
+	 *
+	 * @return Long - Stock Keeping Unit ID.
+	 */
+	public Long getStockKeepingUnitID() {
+		return stockKeepingUnitID;
+	}
+
+	/**
+	 * Get the outcome of the lookup.
+	 *
+	 * @return Status - Outcome of the lookup.
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Get the product found.
+	 *
+	 * @return EntityModel<Product> - Product found, or null when the product was
+	 *         not found or is marked for deletion.
+	 */
+	public EntityModel<Product> getProduct() {
+		return product;
+	}
+
+}
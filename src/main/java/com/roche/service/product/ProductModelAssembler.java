@@ -26,8 +26,8 @@ public class ProductModelAssembler implements RepresentationModelAssembler<Produ
 	public EntityModel<Product> toModel(Product product) {
 
 		return EntityModel.of(product,
-				linkTo(methodOn(ProductController.class).one(product.getStockKeepingUnitID())).withSelfRel(),
-				linkTo(methodOn(ProductController.class).all()).withRel("products"));
+				linkTo(methodOn(ProductController.class).one(product.getStockKeepingUnitID(), null)).withSelfRel(),
+				linkTo(methodOn(ProductController.class).all(null)).withRel("products"));
 	}
 
 }
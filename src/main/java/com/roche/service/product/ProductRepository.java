@@ -1,8 +1,11 @@
 package com.roche.service.product;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 /**
  * Repository for products so that they can be created, fetched, updated and
@@ -19,4 +22,42 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 	 * @return List<Product> - All products that are not marked for deletion.
 	 */
 	List<Product> findByDeletionFlagFalse();
+
+	/**
+	 * Get all the products for the Stock Keeping Unit IDs provided, including
+	 * products that are marked for deletion, using a single query.
+	 * 
+	 * @param stockKeepingUnitIDs Collection<Long> - Stock Keeping Unit IDs of the
+	 *                            products to be returned.
+	 * @return List<Product> - Products found, in no particular order.
+	 */
+	List<Product> findByStockKeepingUnitIDIn(Collection<Long> stockKeepingUnitIDs);
+
+	/**
+	 * Get the products changed after a version of the catalog, including products
+	 * marked for deletion, in the order they were changed.
+	 * 
+	 * @param changeVersion Long - Version of the catalog already known.
+	 * @param pageable      Pageable - Maximum number of products returned.
+	 * @return List<Product> - Products changed after the version provided.
+	 */
+	List<Product> findByChangeVersionGreaterThanOrderByChangeVersion(Long changeVersion, Pageable pageable);
+
+	/**
+	 * Get the latest version of the catalog.
+	 * 
+	 * @return Long - Highest change version of any product, 0 if none.
+	 */
+	@Query("select coalesce(max(p.changeVersion), 0) from Product p")
+	Long findLatestChangeVersion();
+
+	/**
+	 * Get the next version of the catalog from the database sequence, so that
+	 * the instances of the service sharing the database do not hand out the same
+	 * version.
+	 * 
+	 * @return Long - Change version for a product being changed.
+	 */
+	@Query(value = "select next value for " + ProductChangeVersions.SEQUENCE, nativeQuery = true)
+	Long nextChangeVersion();
 }
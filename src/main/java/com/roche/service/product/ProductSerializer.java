@@ -0,0 +1,61 @@
+package com.roche.service.product;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import com.roche.service.representation.RepresentationModelSerializer;
+
+/**
+ * Serializer written by hand for a product, registered with the object mappers
+ * of the service.
+ *
+ * @author amit modhvadia
+ *
+ */
+@JsonComponent
+public class ProductSerializer extends RepresentationModelSerializer<Product> {
+
+	private static final long serialVersionUID = 4418036377725683514L;
+
+	private static final SerializedString STOCK_KEEPING_UNIT_ID = new SerializedString(
+			ProductView.STOCK_KEEPING_UNIT_ID);
+	private static final SerializedString NAME = new SerializedString(ProductView.NAME);
+	private static final SerializedString PRICE = new SerializedString(ProductView.PRICE);
+	private static final SerializedString CREATION_DATE = new SerializedString(ProductView.CREATION_DATE);
+	private static final SerializedString DELETION_FLAG = new SerializedString(ProductView.DELETION_FLAG);
+
+	/**
+	 * Constructor for Product Serializer.
+	 */
+	public ProductSerializer() {
+		this(null);
+	}
+
+	private ProductSerializer(NameTransformer unwrapper) {
+		super(Product.class, unwrapper);
+	}
+
+	@Override
+	protected ProductSerializer withUnwrapper(NameTransformer unwrapper) {
+		return new ProductSerializer(unwrapper);
+	}
+
+	/**
+	 * Write the Stock Keeping Unit ID, name, price, creation date and deletion
+	 * flag.
+	 */
+	@Override
+	protected void writeFields(Product product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		writeField(STOCK_KEEPING_UNIT_ID, product.getStockKeepingUnitID(), gen);
+		writeField(NAME, product.getName(), gen);
+		writeField(PRICE, product.getPrice(), gen);
+		writeField(CREATION_DATE, product.getCreationDate(), gen, provider);
+		writeField(DELETION_FLAG, product.getDeletionFlag(), gen);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.roche.service.product;
+
+import java.util.List;
+
+import org.springframework.hateoas.server.core.Relation;
+
+import com.roche.service.representation.RepresentationOptions;
+import com.roche.service.representation.SparseRepresentationModel;
+
+/**
+ * Representation of a product made up of only the fields a client requested.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Relation(collectionRelation = "productList")
+public class ProductView extends SparseRepresentationModel<ProductView> {
+
+	/**
+	 * Name of the Stock Keeping Unit ID field.
+	 */
+	public static final String STOCK_KEEPING_UNIT_ID = "stockKeepingUnitID";
+
+	/**
+	 * Name of the name field.
+	 */
+	public static final String NAME = "name";
+
+	/**
+	 * Name of the price field.
+	 */
+	public static final String PRICE = "price";
+
+	/**
+	 * Name of the creation date field.
+	 */
+	public static final String CREATION_DATE = "creationDate";
+
+	/**
+	 * Name of the deletion flag field.
+	 */
+	public static final String DELETION_FLAG = "deletionFlag";
+
+	/**
+	 * Names of all the fields that can be requested for a product.
+	 */
+	public static final List<String> FIELDS = List.of(STOCK_KEEPING_UNIT_ID, NAME, PRICE, CREATION_DATE,
+			DELETION_FLAG);
+
+	/**
+	 * Create a representation of a product with the fields requested.
+	 *
+	 * @param product Product - Product to be represented.
+	 * @param options RepresentationOptions - Options requested.
+	 * @return ProductView - Representation of the product.
+	 */
+	static ProductView of(Product product, RepresentationOptions options) {
+		ProductView view = new ProductView();
+
+		view.putIfIncluded(STOCK_KEEPING_UNIT_ID, product.getStockKeepingUnitID(), options);
+		view.putIfIncluded(NAME, product.getName(), options);
+		view.putIfIncluded(PRICE, product.getPrice(), options);
+		view.putIfIncluded(CREATION_DATE, product.getCreationDate(), options);
+		view.putIfIncluded(DELETION_FLAG, product.getDeletionFlag(), options);
+
+		return view;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.roche.service.representation;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Registers compact binary formats for orders and products alongside JSON, so
+ * that the same controllers can serve and accept CBOR (application/cbor), Smile
+ * (application/x-jackson-smile) and Protocol Buffers (application/x-protobuf),
+ * selected with the Accept and Content-Type headers.
+ *
+ * CBOR and Smile use the same HAL structure as the JSON representation.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+public class BinaryFormatConfiguration implements WebMvcConfigurer {
+
+	/**
+	 * Builders for object mappers, configured in the same way as the JSON object
+	 * mapper.
+	 */
+	private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+	/**
+	 * Configuration for rendering representation models as HAL.
+	 */
+	private final HalMediaTypeConfiguration halMediaTypeConfiguration;
+
+	/**
+	 * Constructor for Binary Format Configuration.
+	 *
+	 * @param objectMapperBuilders      ObjectProvider<Jackson2ObjectMapperBuilder>
+	 *                                  - Builders for object mappers.
+	 * @param halMediaTypeConfiguration HalMediaTypeConfiguration - Configuration
+	 *                                  for rendering representation models as
+	 *                                  HAL.
+	 */
+	public BinaryFormatConfiguration(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders,
+			HalMediaTypeConfiguration halMediaTypeConfiguration) {
+
+		this.objectMapperBuilders = objectMapperBuilders;
+		this.halMediaTypeConfiguration = halMediaTypeConfiguration;
+	}
+
+	/**
+	 * Add the message converters for the binary formats after the default
+	 * converters, so that JSON remains the default format. The default CBOR and
+	 * Smile converters are replaced as they do not render HAL.
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+				|| converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+		converters.add(new MappingJackson2CborHttpMessageConverter(halObjectMapper(new CBORFactory())));
+		converters.add(new MappingJackson2SmileHttpMessageConverter(halObjectMapper(new SmileFactory())));
+		converters.add(new ProtobufHttpMessageConverter());
+	}
+
+	/**
+	 * Create an object mapper for a binary format that renders representation
+	 * models as HAL.
+	 *
+	 * @param factory JsonFactory - Factory for the binary format.
+	 * @return ObjectMapper - Object mapper for the binary format.
+	 */
+	private ObjectMapper halObjectMapper(JsonFactory factory) {
+		return halMediaTypeConfiguration
+				.configureObjectMapper(objectMapperBuilders.getObject().factory(factory).build());
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.roche.service.representation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Collection of representations that reference related resources by their
+ * IDs, where each distinct related resource is included once in an _included
+ * section alongside the collection.
+ *
+ * @author amit modhvadia
+ *
+ * @param <T> Type of the representations in the collection.
+ * @param <I> Type of the related resources included.
+ */
+public class IncludedCollectionModel<T, I> extends CollectionModel<T> {
+
+	/**
+	 * Distinct related resources referenced by the representations.
+	 */
+	private final List<I> included;
+
+	/**
+	 * Constructor for Included Collection Model.
+	 *
+	 * @param content  Iterable<T> - Representations in the collection.
+	 * @param included Collection<I> - Distinct related resources referenced by the
+	 *                 representations.
+	 * @param links    Iterable<Link> - Referential links for the collection.
+	 */
+	public IncludedCollectionModel(Iterable<T> content, Collection<I> included, Iterable<Link> links) {
+		super(content, links);
+		this.included = new ArrayList<I>(included);
+	}
+
+	/**
+	 * Get the distinct related resources referenced by the representations.
+	 *
+	 * @return List<I> - Related resources.
+	 */
+	@JsonProperty("_included")
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	public List<I> getIncluded() {
+		return Collections.unmodifiableList(included);
+	}
+
+	/**
+	 * Verify whether this collection is equal to the collection provided.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IncludedCollectionModel)) {
+			return false;
+		}
+		IncludedCollectionModel<?, ?> other = (IncludedCollectionModel<?, ?>) obj;
+		return super.equals(other) && Objects.equals(included, other.included);
+	}
+
+	/**
+	 * Hash code method for Included Collection Model.
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(super.hashCode(), included);
+	}
+
+}
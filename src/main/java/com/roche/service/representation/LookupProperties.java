@@ -0,0 +1,29 @@
+package com.roche.service.representation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits of the lookups of orders and products by their IDs, set as
+ * order-service.lookup.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.lookup")
+public class LookupProperties {
+
+	/**
+	 * Maximum number of IDs looked up in a single request, above which the
+	 * request is rejected rather than read in a single query.
+	 */
+	private int maxIds = 100;
+
+	public int getMaxIds() {
+		return maxIds;
+	}
+
+	public void setMaxIds(int maxIds) {
+		this.maxIds = maxIds;
+	}
+
+}
@@ -0,0 +1,422 @@
+package com.roche.service.representation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Date;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.roche.service.order.Amount;
+import com.roche.service.order.Order;
+import com.roche.service.product.Product;
+
+/**
+ * Reads and writes orders and products as Protocol Buffers
+ * (application/x-protobuf), following the messages defined in
+ * src/main/proto/order_service.proto.
+ *
+ * Orders, products, collections of either and total amounts can be written.
+ * Orders and products can be read. Representations with selected fields,
+ * lookups, and collections with more than their items and links, such as those
+ * with an _included section, are only available as JSON, CBOR or Smile.
+ *
+ * The content of a model is checked against its declared type when the
+ * converter is chosen, and against the model itself before it is written when
+ * the declared type does not tell, so that a model that cannot be written is
+ * answered with 406 Not Acceptable rather than failing once written.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class ProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+	/**
+	 * Media type for Protocol Buffers.
+	 */
+	public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+	private static final int LINK_REL = 1;
+	private static final int LINK_HREF = 2;
+
+	private static final int PRODUCT_STOCK_KEEPING_UNIT_ID = 1;
+	private static final int PRODUCT_NAME = 2;
+	private static final int PRODUCT_PRICE = 3;
+	private static final int PRODUCT_CREATION_DATE = 4;
+	private static final int PRODUCT_DELETION_FLAG = 5;
+	private static final int PRODUCT_LINKS = 6;
+
+	private static final int ORDER_ORDER_ID = 1;
+	private static final int ORDER_PRODUCTS = 2;
+	private static final int ORDER_BUYER_EMAIL = 3;
+	private static final int ORDER_PLACED_TIME = 4;
+	private static final int ORDER_LINKS = 5;
+
+	private static final int LIST_ITEMS = 1;
+	private static final int LIST_LINKS = 2;
+
+	private static final int AMOUNT_TOTAL_AMOUNT = 1;
+
+	/**
+	 * Writes the fields of a message.
+	 */
+	@FunctionalInterface
+	private interface MessageWriter {
+
+		/**
+		 * Write the fields of a message.
+		 *
+		 * @param output CodedOutputStream - Stream to write the fields to.
+		 * @throws IOException - If the fields could not be written.
+		 */
+		void writeTo(CodedOutputStream output) throws IOException;
+	}
+
+	/**
+	 * Constructor for Protobuf Http Message Converter.
+	 */
+	public ProtobufHttpMessageConverter() {
+		super(APPLICATION_PROTOBUF);
+	}
+
+	/**
+	 * Verify whether a type can be read or written.
+	 */
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return isMessage(clazz) || Amount.class.isAssignableFrom(clazz) || EntityModel.class == clazz
+				|| CollectionModel.class == clazz;
+	}
+
+	/**
+	 * Verify whether a model can be written, as far as its declared type tells
+	 * what it contains.
+	 */
+	@Override
+	public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+		if (!canWrite(clazz, mediaType)) {
+			return false;
+		}
+
+		ResolvableType declaredType = type == null ? ResolvableType.NONE : ResolvableType.forType(type);
+
+		if (EntityModel.class == clazz) {
+			return isWritableContent(declaredType.as(EntityModel.class).getGeneric(0));
+		}
+		if (CollectionModel.class == clazz) {
+			ResolvableType itemType = declaredType.as(CollectionModel.class).getGeneric(0);
+			return itemType.resolve() == EntityModel.class ? isWritableContent(itemType.getGeneric(0))
+					: isWritableContent(itemType);
+		}
+		return true;
+	}
+
+	/**
+	 * Only orders and products can be read.
+	 */
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return (Order.class == clazz || Product.class == clazz) && canRead(mediaType);
+	}
+
+	/**
+	 * Read an order or a product.
+	 */
+	@Override
+	public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+
+		return readInternal(ResolvableType.forType(type).resolve(Object.class), inputMessage);
+	}
+
+	/**
+	 * Read an order or a product.
+	 */
+	@Override
+	protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+
+		CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody());
+
+		return Order.class == clazz ? readOrder(input) : readProduct(input);
+	}
+
+	/**
+	 * Write an order, a product, a collection of either or a total amount.
+	 */
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+
+		// Checked before the body is opened, so that nothing has been written yet.
+		if (!isWritable(object)) {
+			throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE,
+					"Protocol Buffers representation not supported for " + object.getClass().getName());
+		}
+
+		CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+
+		writeTo(output, object, Links.NONE);
+
+		output.flush();
+	}
+
+	private static boolean isMessage(Class<?> clazz) {
+		return Order.class.isAssignableFrom(clazz) || Product.class.isAssignableFrom(clazz);
+	}
+
+	/**
+	 * Verify whether the declared content of a model is an order or a product,
+	 * or is not declared.
+	 */
+	private static boolean isWritableContent(ResolvableType contentType) {
+		Class<?> content = contentType.resolve();
+		return content == null || content == Object.class || isMessage(content);
+	}
+
+	/**
+	 * Verify whether an object, with the content of a model, can be written.
+	 */
+	private static boolean isWritable(Object object) {
+		if (object instanceof EntityModel) {
+			Object content = ((EntityModel<?>) object).getContent();
+			return content != null && isMessage(content.getClass());
+		}
+		if (object instanceof CollectionModel) {
+			if (object.getClass() != CollectionModel.class) {
+				return false;
+			}
+			for (Object item : ((CollectionModel<?>) object).getContent()) {
+				if (!(item instanceof EntityModel ? isWritable(item) : item != null && isMessage(item.getClass()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return object != null && (isMessage(object.getClass()) || object instanceof Amount);
+	}
+
+	/**
+	 * Write the fields of an order, a product, a collection of either or a total
+	 * amount.
+	 *
+	 * @param output CodedOutputStream - Stream to write the fields to.
+	 * @param object Object - Object to be written.
+	 * @param links  Links - Referential links of a model wrapping the object.
+	 * @throws IOException - If the fields could not be written.
+	 */
+	private void writeTo(CodedOutputStream output, Object object, Links links) throws IOException {
+		if (object instanceof Order) {
+			writeOrder(output, (Order) object, links);
+		} else if (object instanceof Product) {
+			writeProduct(output, (Product) object, links);
+		} else if (object instanceof EntityModel) {
+			EntityModel<?> entityModel = (EntityModel<?>) object;
+			writeTo(output, entityModel.getContent(), entityModel.getLinks());
+		} else if (object instanceof CollectionModel) {
+			writeCollection(output, (CollectionModel<?>) object);
+		} else if (object instanceof Amount) {
+			writeFloat(output, AMOUNT_TOTAL_AMOUNT, ((Amount) object).getTotalAmount());
+		} else {
+			throw new HttpMessageNotWritableException(
+					"Protocol Buffers representation not supported for " + object.getClass().getName());
+		}
+	}
+
+	/**
+	 * Write the fields of an OrderList or a ProductList message. Both messages
+	 * share the same layout.
+	 *
+	 * @param output          CodedOutputStream - Stream to write the fields to.
+	 * @param collectionModel CollectionModel<?> - Collection of orders or
+	 *                        products.
+	 * @throws IOException - If the fields could not be written.
+	 */
+	private void writeCollection(CodedOutputStream output, CollectionModel<?> collectionModel) throws IOException {
+		for (Object item : collectionModel.getContent()) {
+			writeMessage(output, LIST_ITEMS, itemOutput -> writeTo(itemOutput, item, Links.NONE));
+		}
+
+		writeLinks(output, LIST_LINKS, collectionModel.getLinks());
+	}
+
+	/**
+	 * Write the fields of an Order message.
+	 *
+	 * @param output CodedOutputStream - Stream to write the fields to.
+	 * @param order  Order - Order to be written.
+	 * @param links  Links - Referential links of a model wrapping the order.
+	 * @throws IOException - If the fields could not be written.
+	 */
+	private void writeOrder(CodedOutputStream output, Order order, Links links) throws IOException {
+		writeLong(output, ORDER_ORDER_ID, order.getOrderID());
+
+		for (Product product : order.getProducts()) {
+			writeMessage(output, ORDER_PRODUCTS, productOutput -> writeProduct(productOutput, product, Links.NONE));
+		}
+
+		writeString(output, ORDER_BUYER_EMAIL, order.getBuyerEmail());
+		writeDate(output, ORDER_PLACED_TIME, order.getOrderPlacedTime());
+		writeLinks(output, ORDER_LINKS, order.getLinks().and(links));
+	}
+
+	/**
+	 * Write the fields of a Product message.
+	 *
+	 * @param output  CodedOutputStream - Stream to write the fields to.
+	 * @param product Product - Product to be written.
+	 * @param links   Links - Referential links of a model wrapping the product.
+	 * @throws IOException - If the fields could not be written.
+	 */
+	private void writeProduct(CodedOutputStream output, Product product, Links links) throws IOException {
+		writeLong(output, PRODUCT_STOCK_KEEPING_UNIT_ID, product.getStockKeepingUnitID());
+		writeString(output, PRODUCT_NAME, product.getName());
+		writeFloat(output, PRODUCT_PRICE, product.getPrice());
+		writeDate(output, PRODUCT_CREATION_DATE, product.getCreationDate());
+
+		if (Boolean.TRUE.equals(product.getDeletionFlag())) {
+			output.writeBool(PRODUCT_DELETION_FLAG, true);
+		}
+
+		writeLinks(output, PRODUCT_LINKS, product.getLinks().and(links));
+	}
+
+	/**
+	 * Write referential links as repeated Link messages.
+	 *
+	 * @param output CodedOutputStream - Stream to write the links to.
+	 * @param field  int - Field number of the links.
+	 * @param links  Links - Links to be written.
+	 * @throws IOException - If the links could not be written.
+	 */
+	private void writeLinks(CodedOutputStream output, int field, Links links) throws IOException {
+		for (Link link : links) {
+			writeMessage(output, field, linkOutput -> {
+				writeString(linkOutput, LINK_REL, link.getRel().value());
+				writeString(linkOutput, LINK_HREF, link.getHref());
+			});
+		}
+	}
+
+	/**
+	 * Write an embedded message as a length delimited field.
+	 *
+	 * @param output CodedOutputStream - Stream to write the message to.
+	 * @param field  int - Field number of the message.
+	 * @param writer MessageWriter - Writes the fields of the message.
+	 * @throws IOException - If the message could not be written.
+	 */
+	private void writeMessage(CodedOutputStream output, int field, MessageWriter writer) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CodedOutputStream messageOutput = CodedOutputStream.newInstance(bytes);
+
+		writer.writeTo(messageOutput);
+		messageOutput.flush();
+
+		output.writeByteArray(field, bytes.toByteArray());
+	}
+
+	private void writeLong(CodedOutputStream output, int field, Long value) throws IOException {
+		if (value != null && value.longValue() != 0L) {
+			output.writeInt64(field, value.longValue());
+		}
+	}
+
+	private void writeFloat(CodedOutputStream output, int field, Float value) throws IOException {
+		if (value != null && value.floatValue() != 0.0f) {
+			output.writeFloat(field, value.floatValue());
+		}
+	}
+
+	private void writeString(CodedOutputStream output, int field, String value) throws IOException {
+		if (value != null && !value.isEmpty()) {
+			output.writeString(field, value);
+		}
+	}
+
+	private void writeDate(CodedOutputStream output, int field, Date value) throws IOException {
+		if (value != null) {
+			output.writeInt64(field, value.getTime());
+		}
+	}
+
+	/**
+	 * Read an Order message. Only the buyer email and the Stock Keeping Unit IDs
+	 * of the products are used when placing an order.
+	 *
+	 * @param input CodedInputStream - Stream to read the order from.
+	 * @return Order - Order read.
+	 * @throws IOException - If the order could not be read.
+	 */
+	private Order readOrder(CodedInputStream input) throws IOException {
+		Order order = new Order();
+
+		for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+			switch (WireFormat.getTagFieldNumber(tag)) {
+			case ORDER_PRODUCTS:
+				int limit = input.pushLimit(input.readRawVarint32());
+				order.getProducts().add(readProduct(input));
+				input.popLimit(limit);
+				break;
+			case ORDER_BUYER_EMAIL:
+				order.setBuyerEmail(input.readString());
+				break;
+			default:
+				input.skipField(tag);
+			}
+		}
+
+		return order;
+	}
+
+	/**
+	 * Read a Product message. Only the Stock Keeping Unit ID, name and price are
+	 * used.
+	 *
+	 * @param input CodedInputStream - Stream to read the product from.
+	 * @return Product - Product read.
+	 * @throws IOException - If the product could not be read.
+	 */
+	private Product readProduct(CodedInputStream input) throws IOException {
+		Long stockKeepingUnitID = null;
+		String name = null;
+		Float price = null;
+
+		for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+			switch (WireFormat.getTagFieldNumber(tag)) {
+			case PRODUCT_STOCK_KEEPING_UNIT_ID:
+				stockKeepingUnitID = Long.valueOf(input.readInt64());
+				break;
+			case PRODUCT_NAME:
+				name = input.readString();
+				break;
+			case PRODUCT_PRICE:
+				price = Float.valueOf(input.readFloat());
+				break;
+			default:
+				input.skipField(tag);
+			}
+		}
+
+		Product product = new Product(stockKeepingUnitID);
+		product.setName(name);
+		product.setPrice(price);
+		return product;
+	}
+
+}
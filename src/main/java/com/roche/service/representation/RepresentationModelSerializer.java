@@ -0,0 +1,288 @@
+package com.roche.service.representation;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.RepresentationModel;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+/**
+ * Base for serializers written by hand for a representation model, which
+ * write its fields directly instead of introspecting its properties on each
+ * call. Referential links are written as HAL (_links field) when there are
+ * any.
+ *
+ * Also serializes the content of an EntityModel, where the fields are
+ * unwrapped into the EntityModel.
+ *
+ * @author amit modhvadia
+ *
+ * @param <T> Type of the representation model.
+ */
+public abstract class RepresentationModelSerializer<T extends RepresentationModel<?>> extends StdSerializer<T> {
+
+	private static final long serialVersionUID = 2790447163370593428L;
+
+	private static final SerializedString LINKS = new SerializedString("_links");
+	private static final SerializedString HREF = new SerializedString("href");
+	private static final SerializedString TEMPLATED = new SerializedString("templated");
+
+	/**
+	 * Transforms the field names when unwrapped, null when not unwrapped.
+	 */
+	private final NameTransformer unwrapper;
+
+	/**
+	 * Constructor for Representation Model Serializer.
+	 *
+	 * @param type      Class<T> - Type of the representation model.
+	 * @param unwrapper NameTransformer - Transforms the field names when
+	 *                  unwrapped, null when not unwrapped.
+	 */
+	protected RepresentationModelSerializer(Class<T> type, NameTransformer unwrapper) {
+		super(type);
+		this.unwrapper = unwrapper;
+	}
+
+	/**
+	 * Create a serializer of the same type that transforms the field names.
+	 *
+	 * @param unwrapper NameTransformer - Transforms the field names.
+	 * @return RepresentationModelSerializer<T> - Unwrapping serializer.
+	 */
+	protected abstract RepresentationModelSerializer<T> withUnwrapper(NameTransformer unwrapper);
+
+	/**
+	 * Write the fields of the representation model, except its links.
+	 *
+	 * @param value    T - Representation model to be written.
+	 * @param gen      JsonGenerator - Generator to write the fields to.
+	 * @param provider SerializerProvider - Provider of serializers for nested
+	 *                 values.
+	 * @throws IOException - If the fields could not be written.
+	 */
+	protected abstract void writeFields(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+
+	/**
+	 * Write the representation model.
+	 */
+	@Override
+	public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (unwrapper == null) {
+			gen.writeStartObject(value);
+		}
+
+		writeFields(value, gen, provider);
+
+		if (value.hasLinks()) {
+			writeFieldName(LINKS, gen);
+			writeLinks(value.getLinks().toList(), gen);
+		}
+
+		if (unwrapper == null) {
+			gen.writeEndObject();
+		}
+	}
+
+	/**
+	 * Verify whether this serializer writes the fields without enclosing them in
+	 * an object.
+	 */
+	@Override
+	public boolean isUnwrappingSerializer() {
+		return unwrapper != null;
+	}
+
+	/**
+	 * Get a serializer that writes the fields without enclosing them in an
+	 * object.
+	 */
+	@Override
+	public JsonSerializer<T> unwrappingSerializer(NameTransformer unwrapper) {
+		return withUnwrapper(
+				this.unwrapper == null ? unwrapper : NameTransformer.chainedTransformer(unwrapper, this.unwrapper));
+	}
+
+	/**
+	 * Write the name of a field.
+	 *
+	 * @param name SerializedString - Name of the field.
+	 * @param gen  JsonGenerator - Generator to write the name to.
+	 * @throws IOException - If the name could not be written.
+	 */
+	protected void writeFieldName(SerializedString name, JsonGenerator gen) throws IOException {
+		if (unwrapper == null || unwrapper == NameTransformer.NOP) {
+			gen.writeFieldName(name);
+		} else {
+			gen.writeFieldName(unwrapper.transform(name.getValue()));
+		}
+	}
+
+	/**
+	 * Write a field with a Long value, or null.
+	 *
+	 * @param name  SerializedString - Name of the field.
+	 * @param value Long - Value of the field.
+	 * @param gen   JsonGenerator - Generator to write the field to.
+	 * @throws IOException - If the field could not be written.
+	 */
+	protected void writeField(SerializedString name, Long value, JsonGenerator gen) throws IOException {
+		writeFieldName(name, gen);
+		if (value == null) {
+			gen.writeNull();
+		} else {
+			gen.writeNumber(value.longValue());
+		}
+	}
+
+	/**
+	 * Write a field with a Float value, or null.
+	 *
+	 * @param name  SerializedString - Name of the field.
+	 * @param value Float - Value of the field.
+	 * @param gen   JsonGenerator - Generator to write the field to.
+	 * @throws IOException - If the field could not be written.
+	 */
+	protected void writeField(SerializedString name, Float value, JsonGenerator gen) throws IOException {
+		writeFieldName(name, gen);
+		if (value == null) {
+			gen.writeNull();
+		} else {
+			gen.writeNumber(value.floatValue());
+		}
+	}
+
+	/**
+	 * Write a field with a Boolean value, or null.
+	 *
+	 * @param name  SerializedString - Name of the field.
+	 * @param value Boolean - Value of the field.
+	 * @param gen   JsonGenerator - Generator to write the field to.
+	 * @throws IOException - If the field could not be written.
+	 */
+	protected void writeField(SerializedString name, Boolean value, JsonGenerator gen) throws IOException {
+		writeFieldName(name, gen);
+		if (value == null) {
+			gen.writeNull();
+		} else {
+			gen.writeBoolean(value.booleanValue());
+		}
+	}
+
+	/**
+	 * Write a field with a String value, or null.
+	 *
+	 * @param name  SerializedString - Name of the field.
+	 * @param value String - Value of the field.
+	 * @param gen   JsonGenerator - Generator to write the field to.
+	 * @throws IOException - If the field could not be written.
+	 */
+	protected void writeField(SerializedString name, String value, JsonGenerator gen) throws IOException {
+		writeFieldName(name, gen);
+		gen.writeString(value);
+	}
+
+	/**
+	 * Write a field with a Date value, or null, in the date format configured
+	 * for the object mapper.
+	 *
+	 * @param name     SerializedString - Name of the field.
+	 * @param value    Date - Value of the field.
+	 * @param gen      JsonGenerator - Generator to write the field to.
+	 * @param provider SerializerProvider - Provider of the date format.
+	 * @throws IOException - If the field could not be written.
+	 */
+	protected void writeField(SerializedString name, Date value, JsonGenerator gen, SerializerProvider provider)
+			throws IOException {
+		writeFieldName(name, gen);
+		if (value == null) {
+			gen.writeNull();
+		} else {
+			provider.defaultSerializeDateValue(value, gen);
+		}
+	}
+
+	/**
+	 * Write referential links as HAL, where a relation with a single link is
+	 * written as an object and a relation with several links as an array.
+	 *
+	 * @param links List<Link> - Referential links to be written.
+	 * @param gen   JsonGenerator - Generator to write the links to.
+	 * @throws IOException - If the links could not be written.
+	 */
+	private static void writeLinks(List<Link> links, JsonGenerator gen) throws IOException {
+		gen.writeStartObject();
+
+		if (links.size() == 1) {
+			Link link = links.get(0);
+			gen.writeFieldName(link.getRel().value());
+			writeLink(link, gen);
+		} else {
+			Map<LinkRelation, List<Link>> linksByRelation = links.stream().collect(
+					Collectors.groupingBy(Link::getRel, LinkedHashMap::new, Collectors.toList()));
+
+			for (Map.Entry<LinkRelation, List<Link>> relation : linksByRelation.entrySet()) {
+				gen.writeFieldName(relation.getKey().value());
+
+				if (relation.getValue().size() == 1) {
+					writeLink(relation.getValue().get(0), gen);
+				} else {
+					gen.writeStartArray();
+					for (Link link : relation.getValue()) {
+						writeLink(link, gen);
+					}
+					gen.writeEndArray();
+				}
+			}
+		}
+
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Write a referential link as a HAL link object.
+	 *
+	 * @param link Link - Referential link to be written.
+	 * @param gen  JsonGenerator - Generator to write the link to.
+	 * @throws IOException - If the link could not be written.
+	 */
+	private static void writeLink(Link link, JsonGenerator gen) throws IOException {
+		gen.writeStartObject();
+
+		gen.writeFieldName(HREF);
+		gen.writeString(link.getHref());
+
+		if (link.isTemplated()) {
+			gen.writeFieldName(TEMPLATED);
+			gen.writeBoolean(true);
+		}
+
+		writeOptional("hreflang", link.getHreflang(), gen);
+		writeOptional("title", link.getTitle(), gen);
+		writeOptional("type", link.getType(), gen);
+		writeOptional("deprecation", link.getDeprecation(), gen);
+		writeOptional("profile", link.getProfile(), gen);
+		writeOptional("name", link.getName(), gen);
+
+		gen.writeEndObject();
+	}
+
+	private static void writeOptional(String name, String value, JsonGenerator gen) throws IOException {
+		if (value != null) {
+			gen.writeStringField(name, value);
+		}
+	}
+
+}
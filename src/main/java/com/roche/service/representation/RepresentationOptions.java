@@ -0,0 +1,210 @@
+package com.roche.service.representation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Options requested by a client for shaping the representation of orders and
+ * products. Bound from the query parameters of a request.
+ *
+ * Example query - ?fields=orderID,orderPlacedTime,totalAmount&links=none
+ *
+ * Example query - ?view=compact
+ *
+ * @author amit modhvadia
+ *
+ */
+public class RepresentationOptions {
+
+	/**
+	 * Value of the links option that suppresses all referential links.
+	 */
+	public static final String LINKS_NONE = "none";
+
+	/**
+	 * Value of the links option that includes all referential links (default).
+	 */
+	public static final String LINKS_ALL = "all";
+
+	/**
+	 * Value of the view option where each order only references its products,
+	 * and each distinct product is included once alongside the collection.
+	 */
+	public static final String VIEW_COMPACT = "compact";
+
+	/**
+	 * Value of the view option where each order embeds its products (default).
+	 */
+	public static final String VIEW_FULL = "full";
+
+	/**
+	 * Separates the field names provided.
+	 */
+	private static final String FIELD_SEPARATOR = ",";
+
+	/**
+	 * Comma separated names of the fields to be returned. All fields are returned
+	 * when not provided.
+	 */
+	private String fields;
+
+	/**
+	 * Whether referential links are returned, either 'all' or 'none'.
+	 */
+	private String links;
+
+	/**
+	 * How the products of orders in a collection are represented, either 'full'
+	 * or 'compact'.
+	 */
+	private String view;
+
+	/**
+	 * Get the comma separated names of the fields to be returned.
+	 *
+	 * @return String - Comma separated field names.
+	 */
+	public String getFields() {
+		return fields;
+	}
+
+	/**
+	 * Set the comma separated names of the fields to be returned.
+	 *
+	 * @param fields String - Comma separated field names.
+	 */
+	public void setFields(String fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Get whether referential links are returned.
+	 *
+	 * @return String - Either 'all' or 'none'.
+	 */
+	public String getLinks() {
+		return links;
+	}
+
+	/**
+	 * Set whether referential links are returned.
+	 *
+	 * @param links String - Either 'all' or 'none'.
+	 */
+	public void setLinks(String links) {
+		this.links = links;
+	}
+
+	/**
+	 * Get how the products of orders in a collection are represented.
+	 *
+	 * @return String - Either 'full' or 'compact'.
+	 */
+	public String getView() {
+		return view;
+	}
+
+	/**
+	 * Set how the products of orders in a collection are represented.
+	 *
+	 * @param view String - Either 'full' or 'compact'.
+	 */
+	public void setView(String view) {
+		this.view = view;
+	}
+
+	/**
+	 * Verify whether no options were requested, in which case the full
+	 * representation is returned.
+	 *
+	 * @return boolean - True if no options were requested.
+	 */
+	public boolean isDefault() {
+		return !hasFields() && links == null && view == null;
+	}
+
+	/**
+	 * Verify whether referential links should be left out of the representation.
+	 *
+	 * @return boolean - True if referential links are suppressed.
+	 */
+	public boolean isLinksSuppressed() {
+		return LINKS_NONE.equalsIgnoreCase(links);
+	}
+
+	/**
+	 * Verify whether the compact view was requested.
+	 *
+	 * @return boolean - True if the compact view was requested.
+	 */
+	public boolean isCompact() {
+		return VIEW_COMPACT.equalsIgnoreCase(view);
+	}
+
+	/**
+	 * Verify whether a field should be part of the representation.
+	 *
+	 * @param field String - Name of the field.
+	 * @return boolean - True if all fields were requested or the field was
+	 *         requested explicitly.
+	 */
+	public boolean includes(String field) {
+		return !hasFields() || getFieldNames().contains(field);
+	}
+
+	/**
+	 * Verify whether a field was requested explicitly.
+	 *
+	 * @param field String - Name of the field.
+	 * @return boolean - True if the field was requested explicitly.
+	 */
+	public boolean requests(String field) {
+		return hasFields() && getFieldNames().contains(field);
+	}
+
+	/**
+	 * Verify whether the options requested can be satisfied.
+	 *
+	 * @param supportedFields Collection<String> - Names of the fields that can be
+	 *                        requested.
+	 * @return boolean - True if the links and view options are recognised and all
+	 *         the fields requested are supported.
+	 */
+	public boolean isSupported(Collection<String> supportedFields) {
+		boolean linksSupported = links == null || LINKS_NONE.equalsIgnoreCase(links)
+				|| LINKS_ALL.equalsIgnoreCase(links);
+		boolean viewSupported = view == null || VIEW_COMPACT.equalsIgnoreCase(view)
+				|| VIEW_FULL.equalsIgnoreCase(view);
+
+		return linksSupported && viewSupported && supportedFields.containsAll(getFieldNames());
+	}
+
+	/**
+	 * Get the names of the fields requested.
+	 *
+	 * @return Set<String> - Names of the fields requested, empty if all fields
+	 *         are to be returned.
+	 */
+	public Set<String> getFieldNames() {
+		if (!hasFields()) {
+			return Collections.emptySet();
+		}
+
+		return Arrays.stream(fields.split(FIELD_SEPARATOR)).map(String::trim).filter(field -> !field.isEmpty())
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * Verify whether any fields were requested.
+	 *
+	 * @return boolean - True if any fields were requested.
+	 */
+	private boolean hasFields() {
+		return fields != null && !fields.trim().isEmpty();
+	}
+
+}
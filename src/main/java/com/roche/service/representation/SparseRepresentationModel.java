@@ -0,0 +1,61 @@
+package com.roche.service.representation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.hateoas.RepresentationModel;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+
+/**
+ * Representation made up of only the fields a client requested, in the order
+ * they were added, annotated with referential links.
+ *
+ * @author amit modhvadia
+ *
+ * @param <T> Type of the representation.
+ */
+public abstract class SparseRepresentationModel<T extends SparseRepresentationModel<? extends T>>
+		extends RepresentationModel<T> {
+
+	/**
+	 * Fields of this representation keyed by name.
+	 */
+	private final Map<String, Object> fields = new LinkedHashMap<String, Object>();
+
+	/**
+	 * Get the fields of this representation. Each field is serialized as a top
+	 * level property.
+	 *
+	 * @return Map<String, Object> - Fields keyed by name.
+	 */
+	@JsonAnyGetter
+	public Map<String, Object> getFields() {
+		return Collections.unmodifiableMap(fields);
+	}
+
+	/**
+	 * Add a field to this representation.
+	 *
+	 * @param name  String - Name of the field.
+	 * @param value Object - Value of the field.
+	 */
+	protected void put(String name, Object value) {
+		fields.put(name, value);
+	}
+
+	/**
+	 * Add a field to this representation if it is part of the fields requested.
+	 *
+	 * @param name    String - Name of the field.
+	 * @param value   Object - Value of the field.
+	 * @param options RepresentationOptions - Options requested.
+	 */
+	protected void putIfIncluded(String name, Object value, RepresentationOptions options) {
+		if (options.includes(name)) {
+			put(name, value);
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.roche.service.sharding;
+
+/**
+ * Shard the database connections of the current thread are routed to, none
+ * for the database of the service.
+ *
+ * @author amit modhvadia
+ *
+ */
+public final class OrderShardContext {
+
+	private static final ThreadLocal<Integer> SHARD = new ThreadLocal<Integer>();
+
+	private OrderShardContext() {
+	}
+
+	/**
+	 * Get the shard the connections of the current thread are routed to.
+	 *
+	 * @return Integer - Number of the shard, null for the database of the
+	 *         service.
+	 */
+	public static Integer current() {
+		return SHARD.get();
+	}
+
+	/**
+	 * Route the connections of the current thread to a shard.
+	 *
+	 * @param shard Integer - Number of the shard, null for the database of the
+	 *              service.
+	 */
+	static void set(Integer shard) {
+		if (shard == null) {
+			SHARD.remove();
+		} else {
+			SHARD.set(shard);
+		}
+	}
+
+}
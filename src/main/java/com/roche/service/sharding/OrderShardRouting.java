@@ -0,0 +1,379 @@
+package com.roche.service.sharding;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderAccess;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderSummary;
+
+/**
+ * Routes the requests and queries for orders to the shards holding them.
+ *
+ * A request for a single order, such as placing it or getting it by its order
+ * ID, runs against the shard of the order, which also holds a replica of the
+ * products, so that everything the request reads and writes is in that shard.
+ * New orders are placed in the shard of the hash of the buyer email.
+ *
+ * Outside of such a request, each repository method is routed by the orders it
+ * declares with OrderAccess: a query for one order runs against its shard, and
+ * a query for orders from several shards is run against each of them in
+ * parallel, with the orders loaded together with their products, and the
+ * results merged in order ID order. A page of results is merged from the
+ * results up to the end of the page from each shard. Queries run within a
+ * transaction that is already active stay on the database of the transaction.
+ *
+ * The service does not start unless every method of OrderRepository declares
+ * the orders it accesses, and does not take a Sort, as the results can only be
+ * merged in order ID order.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Aspect
+public class OrderShardRouting implements DisposableBean {
+
+	/**
+	 * Number of shards.
+	 */
+	private final int shards;
+
+	/**
+	 * Runs each query against a shard in a transaction of its own.
+	 */
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * Runs the queries against several shards in parallel.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor for Order Shard Routing.
+	 *
+	 * @param shards             int - Number of shards.
+	 * @param transactionManager PlatformTransactionManager - Manager of the
+	 *                           transactions the queries run in.
+	 */
+	public OrderShardRouting(int shards, PlatformTransactionManager transactionManager) {
+
+		for (Method method : OrderRepository.class.getMethods()) {
+			if (method.getAnnotation(OrderAccess.class) == null) {
+				throw new IllegalStateException("OrderRepository." + method.getName()
+						+ " does not declare the orders it accesses with OrderAccess, so cannot be routed to the shards");
+			}
+			if (List.of(method.getParameterTypes()).contains(Sort.class)) {
+				throw new IllegalStateException(
+						"OrderRepository." + method.getName() + " takes a Sort, which cannot be merged across the shards");
+			}
+		}
+
+		this.shards = shards;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(shards, runnable -> {
+			Thread thread = new Thread(runnable, "order-shard-" + threads.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Run a request for a single order against the shard of the order.
+	 *
+	 * @param joinPoint ProceedingJoinPoint - Invocation of the controller method.
+	 * @return Object - Response of the controller method.
+	 * @throws Throwable - Exception thrown by the controller method.
+	 */
+	@Around("execution(public * com.roche.service.order.OrderController.*(..))")
+	public Object routeRequest(ProceedingJoinPoint joinPoint) throws Throwable {
+
+		Integer shard = TransactionSynchronizationManager.isActualTransactionActive() ? null
+				: shardOfRequest(joinPoint.getArgs());
+
+		if (shard == null) {
+			return joinPoint.proceed();
+		}
+
+		Integer previousShard = OrderShardContext.current();
+		OrderShardContext.set(shard);
+		try {
+			return joinPoint.proceed();
+		} finally {
+			OrderShardContext.set(previousShard);
+		}
+	}
+
+	/**
+	 * Run a query for orders against the shards holding them.
+	 *
+	 * @param joinPoint ProceedingJoinPoint - Invocation of the repository method.
+	 * @return Object - Result of the repository method, merged across the shards.
+	 * @throws Throwable - Exception thrown by the repository method.
+	 */
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+			+ "&& this(com.roche.service.order.OrderRepository)")
+	@SuppressWarnings("unchecked")
+	public Object routeQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+
+		// Already routed by the request, or bound to the database of a transaction.
+		if (OrderShardContext.current() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+			return joinPoint.proceed();
+		}
+
+		OrderAccess access = ((MethodSignature) joinPoint.getSignature()).getMethod()
+				.getAnnotation(OrderAccess.class);
+		Object[] args = joinPoint.getArgs();
+
+		if (access == null) {
+			throw unsupported(joinPoint);
+		}
+
+		Map<Integer, Object[]> argsByShard = new LinkedHashMap<Integer, Object[]>();
+
+		switch (access.value()) {
+		case ORDER:
+			argsByShard.put(Integer.valueOf(shardOf((Order) args[0])), args);
+			break;
+		case ORDER_ID:
+			argsByShard.put(Integer.valueOf(shardOf((Long) args[0])), args);
+			break;
+		case ORDER_IDS:
+			Map<Integer, List<Long>> orderIDsByShard = new LinkedHashMap<Integer, List<Long>>();
+			for (Long orderID : (Iterable<Long>) args[0]) {
+				orderIDsByShard.computeIfAbsent(Integer.valueOf(shardOf(orderID)), shard -> new ArrayList<Long>())
+						.add(orderID);
+			}
+			orderIDsByShard.forEach((shard, orderIDs) -> argsByShard.put(shard, new Object[] { orderIDs }));
+			break;
+		default:
+			Object[] shardArgs = argsUpToEndOfPage(joinPoint, args);
+			for (int shard = 0; shard < shards; shard++) {
+				argsByShard.put(Integer.valueOf(shard), shardArgs);
+			}
+		}
+
+		if (argsByShard.size() == 1) {
+			Map.Entry<Integer, Object[]> only = argsByShard.entrySet().iterator().next();
+			return queryShard(joinPoint, only.getKey().intValue(), only.getValue());
+		}
+
+		return merge(joinPoint, args, queryShards(joinPoint, argsByShard));
+	}
+
+	/**
+	 * Stop running the queries against several shards.
+	 */
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Get the shard of the order requested, if the request is for a single order.
+	 */
+	private Integer shardOfRequest(Object[] args) {
+		for (Object arg : args) {
+			if (arg instanceof Long) {
+				return Integer.valueOf(shardOf((Long) arg));
+			}
+		}
+		for (Object arg : args) {
+			if (arg instanceof Order) {
+				return Integer.valueOf(shardOf((Order) arg));
+			}
+		}
+		return null;
+	}
+
+	private int shardOf(Order order) {
+		if (order.getOrderID() != null) {
+			return shardOf(order.getOrderID());
+		}
+		if (order.getBuyerEmail() == null) {
+			return 0;
+		}
+
+		int hash = order.getBuyerEmail().toLowerCase(Locale.ROOT).hashCode();
+		return Math.floorMod(hash ^ (hash >>> 16), shards);
+	}
+
+	private int shardOf(Long orderID) {
+		return ShardedOrderIDGenerator.shardOf(orderID.longValue(), shards);
+	}
+
+	/**
+	 * Run a query against a shard in a transaction of its own, loading the
+	 * products of the orders returned, which cannot be loaded from the shard once
+	 * the transaction has ended. The query is run through the repository, which is
+	 * not routed again once the shard is set.
+	 */
+	private Object queryShard(ProceedingJoinPoint joinPoint, int shard, Object[] args) throws Throwable {
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+
+		Integer previousShard = OrderShardContext.current();
+		OrderShardContext.set(Integer.valueOf(shard));
+		try {
+			return transactionTemplate.execute(status -> {
+				try {
+					return initializeProducts(method.invoke(joinPoint.getThis(), args));
+				} catch (IllegalAccessException iae) {
+					throw new IllegalStateException(iae);
+				} catch (InvocationTargetException ite) {
+					throw new CompletionException(ite.getCause());
+				}
+			});
+		} catch (CompletionException ce) {
+			throw ce.getCause();
+		} finally {
+			OrderShardContext.set(previousShard);
+		}
+	}
+
+	private List<Object> queryShards(ProceedingJoinPoint joinPoint, Map<Integer, Object[]> argsByShard)
+			throws Throwable {
+		List<CompletableFuture<Object>> futures = new ArrayList<CompletableFuture<Object>>();
+
+		argsByShard.forEach((shard, args) -> futures.add(CompletableFuture.supplyAsync(() -> {
+			try {
+				return queryShard(joinPoint, shard.intValue(), args);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable throwable) {
+				throw new CompletionException(throwable);
+			}
+		}, executor)));
+
+		List<Object> results = new ArrayList<Object>();
+		try {
+			for (CompletableFuture<Object> future : futures) {
+				results.add(future.join());
+			}
+		} catch (CompletionException ce) {
+			throw ce.getCause();
+		}
+		return results;
+	}
+
+	/**
+	 * Get the arguments of a query run against every shard, with a page replaced
+	 * by the results up to the end of the page, as the page may be made of the
+	 * results of any of the shards. Only pages in order ID order can be merged.
+	 */
+	private static Object[] argsUpToEndOfPage(ProceedingJoinPoint joinPoint, Object[] args) {
+		Object[] shardArgs = args.clone();
+
+		for (int index = 0; index < args.length; index++) {
+			if (args[index] instanceof Pageable && ((Pageable) args[index]).isPaged()) {
+				Pageable pageable = (Pageable) args[index];
+				if (!isInOrderIDOrder(pageable.getSort())) {
+					throw unsupported(joinPoint);
+				}
+
+				shardArgs[index] = PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()),
+						pageable.getSort());
+			}
+		}
+		return shardArgs;
+	}
+
+	private static boolean isInOrderIDOrder(Sort sort) {
+		return sort.stream().allMatch(order -> order.getProperty().equals("orderID") && order.isAscending());
+	}
+
+	/**
+	 * Merge the results of a query run against several shards.
+	 */
+	private static Object merge(ProceedingJoinPoint joinPoint, Object[] args, List<Object> results) {
+		Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+		Pageable pageable = Pageable.unpaged();
+
+		for (Object arg : args) {
+			if (arg instanceof Pageable) {
+				pageable = (Pageable) arg;
+			}
+		}
+
+		if (Collection.class.isAssignableFrom(returnType)) {
+			List<Object> merged = new ArrayList<Object>();
+			results.forEach(result -> merged.addAll((Collection<?>) result));
+
+			merged.sort(Comparator.comparing(OrderShardRouting::orderIDOf,
+					Comparator.nullsLast(Comparator.naturalOrder())));
+
+			if (!pageable.isPaged()) {
+				return merged;
+			}
+
+			int from = (int) Math.min(pageable.getOffset(), merged.size());
+			return new ArrayList<Object>(merged.subList(from, Math.min(from + pageable.getPageSize(), merged.size())));
+		}
+		if (returnType == long.class || returnType == Long.class) {
+			return Long.valueOf(results.stream().mapToLong(result -> ((Number) result).longValue()).sum());
+		}
+		if (returnType == Optional.class) {
+			return results.stream().map(result -> (Optional<?>) result).filter(Optional::isPresent).findFirst()
+					.orElse(Optional.empty());
+		}
+		if (returnType == void.class) {
+			return null;
+		}
+
+		throw unsupported(joinPoint);
+	}
+
+	private static UnsupportedOperationException unsupported(ProceedingJoinPoint joinPoint) {
+		return new UnsupportedOperationException(
+				joinPoint.getSignature().getName() + " is not supported for orders stored in shards");
+	}
+
+	private static Long orderIDOf(Object result) {
+		if (result instanceof Order) {
+			return ((Order) result).getOrderID();
+		}
+		if (result instanceof OrderSummary) {
+			return ((OrderSummary) result).getOrderID();
+		}
+		return result instanceof Long ? (Long) result : null;
+	}
+
+	private static Object initializeProducts(Object result) {
+		if (result instanceof Order) {
+			Hibernate.initialize(((Order) result).getProducts());
+		} else if (result instanceof Optional) {
+			((Optional<?>) result).ifPresent(OrderShardRouting::initializeProducts);
+		} else if (result instanceof Collection) {
+			((Collection<?>) result).forEach(OrderShardRouting::initializeProducts);
+		}
+		return result;
+	}
+
+}
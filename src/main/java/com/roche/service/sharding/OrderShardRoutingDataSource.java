@@ -0,0 +1,102 @@
+package com.roche.service.sharding;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Data source routing each connection to the shard of the current thread, or to
+ * the database of the service when there is none.
+ *
+ * The connection is chosen when it is obtained, so it is obtained lazily, when
+ * the first statement is run rather than when a transaction begins.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class OrderShardRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	/**
+	 * Database of the service, holding the products.
+	 */
+	private final HikariDataSource serviceDataSource;
+
+	/**
+	 * Shards holding the orders, by number.
+	 */
+	private final List<HikariDataSource> shardDataSources;
+
+	/**
+	 * Constructor for Order Shard Routing Data Source.
+	 *
+	 * @param serviceDataSource HikariDataSource - Database of the service, holding
+	 *                          the products.
+	 * @param shardDataSources  List<HikariDataSource> - Shards holding the orders,
+	 *                          by number.
+	 */
+	public OrderShardRoutingDataSource(HikariDataSource serviceDataSource, List<HikariDataSource> shardDataSources) {
+
+		super(route(serviceDataSource, shardDataSources));
+
+		this.serviceDataSource = serviceDataSource;
+		this.shardDataSources = List.copyOf(shardDataSources);
+	}
+
+	private static DataSource route(HikariDataSource serviceDataSource, List<HikariDataSource> shardDataSources) {
+		Map<Object, Object> targetDataSources = new HashMap<Object, Object>();
+		for (int shard = 0; shard < shardDataSources.size(); shard++) {
+			targetDataSources.put(Integer.valueOf(shard), shardDataSources.get(shard));
+		}
+
+		AbstractRoutingDataSource routingDataSource = new AbstractRoutingDataSource() {
+
+			@Override
+			protected Object determineCurrentLookupKey() {
+				return OrderShardContext.current();
+			}
+
+		};
+		routingDataSource.setTargetDataSources(targetDataSources);
+		routingDataSource.setDefaultTargetDataSource(serviceDataSource);
+		routingDataSource.setLenientFallback(false);
+		routingDataSource.afterPropertiesSet();
+		return routingDataSource;
+	}
+
+	/**
+	 * Get the database of the service.
+	 *
+	 * @return DataSource - Database of the service.
+	 */
+	public DataSource getServiceDataSource() {
+		return serviceDataSource;
+	}
+
+	/**
+	 * Get the shards holding the orders.
+	 *
+	 * @return List<? extends DataSource> - Shards, by number.
+	 */
+	public List<? extends DataSource> getShardDataSources() {
+		return shardDataSources;
+	}
+
+	/**
+	 * Close the connection pools of the shards and of the database of the
+	 * service.
+	 */
+	@Override
+	public void close() {
+		shardDataSources.forEach(HikariDataSource::close);
+		serviceDataSource.close();
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.roche.service.sharding;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductEvent;
+
+/**
+ * Replicates the products from the database of the service to each shard, so
+ * that the orders in a shard are placed and read together with their products
+ * within the shard.
+ *
+ * Every product is copied once the service has started, before it accepts
+ * requests, then each product created, replaced or deleted is copied once
+ * committed.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class ProductReplicator implements SmartInitializingSingleton {
+
+	private static final String SELECT_PRODUCTS = "select stock_keeping_unit_id, change_version, creation_date, "
+			+ "deletion_flag, product_name, price from product";
+
+	private static final String MERGE_PRODUCT = "merge into product (stock_keeping_unit_id, change_version, "
+			+ "creation_date, deletion_flag, product_name, price) key (stock_keeping_unit_id) values (?, ?, ?, ?, ?, ?)";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductReplicator.class);
+
+	/**
+	 * Database of the service, holding the products.
+	 */
+	private final JdbcTemplate serviceDatabase;
+
+	/**
+	 * Shards the products are copied to.
+	 */
+	private final List<JdbcTemplate> shards;
+
+	/**
+	 * Constructor for Product Replicator.
+	 *
+	 * @param serviceDataSource DataSource - Database of the service, holding the
+	 *                          products.
+	 * @param shardDataSources  List<? extends DataSource> - Shards the products
+	 *                          are copied to.
+	 */
+	public ProductReplicator(DataSource serviceDataSource, List<? extends DataSource> shardDataSources) {
+
+		this.serviceDatabase = new JdbcTemplate(serviceDataSource);
+		this.shards = shardDataSources.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+	}
+
+	/**
+	 * Copy every product to each shard, once the schema of the database of the
+	 * service has been created.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+
+		List<Object[]> products = serviceDatabase.query(SELECT_PRODUCTS, (resultSet, row) -> new Object[] {
+				resultSet.getObject(1), resultSet.getObject(2), resultSet.getObject(3), resultSet.getObject(4),
+				resultSet.getObject(5), resultSet.getObject(6) });
+
+		shards.forEach(shard -> shard.batchUpdate(MERGE_PRODUCT, products));
+
+		LOGGER.info("Replicated {} products to {} order shards", products.size(), shards.size());
+	}
+
+	/**
+	 * Copy a product created, replaced or marked for deletion to each shard, once
+	 * committed.
+	 *
+	 * @param event ProductEvent - Product changed.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void productChanged(ProductEvent event) {
+
+		Product product = event.getProduct();
+		Object[] row = new Object[] { product.getStockKeepingUnitID(), product.getChangeVersion(),
+				product.getCreationDate() == null ? null : new Timestamp(product.getCreationDate().getTime()),
+				product.getDeletionFlag(), product.getName(), product.getPrice() };
+
+		shards.forEach(shard -> shard.update(MERGE_PRODUCT, row));
+	}
+
+}
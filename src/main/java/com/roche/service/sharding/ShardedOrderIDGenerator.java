@@ -0,0 +1,66 @@
+package com.roche.service.sharding;
+
+import com.roche.service.identifier.IDGenerator;
+import com.roche.service.identifier.TimeOrderedIDGenerator;
+
+/**
+ * Generator of time ordered order IDs whose node ID is the number of the shard
+ * the order is stored in, so that the shard of an order is found from its order
+ * ID, and the order IDs are ordered by the time the orders were placed across
+ * the shards.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class ShardedOrderIDGenerator implements IDGenerator {
+
+	/**
+	 * Highest number of shards, one for each node ID.
+	 */
+	public static final int MAX_SHARDS = TimeOrderedIDGenerator.MAX_NODE_ID + 1;
+
+	/**
+	 * Generators of the order IDs, by shard.
+	 */
+	private final TimeOrderedIDGenerator[] generators;
+
+	/**
+	 * Constructor for Sharded Order ID Generator.
+	 *
+	 * @param shards int - Number of shards.
+	 */
+	public ShardedOrderIDGenerator(int shards) {
+
+		generators = new TimeOrderedIDGenerator[shards];
+		for (int shard = 0; shard < shards; shard++) {
+			generators[shard] = new TimeOrderedIDGenerator(shard);
+		}
+	}
+
+	/**
+	 * Generate the order ID of an order stored in the shard of the current thread.
+	 */
+	@Override
+	public long nextID() {
+		Integer shard = OrderShardContext.current();
+
+		if (shard == null) {
+			throw new IllegalStateException("Orders can only be given an order ID within their shard");
+		}
+
+		return generators[shard.intValue()].nextID();
+	}
+
+	/**
+	 * Get the shard an order is stored in.
+	 *
+	 * @param orderID long - Order ID of the order.
+	 * @param shards  int - Number of shards.
+	 * @return int - Number of the shard, which does not hold the order if it does
+	 *         not exist.
+	 */
+	public static int shardOf(long orderID, int shards) {
+		return Math.floorMod(TimeOrderedIDGenerator.nodeIDOf(orderID), shards);
+	}
+
+}
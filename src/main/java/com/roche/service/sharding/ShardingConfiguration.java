@@ -0,0 +1,122 @@
+package com.roche.service.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.roche.service.identifier.IDGenerator;
+import com.roche.service.identifier.OrderIDProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Stores the orders in embedded database shards rather than in the database of
+ * the service when order-service.sharding.enabled is true.
+ *
+ * The schema of each shard is created by the Flyway migrations. The orders are
+ * given time ordered order IDs whose node ID is their shard, so
+ * order-service.order-id.generator cannot also be set.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "order-service.sharding", name = "enabled")
+public class ShardingConfiguration {
+
+	/**
+	 * Open the database of the service and the shards, migrating the schema of
+	 * each shard, as the data source of the service.
+	 *
+	 * @param dataSourceProperties DataSourceProperties - Database of the service,
+	 *                             whose user name and password are used for the
+	 *                             shards.
+	 * @param properties           ShardingProperties - Number and location of the
+	 *                             shards.
+	 * @param orderIDProperties    OrderIDProperties - How the order IDs would be
+	 *                             generated without shards.
+	 * @return OrderShardRoutingDataSource - Data source routing the connections to
+	 *         the shards.
+	 */
+	@Bean(destroyMethod = "close")
+	public OrderShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+			ShardingProperties properties, OrderIDProperties orderIDProperties) {
+
+		if (properties.getShards() < 1 || properties.getShards() > ShardedOrderIDGenerator.MAX_SHARDS) {
+			throw new IllegalStateException("order-service.sharding.shards must be from 1 to "
+					+ ShardedOrderIDGenerator.MAX_SHARDS + " but was " + properties.getShards());
+		}
+		if (!"sequence".equals(orderIDProperties.getGenerator())) {
+			throw new IllegalStateException(
+					"order-service.order-id.generator cannot be set when the orders are stored in shards");
+		}
+
+		HikariDataSource serviceDataSource = dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class).build();
+
+		List<HikariDataSource> shardDataSources = new ArrayList<HikariDataSource>();
+		for (int shard = 0; shard < properties.getShards(); shard++) {
+			HikariDataSource shardDataSource = new HikariDataSource();
+			shardDataSource.setPoolName("order-shard-" + shard);
+			shardDataSource.setJdbcUrl(properties.getUrl().replace("{shard}", Integer.toString(shard)));
+			shardDataSource.setUsername(dataSourceProperties.determineUsername());
+			shardDataSource.setPassword(dataSourceProperties.determinePassword());
+
+			Flyway.configure().dataSource(shardDataSource).load().migrate();
+
+			shardDataSources.add(shardDataSource);
+		}
+
+		return new OrderShardRoutingDataSource(serviceDataSource, shardDataSources);
+	}
+
+	/**
+	 * Create the generator of the order IDs, which encodes the shard of each
+	 * order.
+	 *
+	 * @param properties ShardingProperties - Number of shards.
+	 * @return IDGenerator - Generator of the order IDs.
+	 */
+	@Bean
+	public IDGenerator shardedOrderIDGenerator(ShardingProperties properties) {
+		return new ShardedOrderIDGenerator(properties.getShards());
+	}
+
+	/**
+	 * Create the aspect routing the requests and queries for orders to the shards.
+	 *
+	 * @param properties         ShardingProperties - Number of shards.
+	 * @param transactionManager PlatformTransactionManager - Manager of the
+	 *                           transactions the queries run in.
+	 * @return OrderShardRouting - Aspect routing the requests and queries.
+	 */
+	@Bean
+	public OrderShardRouting orderShardRouting(ShardingProperties properties,
+			PlatformTransactionManager transactionManager) {
+		return new OrderShardRouting(properties.getShards(), transactionManager);
+	}
+
+	/**
+	 * Create the replicator of the products to the shards, which copies every
+	 * product when the service starts, even if the beans are created lazily.
+	 *
+	 * @param orderShardRoutingDataSource OrderShardRoutingDataSource - Database of
+	 *                                    the service and shards.
+	 * @return ProductReplicator - Replicator of the products.
+	 */
+	@Bean
+	@Lazy(false)
+	public ProductReplicator productReplicator(OrderShardRoutingDataSource orderShardRoutingDataSource) {
+		return new ProductReplicator(orderShardRoutingDataSource.getServiceDataSource(),
+				orderShardRoutingDataSource.getShardDataSources());
+	}
+
+}
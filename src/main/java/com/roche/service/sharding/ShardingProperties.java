@@ -0,0 +1,57 @@
+package com.roche.service.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Whether the orders are spread across database shards, how many and where,
+ * set as order-service.sharding.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.sharding")
+public class ShardingProperties {
+
+	/**
+	 * Whether the orders are stored in the shards rather than in the database of
+	 * the service.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Number of shards, which cannot change once orders have been placed.
+	 */
+	private int shards = 4;
+
+	/**
+	 * JDBC URL of each shard, where {shard} is replaced by the number of the
+	 * shard, from 0. The user name and password are those of the database of the
+	 * service.
+	 */
+	private String url = "jdbc:h2:~/data/order-shard-{shard}";
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getShards() {
+		return shards;
+	}
+
+	public void setShards(int shards) {
+		this.shards = shards;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+}
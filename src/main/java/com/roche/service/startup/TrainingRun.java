@@ -0,0 +1,53 @@
+package com.roche.service.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the service once it is ready when order-service.startup.training-run is
+ * true, so that a run recording the classes loaded at startup, for the class
+ * data sharing archive, ends by itself.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Component
+@ConditionalOnProperty(prefix = "order-service.startup", name = "training-run")
+public class TrainingRun {
+
+	/**
+	 * Context closed once the service is ready.
+	 */
+	private final ApplicationContext applicationContext;
+
+	/**
+	 * Constructor for Training Run.
+	 *
+	 * @param applicationContext ApplicationContext - Context closed once the
+	 *                           service is ready.
+	 */
+	public TrainingRun(ApplicationContext applicationContext) {
+		this.applicationContext = applicationContext;
+	}
+
+	/**
+	 * Close the context and exit once the service is ready, which is after the
+	 * warm-up when it is enabled.
+	 *
+	 * @param event AvailabilityChangeEvent<ReadinessState> - Change to whether the
+	 *              service is ready.
+	 */
+	@EventListener
+	public void readinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+
+		if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+			System.exit(SpringApplication.exit(applicationContext));
+		}
+	}
+
+}
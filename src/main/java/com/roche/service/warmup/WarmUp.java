@@ -0,0 +1,206 @@
+package com.roche.service.warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderController;
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductController;
+import com.roche.service.representation.RepresentationOptions;
+
+/**
+ * Runs synthetic traffic through the product and order controllers once the
+ * service has started, until the methods it exercises are compiled, so that
+ * the service only reports being ready once it is warm.
+ *
+ * Each iteration reads the request bodies as JSON, creates products, places an
+ * order for them, retrieves the order, its total amount, a product and the
+ * orders in the last minute, and writes each response as HAL. Each round of
+ * iterations runs in a transaction that is rolled back, so nothing it creates
+ * is committed, nor published to the listeners of the changes committed.
+ *
+ * @author amit modhvadia
+ *
+ */
+public class WarmUp {
+
+	private static final String PRODUCT = "{\"name\":\"Warm-up product %d\",\"price\":\"%d.25\"}";
+
+	private static final String ORDER = "{\"buyerEmail\":\"warm-up@example.com\",\"products\":[{\"stockKeepingUnitID\":%d},{\"stockKeepingUnitID\":%d}]}";
+
+	private static final DateTimeFormatter REQUEST_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH'A'mm")
+			.withZone(ZoneOffset.UTC);
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WarmUp.class);
+
+	/**
+	 * Controller the product requests are run through.
+	 */
+	private final ProductController productController;
+
+	/**
+	 * Controller the order requests are run through.
+	 */
+	private final OrderController orderController;
+
+	/**
+	 * Mapper reading the requests and writing the responses as HAL.
+	 */
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Runs each round in a transaction that is rolled back.
+	 */
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * Duration and rounds of the warm-up.
+	 */
+	private final WarmUpProperties properties;
+
+	/**
+	 * Constructor for Warm Up.
+	 *
+	 * @param productController  ProductController - Controller the product
+	 *                           requests are run through.
+	 * @param orderController    OrderController - Controller the order requests
+	 *                           are run through.
+	 * @param objectMapper       ObjectMapper - Mapper reading the requests and
+	 *                           writing the responses as HAL.
+	 * @param transactionManager PlatformTransactionManager - Manager of the
+	 *                           transactions rolled back after each round.
+	 * @param properties         WarmUpProperties - Duration and rounds of the
+	 *                           warm-up.
+	 */
+	public WarmUp(ProductController productController, OrderController orderController, ObjectMapper objectMapper,
+			PlatformTransactionManager transactionManager, WarmUpProperties properties) {
+
+		this.productController = productController;
+		this.orderController = orderController;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.properties = properties;
+	}
+
+	/**
+	 * Run the warm-up once the service has started, after the catalog is loaded,
+	 * so that the service reports being ready once it has finished.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void run() {
+
+		CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+		boolean compilationMonitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+
+		long startTime = System.nanoTime();
+		long deadline = startTime + properties.getMaxDuration().toNanos();
+		long settledCompilationTime = properties.getSettledCompilationTime().toMillis();
+
+		int rounds = 0;
+		int settledRounds = 0;
+		long compilationTime = compilationMonitored ? compilation.getTotalCompilationTime() : 0L;
+
+		try {
+			while (settledRounds < properties.getSettledRounds() && System.nanoTime() < deadline) {
+				runRound();
+				rounds++;
+
+				if (compilationMonitored) {
+					long previousCompilationTime = compilationTime;
+					compilationTime = compilation.getTotalCompilationTime();
+
+					// Compilation has settled once the rounds no longer trigger much of it.
+					settledRounds = compilationTime - previousCompilationTime < settledCompilationTime
+							? settledRounds + 1
+							: 0;
+				}
+			}
+		} catch (RuntimeException re) {
+
+			// A failed warm-up only leaves the service cold, so it still reports being
+			// ready.
+			LOGGER.warn("Warm-up failed after {} rounds", rounds, re);
+			return;
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+		if (settledRounds < properties.getSettledRounds()) {
+			LOGGER.warn("Warm-up stopped after {} rounds in {} ms before compilation settled", rounds, elapsed);
+		} else {
+			LOGGER.info("Warmed up in {} rounds in {} ms", rounds, elapsed);
+		}
+	}
+
+	/**
+	 * Run a round of iterations in a transaction that is rolled back.
+	 */
+	private void runRound() {
+		transactionTemplate.executeWithoutResult(status -> {
+			try {
+				for (int iteration = 0; iteration < properties.getRoundSize(); iteration++) {
+					runIteration(iteration);
+				}
+			} finally {
+				status.setRollbackOnly();
+			}
+		});
+	}
+
+	private void runIteration(int iteration) {
+		try {
+			Long firstSKU = createProduct(iteration);
+			Long secondSKU = createProduct(iteration + 1);
+
+			EntityModel<?> placedOrder = (EntityModel<?>) write(orderController
+					.newOrder(objectMapper.readValue(String.format(ORDER, firstSKU, secondSKU), Order.class)));
+			Long orderID = ((Order) placedOrder.getContent()).getOrderID();
+
+			write(orderController.one(orderID, new RepresentationOptions()));
+			write(orderController.totalAmount(orderID));
+			write(productController.one(firstSKU, new RepresentationOptions()));
+
+			Instant now = Instant.now();
+			write(orderController.filteredOrdersByTimePeriod(
+					REQUEST_DATE_FORMAT.format(now.minus(1, ChronoUnit.MINUTES)),
+					REQUEST_DATE_FORMAT.format(now.plus(1, ChronoUnit.MINUTES)), new RepresentationOptions()));
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+	private Long createProduct(int iteration) throws IOException {
+		Product product = objectMapper.readValue(String.format(PRODUCT, iteration, iteration), Product.class);
+
+		EntityModel<?> createdProduct = (EntityModel<?>) write(productController.newProduct(product));
+
+		return ((Product) createdProduct.getContent()).getStockKeepingUnitID();
+	}
+
+	/**
+	 * Write the body of a response as HAL, as it would be written to a client.
+	 */
+	private Object write(ResponseEntity<?> response) throws IOException {
+		objectMapper.writeValueAsBytes(response.getBody());
+		return response.getBody();
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.roche.service.warmup;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.order.OrderController;
+import com.roche.service.product.ProductController;
+
+/**
+ * Warms up the service before it reports being ready when
+ * order-service.warm-up.enabled is true.
+ *
+ * @author amit modhvadia
+ *
+ */
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+@ConditionalOnProperty(prefix = "order-service.warm-up", name = "enabled")
+public class WarmUpConfiguration {
+
+	/**
+	 * Create the warm-up.
+	 *
+	 * @param productController         ProductController - Controller the product
+	 *                                  requests are run through.
+	 * @param orderController           OrderController - Controller the order
+	 *                                  requests are run through.
+	 * @param objectMapper              ObjectMapper - Mapper for JSON, copied to
+	 *                                  read the requests and write the responses.
+	 * @param halMediaTypeConfiguration HalMediaTypeConfiguration - Configuration
+	 *                                  for rendering representation models as HAL.
+	 * @param transactionManager        PlatformTransactionManager - Manager of the
+	 *                                  transactions rolled back after each round.
+	 * @param properties                WarmUpProperties - Duration and rounds of
+	 *                                  the warm-up.
+	 * @return WarmUp - Warm-up run once the service has started.
+	 */
+	@Bean
+	public WarmUp warmUp(ProductController productController, OrderController orderController,
+			ObjectMapper objectMapper, HalMediaTypeConfiguration halMediaTypeConfiguration,
+			PlatformTransactionManager transactionManager, WarmUpProperties properties) {
+		return new WarmUp(productController, orderController,
+				halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy()), transactionManager, properties);
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.roche.service.warmup;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Whether, and for how long, synthetic traffic is run through the controllers
+ * before the service reports being ready, set as order-service.warm-up.*.
+ *
+ * @author amit modhvadia
+ *
+ */
+@ConfigurationProperties(prefix = "order-service.warm-up")
+public class WarmUpProperties {
+
+	/**
+	 * Whether the warm-up runs when the service starts.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Maximum time the warm-up runs for, after which the service reports being
+	 * ready even if compilation has not settled.
+	 */
+	private Duration maxDuration = Duration.ofSeconds(90);
+
+	/**
+	 * Number of iterations of the synthetic traffic in each round, run in a
+	 * single transaction that is rolled back.
+	 */
+	private int roundSize = 20;
+
+	/**
+	 * Compilation time in a round below which the hot methods are considered
+	 * compiled.
+	 */
+	private Duration settledCompilationTime = Duration.ofMillis(10);
+
+	/**
+	 * Number of consecutive rounds the compilation time has to stay below
+	 * settledCompilationTime for.
+	 */
+	private int settledRounds = 3;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Duration getMaxDuration() {
+		return maxDuration;
+	}
+
+	public void setMaxDuration(Duration maxDuration) {
+		this.maxDuration = maxDuration;
+	}
+
+	public int getRoundSize() {
+		return roundSize;
+	}
+
+	public void setRoundSize(int roundSize) {
+		this.roundSize = roundSize;
+	}
+
+	public Duration getSettledCompilationTime() {
+		return settledCompilationTime;
+	}
+
+	public void setSettledCompilationTime(Duration settledCompilationTime) {
+		this.settledCompilationTime = settledCompilationTime;
+	}
+
+	public int getSettledRounds() {
+		return settledRounds;
+	}
+
+	public void setSettledRounds(int settledRounds) {
+		this.settledRounds = settledRounds;
+	}
+
+}
@@ -0,0 +1,30 @@
+-- Schema of the products and orders, as mapped by Product and Order.
+
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table product (
+	stock_keeping_unit_id bigint not null,
+	change_version bigint,
+	creation_date timestamp,
+	deletion_flag boolean,
+	product_name varchar(255),
+	price double,
+	primary key (stock_keeping_unit_id)
+);
+
+create index PRODUCT_CHANGE_VERSION_INDEX on product (change_version);
+
+create table roche_order (
+	order_id bigint not null,
+	buyer_email varchar(255),
+	order_placed_time timestamp,
+	primary key (order_id)
+);
+
+create table product_order (
+	stock_keeping_unit_id bigint not null,
+	order_id bigint not null
+);
+
+alter table product_order add constraint PRODUCT_ORDER_ORDER_FK foreign key (order_id) references roche_order;
+alter table product_order add constraint PRODUCT_ORDER_PRODUCT_FK foreign key (stock_keeping_unit_id) references product;
@@ -0,0 +1,4 @@
+-- Orders are read by the time they were placed, one month or time period at a time.
+-- The index already exists in databases whose schema was updated by Hibernate.
+
+create index if not exists ORDER_PLACED_TIME_INDEX on roche_order (order_placed_time);
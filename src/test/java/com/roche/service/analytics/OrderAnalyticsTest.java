@@ -0,0 +1,114 @@
+package com.roche.service.analytics;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderServiceApplication;
+
+import io.restassured.http.ContentType;
+
+/**
+ * Verify the lines of the orders placed are held in memory, and loaded again
+ * from the database.
+ *
+ * A named in-memory database is used so that every connection sees the same
+ * database.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test", "spring.datasource.url=jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1",
+		"management.endpoints.web.exposure.include=orderanalytics" })
+class OrderAnalyticsTest {
+
+	private static final String ORDER_ANALYTICS_PATH = "actuator/orderanalytics";
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d}, {\"stockKeepingUnitID\":%d} ]}";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private OrderAnalytics orderAnalytics;
+
+	@Test
+	public void testOrderLinesAppendedAndLoaded() {
+
+		List<Number> orderIDs = new ArrayList<Number>();
+		List<Number> paracetamolSKUs = new ArrayList<Number>();
+		for (int buyer = 0; buyer < 3; buyer++) {
+			// Products of their own, so that each order is placed within the query budget.
+			Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+			Number panadolSKU = createProduct(PANADOL_500_MG);
+			paracetamolSKUs.add(paracetamolSKU);
+
+			orderIDs.add(given().contentType(ContentType.JSON).accept(ContentType.JSON)
+					.body(String.format(ORDER, buyer, paracetamolSKU, panadolSKU)).when().post(url("orders"))
+					.path("orderID"));
+		}
+
+		// The lines of each order placed are appended.
+		OrderLineStore orderLines = orderAnalytics.getOrderLines();
+		Assertions.assertEquals(6L, orderLines.size());
+		Assertions.assertEquals(3L * (562L + 829L), orderLines.sumPriceCents(OrderLineFilter.all()));
+
+		given().accept(ContentType.JSON).when().get(url(ORDER_ANALYTICS_PATH)).then().statusCode(200)
+				.body("orderLines", Matchers.is(6)).body("revenue", Matchers.is(41.73f))
+				.body("revenueByProduct.'" + paracetamolSKUs.get(0) + "'", Matchers.is(5.62f))
+				.body("ordersByHour.values().sum()", Matchers.is(3));
+
+		// One of the orders was placed in January 2020, and is loaded again as such.
+		new JdbcTemplate(dataSource).update(
+				"update roche_order set order_placed_time = timestamp '2020-01-15 12:30:00' where order_id = ?",
+				orderIDs.get(0));
+		orderAnalytics.load();
+
+		Assertions.assertNotSame(orderLines, orderAnalytics.getOrderLines());
+		Assertions.assertEquals(6L, orderAnalytics.getOrderLines().size());
+
+		given().accept(ContentType.JSON).when()
+				.get(url(ORDER_ANALYTICS_PATH + "?from=2020-01-01T00:00:00Z&to=2020-02-01T00:00:00Z")).then()
+				.statusCode(200).body("orderLines", Matchers.is(2)).body("revenue", Matchers.is(13.91f))
+				.body("ordersByHour.'2020-01-15T12:00:00Z'", Matchers.is(1));
+
+		given().accept(ContentType.JSON).when()
+				.get(url(ORDER_ANALYTICS_PATH + "?stockKeepingUnitID=" + paracetamolSKUs.get(1))).then()
+				.statusCode(200).body("orderLines", Matchers.is(1)).body("revenue", Matchers.is(5.62f));
+
+		given().accept(ContentType.JSON).when().get(url(ORDER_ANALYTICS_PATH + "?from=yesterday")).then()
+				.statusCode(400);
+	}
+
+	private Number createProduct(String productBody) {
+		return given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
+				.post(url("products")).path("stockKeepingUnitID");
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.roche.service.analytics;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verify the order lines are aggregated across chunks and filtered by time
+ * period and product.
+ *
+ * @author amit modhvadia
+ *
+ */
+class OrderLineStoreTest {
+
+	private static final Instant NINE_AM = Instant.parse("2021-03-01T09:00:00Z");
+
+	private static final Instant TEN_AM = Instant.parse("2021-03-01T10:00:00Z");
+
+	@Test
+	public void testOrderLinesAggregated() {
+
+		// Chunks of 4 lines, so that the orders span chunks.
+		OrderLineStore orderLines = new OrderLineStore(4);
+
+		orderLines.append(1L, NINE_AM.toEpochMilli(), new long[] { 10L, 20L }, new long[] { 562L, 829L });
+		orderLines.append(2L, NINE_AM.plusSeconds(1800).toEpochMilli(), new long[] { 10L, 10L, 30L },
+				new long[] { 562L, 562L, 100L });
+		orderLines.append(3L, TEN_AM.plusSeconds(59).toEpochMilli(), new long[] { 20L }, new long[] { 829L });
+		orderLines.append(4L, TEN_AM.plusSeconds(3600).toEpochMilli(), new long[0], new long[0]);
+
+		Assertions.assertEquals(6L, orderLines.size());
+		Assertions.assertEquals(6L, orderLines.count(OrderLineFilter.all()));
+		Assertions.assertEquals(3444L, orderLines.sumPriceCents(OrderLineFilter.all()));
+		Assertions.assertEquals(Map.of(10L, 1686L, 20L, 1658L, 30L, 100L),
+				orderLines.sumPriceCentsByProduct(OrderLineFilter.all()));
+
+		SortedMap<Instant, Long> ordersByHour = orderLines.countOrdersByHour(OrderLineFilter.all());
+		Assertions.assertEquals(Map.of(NINE_AM, 2L, TEN_AM, 1L), ordersByHour);
+
+		// The time period is to the minute, its end excluded.
+		OrderLineFilter nineToTen = OrderLineFilter.placedBetween(NINE_AM, TEN_AM);
+		Assertions.assertEquals(5L, orderLines.count(nineToTen));
+		Assertions.assertEquals(2615L, orderLines.sumPriceCents(nineToTen));
+		Assertions.assertEquals(829L, orderLines.sumPriceCents(OrderLineFilter.placedBetween(TEN_AM, null)));
+
+		OrderLineFilter product10 = OrderLineFilter.all().withProduct(10L);
+		Assertions.assertEquals(3L, orderLines.count(product10));
+		Assertions.assertEquals(Map.of(10L, 1686L), orderLines.sumPriceCentsByProduct(product10));
+		Assertions.assertEquals(Map.of(NINE_AM, 2L), orderLines.countOrdersByHour(product10));
+
+		Assertions.assertEquals(0L, orderLines.count(OrderLineFilter.placedBetween(null, NINE_AM)));
+	}
+
+	@Test
+	public void testOrderLinesCopiedWithoutTimePeriod() {
+
+		OrderLineStore orderLines = new OrderLineStore(2);
+
+		orderLines.append(1L, NINE_AM.toEpochMilli(), new long[] { 10L, 20L }, new long[] { 562L, 829L });
+		orderLines.append(2L, TEN_AM.toEpochMilli(), new long[] { 10L }, new long[] { 562L });
+		orderLines.append(3L, TEN_AM.plusSeconds(3600).toEpochMilli(), new long[] { 30L, 20L },
+				new long[] { 100L, 829L });
+
+		OrderLineStore kept = orderLines.without(OrderLineStore.epochMinuteOf(TEN_AM.toEpochMilli()),
+				OrderLineStore.epochMinuteOf(TEN_AM.plusSeconds(3600).toEpochMilli()));
+
+		Assertions.assertEquals(4L, kept.size());
+		Assertions.assertEquals(562L + 829L + 100L + 829L, kept.sumPriceCents(OrderLineFilter.all()));
+		Assertions.assertEquals(0L, kept.count(OrderLineFilter.placedBetween(TEN_AM, TEN_AM.plusSeconds(3600))));
+		Assertions.assertEquals(Map.of(NINE_AM, 1L, TEN_AM.plusSeconds(3600), 1L),
+				kept.countOrdersByHour(OrderLineFilter.all()));
+
+		// The lines copied from are left as they were.
+		Assertions.assertEquals(5L, orderLines.size());
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.roche.service.archive;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderServiceApplication;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * Verify the old orders are moved to the archive and still read by order ID and
+ * time period.
+ *
+ * A named in-memory database is used so that every connection sees the same
+ * database.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test", "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1",
+		"order-service.archive.enabled=true", "order-service.archive.directory=target/order-archive-${random.uuid}",
+		"order-service.archive.interval=PT1H" })
+class OrderArchiveTest {
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d}, {\"stockKeepingUnitID\":%d} ]}";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private OrderArchiver orderArchiver;
+
+	@Autowired
+	private OrderArchive orderArchive;
+
+	@Test
+	public void testOldOrdersArchivedAndRead() {
+
+		List<Number> orderIDs = new ArrayList<Number>();
+		for (int buyer = 0; buyer < 3; buyer++) {
+			// Products of their own, so that each order is placed within the query budget.
+			Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+			Number panadolSKU = createProduct(PANADOL_500_MG);
+
+			orderIDs.add(given().contentType(ContentType.JSON).accept(ContentType.JSON)
+					.body(String.format(ORDER, buyer, paracetamolSKU, panadolSKU)).when().post(url("orders"))
+					.path("orderID"));
+		}
+
+		// Two of the orders were placed in January 2020, long before the archive age.
+		JdbcTemplate database = new JdbcTemplate(dataSource);
+		database.update("update roche_order set order_placed_time = timestamp '2020-01-15 12:00:00' where order_id in (?, ?)",
+				orderIDs.get(0), orderIDs.get(1));
+
+		Assertions.assertEquals(2, orderArchiver.archive());
+		Assertions.assertEquals(0, orderArchiver.archive());
+		Assertions.assertEquals(1, orderArchive.getSegmentCount());
+
+		// The archived orders and their product links are gone from the database.
+		Assertions.assertEquals(1, database.queryForObject("select count(*) from roche_order", Integer.class).intValue());
+		Assertions.assertEquals(2,
+				database.queryForObject("select count(*) from product_order", Integer.class).intValue());
+
+		// An archived order is read by its order ID, with its products.
+		Number archivedOrderID = orderIDs.get(0);
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + archivedOrderID)).then().statusCode(200)
+				.body("buyerEmail", Matchers.equalTo("buyer0@testgmail.com"))
+				.body("products.name", Matchers.containsInAnyOrder("Paracetamol 500mg", "Panadol 500mg"));
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + archivedOrderID + "/calculatetotalamount")).then()
+				.statusCode(200).body("totalAmount", Matchers.equalTo(5.62f + 8.29f));
+
+		// The archived orders are read with the orders in the database by time period,
+		// whether the time period is read at once or in parts.
+		given().accept(ContentType.JSON).when().get(url("orders/2020-01-15T00A00/2020-01-16T00A00")).then()
+				.statusCode(200).body("_embedded.orderList.orderID", Matchers.contains(orderIDs.get(0), orderIDs.get(1)))
+				.body("_embedded.orderList.products.flatten().size()", Matchers.is(4));
+
+		Response wideTimePeriod = given().accept(ContentType.JSON).when()
+				.get(url("orders/2019-01-01T00A00/2099-01-01T00A00"));
+		wideTimePeriod.then().statusCode(200).body("_embedded.orderList.orderID",
+				Matchers.contains(orderIDs.get(0), orderIDs.get(1), orderIDs.get(2)));
+
+		given().accept(ContentType.JSON).when().get(url("orders/2020-01-15T00A00/2020-01-16T00A00?fields=orderID"))
+				.then().statusCode(200)
+				.body("_embedded.orderList.orderID", Matchers.contains(orderIDs.get(0), orderIDs.get(1)));
+
+		// The archived orders are read with the orders in the database by order IDs,
+		// in the order requested.
+		given().accept(ContentType.JSON).when()
+				.get(url("orders?ids=" + orderIDs.get(2) + "," + archivedOrderID + ",99999")).then().statusCode(200)
+				.body("_embedded.orderLookupList.status", Matchers.contains("FOUND", "FOUND", "NOT_FOUND"))
+				.body("_embedded.orderLookupList[1].orderID", Matchers.equalTo(archivedOrderID))
+				.body("_embedded.orderLookupList[1].order.buyerEmail", Matchers.equalTo("buyer0@testgmail.com"))
+				.body("_embedded.orderLookupList[1].order.products.name",
+						Matchers.containsInAnyOrder("Paracetamol 500mg", "Panadol 500mg"));
+
+		// Archived orders cannot be changed.
+		given().contentType(ContentType.JSON).accept(ContentType.JSON)
+				.body("{\"buyerEmail\":\"buyer0@testoutlook.com\"}").when().put(url("orders/" + archivedOrderID))
+				.then().statusCode(409);
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + archivedOrderID)).then()
+				.body("buyerEmail", Matchers.equalTo("buyer0@testgmail.com"));
+		Assertions.assertEquals(1, database.queryForObject("select count(*) from roche_order", Integer.class).intValue());
+	}
+
+	private Number createProduct(String productBody) {
+		return given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
+				.post(url("products")).path("stockKeepingUnitID");
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
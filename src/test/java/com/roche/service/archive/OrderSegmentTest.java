@@ -0,0 +1,61 @@
+package com.roche.service.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Verify the archived orders are read back from their segment as written.
+ *
+ * @author amit modhvadia
+ *
+ */
+class OrderSegmentTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testOrdersReadAsWritten() throws IOException {
+
+		List<ArchivedOrder> orders = List.of(
+				new ArchivedOrder(1_000_000_007L, "buyer1@testgmail.com", 1_577_836_800_000L, new long[] { 3, 1 }),
+				new ArchivedOrder(12L, null, 1_577_836_800_001L, new long[0]),
+				new ArchivedOrder(1_000_000_009L, "buyer1@testgmail.com", 1_580_515_200_000L, new long[] { 42 }));
+
+		OrderSegment written = OrderSegment.write(directory, orders);
+
+		// Only the segment itself is left in the directory.
+		try (Stream<Path> files = Files.list(directory)) {
+			Assertions.assertEquals(List.of(written.getFile()), files.collect(Collectors.toList()));
+		}
+
+		OrderSegment opened = OrderSegment.open(written.getFile());
+		Assertions.assertEquals(3, opened.getOrderCount());
+		Assertions.assertEquals(1_577_836_800_000L, opened.getMinOrderPlacedTime());
+		Assertions.assertTrue(opened.mayContain(12L));
+		Assertions.assertTrue(opened.mayContain(1_000_000_009L));
+		Assertions.assertFalse(opened.mayContain(11L));
+		Assertions.assertTrue(opened.overlaps(1_580_515_200_000L, 1_580_515_200_001L));
+		Assertions.assertFalse(opened.overlaps(1_580_515_200_001L, Long.MAX_VALUE));
+		Assertions.assertFalse(opened.overlaps(0L, 1_577_836_800_000L));
+
+		List<ArchivedOrder> read = opened.read();
+		Assertions.assertEquals(orders.size(), read.size());
+		for (int order = 0; order < orders.size(); order++) {
+			Assertions.assertEquals(orders.get(order).getOrderID(), read.get(order).getOrderID());
+			Assertions.assertEquals(orders.get(order).getBuyerEmail(), read.get(order).getBuyerEmail());
+			Assertions.assertEquals(orders.get(order).getOrderPlacedTime(), read.get(order).getOrderPlacedTime());
+			Assertions.assertArrayEquals(orders.get(order).getStockKeepingUnitIDs(),
+					read.get(order).getStockKeepingUnitIDs());
+		}
+	}
+
+}
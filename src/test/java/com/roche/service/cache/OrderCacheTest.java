@@ -0,0 +1,124 @@
+package com.roche.service.cache;
+
+import static io.restassured.RestAssured.given;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderServiceApplication;
+
+import io.restassured.http.ContentType;
+
+/**
+ * Verify an order, its products and its total amount are read from the order
+ * cache once the order was retrieved, and are read again from the database
+ * once its buyer email or one of its products changed.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test" })
+class OrderCacheTest {
+
+	private static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
+
+	private static final String UPDATED_PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"7.54\"}";
+
+	private static final String ORDER = "{\"buyerEmail\":\"john.turner@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d}, {\"stockKeepingUnitID\":%d} ]}";
+
+	private static final String UPDATED_ORDER = "{\"buyerEmail\":\"john.turner@testoutlook.com\"}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Test
+	public void testOrderReadFromCache() {
+
+		Number orderID = createOrder();
+
+		// The order is queried, then its products.
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "2");
+
+		// Held by the cache, so neither its products nor its total amount query the
+		// database.
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID + "/products")).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "0").body("_embedded.productList", Matchers.hasSize(2));
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID + "/calculatetotalamount")).then()
+				.statusCode(200).header(QUERY_COUNT_HEADER, "0").body("totalAmount", Matchers.is(13.91f));
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "0").body("products", Matchers.hasSize(2))
+				.body("_links.self.href", Matchers.endsWith("/orders/" + orderID));
+
+		given().accept(ContentType.TEXT).when().get(url("actuator/prometheus")).then().statusCode(200)
+				.body(Matchers.containsString("cache_gets_total{cache=\"orders\",result=\"hit\",} 3.0"))
+				.body(Matchers.containsString("cache_gets_total{cache=\"orders\",result=\"miss\",} 1.0"))
+				.body(Matchers.containsString("cache_evictions_total{cache=\"orders\",}"))
+				.body(Matchers.containsString("cache_memory_bytes{cache=\"orders\",}"));
+	}
+
+	@Test
+	public void testReplacedOrderEvicted() {
+
+		Number orderID = createOrder();
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID)).then().statusCode(200);
+
+		given().contentType(ContentType.JSON).accept(ContentType.JSON).body(UPDATED_ORDER).when()
+				.put(url("orders/" + orderID)).then().statusCode(201);
+
+		// Read again, with the buyer email it was replaced with.
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, Matchers.not("0"))
+				.body("buyerEmail", Matchers.is("john.turner@testoutlook.com"));
+	}
+
+	@Test
+	public void testTotalAmountReadAgainOnceProductReplaced() {
+
+		Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+		Number panadolSKU = createProduct(PANADOL_500_MG);
+		Number orderID = given().contentType(ContentType.JSON).accept(ContentType.JSON)
+				.body(String.format(ORDER, paracetamolSKU, panadolSKU)).when().post(url("orders")).path("orderID");
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID + "/calculatetotalamount")).then()
+				.statusCode(200).body("totalAmount", Matchers.is(13.91f));
+
+		given().contentType(ContentType.JSON).accept(ContentType.JSON).body(UPDATED_PARACETAMOL_500_MG).when()
+				.put(url("products/" + paracetamolSKU)).then().statusCode(201);
+
+		// Totalled again at the price the product was replaced with.
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID + "/calculatetotalamount")).then()
+				.statusCode(200).header(QUERY_COUNT_HEADER, Matchers.not("0")).body("totalAmount", Matchers.is(15.83f));
+	}
+
+	private Number createOrder() {
+		Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+		Number panadolSKU = createProduct(PANADOL_500_MG);
+
+		return given().contentType(ContentType.JSON).accept(ContentType.JSON)
+				.body(String.format(ORDER, paracetamolSKU, panadolSKU)).when().post(url("orders")).path("orderID");
+	}
+
+	private Number createProduct(String productBody) {
+		return given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
+				.post(url("products")).path("stockKeepingUnitID");
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.roche.service.cache;
+
+import static io.restassured.RestAssured.given;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderServiceApplication;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * Verify the products, and the products of each order, are read from the
+ * second-level cache without querying the database, and are updated in it when
+ * a product is replaced or marked for deletion.
+ *
+ * The product catalog and the order cache are turned off, so that the
+ * products and orders are looked up with the repositories.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test", "order-service.catalog.enabled=false",
+		"order-service.order-cache.enabled=false" })
+class SecondLevelCacheTest {
+
+	private static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
+
+	private static final String UPDATED_PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"7.54\"}";
+
+	private static final String ORDER = "{\"buyerEmail\":\"john.turner@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d}, {\"stockKeepingUnitID\":%d} ]}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testProductReadFromCache() {
+
+		Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+
+		// Cached when created, so retrieving it does not query the database.
+		given().accept(ContentType.JSON).when().get(url("products/" + paracetamolSKU)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "0").body("price", Matchers.is(5.62f));
+
+		Assertions.assertTrue(regionStatistics(SecondLevelCacheConfiguration.PRODUCT_REGION).getHitCount() > 0);
+	}
+
+	@Test
+	public void testReplacedProductUpdatedInCache() {
+
+		Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+
+		given().contentType(ContentType.JSON).accept(ContentType.JSON).body(UPDATED_PARACETAMOL_500_MG).when()
+				.put(url("products/" + paracetamolSKU)).then().statusCode(201);
+
+		// Still read from the cache, with the price it was replaced with.
+		given().accept(ContentType.JSON).when().get(url("products/" + paracetamolSKU)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "0").body("price", Matchers.is(7.54f));
+	}
+
+	@Test
+	public void testDeletedProductUpdatedInCache() {
+
+		Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+
+		given().accept(ContentType.JSON).when().delete(url("products/" + paracetamolSKU)).then().statusCode(204);
+
+		// Read from the cache as marked for deletion.
+		given().accept(ContentType.JSON).when().get(url("products/" + paracetamolSKU)).then().statusCode(404)
+				.header(QUERY_COUNT_HEADER, "0");
+	}
+
+	@Test
+	public void testOrderProductsReadFromCache() {
+
+		Number paracetamolSKU = createProduct(PARACETAMOL_500_MG);
+		Number panadolSKU = createProduct(PANADOL_500_MG);
+
+		Response placedOrderResponse = given().contentType(ContentType.JSON).accept(ContentType.JSON)
+				.body(String.format(ORDER, paracetamolSKU, panadolSKU)).when().post(url("orders"));
+		Number orderID = placedOrderResponse.path("orderID");
+
+		// The products are looked up in the cache, and only their orders are queried.
+		placedOrderResponse.then().statusCode(201).header(QUERY_COUNT_HEADER, "6");
+
+		// The order is queried, then its products, which are cached.
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "2");
+
+		// Only the order is queried.
+		given().accept(ContentType.JSON).when().get(url("orders/" + orderID)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "1").body("products", Matchers.hasSize(2));
+
+		Assertions.assertEquals(1L,
+				regionStatistics(SecondLevelCacheConfiguration.ORDER_PRODUCTS_REGION).getHitCount());
+
+		given().accept(ContentType.TEXT).when().get(url("actuator/prometheus")).then().statusCode(200)
+				.body(Matchers.containsString(
+						"hibernate_second_level_cache_requests_total{entityManagerFactory=\"entityManagerFactory\",result=\"hit\","));
+	}
+
+	private CacheRegionStatistics regionStatistics(String region) {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+				.getDomainDataRegionStatistics(region);
+	}
+
+	private Number createProduct(String productBody) {
+		return given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
+				.post(url("products")).path("stockKeepingUnitID");
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.roche.service.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.roche.service.product.Product;
+
+/**
+ * Verify writing and reading the catalog snapshot.
+ *
+ * @author amit modhvadia
+ *
+ */
+class CatalogSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+
+		Path file = directory.resolve("catalog.snapshot");
+		List<Product> products = Arrays.asList(product(1L, "Paracetamol 500mg", 5.62f, false, 3L),
+				product(2L, "Panadol 500mg", 8.29f, true, 2L), new Product(3L));
+
+		CatalogSnapshot.write(file, 3L, products);
+
+		CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+
+		Assertions.assertEquals(3L, snapshot.getVersion());
+		Assertions.assertEquals(products, snapshot.getProducts());
+		Assertions.assertEquals(Long.valueOf(3L), snapshot.getProducts().get(0).getChangeVersion());
+		Assertions.assertNull(snapshot.getProducts().get(2).getName());
+		Assertions.assertNull(snapshot.getProducts().get(2).getChangeVersion());
+	}
+
+	@Test
+	public void testReplaceSnapshot() throws IOException {
+
+		Path file = directory.resolve("catalog.snapshot");
+
+		CatalogSnapshot.write(file, 1L, Arrays.asList(product(1L, "Paracetamol 500mg", 5.62f, false, 1L)));
+		CatalogSnapshot.write(file, 2L, Arrays.asList(product(1L, "Paracetamol 500mg", 7.54f, false, 2L)));
+
+		CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+
+		Assertions.assertEquals(2L, snapshot.getVersion());
+		Assertions.assertEquals(Float.valueOf(7.54f), snapshot.getProducts().get(0).getPrice());
+
+		// Only the snapshot remains, without the temporary file it was written to.
+		Assertions.assertEquals(1L, Files.list(directory).count());
+	}
+
+	@Test
+	public void testCorruptSnapshot() throws IOException {
+
+		Path file = directory.resolve("catalog.snapshot");
+
+		CatalogSnapshot.write(file, 1L, Arrays.asList(product(1L, "Paracetamol 500mg", 5.62f, false, 1L)));
+
+		// Flip a byte of the product name.
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 'X' }), 45L);
+		}
+
+		Assertions.assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+
+		// A truncated snapshot.
+		Files.write(file, new byte[] { 0x50, 0x43 });
+
+		Assertions.assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+	}
+
+	private static Product product(Long stockKeepingUnitID, String name, float price, boolean deleted,
+			Long changeVersion) {
+		Product product = new Product(stockKeepingUnitID);
+		product.setName(name);
+		product.setPrice(Float.valueOf(price));
+		product.setCreationDate(new Date(1597622400000L));
+		product.setDeletionFlag(Boolean.valueOf(deleted));
+		product.setChangeVersion(changeVersion);
+		return product;
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.roche.service.catalog;
+
+import static io.restassured.RestAssured.given;
+
+import javax.sql.DataSource;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderServiceApplication;
+import com.roche.service.product.ProductChangeVersions;
+
+import io.restassured.http.ContentType;
+
+/**
+ * Verify the product catalog picks up a product changed in the database by
+ * another instance of the service once it is refreshed.
+ *
+ * The catalog is refreshed by the test rather than at intervals.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test", "order-service.catalog.refresh-interval=0" })
+class ProductCatalogTest {
+
+	private static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private ProductCatalog productCatalog;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	public void testProductChangedByAnotherInstanceRefreshed() {
+
+		Number paracetamolSKU = given().contentType(ContentType.JSON).accept(ContentType.JSON)
+				.body(PARACETAMOL_500_MG).when().post(url("products")).path("stockKeepingUnitID");
+
+		// Replaced as another instance would, without the catalog of this one
+		// hearing of it.
+		new JdbcTemplate(dataSource).update("update product set price = 7.54, change_version = next value for "
+				+ ProductChangeVersions.SEQUENCE + " where stock_keeping_unit_id = ?", paracetamolSKU);
+
+		given().accept(ContentType.JSON).when().get(url("products/" + paracetamolSKU)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "0").body("price", Matchers.is(5.62f));
+
+		Assertions.assertEquals(1, productCatalog.refresh());
+
+		given().accept(ContentType.JSON).when().get(url("products/" + paracetamolSKU)).then().statusCode(200)
+				.header(QUERY_COUNT_HEADER, "0").body("price", Matchers.is(7.54f));
+		Assertions.assertEquals(2L, productCatalog.getVersion());
+
+		// Read again, but already held at its change version.
+		Assertions.assertEquals(0, productCatalog.refresh());
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.roche.service.identifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.Order;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Verify the orders are given time ordered IDs with the node ID configured.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, properties = { "spring.profiles.active=test",
+		"order-service.order-id.generator=time-ordered", "order-service.order-id.node-id=5" })
+class OrderIDConfigurationTest {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	void timeOrderedOrderIDs() {
+
+		long before = System.currentTimeMillis();
+
+		Order firstOrder = orderRepository.save(new Order("john.turner@roche.com"));
+		Order secondOrder = orderRepository.save(new Order("steve.smith@roche.com"));
+
+		long firstOrderID = firstOrder.getOrderID().longValue();
+
+		assertThat(TimeOrderedIDGenerator.nodeIDOf(firstOrderID)).isEqualTo(5);
+		assertThat(TimeOrderedIDGenerator.timeOf(firstOrderID)).isBetween(before, System.currentTimeMillis());
+		assertThat(secondOrder.getOrderID()).isGreaterThan(firstOrder.getOrderID());
+	}
+
+}
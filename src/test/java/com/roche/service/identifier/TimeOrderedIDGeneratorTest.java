@@ -0,0 +1,108 @@
+package com.roche.service.identifier;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verify the time ordered IDs are unique, increase, and hold the time and node
+ * ID they were generated with.
+ *
+ * @author amit modhvadia
+ *
+ */
+class TimeOrderedIDGeneratorTest {
+
+	private static final long NOW = 1602288000000L;
+
+	@Test
+	public void testTimeAndNodeID() {
+
+		TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(42, () -> NOW);
+
+		long first = generator.nextID();
+		long second = generator.nextID();
+
+		Assertions.assertEquals(NOW, TimeOrderedIDGenerator.timeOf(first));
+		Assertions.assertEquals(42, TimeOrderedIDGenerator.nodeIDOf(first));
+		Assertions.assertEquals(first + 1, second);
+
+		// Instances with different node IDs generate different IDs at the same time.
+		Assertions.assertNotEquals(first, new TimeOrderedIDGenerator(43, () -> NOW).nextID());
+	}
+
+	@Test
+	public void testSequenceExhaustedAndClockGoingBack() {
+
+		AtomicLong clock = new AtomicLong(NOW);
+		TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(TimeOrderedIDGenerator.MAX_NODE_ID, clock::get);
+
+		long previous = 0L;
+		for (int index = 0; index < 4097; index++) {
+			long id = generator.nextID();
+			Assertions.assertTrue(id > previous);
+			previous = id;
+		}
+
+		// The 4097th ID in the millisecond is carried on to the next millisecond.
+		Assertions.assertEquals(NOW + 1, TimeOrderedIDGenerator.timeOf(previous));
+		Assertions.assertEquals(TimeOrderedIDGenerator.MAX_NODE_ID, TimeOrderedIDGenerator.nodeIDOf(previous));
+
+		clock.set(NOW - 1000L);
+
+		Assertions.assertTrue(generator.nextID() > previous);
+	}
+
+	@Test
+	public void testUniqueAcrossThreads() throws Exception {
+
+		TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(7);
+
+		Callable<long[]> task = () -> {
+			long[] ids = new long[20000];
+			for (int index = 0; index < ids.length; index++) {
+				ids[index] = generator.nextID();
+			}
+			return ids;
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<long[]>> results = new ArrayList<Future<long[]>>();
+			for (int thread = 0; thread < 4; thread++) {
+				results.add(executor.submit(task));
+			}
+
+			Set<Long> ids = new HashSet<Long>();
+			for (Future<long[]> result : results) {
+				long[] threadIDs = result.get();
+				for (int index = 0; index < threadIDs.length; index++) {
+					Assertions.assertTrue(ids.add(Long.valueOf(threadIDs[index])));
+
+					// The IDs generated by each thread increase.
+					Assertions.assertTrue(index == 0 || threadIDs[index] > threadIDs[index - 1]);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testInvalidNodeID() {
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIDGenerator(-1));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new TimeOrderedIDGenerator(TimeOrderedIDGenerator.MAX_NODE_ID + 1));
+	}
+
+}
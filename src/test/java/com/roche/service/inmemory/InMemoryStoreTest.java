@@ -0,0 +1,161 @@
+package com.roche.service.inmemory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.roche.service.order.Order;
+import com.roche.service.product.Product;
+
+/**
+ * Verify the in-memory store recovers its orders and products from the
+ * snapshot and the write-ahead log, and applies the changes of a transaction
+ * only once committed.
+ *
+ * @author amit modhvadia
+ *
+ */
+class InMemoryStoreTest {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testRecoveryFromSnapshotAndLog() throws IOException {
+
+		Path recovered = directory.resolve("recovered");
+		long orderID;
+
+		try (InMemoryStore store = open(directory.resolve("store"))) {
+			InMemoryProductRepository productRepository = new InMemoryProductRepository(store);
+			InMemoryOrderRepository orderRepository = new InMemoryOrderRepository(store);
+
+			Product paracetamol = productRepository.save(new Product("Paracetamol 500mg", Float.valueOf(5.62f)));
+			Product panadol = productRepository.save(new Product("Panadol 500mg", Float.valueOf(8.29f)));
+
+			Order order = new Order("john.turner@testgmail.com");
+			order.getProducts().add(paracetamol);
+			order.getProducts().add(panadol);
+			orderID = orderRepository.save(order).getOrderID().longValue();
+
+			store.writeSnapshot();
+
+			// Changed after the snapshot, so only in the log.
+			order.setBuyerEmail("john.turner@testoutlook.com");
+			orderRepository.save(order);
+			productRepository.delete(panadol);
+
+			// Copied while the store is open, as if the service had stopped without
+			// writing a snapshot.
+			copy(directory.resolve("store"), recovered);
+		}
+
+		try (InMemoryStore store = open(recovered)) {
+			InMemoryOrderRepository orderRepository = new InMemoryOrderRepository(store);
+
+			Order order = orderRepository.findById(Long.valueOf(orderID)).orElseThrow();
+			Assertions.assertEquals("john.turner@testoutlook.com", order.getBuyerEmail());
+			Assertions.assertEquals(List.of("Paracetamol 500mg"),
+					order.getProducts().stream().map(Product::getName).collect(Collectors.toList()));
+			Assertions.assertEquals(1L, new InMemoryProductRepository(store).count());
+
+			// The sequence continues after the IDs recovered.
+			Assertions.assertEquals(orderID + 1, store.nextOrderID());
+		}
+	}
+
+	@Test
+	public void testTransactionChangesAppliedOnCommit() throws IOException {
+
+		try (InMemoryStore store = open(directory)) {
+			InMemoryProductRepository productRepository = new InMemoryProductRepository(store);
+
+			Long rolledBack = inTransaction(() -> {
+				Long stockKeepingUnitID = productRepository.save(new Product("Paracetamol 500mg", Float.valueOf(5.62f)))
+						.getStockKeepingUnitID();
+				Assertions.assertTrue(productRepository.existsById(stockKeepingUnitID));
+				return stockKeepingUnitID;
+			}, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+			Assertions.assertFalse(productRepository.existsById(rolledBack));
+
+			Long committed = inTransaction(
+					() -> productRepository.save(new Product("Panadol 500mg", Float.valueOf(8.29f)))
+							.getStockKeepingUnitID(),
+					TransactionSynchronization.STATUS_COMMITTED);
+
+			Assertions.assertEquals("Panadol 500mg", productRepository.findById(committed).orElseThrow().getName());
+			Assertions.assertEquals(1L, productRepository.count());
+		}
+	}
+
+	@Test
+	public void testOrdersPlacedBetween() throws IOException {
+
+		try (InMemoryStore store = open(directory)) {
+			InMemoryOrderRepository orderRepository = new InMemoryOrderRepository(store);
+
+			for (long time = 1000L; time <= 5000L; time += 1000L) {
+				orderRepository.save(new Order(null, "buyer" + time + "@testgmail.com", new Date(time)));
+			}
+
+			// From the start date, included, to the end date, excluded.
+			Assertions.assertEquals(List.of("buyer2000@testgmail.com", "buyer3000@testgmail.com"),
+					orderRepository.findWithProductsByOrderPlacedTimeFrom(new Date(2000L), new Date(4000L)).stream()
+							.map(Order::getBuyerEmail).collect(Collectors.toList()));
+
+			// Up to the end date, included.
+			Assertions.assertEquals(3, orderRepository
+					.findByOrderPlacedTimeBetween(new Date(2000L), new Date(4000L)).size());
+		}
+	}
+
+	private static InMemoryStore open(Path directory) throws IOException {
+		return InMemoryStore.open(directory, SEGMENT_SIZE, false, null);
+	}
+
+	private static <T> T inTransaction(Supplier<T> work, int status) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			T result = work.get();
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+					.getSynchronizations();
+			if (status == TransactionSynchronization.STATUS_COMMITTED) {
+				TransactionSynchronizationUtils.triggerBeforeCommit(false);
+			}
+			TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+			return result;
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static void copy(Path from, Path to) throws IOException {
+		Files.createDirectories(to);
+		try (Stream<Path> files = Files.walk(from)) {
+			for (Path file : files.collect(Collectors.toList())) {
+				Path target = to.resolve(from.relativize(file).toString());
+				if (Files.isDirectory(file)) {
+					Files.createDirectories(target);
+				} else {
+					Files.copy(file, target);
+				}
+			}
+		}
+	}
+
+}
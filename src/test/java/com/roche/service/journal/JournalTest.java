@@ -0,0 +1,188 @@
+package com.roche.service.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roche.service.product.Product;
+import com.roche.service.product.ProductEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verify appending to and replaying the journal, and appending the committed
+ * changes to it.
+ *
+ * @author amit modhvadia
+ *
+ */
+class JournalTest {
+
+	private static final int SEGMENT_SIZE = 256;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testAppendAndReplay() throws IOException {
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			Assertions.assertEquals(0L, journal.getLastSequence());
+
+			Assertions.assertEquals(1L, journal.append(RecordType.PRODUCT_CREATED, payload("paracetamol")));
+			Assertions.assertEquals(2L, journal.append(RecordType.ORDER_PLACED, payload("john.turner")));
+
+			List<JournalRecord> records = replay(journal, 1L);
+
+			Assertions.assertEquals(2, records.size());
+			Assertions.assertEquals(1L, records.get(0).getSequence());
+			Assertions.assertEquals(RecordType.PRODUCT_CREATED, records.get(0).getType());
+			Assertions.assertEquals("paracetamol", text(records.get(0)));
+			Assertions.assertEquals(2L, records.get(1).getSequence());
+			Assertions.assertEquals(RecordType.ORDER_PLACED, records.get(1).getType());
+			Assertions.assertEquals("john.turner", text(records.get(1)));
+		}
+	}
+
+	@Test
+	public void testSegmentsAndReopen() throws IOException {
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			for (int index = 1; index <= 20; index++) {
+				journal.append(RecordType.ORDER_PLACED, payload("order " + index));
+			}
+		}
+
+		Assertions.assertTrue(segmentFiles().size() > 1);
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			Assertions.assertEquals(20L, journal.getLastSequence());
+			Assertions.assertEquals(21L, journal.append(RecordType.ORDER_BUYER_EMAIL_CHANGED, payload("order 21")));
+
+			List<JournalRecord> records = replay(journal, 15L);
+
+			Assertions.assertEquals(7, records.size());
+			for (int index = 0; index < records.size(); index++) {
+				Assertions.assertEquals(15L + index, records.get(index).getSequence());
+				Assertions.assertEquals("order " + (15 + index), text(records.get(index)));
+			}
+		}
+	}
+
+	@Test
+	public void testSegmentsDeletedBefore() throws IOException {
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			for (int index = 1; index <= 20; index++) {
+				journal.append(RecordType.ORDER_PLACED, payload("order " + index));
+			}
+			int segments = segmentFiles().size();
+
+			Assertions.assertTrue(journal.deleteSegmentsBefore(15L) > 0);
+
+			// The records from the sequence on are kept, as are the ones sharing their
+			// segment.
+			List<JournalRecord> records = replay(journal, 1L);
+			Assertions.assertTrue(records.get(0).getSequence() <= 15L);
+			Assertions.assertEquals(20L, records.get(records.size() - 1).getSequence());
+			Assertions.assertTrue(segmentFiles().size() < segments);
+
+			// The segment appended to is kept.
+			journal.deleteSegmentsBefore(Long.MAX_VALUE);
+			Assertions.assertEquals(1, segmentFiles().size());
+			Assertions.assertEquals(21L, journal.append(RecordType.ORDER_PLACED, payload("order 21")));
+		}
+	}
+
+	@Test
+	public void testIncompleteRecordDiscarded() throws IOException {
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			journal.append(RecordType.PRODUCT_CREATED, payload("paracetamol"));
+			journal.append(RecordType.PRODUCT_CREATED, payload("panadol"));
+		}
+
+		// Corrupt the payload of the second record, as if written partly.
+		Path segment = segmentFiles().get(0);
+		int secondPayloadPosition = 2 * (Journal.RECORD_HEADER_LENGTH + Journal.BODY_HEADER_LENGTH)
+				+ "paracetamol".length();
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 'x' }), secondPayloadPosition);
+		}
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			Assertions.assertEquals(1L, journal.getLastSequence());
+			Assertions.assertEquals(2L, journal.append(RecordType.PRODUCT_CREATED, payload("nurofen")));
+
+			List<JournalRecord> records = replay(journal, 1L);
+
+			Assertions.assertEquals(2, records.size());
+			Assertions.assertEquals("paracetamol", text(records.get(0)));
+			Assertions.assertEquals("nurofen", text(records.get(1)));
+		}
+	}
+
+	@Test
+	public void testRecordLargerThanSegment() throws IOException {
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			Assertions.assertThrows(IllegalArgumentException.class,
+					() -> journal.append(RecordType.ORDER_PLACED, new byte[SEGMENT_SIZE]));
+		}
+	}
+
+	@Test
+	public void testChangeNotAppendedCounted() throws IOException {
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+		try (Journal journal = Journal.open(directory, SEGMENT_SIZE, false)) {
+			JournalEventListener listener = new JournalEventListener(journal, new ObjectMapper(), meterRegistry);
+
+			// Too large for a segment, so logged and counted rather than failing the
+			// request that committed it.
+			listener.productChanged(new ProductEvent(ProductEvent.Type.CREATED,
+					new Product("Paracetamol 500mg ".repeat(20), Float.valueOf(5.62f))));
+			listener.productChanged(
+					new ProductEvent(ProductEvent.Type.CREATED, new Product("Panadol 500mg", Float.valueOf(8.29f))));
+
+			Assertions.assertEquals(1.0,
+					meterRegistry.get("journal.append.failures").tag("type", "PRODUCT_CREATED").counter().count());
+			Assertions.assertEquals(1L, journal.getLastSequence());
+		}
+	}
+
+	private static List<JournalRecord> replay(Journal journal, long fromSequence) throws IOException {
+		List<JournalRecord> records = new ArrayList<JournalRecord>();
+		journal.replay(fromSequence, records::add);
+		return records;
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().collect(Collectors.toList());
+		}
+	}
+
+	private static byte[] payload(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String text(JournalRecord record) {
+		return new String(record.getPayloadBytes(), StandardCharsets.UTF_8);
+	}
+
+}
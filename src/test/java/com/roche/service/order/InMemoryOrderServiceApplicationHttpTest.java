@@ -0,0 +1,58 @@
+package com.roche.service.order;
+
+import static io.restassured.RestAssured.given;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * Verify the API for the Order Service with the orders and products kept in the
+ * in-memory store.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = { "spring.profiles.active=test,inmemory",
+		"order-service.in-memory.directory=target/in-memory-${random.uuid}" }, webEnvironment = WebEnvironment.RANDOM_PORT)
+class InMemoryOrderServiceApplicationHttpTest extends OrderServiceApplicationHttpTest {
+
+	private static final String ORDERS_URL = "http://localhost:%d/orders/%d";
+
+	private static final String QUERY_COUNT_HEADER = "X-Query-Count";
+	private static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
+	private static final String JOHN_TURNER_ORDER = "{\"buyerEmail\":\"john.turner@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":1}, {\"stockKeepingUnitID\":2} ]}";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
+
+	@Test
+	@Override
+	public void testQueryCountHeaders() {
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Response johnTurnerOrderResponse = createOrder(JOHN_TURNER_ORDER);
+		Integer johnTurnerOrderID = johnTurnerOrderResponse.getBody().path("orderID");
+
+		// Neither placing nor retrieving the order queries the database.
+		johnTurnerOrderResponse.then().header(QUERY_COUNT_HEADER, Matchers.equalTo("0"));
+
+		Response retrievedOrderResponse = given().accept(ContentType.JSON).when()
+				.get(String.format(ORDERS_URL, serverPort, johnTurnerOrderID));
+
+		retrievedOrderResponse.then().statusCode(Matchers.equalTo(200));
+		retrievedOrderResponse.then().header(QUERY_COUNT_HEADER, Matchers.equalTo("0"));
+		retrievedOrderResponse.then().header(ENTITY_LOAD_COUNT_HEADER, Matchers.equalTo("0"));
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.roche.service.order;
+
+import static io.restassured.RestAssured.given;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import io.restassured.http.ContentType;
+
+/**
+ * Verify the orders within a wide time period are read in parallel parts and
+ * merged in the order they were placed.
+ *
+ * A named in-memory database is used so that every connection sees the same
+ * database.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "spring.profiles.active=test",
+		"spring.datasource.url=jdbc:h2:mem:range-scan;DB_CLOSE_DELAY=-1", "order-service.range-scan.split-size=P7D",
+		"order-service.range-scan.parallelism=4" })
+class OrderRangeScanTest {
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d} ]}";
+
+	private static final String PRODUCT = "{\"name\": \"Product %d\",\"price\": \"5.62\"}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	public void testWideTimePeriodReadInParallelParts() {
+
+		List<Number> orderIDs = new ArrayList<Number>();
+		for (int buyer = 0; buyer < 4; buyer++) {
+			Number sku = given().contentType(ContentType.JSON).accept(ContentType.JSON)
+					.body(String.format(PRODUCT, buyer)).when().post(url("products")).path("stockKeepingUnitID");
+
+			orderIDs.add(given().contentType(ContentType.JSON).accept(ContentType.JSON)
+					.body(String.format(ORDER, buyer, sku)).when().post(url("orders")).path("orderID"));
+		}
+
+		// Three of the orders were placed in 2021, in a different order to their order
+		// IDs, and the last one now.
+		JdbcTemplate database = new JdbcTemplate(dataSource);
+		String backdate = "update roche_order set order_placed_time = ? where order_id = ?";
+		database.update(backdate, timestamp("2021-11-20T10:15:00Z"), orderIDs.get(0));
+		database.update(backdate, timestamp("2021-02-03T08:00:00Z"), orderIDs.get(1));
+		database.update(backdate, timestamp("2021-06-30T23:59:00Z"), orderIDs.get(2));
+
+		given().accept(ContentType.JSON).when().get(url("orders/2021-01-01T00A00/2021-12-31T23A59")).then()
+				.statusCode(200)
+				.body("_embedded.orderList.orderID",
+						Matchers.contains(orderIDs.get(1), orderIDs.get(2), orderIDs.get(0)))
+				.body("_embedded.orderList.buyerEmail",
+						Matchers.contains("buyer1@testgmail.com", "buyer2@testgmail.com", "buyer0@testgmail.com"))
+				.body("_embedded.orderList.products.name.flatten()",
+						Matchers.contains("Product 1", "Product 2", "Product 0"))
+				.body("_embedded.orderList[0]._links.self.href",
+						Matchers.endsWith("/orders/" + orderIDs.get(1)))
+				.body("_embedded.orderList[0].products[0]._links.self.href", Matchers.containsString("/products/"))
+				.body("_links.self.href", Matchers.endsWith("/orders"));
+
+		// The end date is included.
+		given().accept(ContentType.JSON).when().get(url("orders/2021-02-03T08A00/2021-06-30T23A59")).then()
+				.statusCode(200)
+				.body("_embedded.orderList.orderID", Matchers.contains(orderIDs.get(1), orderIDs.get(2)));
+	}
+
+	@Test
+	public void testSplit() {
+
+		List<Date[]> parts = OrderRangeScan.split(new Date(0L), new Date(25L), 10L);
+
+		Assertions.assertEquals(3, parts.size());
+		Assertions.assertEquals(0L, parts.get(0)[0].getTime());
+		Assertions.assertEquals(10L, parts.get(0)[1].getTime());
+		Assertions.assertEquals(20L, parts.get(2)[0].getTime());
+		Assertions.assertEquals(26L, parts.get(2)[1].getTime());
+	}
+
+	private static Timestamp timestamp(String instant) {
+		return Timestamp.from(Instant.parse(instant));
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
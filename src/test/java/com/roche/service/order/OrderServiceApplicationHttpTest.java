@@ -2,22 +2,60 @@ package com.roche.service.order;
 
 import static io.restassured.RestAssured.given;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.roche.service.diagnostics.OrderPlacementEvent;
+import com.roche.service.diagnostics.OrderPlacementStageEvent;
+import com.roche.service.diagnostics.RepositoryQueryEvent;
+import com.roche.service.journal.Journal;
+import com.roche.service.journal.JournalRecord;
+import com.roche.service.journal.RecordType;
+
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * Verify the API for the Order Service.
@@ -37,6 +75,10 @@ class OrderServiceApplicationHttpTest {
 	private static final String ORDERS_PATH = "orders";
 	private static final String PRODUCTS_PATH = "products";
 	private static final String TOTAL_AMOUNT_PATH = "calculatetotalamount";
+	private static final String FLIGHT_RECORDING_PATH = "actuator/flightrecording";
+	private static final String STREAM_PATH = "stream";
+
+	private static final long STREAM_TIMEOUT_SECONDS = 10;
 
 	private static final String WRONG_PATH = "order";
 	private static final String TOTAL_AMOUNT_WRONG_PATH = "calculateamount";
@@ -46,6 +88,7 @@ class OrderServiceApplicationHttpTest {
 	private static final int NO_CONTENT = 204;
 	private static final int BAD_REQUEST = 400;
 	private static final int NOT_FOUND = 404;
+	private static final int NOT_ACCEPTABLE = 406;
 
 	private static final String JOHN_TURNER_ORDER = "{\"buyerEmail\":\"john.turner@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":1}, {\"stockKeepingUnitID\":2} ]}";
 	private static final String STEVE_SMITH_ORDER = "{\"buyerEmail\":\"steve.smith@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":2} ]}";
@@ -53,6 +96,13 @@ class OrderServiceApplicationHttpTest {
 	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
 	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
 
+	private static final String APPLICATION_CBOR = "application/cbor";
+	private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+	private static final String APPLICATION_PROTOBUF = "application/x-protobuf";
+
+	private static final String QUERY_COUNT_HEADER = "X-Query-Count";
+	private static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
 	private static final int NON_EXISTING_ORDER_ID = 99999;
 
 	private static final String UPDATED_JOHN_TURNER_ORDER = "{\"buyerEmail\":\"john.turner@testoutlook.com\"}";
@@ -60,7 +110,10 @@ class OrderServiceApplicationHttpTest {
 	private static final float TOTAL_ORDER_AMOUNT_EXPECTED = 5.62f + 8.29f;
 
 	@LocalServerPort
-	private int serverPort;
+	int serverPort;
+
+	@Autowired
+	private Journal journal;
 
 	@Test
 	public void testPlaceNewOrder() {
@@ -169,6 +222,149 @@ class OrderServiceApplicationHttpTest {
 
 	}
 
+	@Test
+	public void testRetrieveOrdersByIDs() {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Response johnTurnerOrderResponse = createOrder(JOHN_TURNER_ORDER);
+		Response steveSmithOrderResponse = createOrder(STEVE_SMITH_ORDER);
+		Integer johnTurnerOrderID = johnTurnerOrderResponse.getBody().path("orderID");
+		Integer steveSmithOrderID = steveSmithOrderResponse.getBody().path("orderID");
+
+		Response retrievedOrdersResponse = given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ "?ids=" + steveSmithOrderID + "," + NON_EXISTING_ORDER_ID + "," + johnTurnerOrderID);
+
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList", Matchers.hasSize(3));
+
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[0].orderID", Matchers.equalTo(steveSmithOrderID));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[0].status", Matchers.equalTo("FOUND"));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[0].order.buyerEmail",
+				Matchers.equalTo("steve.smith@testgmail.com"));
+
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[1].orderID",
+				Matchers.equalTo(NON_EXISTING_ORDER_ID));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[1].status", Matchers.equalTo("NOT_FOUND"));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[1].order", Matchers.equalTo(null));
+
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[2].orderID", Matchers.equalTo(johnTurnerOrderID));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[2].order.products", Matchers.hasSize(2));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[2].order.products[0].stockKeepingUnitID",
+				Matchers.equalTo(paracetamol500MGResponse.getBody().path("stockKeepingUnitID")));
+		retrievedOrdersResponse.then().body("_embedded.orderLookupList[2].order._links.self.href",
+				Matchers.endsWith(ORDERS_PATH + PATH_SEPARATOR + Integer.toString(johnTurnerOrderID)));
+
+		retrievedOrdersResponse.then().statusCode(Matchers.equalTo(OK));
+	}
+
+	@Test
+	public void testRetrieveOrdersByTooManyIDs() {
+
+		// Up to order-service.lookup.max-ids order IDs, 100 by default, are looked up.
+		String maxIDs = LongStream.rangeClosed(1, 100).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+		given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ "?ids=" + maxIDs)
+				.then().statusCode(Matchers.equalTo(OK)).body("_embedded.orderLookupList", Matchers.hasSize(100));
+
+		given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ "?ids=" + maxIDs + ",101")
+				.then().statusCode(Matchers.equalTo(BAD_REQUEST));
+	}
+
+	@Test
+	public void testRetrieveOrdersWithSelectedFieldsAndNoLinks() {
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Response johnTurnerOrderResponse = createOrder(JOHN_TURNER_ORDER);
+
+		Response retrievedOrdersResponse = given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ "?fields=orderID,orderPlacedTime,totalAmount&links=none");
+
+		retrievedOrdersResponse.then().body("_embedded.orderList[0].orderID",
+				Matchers.equalTo(johnTurnerOrderResponse.getBody().path("orderID")));
+		retrievedOrdersResponse.then().body("_embedded.orderList[0].orderPlacedTime", Matchers.notNullValue());
+		retrievedOrdersResponse.then().body("_embedded.orderList[0].totalAmount",
+				Matchers.equalTo(TOTAL_ORDER_AMOUNT_EXPECTED));
+		retrievedOrdersResponse.then().body("_embedded.orderList[0]", Matchers.not(Matchers.hasKey("buyerEmail")));
+		retrievedOrdersResponse.then().body("_embedded.orderList[0]", Matchers.not(Matchers.hasKey("products")));
+		retrievedOrdersResponse.then().body("_embedded.orderList[0]", Matchers.not(Matchers.hasKey("_links")));
+		retrievedOrdersResponse.then().body("$", Matchers.not(Matchers.hasKey("_links")));
+
+		retrievedOrdersResponse.then().statusCode(Matchers.equalTo(OK));
+	}
+
+	@Test
+	public void testRetrieveOrderWithSelectedFields() {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Response johnTurnerOrderResponse = createOrder(JOHN_TURNER_ORDER);
+		Integer johnTurnerOrderID = johnTurnerOrderResponse.getBody().path("orderID");
+
+		Response retrievedOrderResponse = given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ PATH_SEPARATOR + Integer.toString(johnTurnerOrderID) + "?fields=orderID,products,totalAmount");
+
+		retrievedOrderResponse.then().body("orderID", Matchers.equalTo(johnTurnerOrderID));
+		retrievedOrderResponse.then().body("totalAmount", Matchers.equalTo(TOTAL_ORDER_AMOUNT_EXPECTED));
+		retrievedOrderResponse.then().body("$", Matchers.not(Matchers.hasKey("buyerEmail")));
+		retrievedOrderResponse.then().body("products[0].stockKeepingUnitID",
+				Matchers.equalTo(paracetamol500MGResponse.getBody().path("stockKeepingUnitID")));
+		retrievedOrderResponse.then().body("products[0]._links.products.href", Matchers.endsWith(PRODUCTS_PATH));
+		retrievedOrderResponse.then().body("_links.self.href",
+				Matchers.endsWith(ORDERS_PATH + PATH_SEPARATOR + Integer.toString(johnTurnerOrderID)));
+
+		retrievedOrderResponse.then().statusCode(Matchers.equalTo(OK));
+	}
+
+	@Test
+	public void testRetrieveOrdersWithCompactView() {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+		Response panadol500MGResponse = createProduct(PANADOL_500_MG);
+		Integer paracetamol500MGSKUID = paracetamol500MGResponse.getBody().path("stockKeepingUnitID");
+		Integer panadol500MGSKUID = panadol500MGResponse.getBody().path("stockKeepingUnitID");
+
+		createOrder(JOHN_TURNER_ORDER);
+		createOrder(STEVE_SMITH_ORDER);
+
+		Response retrievedOrdersResponse = given().accept(ContentType.JSON).when().get(URL_PREFIX + SERVER_HOST
+				+ SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH + "?view=compact");
+
+		retrievedOrdersResponse.then().body("_embedded.orderList[0].products",
+				Matchers.contains(paracetamol500MGSKUID, panadol500MGSKUID));
+		retrievedOrdersResponse.then().body("_embedded.orderList[1].products", Matchers.contains(panadol500MGSKUID));
+
+		// Panadol 500mg is part of both orders but is only included once.
+		retrievedOrdersResponse.then().body("_included", Matchers.hasSize(2));
+		retrievedOrdersResponse.then().body("_included[0].stockKeepingUnitID", Matchers.equalTo(paracetamol500MGSKUID));
+		retrievedOrdersResponse.then().body("_included[1].stockKeepingUnitID", Matchers.equalTo(panadol500MGSKUID));
+		retrievedOrdersResponse.then().body("_included[1].name", Matchers.equalTo("Panadol 500mg"));
+		retrievedOrdersResponse.then().body("_included[1]._links.self.href",
+				Matchers.endsWith(PRODUCTS_PATH + PATH_SEPARATOR + Integer.toString(panadol500MGSKUID)));
+		retrievedOrdersResponse.then().body("_links.self.href", Matchers.endsWith(ORDERS_PATH));
+
+		retrievedOrdersResponse.then().statusCode(Matchers.equalTo(OK));
+	}
+
+	@Test
+	public void testRetrieveOrdersWithUnknownField() {
+
+		Response retrievedOrdersResponse = given().accept(ContentType.JSON).when().get(URL_PREFIX + SERVER_HOST
+				+ SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH + "?fields=orderID,discount");
+
+		retrievedOrdersResponse.then().statusCode(Matchers.equalTo(BAD_REQUEST));
+	}
+
 	@Test
 	public void testRetrieveNoOrders() {
 
@@ -458,6 +654,241 @@ class OrderServiceApplicationHttpTest {
 		retrievedOrderAmountWrongPathResponse.then().statusCode(Matchers.equalTo(BAD_REQUEST));
 	}
 
+	@Test
+	public void testRetrieveOrderAsCbor() throws IOException {
+
+		verifyBinaryOrderResponse(APPLICATION_CBOR, new ObjectMapper(new CBORFactory()));
+	}
+
+	@Test
+	public void testRetrieveOrderAsSmile() throws IOException {
+
+		verifyBinaryOrderResponse(APPLICATION_SMILE, new ObjectMapper(new SmileFactory()));
+	}
+
+	@Test
+	public void testPlaceNewOrderAsProtobuf() throws IOException {
+
+		createProduct(PARACETAMOL_500_MG);
+		Response panadol500MGResponse = createProduct(PANADOL_500_MG);
+		Integer panadol500MGSKUID = panadol500MGResponse.getBody().path("stockKeepingUnitID");
+
+		// Order message - products (2) with Stock Keeping Unit ID (1), buyer email (3).
+		ByteArrayOutputStream orderBytes = new ByteArrayOutputStream();
+		CodedOutputStream orderOutput = CodedOutputStream.newInstance(orderBytes);
+		ByteArrayOutputStream productBytes = new ByteArrayOutputStream();
+		CodedOutputStream productOutput = CodedOutputStream.newInstance(productBytes);
+		productOutput.writeInt64(1, panadol500MGSKUID);
+		productOutput.flush();
+		orderOutput.writeByteArray(2, productBytes.toByteArray());
+		orderOutput.writeString(3, "steve.smith@testgmail.com");
+		orderOutput.flush();
+
+		Response steveSmithOrderResponse = given().contentType(APPLICATION_PROTOBUF).accept(APPLICATION_PROTOBUF)
+				.body(orderBytes.toByteArray()).when()
+				.post(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH);
+
+		steveSmithOrderResponse.then().statusCode(Matchers.equalTo(CREATED));
+		steveSmithOrderResponse.then().contentType(Matchers.startsWith(APPLICATION_PROTOBUF));
+
+		CodedInputStream orderInput = CodedInputStream.newInstance(steveSmithOrderResponse.asByteArray());
+		long orderID = 0L;
+		String buyerEmail = null;
+		String productName = null;
+		int links = 0;
+
+		for (int tag = orderInput.readTag(); tag != 0; tag = orderInput.readTag()) {
+			switch (WireFormat.getTagFieldNumber(tag)) {
+			case 1:
+				orderID = orderInput.readInt64();
+				break;
+			case 2:
+				CodedInputStream productInput = CodedInputStream.newInstance(orderInput.readByteArray());
+				for (int productTag = productInput.readTag(); productTag != 0; productTag = productInput.readTag()) {
+					if (WireFormat.getTagFieldNumber(productTag) == 2) {
+						productName = productInput.readString();
+					} else {
+						productInput.skipField(productTag);
+					}
+				}
+				break;
+			case 3:
+				buyerEmail = orderInput.readString();
+				break;
+			case 5:
+				links++;
+				orderInput.skipField(tag);
+				break;
+			default:
+				orderInput.skipField(tag);
+			}
+		}
+
+		Assertions.assertTrue(orderID > 0L);
+		Assertions.assertEquals("steve.smith@testgmail.com", buyerEmail);
+		Assertions.assertEquals("Panadol 500mg", productName);
+		Assertions.assertEquals(2, links);
+	}
+
+	@Test
+	public void testProtobufNotAcceptableForViewsAndLookups() {
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+		Integer johnTurnerOrderID = createOrder(JOHN_TURNER_ORDER).getBody().path("orderID");
+
+		String ordersURL = URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR
+				+ ORDERS_PATH;
+
+		// Lookups, known from the declared type of the response.
+		given().accept(APPLICATION_PROTOBUF).when().get(ordersURL + "?ids=" + johnTurnerOrderID).then()
+				.statusCode(Matchers.equalTo(NOT_ACCEPTABLE));
+
+		// Views of the fields requested, and the compact view with its _included
+		// section, only known from the response.
+		given().accept(APPLICATION_PROTOBUF).when().get(ordersURL + "?fields=orderID").then()
+				.statusCode(Matchers.equalTo(NOT_ACCEPTABLE));
+
+		given().accept(APPLICATION_PROTOBUF).when().get(ordersURL + "?view=compact").then()
+				.statusCode(Matchers.equalTo(NOT_ACCEPTABLE));
+
+		// The full representation is still written.
+		given().accept(APPLICATION_PROTOBUF).when().get(ordersURL).then().statusCode(Matchers.equalTo(OK))
+				.contentType(Matchers.startsWith(APPLICATION_PROTOBUF));
+	}
+
+	@Test
+	public void testFlightRecordingOfNewOrder() throws IOException {
+
+		String flightRecordingURL = URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR
+				+ FLIGHT_RECORDING_PATH;
+
+		given().contentType(ContentType.JSON).body("{\"settings\":\"default\"}").when().post(flightRecordingURL)
+				.then().statusCode(Matchers.equalTo(OK)).body("state", Matchers.equalTo("RUNNING"));
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+		Integer johnTurnerOrderID = createOrder(JOHN_TURNER_ORDER).getBody().path("orderID");
+
+		Response stoppedResponse = given().accept(ContentType.JSON).when().delete(flightRecordingURL);
+		stoppedResponse.then().statusCode(Matchers.equalTo(OK));
+
+		Path recordingFile = Paths.get(stoppedResponse.getBody().<String>path("file"));
+
+		try {
+			List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+
+			// Each stage of placing the order, with the products looked up and associated
+			// once each.
+			Map<String, Long> stages = events.stream()
+					.filter(event -> event.getEventType().getName().equals(OrderPlacementStageEvent.NAME))
+					.collect(Collectors.groupingBy(event -> event.getString("stage"), Collectors.counting()));
+
+			Assertions.assertEquals(2L, stages.get(OrderPlacementStageEvent.PRODUCT_LOOKUP));
+			Assertions.assertEquals(2L, stages.get(OrderPlacementStageEvent.PRODUCT_ORDERS_INITIALIZATION));
+			Assertions.assertEquals(1L, stages.get(OrderPlacementStageEvent.SAVE));
+			Assertions.assertEquals(1L, stages.get(OrderPlacementStageEvent.LINK_ASSEMBLY));
+
+			// The order placed.
+			RecordedEvent placement = events.stream()
+					.filter(event -> event.getEventType().getName().equals(OrderPlacementEvent.NAME)).findFirst()
+					.orElseThrow();
+			Assertions.assertEquals(johnTurnerOrderID.longValue(), placement.getLong("orderID"));
+			Assertions.assertEquals(2, placement.getInt("productCount"));
+
+			// The repository queries with the rows returned.
+			Assertions.assertTrue(events.stream()
+					.filter(event -> event.getEventType().getName().equals(RepositoryQueryEvent.NAME))
+					.anyMatch(event -> event.getString("repository").equals("ProductRepository")
+							&& event.getString("method").equals("findById") && event.getInt("rowCount") == 1));
+		} finally {
+			Files.deleteIfExists(recordingFile);
+		}
+	}
+
+	@Test
+	public void testQueryCountHeaders() {
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Response johnTurnerOrderResponse = createOrder(JOHN_TURNER_ORDER);
+		Integer johnTurnerOrderID = johnTurnerOrderResponse.getBody().path("orderID");
+
+		// Each product is read from the second-level cache and its orders loaded.
+		johnTurnerOrderResponse.then().header(QUERY_COUNT_HEADER, Matchers.equalTo("6"));
+
+		Response retrievedOrderResponse = given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ PATH_SEPARATOR + Integer.toString(johnTurnerOrderID));
+
+		// The order, then its products.
+		retrievedOrderResponse.then().statusCode(Matchers.equalTo(OK));
+		retrievedOrderResponse.then().header(QUERY_COUNT_HEADER, Matchers.equalTo("2"));
+		retrievedOrderResponse.then().header(ENTITY_LOAD_COUNT_HEADER, Matchers.equalTo("3"));
+	}
+
+	@Test
+	public void testJournalOfNewOrder() throws IOException {
+
+		long lastSequence = journal.getLastSequence();
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+		Integer johnTurnerOrderID = createOrder(JOHN_TURNER_ORDER).getBody().path("orderID");
+
+		List<JournalRecord> records = new ArrayList<JournalRecord>();
+		journal.replay(lastSequence + 1, records::add);
+
+		Assertions.assertEquals(
+				List.of(RecordType.PRODUCT_CREATED, RecordType.PRODUCT_CREATED, RecordType.ORDER_PLACED),
+				records.stream().map(JournalRecord::getType).collect(Collectors.toList()));
+
+		JsonNode placedOrder = new ObjectMapper().readTree(records.get(2).getPayloadBytes());
+		Assertions.assertEquals(johnTurnerOrderID.longValue(), placedOrder.path("orderID").asLong());
+		Assertions.assertEquals("john.turner@testgmail.com", placedOrder.path("buyerEmail").asText());
+		Assertions.assertEquals(2, placedOrder.path("products").size());
+	}
+
+	@Test
+	public void testStreamNewOrders() throws Exception {
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		BlockingQueue<String> lines = openOrderStream(null);
+
+		Integer johnTurnerOrderID = createOrder(JOHN_TURNER_ORDER).getBody().path("orderID");
+
+		Map<String, String> event = nextEvent(lines);
+		Assertions.assertEquals(Integer.toString(johnTurnerOrderID), event.get("id"));
+		Assertions.assertEquals("newOrder", event.get("event"));
+
+		JsonNode order = new ObjectMapper().readTree(event.get("data"));
+		Assertions.assertEquals("john.turner@testgmail.com", order.path("buyerEmail").asText());
+		Assertions.assertEquals(2, order.path("products").size());
+		Assertions.assertTrue(order.path("_links").has("self"));
+	}
+
+	@Test
+	public void testStreamResumesFromLastEventID() throws Exception {
+
+		createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Integer johnTurnerOrderID = createOrder(JOHN_TURNER_ORDER).getBody().path("orderID");
+		Integer steveSmithOrderID = createOrder(STEVE_SMITH_ORDER).getBody().path("orderID");
+
+		// Resume after the first order, then receive the orders placed from now on.
+		BlockingQueue<String> lines = openOrderStream(johnTurnerOrderID);
+
+		Assertions.assertEquals(Integer.toString(steveSmithOrderID), nextEvent(lines).get("id"));
+
+		Integer nextOrderID = createOrder(STEVE_SMITH_ORDER).getBody().path("orderID");
+
+		Assertions.assertEquals(Integer.toString(nextOrderID), nextEvent(lines).get("id"));
+	}
+
 	@Test
 	public void testWrongPaths() {
 
@@ -468,6 +899,69 @@ class OrderServiceApplicationHttpTest {
 
 	}
 
+	private BlockingQueue<String> openOrderStream(Integer lastEventID) throws Exception {
+		HttpRequest.Builder request = HttpRequest
+				.newBuilder(URI.create(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR
+						+ ORDERS_PATH + PATH_SEPARATOR + STREAM_PATH))
+				.header("Accept", "text/event-stream");
+		if (lastEventID != null) {
+			request.header("Last-Event-ID", Integer.toString(lastEventID));
+		}
+
+		BlockingQueue<String> lines = new LinkedBlockingQueue<String>();
+		HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request.build(),
+				BodyHandlers.ofLines());
+		Assertions.assertEquals(OK, response.statusCode());
+
+		Thread reader = new Thread(() -> response.body().forEach(lines::add));
+		reader.setDaemon(true);
+		reader.start();
+
+		return lines;
+	}
+
+	private static Map<String, String> nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+		Map<String, String> fields = new HashMap<String, String>();
+		String line;
+		while ((line = lines.poll(STREAM_TIMEOUT_SECONDS, TimeUnit.SECONDS)) != null) {
+			if (line.isEmpty()) {
+				if (!fields.isEmpty()) {
+					return fields;
+				}
+			} else if (!line.startsWith("retry:")) {
+				int separator = line.indexOf(':');
+				fields.put(line.substring(0, separator), line.substring(separator + 1));
+			}
+		}
+		throw new AssertionError("No event received within " + STREAM_TIMEOUT_SECONDS + " seconds");
+	}
+
+	private void verifyBinaryOrderResponse(String mediaType, ObjectMapper objectMapper) throws IOException {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+		createProduct(PANADOL_500_MG);
+
+		Response johnTurnerOrderResponse = createOrder(JOHN_TURNER_ORDER);
+		Integer johnTurnerOrderID = johnTurnerOrderResponse.getBody().path("orderID");
+
+		Response retrievedOrderResponse = given().accept(mediaType).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH
+						+ PATH_SEPARATOR + Integer.toString(johnTurnerOrderID));
+
+		retrievedOrderResponse.then().statusCode(Matchers.equalTo(OK));
+		retrievedOrderResponse.then().contentType(Matchers.startsWith(mediaType));
+
+		JsonNode order = objectMapper.readTree(retrievedOrderResponse.asByteArray());
+
+		Assertions.assertEquals(johnTurnerOrderID.longValue(), order.path("orderID").asLong());
+		Assertions.assertEquals("john.turner@testgmail.com", order.path("buyerEmail").asText());
+		Assertions.assertEquals(paracetamol500MGResponse.getBody().<Integer>path("stockKeepingUnitID").longValue(),
+				order.path("products").path(0).path("stockKeepingUnitID").asLong());
+		Assertions.assertEquals("Panadol 500mg", order.path("products").path(1).path("name").asText());
+		Assertions.assertTrue(order.path("_links").path("self").path("href").asText()
+				.endsWith(ORDERS_PATH + PATH_SEPARATOR + Integer.toString(johnTurnerOrderID)));
+	}
+
 	private void verifyProductResponse(int index, Response retrievedOrderResponse, Response createdProductResponse) {
 
 		retrievedOrderResponse.then().body("_embedded.productList[" + index + "].stockKeepingUnitID",
@@ -484,13 +978,13 @@ class OrderServiceApplicationHttpTest {
 				Matchers.endsWith(PRODUCTS_PATH));
 	}
 
-	private Response createProduct(String productBody) {
+	Response createProduct(String productBody) {
 		Response response = given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
 				.post(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH);
 		return response;
 	}
 
-	private Response createOrder(String orderBody) {
+	Response createOrder(String orderBody) {
 		Response response = given().contentType(ContentType.JSON).accept(ContentType.JSON).body(orderBody).when()
 				.post(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + ORDERS_PATH);
 		return response;
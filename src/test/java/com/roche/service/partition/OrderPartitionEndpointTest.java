@@ -0,0 +1,124 @@
+package com.roche.service.partition;
+
+import static io.restassured.RestAssured.given;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.analytics.OrderAnalytics;
+import com.roche.service.analytics.OrderLineFilter;
+import com.roche.service.order.OrderServiceApplication;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * Verify old months of orders are archived and deleted from the orders read
+ * and counted by the service.
+ *
+ * A named in-memory database is used so that every connection sees the same
+ * database.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test", "spring.datasource.url=jdbc:h2:mem:partition;DB_CLOSE_DELAY=-1",
+		"management.endpoints.web.exposure.include=orderpartitions" })
+class OrderPartitionEndpointTest {
+
+	private static final String ORDER_PARTITIONS_PATH = "actuator/orderpartitions";
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d} ]}";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private OrderAnalytics orderAnalytics;
+
+	@Test
+	public void testOldMonthDetached() {
+
+		List<Number> orderIDs = new ArrayList<Number>();
+		for (int buyer = 0; buyer < 3; buyer++) {
+			Number sku = given().contentType(ContentType.JSON).accept(ContentType.JSON).body(PARACETAMOL_500_MG)
+					.when().post(url("products")).path("stockKeepingUnitID");
+
+			orderIDs.add(given().contentType(ContentType.JSON).accept(ContentType.JSON)
+					.body(String.format(ORDER, buyer, sku)).when().post(url("orders")).path("orderID"));
+		}
+
+		// Two of the orders were placed in January 2020.
+		JdbcTemplate database = new JdbcTemplate(dataSource);
+		database.update("update roche_order set order_placed_time = timestamp '2020-01-15 12:00:00' where order_id in (?, ?)",
+				orderIDs.get(0), orderIDs.get(1));
+		orderAnalytics.load();
+
+		OrderLineFilter january = OrderLineFilter.placedBetween(Instant.parse("2020-01-01T00:00:00Z"),
+				Instant.parse("2020-02-01T00:00:00Z"));
+		Assertions.assertEquals(2L, orderAnalytics.getOrderLines().count(january));
+
+		String currentMonth = YearMonth.now(ZoneOffset.UTC).toString();
+
+		given().accept(ContentType.JSON).when().get(url(ORDER_PARTITIONS_PATH)).then().statusCode(200)
+				.body("attached.'2020-01'", Matchers.is(2)).body("attached.'" + currentMonth + "'", Matchers.is(1))
+				.body("detached", Matchers.empty());
+
+		given().accept(ContentType.JSON).when().get(url("orders/2020-01-01T00A00/2020-02-01T00A00")).then()
+				.statusCode(200).body("_embedded.orderList.size()", Matchers.is(2));
+
+		given().accept(ContentType.JSON).when().delete(url(ORDER_PARTITIONS_PATH + "?month=2020-01")).then()
+				.statusCode(200).body("table", Matchers.equalTo("ROCHE_ORDER_2020_01")).body("orders", Matchers.is(2));
+
+		// The detached orders are no longer read or counted, but kept with their
+		// product links.
+		Assertions.assertEquals(0L, orderAnalytics.getOrderLines().count(january));
+		Assertions.assertEquals(1L, orderAnalytics.getOrderLines().size());
+
+		given().accept(ContentType.JSON).when().get(url("orders/2020-01-01T00A00/2020-02-01T00A00")).then()
+				.statusCode(200).body("_embedded", Matchers.nullValue());
+
+		Response allOrders = given().accept(ContentType.JSON).when().get(url("orders"));
+		allOrders.then().statusCode(200).body("_embedded.orderList.orderID", Matchers.contains(orderIDs.get(2)));
+
+		given().accept(ContentType.JSON).when().get(url(ORDER_PARTITIONS_PATH)).then().statusCode(200)
+				.body("attached.'2020-01'", Matchers.nullValue()).body("detached", Matchers.contains("2020-01"));
+
+		Assertions.assertEquals(2,
+				database.queryForObject("select count(*) from roche_order_2020_01", Integer.class).intValue());
+		Assertions.assertEquals(2,
+				database.queryForObject("select count(*) from product_order_2020_01", Integer.class).intValue());
+
+		// Only months before the current month can be detached.
+		given().accept(ContentType.JSON).when().delete(url(ORDER_PARTITIONS_PATH + "?month=" + currentMonth)).then()
+				.statusCode(400);
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.roche.service.product;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+/**
+ * Verify the API for the Product Service with the products kept in the
+ * in-memory store.
+ * 
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = { "spring.profiles.active=test,inmemory",
+		"order-service.in-memory.directory=target/in-memory-${random.uuid}" }, webEnvironment = WebEnvironment.RANDOM_PORT)
+class InMemoryProductServiceApplicationHttpTest extends ProductServiceApplicationHttpTest {
+
+}
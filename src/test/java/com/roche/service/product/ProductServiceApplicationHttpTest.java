@@ -2,8 +2,14 @@ package com.roche.service.product;
 
 import static io.restassured.RestAssured.given;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.web.server.LocalServerPort;
@@ -30,16 +36,23 @@ class ProductServiceApplicationHttpTest {
 
 	private static final String PRODUCTS_PATH = "products";
 
+	private static final String CHANGES_PATH = "products/changes?since=";
+
+	private static final String PROMETHEUS_PATH = "actuator/prometheus";
+
 	private static final String WRONG_PATH = "product";
 
 	private static final int OK = 200;
 	private static final int CREATED = 201;
 	private static final int NO_CONTENT = 204;
+	private static final int BAD_REQUEST = 400;
 	private static final int NOT_FOUND = 404;
 
 	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
 	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
 
+	private static final String PARACETAMOL_500_MG_CREATED_IN_2001 = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\",\"creationDate\": \"2001-01-01T00:00:00.000+00:00\"}";
+
 	private static final String UPDATED_PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"7.54\"}";
 
 	private static final int NON_EXISTING_PRODUCT_ID = 99999;
@@ -47,6 +60,9 @@ class ProductServiceApplicationHttpTest {
 	@LocalServerPort
 	private int serverPort;
 
+	@Autowired
+	private ProductChangeVersions changeVersions;
+
 	@Test
 	public void testCreateNewProduct() {
 
@@ -64,6 +80,16 @@ class ProductServiceApplicationHttpTest {
 		response.then().statusCode(Matchers.equalTo(CREATED));
 	}
 
+	@Test
+	public void testCreateNewProductIgnoresCreationDate() {
+
+		Response response = createProduct(PARACETAMOL_500_MG_CREATED_IN_2001);
+
+		// The creation date is set by the service, not by the request.
+		response.then().statusCode(Matchers.equalTo(CREATED));
+		response.then().body("creationDate", Matchers.not(Matchers.startsWith("2001")));
+	}
+
 	@Test
 	public void testRetrieveProduct() {
 
@@ -129,6 +155,80 @@ class ProductServiceApplicationHttpTest {
 
 	}
 
+	@Test
+	public void testRetrieveProductsByIDs() {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+		Response panadol500MGResponse = createProduct(PANADOL_500_MG);
+		Integer paracetamol500MGSKUID = paracetamol500MGResponse.getBody().path("stockKeepingUnitID");
+		Integer panadol500MGSKUID = panadol500MGResponse.getBody().path("stockKeepingUnitID");
+
+		given().when().delete(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR
+				+ PRODUCTS_PATH + PATH_SEPARATOR + Integer.toString(panadol500MGSKUID));
+
+		Response retrievedProductsResponse = given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH
+						+ "?ids=" + NON_EXISTING_PRODUCT_ID + "," + panadol500MGSKUID + "," + paracetamol500MGSKUID);
+
+		retrievedProductsResponse.then().body("_embedded.productLookupList", Matchers.hasSize(3));
+
+		retrievedProductsResponse.then().body("_embedded.productLookupList[0].stockKeepingUnitID",
+				Matchers.equalTo(NON_EXISTING_PRODUCT_ID));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[0].status", Matchers.equalTo("NOT_FOUND"));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[0].product", Matchers.equalTo(null));
+
+		retrievedProductsResponse.then().body("_embedded.productLookupList[1].stockKeepingUnitID",
+				Matchers.equalTo(panadol500MGSKUID));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[1].status", Matchers.equalTo("DELETED"));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[1].product", Matchers.equalTo(null));
+
+		retrievedProductsResponse.then().body("_embedded.productLookupList[2].stockKeepingUnitID",
+				Matchers.equalTo(paracetamol500MGSKUID));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[2].status", Matchers.equalTo("FOUND"));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[2].product.name",
+				Matchers.equalTo("Paracetamol 500mg"));
+		retrievedProductsResponse.then().body("_embedded.productLookupList[2].product._links.self.href",
+				Matchers.endsWith("products" + PATH_SEPARATOR + Integer.toString(paracetamol500MGSKUID)));
+
+		retrievedProductsResponse.then().statusCode(Matchers.equalTo(OK));
+	}
+
+	@Test
+	public void testRetrieveProductsByTooManyIDs() {
+
+		// Up to order-service.lookup.max-ids Stock Keeping Unit IDs, 100 by default,
+		// are looked up.
+		String maxIDs = LongStream.rangeClosed(1, 100).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+		given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH
+						+ "?ids=" + maxIDs)
+				.then().statusCode(Matchers.equalTo(OK)).body("_embedded.productLookupList", Matchers.hasSize(100));
+
+		given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH
+						+ "?ids=" + maxIDs + ",101")
+				.then().statusCode(Matchers.equalTo(BAD_REQUEST));
+	}
+
+	@Test
+	public void testRetrieveProductsWithSelectedFieldsAndNoLinks() {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+
+		Response retrievedProductsResponse = given().accept(ContentType.JSON).when()
+				.get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH
+						+ "?fields=stockKeepingUnitID,price&links=none");
+
+		retrievedProductsResponse.then().body("_embedded.productList[0].stockKeepingUnitID",
+				Matchers.equalTo(paracetamol500MGResponse.getBody().path("stockKeepingUnitID")));
+		retrievedProductsResponse.then().body("_embedded.productList[0].price", Matchers.equalTo(5.62f));
+		retrievedProductsResponse.then().body("_embedded.productList[0]", Matchers.not(Matchers.hasKey("name")));
+		retrievedProductsResponse.then().body("_embedded.productList[0]", Matchers.not(Matchers.hasKey("_links")));
+
+		retrievedProductsResponse.then().statusCode(Matchers.equalTo(OK));
+	}
+
 	@Test
 	public void testReplaceProduct() {
 
@@ -196,6 +296,114 @@ class ProductServiceApplicationHttpTest {
 
 	}
 
+	@Test
+	public void testRetrieveProductChanges() {
+
+		Integer paracetamol500MGSKUID = createProduct(PARACETAMOL_500_MG).getBody().path("stockKeepingUnitID");
+		Integer panadol500MGSKUID = createProduct(PANADOL_500_MG).getBody().path("stockKeepingUnitID");
+
+		// All the products are changes after version 0.
+		Response allChangesResponse = retrieveProductChanges(0);
+
+		allChangesResponse.then().statusCode(Matchers.equalTo(OK));
+		allChangesResponse.then().body("since", Matchers.equalTo(0));
+		allChangesResponse.then().body("version", Matchers.equalTo(2));
+		allChangesResponse.then().body("_embedded.productList.stockKeepingUnitID",
+				Matchers.contains(paracetamol500MGSKUID, panadol500MGSKUID));
+		allChangesResponse.then().body("_links.self.href", Matchers.endsWith(CHANGES_PATH + "0"));
+		allChangesResponse.then().body("_links.next.href", Matchers.endsWith(CHANGES_PATH + "2"));
+
+		// Replace one product and delete the other.
+		given().contentType(ContentType.JSON).accept(ContentType.JSON).body(UPDATED_PARACETAMOL_500_MG).when()
+				.put(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH
+						+ PATH_SEPARATOR + Integer.toString(paracetamol500MGSKUID));
+		given().when().delete(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR
+				+ PRODUCTS_PATH + PATH_SEPARATOR + Integer.toString(panadol500MGSKUID));
+
+		// Only the replaced and deleted products are changes after version 2.
+		Response changesResponse = retrieveProductChanges(2);
+
+		changesResponse.then().statusCode(Matchers.equalTo(OK));
+		changesResponse.then().body("version", Matchers.equalTo(4));
+		changesResponse.then().body("_embedded.productList.stockKeepingUnitID",
+				Matchers.contains(paracetamol500MGSKUID, panadol500MGSKUID));
+		changesResponse.then().body("_embedded.productList.price", Matchers.contains(7.54f, 8.29f));
+		changesResponse.then().body("_embedded.productList.deletionFlag", Matchers.contains(false, true));
+
+		// No changes after the latest version.
+		Response noChangesResponse = retrieveProductChanges(4);
+
+		noChangesResponse.then().statusCode(Matchers.equalTo(OK));
+		noChangesResponse.then().body("version", Matchers.equalTo(4));
+		noChangesResponse.then().body("_embedded", Matchers.nullValue());
+		noChangesResponse.then().body("_links.next.href", Matchers.endsWith(CHANGES_PATH + "4"));
+	}
+
+	@Test
+	public void testProductChangesHeldBelowChangeCommitting() throws Exception {
+
+		Integer paracetamol500MGSKUID = createProduct(PARACETAMOL_500_MG).getBody().path("stockKeepingUnitID");
+
+		// A change given version 2 that has yet to commit.
+		CountDownLatch versionGiven = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> committing = CompletableFuture.runAsync(() -> changeVersions.change(changeVersion -> {
+			versionGiven.countDown();
+			try {
+				commit.await();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}));
+		versionGiven.await();
+
+		Integer panadol500MGSKUID = createProduct(PANADOL_500_MG).getBody().path("stockKeepingUnitID");
+
+		// The product created with version 3 is held back until version 2 commits.
+		Response heldChangesResponse = retrieveProductChanges(0);
+
+		heldChangesResponse.then().body("version", Matchers.equalTo(1));
+		heldChangesResponse.then().body("_embedded.productList.stockKeepingUnitID",
+				Matchers.contains(paracetamol500MGSKUID));
+
+		commit.countDown();
+		committing.get();
+
+		Response changesResponse = retrieveProductChanges(1);
+
+		changesResponse.then().body("version", Matchers.equalTo(3));
+		changesResponse.then().body("_embedded.productList.stockKeepingUnitID", Matchers.contains(panadol500MGSKUID));
+	}
+
+	@Test
+	public void testMetrics() {
+
+		Response paracetamol500MGResponse = createProduct(PARACETAMOL_500_MG);
+		Integer paracetamol500MGSKUID = paracetamol500MGResponse.getBody().path("stockKeepingUnitID");
+
+		given().accept(ContentType.JSON).when().get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort
+				+ PATH_SEPARATOR + PRODUCTS_PATH + PATH_SEPARATOR + Integer.toString(paracetamol500MGSKUID));
+
+		Response metricsResponse = given().accept(ContentType.TEXT).when().get(
+				URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PROMETHEUS_PATH);
+
+		metricsResponse.then().statusCode(Matchers.equalTo(OK));
+
+		// Latency histogram for each controller method.
+		metricsResponse.then().body(Matchers.containsString("http_server_requests_seconds_bucket{"));
+		metricsResponse.then().body(Matchers.containsString("handler=\"ProductController.newProduct\""));
+		metricsResponse.then().body(Matchers.containsString("handler=\"ProductController.one\""));
+
+		// Latency for each repository method.
+		metricsResponse.then().body(Matchers.containsString("spring_data_repository_invocations_seconds_bucket{"));
+		metricsResponse.then().body(Matchers.containsString("method=\"save\",repository=\"ProductRepository\""));
+
+		// Hibernate statistics and connection pool.
+		metricsResponse.then().body(Matchers.containsString("hibernate_statements_total"));
+		metricsResponse.then().body(Matchers.containsString("hikaricp_connections_active"));
+	}
+
 	@Test
 	public void testWrongPaths() {
 
@@ -206,6 +414,11 @@ class ProductServiceApplicationHttpTest {
 
 	}
 
+	private Response retrieveProductChanges(int since) {
+		return given().accept(ContentType.JSON).when().get(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR
+				+ serverPort + PATH_SEPARATOR + CHANGES_PATH + Integer.toString(since));
+	}
+
 	private Response createProduct(String productBody) {
 		Response response = given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
 				.post(URL_PREFIX + SERVER_HOST + SERVER_PORT_SEPARATOR + serverPort + PATH_SEPARATOR + PRODUCTS_PATH);
@@ -0,0 +1,165 @@
+package com.roche.service.sharding;
+
+import static io.restassured.RestAssured.given;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderServiceApplication;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * Verify the orders are placed in the shard of their buyer, and read from their
+ * shard or from every shard.
+ *
+ * Named in-memory databases are used so that every connection sees the same
+ * database and shards.
+ *
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.profiles.active=test", "spring.datasource.url=jdbc:h2:mem:sharding;DB_CLOSE_DELAY=-1",
+		"order-service.sharding.enabled=true", "order-service.sharding.shards=4",
+		"order-service.sharding.url=jdbc:h2:mem:sharding-{shard};DB_CLOSE_DELAY=-1" })
+class ShardingTest {
+
+	private static final int SHARDS = 4;
+
+	private static final int BUYERS = 8;
+
+	private static final String ORDER = "{\"buyerEmail\":\"buyer%d@testgmail.com\",\"products\":[ {\"stockKeepingUnitID\":%d}, {\"stockKeepingUnitID\":%d} ]}";
+
+	private static final String PARACETAMOL_500_MG = "{\"name\": \"Paracetamol 500mg\",\"price\": \"5.62\"}";
+	private static final String PANADOL_500_MG = "{\"name\": \"Panadol 500mg\",\"price\": \"8.29\"}";
+
+	private static final DateTimeFormatter REQUEST_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH'A'mm")
+			.withZone(ZoneOffset.UTC);
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private OrderShardRoutingDataSource orderShardRoutingDataSource;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	public void testOrdersPlacedAndReadAcrossShards() {
+
+		List<Long> orderIDs = new ArrayList<Long>();
+		for (int buyer = 0; buyer < BUYERS; buyer++) {
+			// Products of their own, so that each order is placed within the query budget.
+			Number paracetamolSKU = createProduct(PARACETAMOL_500_MG).path("stockKeepingUnitID");
+			Number panadolSKU = createProduct(PANADOL_500_MG).path("stockKeepingUnitID");
+
+			Response response = given().contentType(ContentType.JSON).accept(ContentType.JSON)
+					.body(String.format(ORDER, buyer, paracetamolSKU, panadolSKU)).when().post(url("orders"));
+
+			response.then().statusCode(201).body("products.name",
+					Matchers.contains("Paracetamol 500mg", "Panadol 500mg"));
+			orderIDs.add(Long.valueOf(((Number) response.path("orderID")).longValue()));
+		}
+
+		// Each order is stored in the shard its order ID refers to, with its products,
+		// and none in the database of the service.
+		Set<Integer> shardsUsed = new HashSet<Integer>();
+		for (int shard = 0; shard < SHARDS; shard++) {
+			JdbcTemplate shardDatabase = new JdbcTemplate(orderShardRoutingDataSource.getShardDataSources().get(shard));
+
+			for (Long orderID : shardDatabase.queryForList("select order_id from roche_order", Long.class)) {
+				Assertions.assertEquals(shard, ShardedOrderIDGenerator.shardOf(orderID.longValue(), SHARDS));
+				Assertions.assertEquals(2, shardDatabase.queryForObject(
+						"select count(*) from product_order where order_id = ?", Integer.class, orderID).intValue());
+				shardsUsed.add(Integer.valueOf(shard));
+			}
+		}
+		Assertions.assertTrue(shardsUsed.size() > 1);
+		Assertions.assertEquals(0, new JdbcTemplate(orderShardRoutingDataSource.getServiceDataSource())
+				.queryForObject("select count(*) from roche_order", Integer.class).intValue());
+
+		Long firstOrderID = orderIDs.get(0);
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + firstOrderID)).then().statusCode(200)
+				.body("buyerEmail", Matchers.equalTo("buyer0@testgmail.com")).body("products.size()", Matchers.is(2));
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + firstOrderID + "/calculatetotalamount")).then()
+				.statusCode(200).body("totalAmount", Matchers.equalTo(5.62f + 8.29f));
+
+		given().contentType(ContentType.JSON).accept(ContentType.JSON)
+				.body("{\"buyerEmail\":\"buyer0@testoutlook.com\"}").when().put(url("orders/" + firstOrderID)).then()
+				.statusCode(201);
+
+		given().accept(ContentType.JSON).when().get(url("orders/" + firstOrderID)).then()
+				.body("buyerEmail", Matchers.equalTo("buyer0@testoutlook.com"));
+
+		// All the orders, gathered from every shard in order ID order.
+		List<Long> sortedOrderIDs = orderIDs.stream().sorted().collect(Collectors.toList());
+
+		Response allOrders = given().accept(ContentType.JSON).when().get(url("orders"));
+		allOrders.then().statusCode(200).body("_embedded.orderList.products.flatten().size()",
+				Matchers.is(2 * BUYERS));
+		Assertions.assertEquals(sortedOrderIDs, orderIDsOf(allOrders.path("_embedded.orderList.orderID")));
+
+		Instant now = Instant.now();
+		Response ordersInTimePeriod = given().accept(ContentType.JSON).when()
+				.get(url("orders/" + REQUEST_DATE_FORMAT.format(now.minus(5, ChronoUnit.MINUTES)) + "/"
+						+ REQUEST_DATE_FORMAT.format(now.plus(5, ChronoUnit.MINUTES))));
+		Assertions.assertEquals(sortedOrderIDs, orderIDsOf(ordersInTimePeriod.path("_embedded.orderList.orderID")));
+
+		// Looked up in the shard of each order ID, in the order requested.
+		Response someOrders = given().accept(ContentType.JSON).when()
+				.get(url("orders?ids=" + orderIDs.get(3) + "," + orderIDs.get(0) + ",99999"));
+		someOrders.then().statusCode(200).body("_embedded.orderLookupList.status",
+				Matchers.contains("FOUND", "FOUND", "NOT_FOUND"));
+		Assertions.assertEquals(List.of(orderIDs.get(3), orderIDs.get(0), Long.valueOf(99999L)),
+				orderIDsOf(someOrders.path("_embedded.orderLookupList.orderID")));
+
+		given().accept(ContentType.JSON).when().get(url("orders/99999")).then().statusCode(404);
+
+		// A page of the order IDs, merged from the start of each shard up to the end
+		// of the page.
+		Assertions.assertEquals(sortedOrderIDs.subList(3, 6),
+				orderRepository.findOrderIDsAfter(Long.valueOf(0L), PageRequest.of(1, 3)));
+		Assertions.assertEquals(sortedOrderIDs.subList(6, BUYERS),
+				orderRepository.findOrderIDsAfter(Long.valueOf(0L), PageRequest.of(2, 3)));
+	}
+
+	private Response createProduct(String productBody) {
+		return given().contentType(ContentType.JSON).accept(ContentType.JSON).body(productBody).when()
+				.post(url("products"));
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverPort + "/" + path;
+	}
+
+	private static List<Long> orderIDsOf(List<Number> orderIDs) {
+		return orderIDs.stream().map(orderID -> Long.valueOf(orderID.longValue())).collect(Collectors.toList());
+	}
+
+}
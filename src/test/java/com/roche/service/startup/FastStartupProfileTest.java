@@ -0,0 +1,36 @@
+package com.roche.service.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.order.OrderServiceApplication;
+
+/**
+ * Verify the schema migrated by Flyway in the fast-startup profile matches the
+ * entities, by validating it with Hibernate.
+ * 
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = OrderServiceApplication.class, properties = { "spring.profiles.active=test,fast-startup",
+		"spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1", "spring.jpa.hibernate.ddl-auto=validate" })
+class FastStartupProfileTest {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Test
+	void migratedSchemaValidates() {
+
+		assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("2");
+		assertThat(flyway.info().pending()).isEmpty();
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.roche.service.warmup;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import com.roche.service.cache.OrderCache;
+import com.roche.service.catalog.ProductCatalog;
+import com.roche.service.order.OrderEvent;
+import com.roche.service.order.OrderRepository;
+import com.roche.service.order.OrderServiceApplication;
+import com.roche.service.product.ProductRepository;
+
+import io.restassured.http.ContentType;
+
+/**
+ * Verify the warm-up runs before the service reports being ready, and leaves
+ * nothing behind.
+ * 
+ * A named in-memory database is used so that every connection sees the same
+ * database as the warm-up.
+ * 
+ * @author amit modhvadia
+ *
+ */
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(classes = { OrderServiceApplication.class,
+		WarmUpTest.PlacedOrders.class }, webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "spring.profiles.active=test",
+		"spring.datasource.url=jdbc:h2:mem:warmup;DB_CLOSE_DELAY=-1", "order-service.warm-up.enabled=true",
+		"order-service.warm-up.max-duration=3s" })
+class WarmUpTest {
+
+	@LocalServerPort
+	private int serverPort;
+
+	@Autowired
+	private WarmUp warmUp;
+
+	@Autowired
+	private ApplicationAvailability applicationAvailability;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private ProductCatalog productCatalog;
+
+	@Autowired
+	private OrderCache orderCache;
+
+	@Autowired
+	private List<Long> placedOrderIDs;
+
+	@Test
+	void warmUpRolledBackBeforeReady() {
+
+		assertThat(warmUp).isNotNull();
+		assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+
+		// Nothing created during the warm-up was committed, nor held in the catalog.
+		assertThat(productRepository.count()).isZero();
+		assertThat(orderRepository.count()).isZero();
+		assertThat(productCatalog.size()).isZero();
+	}
+
+	@Test
+	void warmUpOrdersNotCached() {
+
+		// The orders the warm-up placed and retrieved were rolled back, so are not
+		// served from the order cache.
+		assertThat(placedOrderIDs).isNotEmpty();
+		assertThat(orderCache.size()).isZero();
+
+		given().accept(ContentType.JSON).when()
+				.get("http://localhost:" + serverPort + "/orders/" + placedOrderIDs.get(0)).then().statusCode(404);
+	}
+
+	/**
+	 * Collects the order IDs of the orders placed, as they are placed rather than
+	 * once committed, so that those of the warm-up are known.
+	 */
+	@TestConfiguration
+	static class PlacedOrders {
+
+		private final List<Long> placedOrderIDs = new CopyOnWriteArrayList<Long>();
+
+		@Bean
+		List<Long> placedOrderIDs() {
+			return placedOrderIDs;
+		}
+
+		@EventListener
+		public void orderPlaced(OrderEvent event) {
+			if (event.getType() == OrderEvent.Type.PLACED) {
+				placedOrderIDs.add(event.getOrder().getOrderID());
+			}
+		}
+
+	}
+
+}